@@ -11,6 +11,12 @@ import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.DefaultSaslConfig;
 import com.rabbitmq.client.MetricsCollector;
 import com.rabbitmq.jms.client.AuthenticationMechanism;
+import com.rabbitmq.jms.client.CompressionCodec;
+import com.rabbitmq.jms.client.CompressionCodecs;
+import com.rabbitmq.jms.client.CounterMessageIdGenerator;
+import com.rabbitmq.jms.client.MessageIdGenerator;
+import com.rabbitmq.jms.client.UuidMessageIdGenerator;
+import com.rabbitmq.jms.client.QueueSelectorPolicy;
 import com.rabbitmq.jms.client.ConnectionParams;
 import com.rabbitmq.jms.client.DefaultReplyToStrategy;
 import com.rabbitmq.jms.client.RMQConnection;
@@ -22,6 +28,7 @@ import com.rabbitmq.jms.client.RmqJmsContext;
 import com.rabbitmq.jms.client.SendingContext;
 import com.rabbitmq.jms.client.SendingContextConsumer;
 import com.rabbitmq.jms.util.RMQJMSException;
+import com.rabbitmq.jms.util.VirtualThreads;
 import com.rabbitmq.jms.util.RMQJMSSecurityException;
 import com.rabbitmq.jms.util.WhiteListObjectInputStream;
 import java.io.IOException;
@@ -222,6 +229,146 @@ public class RMQConnectionFactory implements ConnectionFactory, Referenceable, S
      */
     private int channelsQos = RMQConnection.NO_CHANNEL_QOS;
 
+    /**
+     * Number of messages pre-fetched by consumers used with {@link jakarta.jms.MessageConsumer#receive()}.
+     *
+     * @since 3.3.0
+     */
+    private int receivePrefetch = 0;
+
+    /**
+     * Number of lanes delivering messages to the {@link MessageListener}s of a session concurrently.
+     *
+     * @since 3.3.0
+     */
+    private int listenerDispatchLanes = 1;
+
+    /**
+     * Message property that orders concurrent deliveries to {@link MessageListener}s.
+     *
+     * @since 3.3.0
+     */
+    private String listenerDispatchKey = "JMSXGroupID";
+
+    /**
+     * Whether {@link MessageListener#onMessage(Message)} runs directly on the thread dispatching messages.
+     *
+     * @since 3.3.0
+     */
+    private boolean directOnMessageDelivery = false;
+
+    /**
+     * Whether message listeners and the AMQP consumer work pool run on virtual threads.
+     *
+     * @since 3.3.0
+     */
+    private boolean useVirtualThreads = false;
+
+    /**
+     * Number of messages acknowledged at once in {@link Session#DUPS_OK_ACKNOWLEDGE} mode.
+     *
+     * @since 3.3.0
+     */
+    private int ackCoalescingBatchSize = 64;
+
+    /**
+     * Maximum time in milliseconds an acknowledgment is delayed in {@link Session#DUPS_OK_ACKNOWLEDGE} mode.
+     *
+     * @since 3.3.0
+     */
+    private int ackCoalescingIntervalMs = 100;
+
+    /**
+     * Whether acknowledgments are coalesced in {@link Session#AUTO_ACKNOWLEDGE} mode as well.
+     *
+     * @since 3.3.0
+     */
+    private boolean coalesceAutoAcknowledgements = false;
+
+    /**
+     * Format of the JMS messages sent: 1 for Java serialization, 2 for the compact format.
+     *
+     * @since 3.3.0
+     */
+    private int messageFormatVersion = 1;
+
+    /**
+     * Codec to compress the body of the messages sent with, none by default.
+     *
+     * @since 3.3.0
+     */
+    private CompressionCodec compressionCodec = null;
+
+    /**
+     * Minimum size in bytes of the message bodies to compress.
+     *
+     * @since 3.3.0
+     */
+    private int compressionThreshold = 1024;
+
+    /**
+     * Maximum size in bytes of the message bodies once decompressed.
+     *
+     * @since 3.3.0
+     */
+    private int maxDecompressedBodySize = CompressionCodecs.DEFAULT_MAX_DECOMPRESSED_BODY_SIZE;
+
+    /**
+     * Generator of the IDs of the messages sent.
+     *
+     * @since 3.3.0
+     */
+    private MessageIdGenerator messageIdGenerator = null;
+
+    /**
+     * Whether connections remember the destinations they declared, to not declare them again.
+     *
+     * @since 3.3.0
+     */
+    private boolean cacheDeclarations = true;
+
+    /**
+     * Maximum number of message selectors compiled and cached by connections.
+     *
+     * @since 3.3.0
+     */
+    private int selectorCacheSize = 256;
+
+    /**
+     * Maximum number of messages sent with a completion listener and not confirmed yet, per session.
+     *
+     * @since 3.3.0
+     */
+    private int maxOutstandingConfirms = 0;
+
+    /**
+     * How long sending waits for confirms when the maximum of unconfirmed messages is reached.
+     *
+     * @since 3.3.0
+     */
+    private long maxOutstandingConfirmsTimeoutMs = 10_000;
+
+    /**
+     * Whether synchronous sends wait for the publisher confirm of the message.
+     *
+     * @since 3.3.0
+     */
+    private boolean confirmedSends = false;
+
+    /**
+     * How long confirmed and batched sends wait for publisher confirms.
+     *
+     * @since 3.3.0
+     */
+    private long confirmTimeoutMs = 10_000;
+
+    /**
+     * What queue consumers with a message selector do with the messages it does not match.
+     *
+     * @since 3.3.0
+     */
+    private QueueSelectorPolicy queueSelectorPolicy = QueueSelectorPolicy.REQUEUE;
+
     /**
      * Classes in these packages can be transferred via ObjectMessage.
      *
@@ -306,6 +453,13 @@ public class RMQConnectionFactory implements ConnectionFactory, Referenceable, S
         maybeEnableHostnameVerification(cf);
         cf.setMetricsCollector(this.metricsCollector);
         setSaslConfig(cf, authenticationMechanism);
+        if (this.useVirtualThreads) {
+            if (VirtualThreads.available()) {
+                cf.setSharedExecutor(VirtualThreads.executor());
+            } else {
+                logger.warn("Virtual threads are not available in this JVM, using platform threads.");
+            }
+        }
 
         if (this.amqpConnectionFactoryPostProcessor != null) {
             this.amqpConnectionFactoryPostProcessor.accept(cf);
@@ -329,6 +483,26 @@ public class RMQConnectionFactory implements ConnectionFactory, Referenceable, S
             .setQueueBrowserReadMax(getQueueBrowserReadMax())
             .setOnMessageTimeoutMs(getOnMessageTimeoutMs())
             .setChannelsQos(channelsQos)
+            .setReceivePrefetch(receivePrefetch)
+            .setListenerDispatchLanes(listenerDispatchLanes)
+            .setListenerDispatchKey(listenerDispatchKey)
+            .setDirectOnMessageDelivery(directOnMessageDelivery)
+            .setUseVirtualThreads(useVirtualThreads && VirtualThreads.available())
+            .setAckCoalescingBatchSize(ackCoalescingBatchSize)
+            .setAckCoalescingIntervalMs(ackCoalescingIntervalMs)
+            .setCoalesceAutoAcknowledgements(coalesceAutoAcknowledgements)
+            .setMessageFormatVersion(messageFormatVersion)
+            .setCompressionCodec(compressionCodec)
+            .setCompressionThreshold(compressionThreshold)
+            .setMaxDecompressedBodySize(maxDecompressedBodySize)
+            .setMessageIdGenerator(messageIdGenerator)
+            .setCacheDeclarations(cacheDeclarations)
+            .setSelectorCacheSize(selectorCacheSize)
+            .setMaxOutstandingConfirms(maxOutstandingConfirms)
+            .setMaxOutstandingConfirmsTimeoutMs(maxOutstandingConfirmsTimeoutMs)
+            .setConfirmedSends(confirmedSends)
+            .setConfirmTimeoutMs(confirmTimeoutMs)
+            .setQueueSelectorPolicy(queueSelectorPolicy)
             .setPreferProducerMessageProperty(preferProducerMessageProperty)
             .setRequeueOnMessageListenerException(requeueOnMessageListenerException)
             .setNackOnRollback(nackOnRollback)
@@ -920,6 +1094,543 @@ public class RMQConnectionFactory implements ConnectionFactory, Referenceable, S
         this.channelsQos = channelsQos;
     }
 
+    /**
+     * Number of messages pre-fetched by consumers used with {@link jakarta.jms.MessageConsumer#receive()}.
+     *
+     * @see #setReceivePrefetch(int)
+     * @since 3.3.0
+     */
+    public int getReceivePrefetch() {
+        return receivePrefetch;
+    }
+
+    /**
+     * Number of messages pre-fetched by consumers used with {@link jakarta.jms.MessageConsumer#receive()}.
+     * <p>
+     * By default (0), each <code>receive()</code> polls the queue with <code>basic.get</code>, which costs
+     * a round-trip to the broker per message and up to 100 ms of latency when the queue is briefly empty.
+     * With a positive value, a consumer subscribes to its queue on the first <code>receive()</code> and
+     * the broker pushes up to this number of messages into a local buffer that <code>receive()</code> calls drain.
+     * Buffered messages that have not been received yet are requeued when the connection is stopped,
+     * when the consumer is closed, or when a {@link MessageListener} is set on the consumer.
+     *
+     * @param receivePrefetch maximum number of messages buffered per consumer, 0 to poll the queue
+     * @since 3.3.0
+     */
+    public void setReceivePrefetch(int receivePrefetch) {
+        this.receivePrefetch = Math.max(0, receivePrefetch);
+    }
+
+    /**
+     * Number of lanes delivering messages to the {@link MessageListener}s of a session concurrently.
+     *
+     * @see #setListenerDispatchLanes(int)
+     * @since 3.3.0
+     */
+    public int getListenerDispatchLanes() {
+        return listenerDispatchLanes;
+    }
+
+    /**
+     * Number of lanes delivering messages to the {@link MessageListener}s of a session concurrently.
+     * <p>
+     * With more than one lane, the connection thread hands messages over to the lane of their key
+     * (see {@link #setListenerDispatchKey(String)}) and moves on. Messages with the same key are delivered in order,
+     * one at a time, messages with different keys may be delivered concurrently. Messages without a key are spread over
+     * the lanes. Acknowledgments follow the acknowledgment mode of the session, but a {@link Message#acknowledge()}
+     * does not acknowledge messages that are not delivered yet.
+     * <p>
+     * Transacted sessions always deliver messages serially. Default is 1 (serial delivery, as mandated by the JMS
+     * specification). Values lower than 1 are interpreted as 1.
+     *
+     * @param listenerDispatchLanes number of delivery lanes per session
+     * @since 3.3.0
+     */
+    public void setListenerDispatchLanes(int listenerDispatchLanes) {
+        this.listenerDispatchLanes = Math.max(1, listenerDispatchLanes);
+    }
+
+    /**
+     * Message property that orders concurrent deliveries to {@link MessageListener}s.
+     *
+     * @see #setListenerDispatchKey(String)
+     * @since 3.3.0
+     */
+    public String getListenerDispatchKey() {
+        return listenerDispatchKey;
+    }
+
+    /**
+     * Message property that orders concurrent deliveries to {@link MessageListener}s.
+     * <p>
+     * Used only when there are several delivery lanes (see {@link #setListenerDispatchLanes(int)}).
+     * Can be <code>JMSXGroupID</code>, <code>JMSCorrelationID</code>, or the name of an application property.
+     * Default is <code>JMSXGroupID</code>.
+     *
+     * @param listenerDispatchKey name of the property
+     * @since 3.3.0
+     */
+    public void setListenerDispatchKey(String listenerDispatchKey) {
+        this.listenerDispatchKey = listenerDispatchKey;
+    }
+
+    /**
+     * Whether {@link MessageListener#onMessage(Message)} runs directly on the thread dispatching messages.
+     *
+     * @see #setDirectOnMessageDelivery(boolean)
+     * @since 3.3.0
+     */
+    public boolean isDirectOnMessageDelivery() {
+        return directOnMessageDelivery;
+    }
+
+    /**
+     * Whether {@link MessageListener#onMessage(Message)} runs directly on the thread dispatching messages.
+     * <p>
+     * By default, each <code>onMessage</code> call is handed over to a thread of the session, and the dispatching
+     * thread waits for it to complete within <code>onMessageTimeoutMs</code>. When this is true, <code>onMessage</code>
+     * runs on the dispatching thread and a shared watchdog thread interrupts it when it takes longer than
+     * <code>onMessageTimeoutMs</code>. The consequences of a timeout are the same (see {@link #setRequeueOnTimeout(boolean)}),
+     * but a listener that ignores interruption holds the dispatching thread until it returns.
+     * Timeouts are detected with a resolution of about 10 ms.
+     * <p>
+     * Default is false.
+     *
+     * @param directOnMessageDelivery true to call <code>onMessage</code> on the dispatching thread
+     * @since 3.3.0
+     */
+    public void setDirectOnMessageDelivery(boolean directOnMessageDelivery) {
+        this.directOnMessageDelivery = directOnMessageDelivery;
+    }
+
+    /**
+     * Whether message listeners and the AMQP consumer work pool run on virtual threads.
+     *
+     * @see #setUseVirtualThreads(boolean)
+     * @since 3.3.0
+     */
+    public boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    /**
+     * Whether message listeners and the AMQP consumer work pool run on virtual threads.
+     * <p>
+     * When true, the threads calling {@link MessageListener#onMessage(Message)} and the threads of the AMQP consumer
+     * work pool are virtual threads, so slow listeners do not hold a platform thread each. Blocking
+     * {@link jakarta.jms.MessageConsumer#receive()} calls do not pin the carrier thread of virtual threads calling them,
+     * whether this is set or not.
+     * <p>
+     * Virtual threads require Java 21 or later. With earlier versions, a warning is logged and platform threads are used.
+     * A consumer work pool executor set with {@link #setAmqpConnectionFactoryPostProcessor(java.util.function.Consumer)}
+     * takes precedence. Default is false.
+     *
+     * @param useVirtualThreads true to use virtual threads
+     * @since 3.3.0
+     */
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    /**
+     * Number of messages acknowledged at once in {@link Session#DUPS_OK_ACKNOWLEDGE} mode.
+     *
+     * @see #setAckCoalescingBatchSize(int)
+     * @since 3.3.0
+     */
+    public int getAckCoalescingBatchSize() {
+        return ackCoalescingBatchSize;
+    }
+
+    /**
+     * Number of messages acknowledged at once in {@link Session#DUPS_OK_ACKNOWLEDGE} mode.
+     * <p>
+     * Messages consumed in {@link Session#DUPS_OK_ACKNOWLEDGE} mode are acknowledged lazily: the acknowledgments of
+     * consecutive messages are sent as a single AMQP <code>basic.ack</code> when this number of messages is reached,
+     * after {@link #setAckCoalescingIntervalMs(int)}, or when the connection is stopped or the session closed.
+     * Messages that were consumed but not acknowledged yet are redelivered if the connection fails.
+     * <p>
+     * Default is 64. Values lower than 2 disable coalescing.
+     *
+     * @param ackCoalescingBatchSize number of messages acknowledged at once
+     * @see #setCoalesceAutoAcknowledgements(boolean)
+     * @since 3.3.0
+     */
+    public void setAckCoalescingBatchSize(int ackCoalescingBatchSize) {
+        this.ackCoalescingBatchSize = ackCoalescingBatchSize;
+    }
+
+    /**
+     * Maximum time in milliseconds an acknowledgment is delayed in {@link Session#DUPS_OK_ACKNOWLEDGE} mode.
+     *
+     * @see #setAckCoalescingIntervalMs(int)
+     * @since 3.3.0
+     */
+    public int getAckCoalescingIntervalMs() {
+        return ackCoalescingIntervalMs;
+    }
+
+    /**
+     * Maximum time in milliseconds an acknowledgment is delayed in {@link Session#DUPS_OK_ACKNOWLEDGE} mode.
+     * <p>
+     * Default is 100 ms. Values lower than 1 are interpreted as 1.
+     *
+     * @param ackCoalescingIntervalMs maximum delay of acknowledgments, in milliseconds
+     * @see #setAckCoalescingBatchSize(int)
+     * @since 3.3.0
+     */
+    public void setAckCoalescingIntervalMs(int ackCoalescingIntervalMs) {
+        this.ackCoalescingIntervalMs = Math.max(1, ackCoalescingIntervalMs);
+    }
+
+    /**
+     * Whether acknowledgments are coalesced in {@link Session#AUTO_ACKNOWLEDGE} mode as well.
+     *
+     * @see #setCoalesceAutoAcknowledgements(boolean)
+     * @since 3.3.0
+     */
+    public boolean isCoalesceAutoAcknowledgements() {
+        return coalesceAutoAcknowledgements;
+    }
+
+    /**
+     * Whether acknowledgments are coalesced in {@link Session#AUTO_ACKNOWLEDGE} mode as well.
+     * <p>
+     * When true, {@link Session#AUTO_ACKNOWLEDGE} sessions acknowledge messages like
+     * {@link Session#DUPS_OK_ACKNOWLEDGE} sessions (see {@link #setAckCoalescingBatchSize(int)}), trading the
+     * at-most-once redelivery guarantee for throughput. Default is false.
+     *
+     * @param coalesceAutoAcknowledgements true to coalesce acknowledgments in auto-acknowledge mode
+     * @since 3.3.0
+     */
+    public void setCoalesceAutoAcknowledgements(boolean coalesceAutoAcknowledgements) {
+        this.coalesceAutoAcknowledgements = coalesceAutoAcknowledgements;
+    }
+
+    /**
+     * Format of the JMS messages sent.
+     *
+     * @see #setMessageFormatVersion(int)
+     * @since 3.3.0
+     */
+    public int getMessageFormatVersion() {
+        return messageFormatVersion;
+    }
+
+    /**
+     * Format of the JMS messages sent.
+     * <p>
+     * Version 1 is the Java serialization of the message. Version 2 is a compact binary format, smaller and faster to
+     * encode and decode. Receivers of this library decode both formats whatever this setting, so a rolling upgrade
+     * enables version 2 on senders only once all receivers support it. Messages sent to AMQP destinations are not
+     * affected. Default is 1.
+     *
+     * @param messageFormatVersion 1 or 2
+     * @throws IllegalArgumentException if the version is not supported
+     * @since 3.3.0
+     */
+    public void setMessageFormatVersion(int messageFormatVersion) {
+        if (messageFormatVersion != 1 && messageFormatVersion != 2) {
+            throw new IllegalArgumentException("Unsupported message format version: " + messageFormatVersion);
+        }
+        this.messageFormatVersion = messageFormatVersion;
+    }
+
+    /**
+     * Codec to compress the body of the messages sent with.
+     *
+     * @see #setCompressionCodec(CompressionCodec)
+     * @since 3.3.0
+     */
+    public CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    /**
+     * Codec to compress the body of the messages sent with, e.g. {@link CompressionCodecs#GZIP}.
+     * <p>
+     * Bodies of at least {@link #setCompressionThreshold(int)} bytes are compressed, for JMS and AMQP destinations,
+     * and sent compressed if that makes them smaller, with the AMQP <code>content-encoding</code> property set.
+     * Receivers of this library decompress the messages of JMS destinations compressed with the built-in codecs or
+     * with the codec they are configured with. They decompress the messages of AMQP destinations only if they are
+     * configured with a codec, so that applications consuming compressed messages of other publishers still get them
+     * as they are. Default is <code>null</code>, no compression.
+     *
+     * @param compressionCodec the codec, <code>null</code> to not compress messages
+     * @since 3.3.0
+     */
+    public void setCompressionCodec(CompressionCodec compressionCodec) {
+        this.compressionCodec = compressionCodec;
+    }
+
+    /**
+     * Minimum size in bytes of the message bodies to compress.
+     *
+     * @see #setCompressionThreshold(int)
+     * @since 3.3.0
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Minimum size in bytes of the message bodies to compress, when a {@link #setCompressionCodec(CompressionCodec)}
+     * is set. Small bodies gain little from compression. Default is 1024 bytes.
+     *
+     * @param compressionThreshold the minimum size in bytes
+     * @throws IllegalArgumentException if the size is negative
+     * @since 3.3.0
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        if (compressionThreshold < 0) {
+            throw new IllegalArgumentException("Compression threshold must be positive: " + compressionThreshold);
+        }
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Maximum size in bytes of the message bodies once decompressed.
+     *
+     * @see #setMaxDecompressedBodySize(int)
+     * @since 3.3.0
+     */
+    public int getMaxDecompressedBodySize() {
+        return maxDecompressedBodySize;
+    }
+
+    /**
+     * Maximum size in bytes of the bodies of received messages once decompressed. A small compressed body can
+     * decompress to a very large one, receiving a message that exceeds this size fails instead of exhausting the
+     * memory. Default is 128 MiB, the default maximum message size of RabbitMQ.
+     *
+     * @param maxDecompressedBodySize the maximum size in bytes
+     * @throws IllegalArgumentException if the size is not positive
+     * @since 3.3.0
+     */
+    public void setMaxDecompressedBodySize(int maxDecompressedBodySize) {
+        if (maxDecompressedBodySize <= 0) {
+            throw new IllegalArgumentException("Maximum decompressed body size must be positive: " + maxDecompressedBodySize);
+        }
+        this.maxDecompressedBodySize = maxDecompressedBodySize;
+    }
+
+    /**
+     * Generator of the IDs of the messages sent.
+     *
+     * @see #setMessageIdGenerator(MessageIdGenerator)
+     * @since 3.3.0
+     */
+    public MessageIdGenerator getMessageIdGenerator() {
+        return messageIdGenerator;
+    }
+
+    /**
+     * Generator of the IDs of the messages sent, shared by all the connections created by this factory.
+     * <p>
+     * Default is <code>null</code>: each connection uses its own {@link CounterMessageIdGenerator}. Use
+     * {@link UuidMessageIdGenerator#INSTANCE} for random UUIDs, as message IDs were before 3.3.0.
+     *
+     * @param messageIdGenerator the generator, <code>null</code> for the default
+     * @since 3.3.0
+     */
+    public void setMessageIdGenerator(MessageIdGenerator messageIdGenerator) {
+        this.messageIdGenerator = messageIdGenerator;
+    }
+
+    /**
+     * Whether connections remember the destinations they declared.
+     *
+     * @see #setCacheDeclarations(boolean)
+     * @since 3.3.0
+     */
+    public boolean isCacheDeclarations() {
+        return cacheDeclarations;
+    }
+
+    /**
+     * Whether connections remember the exchanges, queues and bindings of the destinations they declared, to not
+     * declare them again when the same destinations are created, looked up or sent to, from any of their sessions.
+     * <p>
+     * What a connection remembers is forgotten when one of its channels or the connection is closed by an error.
+     * Disable if other applications delete the destinations while the connection is open, and the messages sent to
+     * them must not get lost. Default is true.
+     *
+     * @param cacheDeclarations whether to cache declarations
+     * @since 3.3.0
+     */
+    public void setCacheDeclarations(boolean cacheDeclarations) {
+        this.cacheDeclarations = cacheDeclarations;
+    }
+
+    /**
+     * Maximum number of message selectors compiled and cached by connections.
+     *
+     * @see #setSelectorCacheSize(int)
+     * @since 3.3.0
+     */
+    public int getSelectorCacheSize() {
+        return selectorCacheSize;
+    }
+
+    /**
+     * Maximum number of message selectors a connection keeps compiled, so the topic subscriptions, queue consumers and
+     * browsers of its sessions with the same selector do not parse and compile it again.
+     * <p>
+     * The least recently used selector is evicted when the maximum is reached. The statistics of the cache are
+     * available with {@link RMQConnection#getSelectorCacheStatistics()}. Default is 256, 0 disables the cache.
+     *
+     * @param selectorCacheSize the maximum number of selectors, 0 to not cache selectors
+     * @throws IllegalArgumentException if the size is negative
+     * @since 3.3.0
+     */
+    public void setSelectorCacheSize(int selectorCacheSize) {
+        if (selectorCacheSize < 0) {
+            throw new IllegalArgumentException("Selector cache size must be positive: " + selectorCacheSize);
+        }
+        this.selectorCacheSize = selectorCacheSize;
+    }
+
+    /**
+     * Maximum number of unconfirmed messages per session.
+     *
+     * @see #setMaxOutstandingConfirms(int)
+     * @since 3.3.0
+     */
+    public int getMaxOutstandingConfirms() {
+        return maxOutstandingConfirms;
+    }
+
+    /**
+     * Maximum number of messages not confirmed yet by the broker, per session, once messages are sent with a
+     * {@link jakarta.jms.CompletionListener} on the session.
+     * <p>
+     * When the maximum is reached, sending waits for confirms for up to
+     * {@link #setMaxOutstandingConfirmsTimeoutMs(long)}, then fails with a
+     * {@link jakarta.jms.ResourceAllocationException}. This bounds the memory used by asynchronous sends and slows
+     * down publishers faster than the broker. Completion listeners must not send messages on the session of the
+     * messages they are notified of when the maximum is set. Default is 0, no maximum.
+     *
+     * @param maxOutstandingConfirms the maximum, 0 for no maximum
+     * @throws IllegalArgumentException if the maximum is negative
+     * @since 3.3.0
+     */
+    public void setMaxOutstandingConfirms(int maxOutstandingConfirms) {
+        if (maxOutstandingConfirms < 0) {
+            throw new IllegalArgumentException("Maximum of outstanding confirms must be positive: " + maxOutstandingConfirms);
+        }
+        this.maxOutstandingConfirms = maxOutstandingConfirms;
+    }
+
+    /**
+     * How long sending waits for confirms when the maximum of unconfirmed messages is reached.
+     *
+     * @see #setMaxOutstandingConfirmsTimeoutMs(long)
+     * @since 3.3.0
+     */
+    public long getMaxOutstandingConfirmsTimeoutMs() {
+        return maxOutstandingConfirmsTimeoutMs;
+    }
+
+    /**
+     * How long sending waits for confirms when the {@link #setMaxOutstandingConfirms(int)} maximum of unconfirmed
+     * messages is reached, before failing. Default is 10,000 ms.
+     *
+     * @param maxOutstandingConfirmsTimeoutMs timeout in milliseconds, 0 to fail immediately
+     * @throws IllegalArgumentException if the timeout is negative
+     * @since 3.3.0
+     */
+    public void setMaxOutstandingConfirmsTimeoutMs(long maxOutstandingConfirmsTimeoutMs) {
+        if (maxOutstandingConfirmsTimeoutMs < 0) {
+            throw new IllegalArgumentException("Timeout must be positive: " + maxOutstandingConfirmsTimeoutMs);
+        }
+        this.maxOutstandingConfirmsTimeoutMs = maxOutstandingConfirmsTimeoutMs;
+    }
+
+    /**
+     * Whether synchronous sends wait for the publisher confirm of the message.
+     *
+     * @see #setConfirmedSends(boolean)
+     * @since 3.3.0
+     */
+    public boolean isConfirmedSends() {
+        return confirmedSends;
+    }
+
+    /**
+     * Whether the synchronous <code>send</code> methods of message producers wait for the broker to confirm the
+     * message, and fail if it is negatively acknowledged or not confirmed after
+     * {@link #setConfirmTimeoutMs(long)}.
+     * <p>
+     * Messages sent concurrently on the same session are usually confirmed together by the broker, so their senders
+     * share the round-trip. To send several messages with one wait, use
+     * {@link com.rabbitmq.jms.client.RMQMessageProducer#sendBatch(jakarta.jms.Destination, java.util.List)}, which
+     * waits for confirms whatever this setting. Sends of transacted sessions do not wait: their channel cannot be in
+     * confirm mode, and committing the transaction tells the messages were accepted. Default is false.
+     *
+     * @param confirmedSends whether synchronous sends wait for publisher confirms
+     * @since 3.3.0
+     */
+    public void setConfirmedSends(boolean confirmedSends) {
+        this.confirmedSends = confirmedSends;
+    }
+
+    /**
+     * How long confirmed and batched sends wait for publisher confirms.
+     *
+     * @see #setConfirmTimeoutMs(long)
+     * @since 3.3.0
+     */
+    public long getConfirmTimeoutMs() {
+        return confirmTimeoutMs;
+    }
+
+    /**
+     * How long confirmed sends, see {@link #setConfirmedSends(boolean)}, and batched sends wait for the publisher
+     * confirms of their messages before failing. Default is 10,000 ms.
+     *
+     * @param confirmTimeoutMs timeout in milliseconds
+     * @throws IllegalArgumentException if the timeout is negative
+     * @since 3.3.0
+     */
+    public void setConfirmTimeoutMs(long confirmTimeoutMs) {
+        if (confirmTimeoutMs < 0) {
+            throw new IllegalArgumentException("Timeout must be positive: " + confirmTimeoutMs);
+        }
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    /**
+     * What queue consumers with a message selector do with the messages it does not match.
+     *
+     * @see #setQueueSelectorPolicy(QueueSelectorPolicy)
+     * @since 3.3.0
+     */
+    public QueueSelectorPolicy getQueueSelectorPolicy() {
+        return queueSelectorPolicy;
+    }
+
+    /**
+     * What queue consumers with a message selector do with the messages it does not match.
+     * <p>
+     * Selectors of queue consumers are evaluated by the client, on the AMQP properties of the messages delivered. With
+     * {@link QueueSelectorPolicy#REQUEUE}, the default, a message not selected is held for a short while, then
+     * rejected with requeuing, for consumers with other selectors. A consumer alone on a queue with messages it never
+     * selects gets them again at most every second, so consumers with different selectors should together select all
+     * the messages of the queue.
+     * With {@link QueueSelectorPolicy#DEAD_LETTER}, a message not selected goes to the dead letter exchange of the
+     * queue, if any.
+     *
+     * @param queueSelectorPolicy the policy
+     * @throws IllegalArgumentException if the policy is <code>null</code>
+     * @since 3.3.0
+     */
+    public void setQueueSelectorPolicy(QueueSelectorPolicy queueSelectorPolicy) {
+        if (queueSelectorPolicy == null) {
+            throw new IllegalArgumentException("Queue selector policy cannot be null");
+        }
+        this.queueSelectorPolicy = queueSelectorPolicy;
+    }
+
     /**
      * Whether {@link MessageProducer} properties (delivery mode,
      * priority, TTL) take precedence over respective {@link Message}
@@ -7,6 +7,7 @@ import java.util.Collections;
 import java.util.Map;
 import jakarta.jms.Destination;
 import jakarta.jms.JMSException;
+import jakarta.jms.MessageFormatException;
 import jakarta.jms.Queue;
 import jakarta.jms.TemporaryQueue;
 import jakarta.jms.TemporaryTopic;
@@ -17,6 +18,9 @@ import javax.naming.Reference;
 import javax.naming.Referenceable;
 import javax.naming.StringRefAddr;
 
+import com.rabbitmq.jms.util.CompactDecoder;
+import com.rabbitmq.jms.util.CompactEncoder;
+
 /**
  * Implementation of a {@link Topic} and {@link Queue} {@link Destination}.
  * <p>
@@ -52,6 +56,14 @@ public class RMQDestination implements Queue, Topic, Destination, Referenceable,
 
     private transient boolean isDeclared;   // field not serialised and not recovered
     private final Map<String, Object> queueDeclareArguments;
+    /** Maximum number of unacknowledged messages delivered to each consumer, 0 to use the connection setting */
+    private int consumerPrefetch = 0;
+
+    /** Flags of the compact message format, see {@link #writeCompact(CompactEncoder)} */
+    private static final int COMPACT_AMQP = 0x01;
+    private static final int COMPACT_QUEUE = 0x02;
+    private static final int COMPACT_TEMPORARY = 0x04;
+    private static final int COMPACT_DERIVED = 0x08;
 
     /**
      * Constructor used only for Java serialisation
@@ -285,6 +297,7 @@ public class RMQDestination implements Queue, Topic, Destination, Referenceable,
         addStringProperty(ref, "amqpExchangeName", this.amqpExchangeName);
         addStringProperty(ref, "amqpRoutingKey", this.amqpRoutingKey);
         addStringProperty(ref, "amqpQueueName", this.amqpQueueName);
+        addIntegerProperty(ref, "consumerPrefetch", this.consumerPrefetch);
         return ref;
     }
 
@@ -292,6 +305,36 @@ public class RMQDestination implements Queue, Topic, Destination, Referenceable,
         return queueDeclareArguments == null ? null : Collections.unmodifiableMap(queueDeclareArguments);
     }
 
+    /**
+     * Maximum number of unacknowledged messages delivered to each consumer of this destination.
+     *
+     * @return the prefetch of consumers, 0 if the connection setting applies
+     * @see #setConsumerPrefetch(int)
+     * @since 3.3.0
+     */
+    public int getConsumerPrefetch() {
+        return consumerPrefetch;
+    }
+
+    /**
+     * Maximum number of unacknowledged messages delivered to each consumer of this destination.
+     * <p>
+     * The value is set with <code>basic.qos</code> just before the consumer subscribes, so it applies to this
+     * consumer only and overrides the <code>channelsQos</code> setting of the connection factory. Use a small value
+     * for destinations with slow consumers and a large value for destinations with fast consumers.
+     * </p>
+     * <p>
+     * Default is 0, which means the connection factory setting applies.
+     * </p>
+     *
+     * @param consumerPrefetch the prefetch of consumers, 0 to use the connection setting
+     * @see com.rabbitmq.jms.admin.RMQConnectionFactory#setChannelsQos(int)
+     * @since 3.3.0
+     */
+    public void setConsumerPrefetch(int consumerPrefetch) {
+        this.consumerPrefetch = Math.max(0, consumerPrefetch);
+    }
+
     /**
      * Adds a String valued property to a Reference (as a RefAddr) if it is non-<code>null</code>.
      * @param ref - the reference to contain the value
@@ -323,6 +366,23 @@ public class RMQDestination implements Queue, Topic, Destination, Referenceable,
         }
     }
 
+    /**
+     * Adds an int valued property to a Reference (as a StringRefAddr) if the value is not <code>0</code>
+     * (default <code>0</code> on read assumed).
+     * @param ref - the reference to contain the value
+     * @param propertyName - the name of the property
+     * @param value - the value to store with the property
+     */
+    private static void addIntegerProperty(Reference ref,
+                                           String propertyName,
+                                           int value) {
+        if (propertyName==null) return;
+        if (value != 0) {
+            RefAddr ra = new StringRefAddr(propertyName, String.valueOf(value));
+            ref.add(ra);
+        }
+    }
+
     /**
      * For internal use only.
      * @return true if we have declared RabbitMQ resources to back this destination
@@ -342,6 +402,85 @@ public class RMQDestination implements Queue, Topic, Destination, Referenceable,
         this.isDeclared = isDeclared;
     }
 
+    /**
+     * For internal use only: writes this destination as a value of the compact message format.
+     * <p>
+     * Destinations with queue declaration arguments are not written, they are Java-serialized instead. The consumer
+     * prefetch is a setting of the consumers of this application, it is not written.
+     * </p>
+     * @param out the encoder
+     * @return <code>false</code> if nothing was written
+     * @see #readCompact(CompactDecoder)
+     * @since 3.3.0
+     */
+    public boolean writeCompact(CompactEncoder out) {
+        if (this.queueDeclareArguments != null) {
+            return false;
+        }
+        // the exchange, routing key and queue names of RJMS destinations are derived from the name, mostly
+        boolean derived = !this.amqp && this.destinationName != null
+            && queueOrTopicExchangeName(this.isQueue, this.isTemporary).equals(this.amqpExchangeName)
+            && this.destinationName.equals(this.amqpRoutingKey) && this.destinationName.equals(this.amqpQueueName);
+        out.writeByte(CompactEncoder.TYPE_DESTINATION);
+        int start = out.beginLength();
+        out.writeByte((this.amqp ? COMPACT_AMQP : 0) | (this.isQueue ? COMPACT_QUEUE : 0)
+            | (this.isTemporary ? COMPACT_TEMPORARY : 0) | (derived ? COMPACT_DERIVED : 0));
+        writeCompactString(out, this.destinationName);
+        if (!derived) {
+            writeCompactString(out, this.amqpExchangeName);
+            writeCompactString(out, this.amqpRoutingKey);
+            writeCompactString(out, this.amqpQueueName);
+        }
+        out.endLength(start);
+        return true;
+    }
+
+    /**
+     * For internal use only: reads a destination written by {@link #writeCompact(CompactEncoder)}, after its type
+     * and length.
+     * @param in the decoder
+     * @return the destination
+     * @throws MessageFormatException if the destination is malformed
+     * @since 3.3.0
+     */
+    public static RMQDestination readCompact(CompactDecoder in) throws MessageFormatException {
+        int flags = in.readByte();
+        RMQDestination destination = new RMQDestination();
+        destination.amqp = (flags & COMPACT_AMQP) != 0;
+        destination.isQueue = (flags & COMPACT_QUEUE) != 0;
+        destination.isTemporary = (flags & COMPACT_TEMPORARY) != 0;
+        destination.destinationName = readCompactString(in);
+        if ((flags & COMPACT_DERIVED) != 0) {
+            destination.amqpExchangeName = queueOrTopicExchangeName(destination.isQueue, destination.isTemporary);
+            destination.amqpRoutingKey = destination.destinationName;
+            destination.amqpQueueName = destination.destinationName;
+        } else {
+            destination.amqpExchangeName = readCompactString(in);
+            destination.amqpRoutingKey = readCompactString(in);
+            destination.amqpQueueName = readCompactString(in);
+        }
+        return destination;
+    }
+
+    private static void writeCompactString(CompactEncoder out, String value) {
+        if (value == null) {
+            out.writeByte(CompactEncoder.TYPE_NULL);
+        } else {
+            out.writeByte(CompactEncoder.TYPE_STRING);
+            out.writeString(value);
+        }
+    }
+
+    private static String readCompactString(CompactDecoder in) throws MessageFormatException {
+        byte type = in.readByte();
+        if (type == CompactEncoder.TYPE_NULL) {
+            return null;
+        } else if (type == CompactEncoder.TYPE_STRING) {
+            return in.readString();
+        }
+        throw new MessageFormatException("Malformed destination");
+    }
+
     /**
      * @return <code>true</code> if this is a temporary destination, <code>false</code> otherwise
      */
@@ -13,6 +13,9 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.rabbitmq.jms.client.AuthenticationMechanism;
+import com.rabbitmq.jms.client.CompressionCodec;
+import com.rabbitmq.jms.client.CompressionCodecs;
+import com.rabbitmq.jms.client.QueueSelectorPolicy;
 import jakarta.jms.ConnectionFactory;
 import jakarta.jms.JMSException;
 import jakarta.jms.Queue;
@@ -103,6 +106,25 @@ import org.slf4j.LoggerFactory;
  * <li>queueBrowserReadMax</li>
  * <li>onMessageTimeoutMs</li>
  * <li>channelsQos</li>
+ * <li>receivePrefetch</li>
+ * <li>listenerDispatchLanes</li>
+ * <li>listenerDispatchKey</li>
+ * <li>directOnMessageDelivery</li>
+ * <li>useVirtualThreads</li>
+ * <li>ackCoalescingBatchSize</li>
+ * <li>ackCoalescingIntervalMs</li>
+ * <li>coalesceAutoAcknowledgements</li>
+ * <li>messageFormatVersion</li>
+ * <li>compressionCodec - <code>gzip</code> or <code>deflate</code></li>
+ * <li>compressionThreshold</li>
+ * <li>maxDecompressedBodySize</li>
+ * <li>cacheDeclarations</li>
+ * <li>selectorCacheSize</li>
+ * <li>maxOutstandingConfirms</li>
+ * <li>maxOutstandingConfirmsTimeoutMs</li>
+ * <li>confirmedSends</li>
+ * <li>confirmTimeoutMs</li>
+ * <li>queueSelectorPolicy - <code>REQUEUE</code> or <code>DEAD_LETTER</code></li>
  * <li>ssl</li>
  * <li>terminationTimeout</li>
  * <li>username</li>
@@ -212,6 +234,39 @@ public class RMQObjectFactory implements ObjectFactory {
         f.setQueueBrowserReadMax(getIntProperty    (ref, environment, "queueBrowserReadMax", true, f.getQueueBrowserReadMax()));
         f.setOnMessageTimeoutMs (getIntProperty    (ref, environment, "onMessageTimeoutMs",  true, f.getOnMessageTimeoutMs() ));
         f.setChannelsQos        (getIntProperty    (ref, environment, "channelsQos",         true, f.getChannelsQos()        ));
+        f.setReceivePrefetch    (getIntProperty    (ref, environment, "receivePrefetch",     true, f.getReceivePrefetch()    ));
+        f.setListenerDispatchLanes(getIntProperty  (ref, environment, "listenerDispatchLanes", true, f.getListenerDispatchLanes()));
+        f.setListenerDispatchKey(getStringProperty (ref, environment, "listenerDispatchKey", true, f.getListenerDispatchKey()));
+        f.setDirectOnMessageDelivery(getBooleanProperty(ref, environment, "directOnMessageDelivery", true, f.isDirectOnMessageDelivery()));
+        f.setUseVirtualThreads  (getBooleanProperty(ref, environment, "useVirtualThreads",   true, f.isUseVirtualThreads()   ));
+        f.setAckCoalescingBatchSize(getIntProperty (ref, environment, "ackCoalescingBatchSize", true, f.getAckCoalescingBatchSize()));
+        f.setAckCoalescingIntervalMs(getIntProperty(ref, environment, "ackCoalescingIntervalMs", true, f.getAckCoalescingIntervalMs()));
+        f.setCoalesceAutoAcknowledgements(getBooleanProperty(ref, environment, "coalesceAutoAcknowledgements", true, f.isCoalesceAutoAcknowledgements()));
+        f.setMessageFormatVersion(getIntProperty   (ref, environment, "messageFormatVersion", true, f.getMessageFormatVersion()));
+        String compressionCodec = getStringProperty(ref, environment, "compressionCodec", true, null);
+        if (compressionCodec != null) {
+            CompressionCodec codec = CompressionCodecs.forContentEncoding(compressionCodec);
+            if (codec == null) {
+                throw new NamingException(String.format("Property [compressionCodec] has an unknown value [%s]", compressionCodec));
+            }
+            f.setCompressionCodec(codec);
+        }
+        f.setCompressionThreshold(getIntProperty   (ref, environment, "compressionThreshold", true, f.getCompressionThreshold()));
+        f.setMaxDecompressedBodySize(getIntProperty(ref, environment, "maxDecompressedBodySize", true, f.getMaxDecompressedBodySize()));
+        f.setCacheDeclarations(getBooleanProperty(ref, environment, "cacheDeclarations", true, f.isCacheDeclarations()));
+        f.setSelectorCacheSize(getIntProperty    (ref, environment, "selectorCacheSize", true, f.getSelectorCacheSize()));
+        f.setMaxOutstandingConfirms(getIntProperty (ref, environment, "maxOutstandingConfirms", true, f.getMaxOutstandingConfirms()));
+        f.setMaxOutstandingConfirmsTimeoutMs(getLongProperty(ref, environment, "maxOutstandingConfirmsTimeoutMs", true, f.getMaxOutstandingConfirmsTimeoutMs()));
+        f.setConfirmedSends(getBooleanProperty(ref, environment, "confirmedSends", true, f.isConfirmedSends()));
+        f.setConfirmTimeoutMs(getLongProperty(ref, environment, "confirmTimeoutMs", true, f.getConfirmTimeoutMs()));
+        String queueSelectorPolicy = getStringProperty(ref, environment, "queueSelectorPolicy", true, null);
+        if (queueSelectorPolicy != null) {
+            try {
+                f.setQueueSelectorPolicy(QueueSelectorPolicy.valueOf(queueSelectorPolicy));
+            } catch (IllegalArgumentException e) {
+                throw new NamingException(String.format("Property [queueSelectorPolicy] has an unknown value [%s]", queueSelectorPolicy));
+            }
+        }
         if (getBooleanProperty(ref, environment, "ssl",                 true, f.isSsl())) {
             try {
                 f.useSslProtocol();
@@ -254,6 +309,7 @@ public class RMQObjectFactory implements ObjectFactory {
           ref, environment, "queueDeclareArguments", true, null
         ));
         boolean amqp = getBooleanProperty(ref, environment, "amqp", true, false);
+        RMQDestination destination;
         if (amqp) {
             if (queueDeclareArguments != null) {
                 LOGGER.warn("Queue declare arguments are ignored for AMQP destinations");
@@ -261,10 +317,12 @@ public class RMQObjectFactory implements ObjectFactory {
             String amqpExchangeName = getStringProperty(ref, environment, "amqpExchangeName", true, null);
             String amqpRoutingKey = getStringProperty(ref, environment,"amqpRoutingKey", true, null);
             String amqpQueueName = getStringProperty(ref, environment, "amqpQueueName", true, null);
-            return new RMQDestination(dname, amqpExchangeName, amqpRoutingKey, amqpQueueName);
+            destination = new RMQDestination(dname, amqpExchangeName, amqpRoutingKey, amqpQueueName);
         } else {
-            return new RMQDestination(dname, !topic, false, queueDeclareArguments);
+            destination = new RMQDestination(dname, !topic, false, queueDeclareArguments);
         }
+        destination.setConsumerPrefetch(getIntProperty(ref, environment, "consumerPrefetch", true, 0));
+        return destination;
     }
 
     /**
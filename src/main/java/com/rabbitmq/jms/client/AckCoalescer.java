@@ -0,0 +1,233 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces the acknowledgments of a session channel.
+ * <p>
+ * Messages consumed in {@link jakarta.jms.Session#DUPS_OK_ACKNOWLEDGE} mode (and optionally in
+ * {@link jakarta.jms.Session#AUTO_ACKNOWLEDGE} mode) are not acknowledged one by one: their delivery tags are kept
+ * and acknowledged together with a single <code>basic.ack(multiple=true)</code>, after {@link #batchSize} messages,
+ * after {@link #intervalMs} milliseconds, or when the session is stopped or closed.
+ * </p>
+ * <p>
+ * A multiple acknowledgment covers every delivery of the channel up to its tag, so it only goes up to the highest
+ * tag below which every delivery is settled: acknowledged, requeued, or acknowledged automatically by the broker.
+ * Deliveries not settled yet (e.g. prefetched and not received, or still in <code>onMessage</code>) are never
+ * covered. Tags above such a gap are acknowledged one by one when the batch is flushed.
+ * </p>
+ * <p>
+ * A delivery still not settled once {@link #MAX_TRACKED_ABOVE_GAP} later deliveries are is assumed to be settled
+ * without notice (e.g. requeued by <code>basic.recover</code>): tracking moves past it, so later acknowledgments are
+ * coalesced again, and it is not acknowledged again if a multiple acknowledgment has covered it since.
+ * </p>
+ * <p>
+ * With a batch size of 1, acknowledgments are sent immediately, one by one, but settled deliveries are still tracked,
+ * so that a group of deliveries acknowledged with {@link #ackAll(long[])} gets a single multiple acknowledgment.
+ * Sessions that neither coalesce acknowledgments nor have a {@link BatchMessageListener} do not have a coalescer
+ * and acknowledge deliveries directly.
+ * </p>
+ */
+class AckCoalescer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AckCoalescer.class);
+
+    /** Beyond this number of tags settled above a gap, move past the gap (it may never be filled). */
+    static final int MAX_TRACKED_ABOVE_GAP = 65536;
+
+    /** Sends acknowledgments on the session channel. */
+    @FunctionalInterface
+    interface AckSender {
+        void basicAck(long deliveryTag, boolean multiple) throws IOException;
+    }
+
+    private final int batchSize;
+    /** False when acknowledgments are sent immediately */
+    private final boolean coalescing;
+    private final long intervalMs;
+    private final AckSender ackSender;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Every delivery up to this tag is settled */
+    private long settledUpTo = 0; // @GuardedBy(lock)
+    /** Tags to acknowledge, above {@link #settledUpTo} */
+    private final DeliveryTagTracker toAck = new DeliveryTagTracker(); // @GuardedBy(lock)
+    /** Tags settled without an acknowledgment to send, above {@link #settledUpTo} */
+    private final DeliveryTagTracker settledAbove = new DeliveryTagTracker(); // @GuardedBy(lock)
+    /** Highest tag acknowledged with a multiple acknowledgment */
+    private long lastMultipleTag = 0; // @GuardedBy(lock)
+    private ScheduledFuture<?> scheduledFlush = null; // @GuardedBy(lock)
+    private boolean closed = false; // @GuardedBy(lock)
+
+    /**
+     * @param batchSize number of messages that triggers a flush
+     * @param intervalMs maximum time an acknowledgment is delayed, in milliseconds
+     * @param ackSender sends acknowledgments
+     */
+    AckCoalescer(int batchSize, long intervalMs, AckSender ackSender) {
+        this.batchSize = batchSize;
+        this.coalescing = batchSize > 1;
+        this.intervalMs = intervalMs;
+        this.ackSender = ackSender;
+    }
+
+    /**
+     * A delivery is to be acknowledged.
+     * @param deliveryTag the delivery tag
+     */
+    void ack(long deliveryTag) {
+        this.lock.lock();
+        try {
+            if (this.closed || !this.coalescing) {
+                if (deliveryTag > this.lastMultipleTag) {
+                    this.send(deliveryTag, false);
+                }
+                this.settledLocked(deliveryTag);
+                return;
+            }
+            this.toAck.add(deliveryTag);
+            if (this.toAck.size() >= this.batchSize) {
+                this.flushLocked();
+            } else if (this.scheduledFlush == null) {
+                this.scheduledFlush = ClientScheduler.schedule(this::flush, this.intervalMs, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * A delivery has been settled without acknowledgment: it has been requeued, or acknowledged by the broker.
+     * @param deliveryTag the delivery tag
+     */
+    void settled(long deliveryTag) {
+        this.lock.lock();
+        try {
+            this.settledLocked(deliveryTag);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Deliveries are to be acknowledged together, now.
+     * @param deliveryTags the delivery tags
+     */
+    void ackAll(long[] deliveryTags) {
+        this.lock.lock();
+        try {
+            for (long deliveryTag : deliveryTags) {
+                this.toAck.add(deliveryTag);
+            }
+            this.flushLocked();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Send pending acknowledgments now.
+     */
+    void flush() {
+        this.lock.lock();
+        try {
+            this.flushLocked();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Send pending acknowledgments; later acknowledgments are sent immediately.
+     */
+    void close() {
+        this.lock.lock();
+        try {
+            this.flushLocked();
+            this.closed = true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        if (this.scheduledFlush != null) {
+            this.scheduledFlush.cancel(false);
+            this.scheduledFlush = null;
+        }
+        if (this.toAck.isEmpty()) return;
+        long multipleTag = 0;
+        long next = this.settledUpTo + 1;
+        while (true) {
+            if (this.toAck.remove(next)) {
+                multipleTag = next;
+            } else if (!this.settledAbove.remove(next)) {
+                break;
+            }
+            next++;
+        }
+        this.settledUpTo = next - 1;
+        if (multipleTag > 0) {
+            this.send(multipleTag, true);
+        }
+        for (long tag = this.toAck.first(); tag != DeliveryTagTracker.NONE; tag = this.toAck.firstFrom(tag + 1)) {
+            if (tag <= this.settledUpTo) {
+                // below a gap moved past, unless a multiple acknowledgment has covered it
+                if (tag > this.lastMultipleTag) {
+                    this.send(tag, false);
+                }
+                continue;
+            }
+            // above a delivery that is not settled yet
+            this.send(tag, false);
+            this.settledAbove.add(tag);
+        }
+        this.toAck.clear();
+        this.limitTrackedAboveGap();
+    }
+
+    private void settledLocked(long deliveryTag) {
+        if (deliveryTag == this.settledUpTo + 1) {
+            this.settledUpTo = deliveryTag;
+            while (this.settledAbove.remove(this.settledUpTo + 1)) {
+                this.settledUpTo++;
+            }
+        } else if (deliveryTag > this.settledUpTo) {
+            this.settledAbove.add(deliveryTag);
+            this.limitTrackedAboveGap();
+        }
+    }
+
+    private void limitTrackedAboveGap() {
+        if (this.settledAbove.size() > MAX_TRACKED_ABOVE_GAP) {
+            // the later deliveries are all acknowledged or settled, tracking resumes above them
+            long highest = this.settledAbove.last();
+            LOGGER.warn("Delivery tag {} not settled after {} later deliveries, assuming it is settled up to delivery tag {}",
+                this.settledUpTo + 1, this.settledAbove.size(), highest);
+            this.settledUpTo = highest;
+            this.settledAbove.clear();
+        }
+    }
+
+    private void send(long deliveryTag, boolean multiple) {
+        try {
+            if (multiple) {
+                this.lastMultipleTag = deliveryTag;
+            }
+            this.ackSender.basicAck(deliveryTag, multiple);
+        } catch (Exception e) { // includes unchecked exceptions, e.g. ShutdownSignalException
+            LOGGER.error("Cannot acknowledge message(s) received (dTag={}, multiple={})", deliveryTag, multiple, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+
+/**
+ * {@link MessageListener} receiving messages in batches.
+ * <p>
+ * Set it with {@link jakarta.jms.MessageConsumer#setMessageListener(MessageListener)} on a consumer of this library.
+ * Messages are then accumulated and passed to {@link #onMessages(List)} when {@link #getMaxBatchSize()} messages
+ * have arrived, or {@link #getMaxBatchDelayMs()} milliseconds after the first message of the batch arrived.
+ * </p>
+ * <p>
+ * The batch is acknowledged as a whole when {@link #onMessages(List)} returns: with a single multiple
+ * acknowledgment in {@link jakarta.jms.Session#AUTO_ACKNOWLEDGE} and {@link jakarta.jms.Session#DUPS_OK_ACKNOWLEDGE}
+ * modes (individual acknowledgments are used for messages above a delivery still being processed elsewhere on the
+ * session). In a transacted session the listener commits the batch with {@link jakarta.jms.Session#commit()}, in
+ * {@link jakarta.jms.Session#CLIENT_ACKNOWLEDGE} mode it acknowledges it with {@link Message#acknowledge()}.
+ * </p>
+ * <p>
+ * If <code>requeueOnMessageListenerException</code> is enabled, a {@link RuntimeException} thrown by
+ * {@link #onMessages(List)}, or a timeout when <code>requeueOnTimeout</code> is enabled, requeues the whole batch.
+ * </p>
+ * <p>
+ * Batches are delivered one at a time for a consumer, in order, and are not dispatched to the listener dispatch lanes.
+ * </p>
+ *
+ * @see com.rabbitmq.jms.admin.RMQConnectionFactory#setRequeueOnMessageListenerException(boolean)
+ * @since 3.3.0
+ */
+public interface BatchMessageListener extends MessageListener {
+
+    int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    long DEFAULT_MAX_BATCH_DELAY_MS = 100;
+
+    /**
+     * Called with a batch of messages.
+     *
+     * @param messages the messages, in delivery order, never empty
+     */
+    void onMessages(List<Message> messages);
+
+    /**
+     * Maximum number of messages in a batch, default is {@value #DEFAULT_MAX_BATCH_SIZE}.
+     *
+     * @return maximum number of messages in a batch
+     */
+    default int getMaxBatchSize() {
+        return DEFAULT_MAX_BATCH_SIZE;
+    }
+
+    /**
+     * Maximum time in milliseconds the first message of a batch waits for more messages, default is
+     * {@value #DEFAULT_MAX_BATCH_DELAY_MS} ms.
+     *
+     * @return maximum delay of a batch, in milliseconds
+     */
+    default long getMaxBatchDelayMs() {
+        return DEFAULT_MAX_BATCH_DELAY_MS;
+    }
+
+    /**
+     * Delivers a single message as a batch.
+     *
+     * @param message the message
+     */
+    @Override
+    default void onMessage(Message message) {
+        onMessages(Collections.singletonList(message));
+    }
+}
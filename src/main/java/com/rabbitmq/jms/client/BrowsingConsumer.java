@@ -69,10 +69,11 @@ class BrowsingConsumer extends DefaultConsumer {
     throws IOException {
         if (this.messagesExpected==0) return;
         try {
-            RMQMessage msg = RMQMessage.convertMessage(this.session, this.dest,
-                new GetResponse(envelope, properties, body, --this.messagesExpected), this.receivingContextConsumer);
-            if (evaluator==null || evaluator.evaluate(msg.toHeaders()))
-                this.msgQueue.add(msg);
+            int messageCount = --this.messagesExpected;
+            // only the messages selected are converted
+            if (evaluator==null || evaluator.evaluate(new SelectorEnvironment(envelope, properties, this.dest.isAmqp())))
+                this.msgQueue.add(RMQMessage.convertMessage(this.session, this.dest,
+                    new GetResponse(envelope, properties, body, messageCount), this.receivingContextConsumer));
         } catch (JMSException e) {
             throw new IOException("Failure to convert message to JMS Message type.", e);
         }
@@ -15,8 +15,6 @@ import jakarta.jms.QueueBrowser;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.jms.admin.RMQDestination;
 import com.rabbitmq.jms.parse.sql.SqlEvaluator;
-import com.rabbitmq.jms.parse.sql.SqlParser;
-import com.rabbitmq.jms.parse.sql.SqlTokenStream;
 import com.rabbitmq.jms.util.RMQJMSSelectorException;
 
 /**
@@ -36,14 +34,14 @@ class BrowsingMessageQueue implements QueueBrowser {
         this.dest = dest;
         this.selector = selector;
         this.session = session;
-        this.evaluator = setEvaluator(selector);
+        this.evaluator = setEvaluator(session, selector);
         this.queueBrowserReadMax = queueBrowserReadMax;
         this.receivingContextConsumer = receivingContextConsumer;
     }
 
-    private static final SqlEvaluator setEvaluator(String selector) throws JMSException {
+    private static final SqlEvaluator setEvaluator(RMQSession session, String selector) throws JMSException {
         if (selector==null || selector.trim().isEmpty()) return null;
-        SqlEvaluator evaluator = new SqlEvaluator(new SqlParser(new SqlTokenStream(selector)), JMS_TYPE_IDENTS);
+        SqlEvaluator evaluator = session.getSelectorCache().get(selector, JMS_TYPE_IDENTS).evaluator();
         if (!evaluator.evaluatorOk())
             throw new RMQJMSSelectorException(evaluator.getErrorMessage());
         return evaluator;
@@ -0,0 +1,82 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timers of the client, shared by all connections.
+ * <p>
+ * Delayed and periodic tasks, e.g. acknowledgment flushes or the <code>onMessage</code> watchdog sweeps, run on
+ * {@link #THREADS} daemon threads, so that components and consumers do not start a timer thread each. Scheduled
+ * tasks must be short: work that may block for long, e.g. calling a message listener, is handed off with
+ * {@link #execute(Runnable)} to a daemon thread, created when needed and ended after being idle for
+ * {@link #IDLE_TIMEOUT_S} seconds.
+ * </p>
+ *
+ * @since 3.3.0
+ */
+final class ClientScheduler {
+
+    /** Number of threads running scheduled tasks, more than one so that a blocked task does not delay all others */
+    static final int THREADS = 2;
+    static final long IDLE_TIMEOUT_S = 60;
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+        IDLE_TIMEOUT_S, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory("rabbitmq-jms-worker-"));
+
+    private ClientScheduler() { }
+
+    /**
+     * @param task the task to run once
+     * @param delay the time to wait before running it
+     * @param unit the unit of the delay
+     * @return the future of the task, cancelled tasks are removed straight away
+     */
+    static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return SCHEDULER.schedule(task, delay, unit);
+    }
+
+    /**
+     * @param task the task to run periodically, which must not throw, as it would not run again
+     * @param delay the time between the end of a run and the start of the next one
+     * @param unit the unit of the delay
+     * @return the future of the task, to cancel it
+     */
+    static ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay, TimeUnit unit) {
+        return SCHEDULER.scheduleWithFixedDelay(task, delay, delay, unit);
+    }
+
+    /**
+     * Runs a task that may block, e.g. one triggered by a scheduled task, without holding a timer thread.
+     * @param task the task
+     */
+    static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(THREADS, threadFactory("rabbitmq-jms-scheduler-"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    private static ThreadFactory threadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger(0);
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
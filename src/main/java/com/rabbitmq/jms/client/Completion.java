@@ -7,6 +7,8 @@ package com.rabbitmq.jms.client;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.rabbitmq.jms.util.TimeTracker;
 
@@ -67,7 +69,8 @@ public class Completion {
     }
 
     private class FutureBoolean {
-        private final Object lock = new Object();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition completedCondition = this.lock.newCondition();
         private boolean completed = false; // guardedBy(lock)
 
         public boolean get() throws InterruptedException {
@@ -79,28 +82,37 @@ public class Completion {
         }
 
         public boolean get(TimeTracker tt) throws InterruptedException, TimeoutException {
-            synchronized (this.lock) {
+            this.lock.lock();
+            try {
                 while (!this.completed && !tt.timedOut()) {
-                    tt.timedWait(this.lock);
+                    tt.timedAwait(this.completedCondition);
                 }
                 if (this.completed)
                     return true;
                 else {
                     throw new TimeoutException();
                 }
+            } finally {
+                this.lock.unlock();
             }
         }
 
         void setComplete() {
-            synchronized (this.lock) {
+            this.lock.lock();
+            try {
                 this.completed = true;
-                this.lock.notifyAll();
+                this.completedCondition.signalAll();
+            } finally {
+                this.lock.unlock();
             }
         }
 
         boolean isComplete() {
-            synchronized (this.lock) {
+            this.lock.lock();
+            try {
                 return this.completed;
+            } finally {
+                this.lock.unlock();
             }
         }
     }
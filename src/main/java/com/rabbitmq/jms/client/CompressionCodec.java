@@ -0,0 +1,66 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.io.IOException;
+
+/**
+ * Compression of the body of the messages sent.
+ * <p>
+ * Compressed messages carry the {@link #contentEncoding()} of the codec in their AMQP <code>content-encoding</code>
+ * property, which receivers use to pick the codec to decompress them with. Implementations must be thread-safe.
+ *
+ * @see CompressionCodecs
+ * @see com.rabbitmq.jms.admin.RMQConnectionFactory#setCompressionCodec(CompressionCodec)
+ * @since 3.3.0
+ */
+public interface CompressionCodec {
+
+    /**
+     * The AMQP <code>content-encoding</code> of the messages compressed with this codec, e.g. <code>gzip</code>.
+     *
+     * @return the content encoding
+     */
+    String contentEncoding();
+
+    /**
+     * Compresses a message body.
+     *
+     * @param data the body
+     * @return the compressed body
+     * @throws IOException if the body cannot be compressed
+     */
+    byte[] compress(byte[] data) throws IOException;
+
+    /**
+     * Decompresses a message body.
+     *
+     * @param data the compressed body
+     * @return the body
+     * @throws IOException if the compressed body is invalid
+     */
+    byte[] decompress(byte[] data) throws IOException;
+
+    /**
+     * Decompresses a message body, unless it is larger than a given size once decompressed.
+     * <p>
+     * The default implementation checks the size once the body is decompressed, codecs should override it to stop
+     * decompressing as soon as the size is exceeded.
+     *
+     * @param data the compressed body
+     * @param maxSize the maximum size in bytes of the body
+     * @return the body
+     * @throws IOException if the compressed body is invalid or decompresses to more than <code>maxSize</code> bytes
+     * @see com.rabbitmq.jms.admin.RMQConnectionFactory#setMaxDecompressedBodySize(int)
+     */
+    default byte[] decompress(byte[] data, int maxSize) throws IOException {
+        byte[] body = decompress(data);
+        if (body.length > maxSize) {
+            throw new IOException("Decompressed message body larger than " + maxSize + " bytes");
+        }
+        return body;
+    }
+}
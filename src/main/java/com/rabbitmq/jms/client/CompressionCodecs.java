@@ -0,0 +1,268 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Built-in {@link CompressionCodec}s, based on {@link java.util.zip}.
+ * <p>
+ * {@link Deflater}s and {@link Inflater}s are reused through bounded pools, those that do not fit in their pool are
+ * ended, which frees their native memory. The data is compressed into and decompressed from arrays sized after the
+ * input, grown as needed.
+ *
+ * @since 3.3.0
+ */
+public final class CompressionCodecs {
+
+    /** zlib format, <code>deflate</code> content encoding */
+    public static final CompressionCodec DEFLATE = new ZipCodec(false);
+
+    /** gzip format, <code>gzip</code> content encoding */
+    public static final CompressionCodec GZIP = new ZipCodec(true);
+
+    /** Default maximum size of a message body once decompressed, the default maximum message size of RabbitMQ */
+    public static final int DEFAULT_MAX_DECOMPRESSED_BODY_SIZE = 128 * 1024 * 1024;
+
+    /** Maximum number of idle deflaters or inflaters of each kind */
+    static final int POOL_SIZE = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    private static final Pool<Deflater> ZLIB_DEFLATERS = new Pool<>(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, false), Deflater::end);
+    private static final Pool<Deflater> RAW_DEFLATERS = new Pool<>(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true), Deflater::end);
+    private static final Pool<Inflater> ZLIB_INFLATERS = new Pool<>(() -> new Inflater(false), Inflater::end);
+    private static final Pool<Inflater> RAW_INFLATERS = new Pool<>(() -> new Inflater(true), Inflater::end);
+
+    private static final int MIN_BUFFER_SIZE = 64;
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_HEADER_LENGTH = 10;
+    private static final int GZIP_TRAILER_LENGTH = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private CompressionCodecs() { }
+
+    /**
+     * @param contentEncoding an AMQP content encoding
+     * @return the built-in codec of this content encoding, <code>null</code> if there is none
+     */
+    public static CompressionCodec forContentEncoding(String contentEncoding) {
+        if (DEFLATE.contentEncoding().equalsIgnoreCase(contentEncoding)) {
+            return DEFLATE;
+        } else if (GZIP.contentEncoding().equalsIgnoreCase(contentEncoding)) {
+            return GZIP;
+        }
+        return null;
+    }
+
+    private static final class ZipCodec implements CompressionCodec, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean gzip;
+
+        private ZipCodec(boolean gzip) {
+            this.gzip = gzip;
+        }
+
+        @Override
+        public String contentEncoding() {
+            return this.gzip ? "gzip" : "deflate";
+        }
+
+        @Override
+        public byte[] compress(byte[] data) {
+            Pool<Deflater> deflaters = this.gzip ? RAW_DEFLATERS : ZLIB_DEFLATERS;
+            Deflater deflater = deflaters.acquire();
+            deflater.reset();
+            deflater.setInput(data);
+            deflater.finish();
+            // most bodies worth compressing shrink by half at least
+            byte[] buf = new byte[Math.max(MIN_BUFFER_SIZE, data.length >> 1)];
+            try {
+                int count = 0;
+                if (this.gzip) {
+                    buf = ensureCapacity(buf, 0, GZIP_HEADER_LENGTH);
+                    buf[0] = (byte) GZIP_MAGIC;
+                    buf[1] = (byte) (GZIP_MAGIC >> 8);
+                    buf[2] = Deflater.DEFLATED;
+                    Arrays.fill(buf, 3, GZIP_HEADER_LENGTH, (byte) 0);
+                    // unknown operating system
+                    buf[9] = (byte) 0xff;
+                    count = GZIP_HEADER_LENGTH;
+                }
+                while (!deflater.finished()) {
+                    buf = ensureCapacity(buf, count, 1);
+                    count += deflater.deflate(buf, count, buf.length - count);
+                }
+                if (this.gzip) {
+                    CRC32 crc = new CRC32();
+                    crc.update(data);
+                    buf = ensureCapacity(buf, count, GZIP_TRAILER_LENGTH);
+                    writeIntLE(buf, count, (int) crc.getValue());
+                    writeIntLE(buf, count + 4, data.length);
+                    count += GZIP_TRAILER_LENGTH;
+                }
+                return Arrays.copyOf(buf, count);
+            } finally {
+                deflaters.release(deflater);
+            }
+        }
+
+        @Override
+        public byte[] decompress(byte[] data) throws IOException {
+            return decompress(data, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public byte[] decompress(byte[] data, int maxSize) throws IOException {
+            int offset = this.gzip ? gzipHeaderLength(data) : 0;
+            Pool<Inflater> inflaters = this.gzip ? RAW_INFLATERS : ZLIB_INFLATERS;
+            Inflater inflater = inflaters.acquire();
+            inflater.reset();
+            inflater.setInput(data, offset, data.length - offset);
+            byte[] buf = new byte[(int) Math.min(Math.max(MIN_BUFFER_SIZE, 4L * data.length), maxSize + 1L)];
+            try {
+                int count = 0;
+                while (!inflater.finished()) {
+                    buf = ensureCapacity(buf, count, 1);
+                    // inflate at most one byte more than the maximum size
+                    int n = inflater.inflate(buf, count, (int) Math.min(buf.length, maxSize + 1L) - count);
+                    if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new ZipException("Truncated compressed message body");
+                    }
+                    count += n;
+                    if (count > maxSize) {
+                        // a small body can decompress to a huge one, fail before it exhausts the memory
+                        throw new ZipException("Decompressed message body larger than " + maxSize + " bytes");
+                    }
+                }
+                if (this.gzip) {
+                    int trailer = data.length - inflater.getRemaining();
+                    if (data.length - trailer < GZIP_TRAILER_LENGTH) {
+                        throw new ZipException("Truncated gzip trailer");
+                    }
+                    CRC32 crc = new CRC32();
+                    crc.update(buf, 0, count);
+                    if (readIntLE(data, trailer) != (int) crc.getValue() || readIntLE(data, trailer + 4) != count) {
+                        throw new ZipException("Corrupt gzip trailer");
+                    }
+                }
+                return Arrays.copyOf(buf, count);
+            } catch (DataFormatException e) {
+                throw new ZipException("Invalid compressed message body: " + e.getMessage());
+            } finally {
+                inflaters.release(inflater);
+            }
+        }
+
+        private Object readResolve() {
+            return this.gzip ? GZIP : DEFLATE;
+        }
+
+        @Override
+        public String toString() {
+            return contentEncoding();
+        }
+    }
+
+    /**
+     * Deflaters or inflaters, which hold native memory until they are ended. Idle ones are kept up to
+     * {@link #POOL_SIZE}, those released to a full pool are ended.
+     */
+    private static final class Pool<T> {
+
+        private final ArrayBlockingQueue<T> idle = new ArrayBlockingQueue<>(POOL_SIZE);
+        private final Supplier<T> factory;
+        private final Consumer<T> end;
+
+        private Pool(Supplier<T> factory, Consumer<T> end) {
+            this.factory = factory;
+            this.end = end;
+        }
+
+        T acquire() {
+            T pooled = this.idle.poll();
+            return pooled == null ? this.factory.get() : pooled;
+        }
+
+        void release(T pooled) {
+            if (!this.idle.offer(pooled)) {
+                this.end.accept(pooled);
+            }
+        }
+    }
+
+    private static int gzipHeaderLength(byte[] data) throws ZipException {
+        if (data.length < GZIP_HEADER_LENGTH || (data[0] & 0xff | (data[1] & 0xff) << 8) != GZIP_MAGIC
+            || data[2] != Deflater.DEFLATED) {
+            throw new ZipException("Not in gzip format");
+        }
+        int flags = data[3];
+        int offset = GZIP_HEADER_LENGTH;
+        if ((flags & FEXTRA) != 0) {
+            offset = checkOffset(data, offset + 2);
+            offset += (data[offset - 2] & 0xff) | (data[offset - 1] & 0xff) << 8;
+        }
+        if ((flags & FNAME) != 0) {
+            offset = skipZeroTerminated(data, offset);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            offset = skipZeroTerminated(data, offset);
+        }
+        if ((flags & FHCRC) != 0) {
+            offset += 2;
+        }
+        return checkOffset(data, offset);
+    }
+
+    private static int skipZeroTerminated(byte[] data, int offset) throws ZipException {
+        while (true) {
+            checkOffset(data, offset + 1);
+            if (data[offset++] == 0) {
+                return offset;
+            }
+        }
+    }
+
+    private static int checkOffset(byte[] data, int offset) throws ZipException {
+        if (offset > data.length) {
+            throw new ZipException("Truncated gzip header");
+        }
+        return offset;
+    }
+
+    private static byte[] ensureCapacity(byte[] buf, int count, int extra) {
+        if (count + extra > buf.length) {
+            return Arrays.copyOf(buf, Math.max(buf.length << 1, count + extra));
+        }
+        return buf;
+    }
+
+    private static void writeIntLE(byte[] buf, int offset, int value) {
+        buf[offset] = (byte) value;
+        buf[offset + 1] = (byte) (value >> 8);
+        buf[offset + 2] = (byte) (value >> 16);
+        buf[offset + 3] = (byte) (value >> 24);
+    }
+
+    private static int readIntLE(byte[] buf, int offset) {
+        return (buf[offset] & 0xff) | (buf[offset + 1] & 0xff) << 8 | (buf[offset + 2] & 0xff) << 16
+            | (buf[offset + 3] & 0xff) << 24;
+    }
+}
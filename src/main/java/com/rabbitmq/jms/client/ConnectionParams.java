@@ -38,6 +38,163 @@ public class ConnectionParams {
      */
     private int channelsQos = RMQConnection.NO_CHANNEL_QOS;
 
+    /**
+     * Number of messages pre-fetched by consumers used with
+     * {@link jakarta.jms.MessageConsumer#receive()}.
+     * Default is 0 (no pre-fetching, messages are polled).
+     *
+     * @since 3.3.0
+     */
+    private int receivePrefetch = 0;
+
+    /**
+     * Number of lanes delivering messages to the
+     * {@link jakarta.jms.MessageListener}s of a session concurrently.
+     * Default is 1 (serial delivery).
+     *
+     * @since 3.3.0
+     */
+    private int listenerDispatchLanes = 1;
+
+    /**
+     * Message property that orders concurrent deliveries
+     * to {@link jakarta.jms.MessageListener}s.
+     *
+     * @since 3.3.0
+     */
+    private String listenerDispatchKey = "JMSXGroupID";
+
+    /**
+     * Whether {@link jakarta.jms.MessageListener#onMessage(jakarta.jms.Message)}
+     * runs directly on the thread dispatching messages.
+     * Default is false.
+     *
+     * @since 3.3.0
+     */
+    private boolean directOnMessageDelivery = false;
+
+    /**
+     * Whether message listeners run on virtual threads.
+     * Default is false.
+     *
+     * @since 3.3.0
+     */
+    private boolean useVirtualThreads = false;
+
+    /**
+     * Number of messages acknowledged at once in
+     * {@link jakarta.jms.Session#DUPS_OK_ACKNOWLEDGE} mode.
+     * Default is 64.
+     *
+     * @since 3.3.0
+     */
+    private int ackCoalescingBatchSize = 64;
+
+    /**
+     * Maximum time in milliseconds an acknowledgment is delayed in
+     * {@link jakarta.jms.Session#DUPS_OK_ACKNOWLEDGE} mode.
+     * Default is 100 ms.
+     *
+     * @since 3.3.0
+     */
+    private int ackCoalescingIntervalMs = 100;
+
+    /**
+     * Whether acknowledgments are coalesced in
+     * {@link jakarta.jms.Session#AUTO_ACKNOWLEDGE} mode as well.
+     * Default is false.
+     *
+     * @since 3.3.0
+     */
+    private boolean coalesceAutoAcknowledgements = false;
+
+    /**
+     * Format of the JMS messages sent: 1 for Java serialization,
+     * 2 for the compact format.
+     * Default is 1.
+     *
+     * @since 3.3.0
+     */
+    private int messageFormatVersion = 1;
+
+    /**
+     * Codec to compress the body of the messages sent with,
+     * none by default.
+     *
+     * @since 3.3.0
+     */
+    private CompressionCodec compressionCodec;
+
+    /**
+     * Minimum size in bytes of the message bodies to compress.
+     *
+     * @since 3.3.0
+     */
+    private int compressionThreshold = 1024;
+
+    /**
+     * Maximum size in bytes of the message bodies once decompressed.
+     *
+     * @since 3.3.0
+     */
+    private int maxDecompressedBodySize = CompressionCodecs.DEFAULT_MAX_DECOMPRESSED_BODY_SIZE;
+
+    /**
+     * Generator of the IDs of the messages sent.
+     *
+     * @since 3.3.0
+     */
+    private MessageIdGenerator messageIdGenerator;
+
+    /**
+     * Whether to remember the destinations declared.
+     *
+     * @since 3.3.0
+     */
+    private boolean cacheDeclarations = true;
+
+    /**
+     * Maximum number of message selectors compiled and cached, 0 to not cache selectors.
+     *
+     * @since 3.3.0
+     */
+    private int selectorCacheSize = SelectorCache.DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * Maximum number of unconfirmed messages, 0 for no maximum.
+     *
+     * @since 3.3.0
+     */
+    private int maxOutstandingConfirms = 0;
+
+    /**
+     * How long sending waits for confirms when the maximum of unconfirmed messages is reached.
+     *
+     * @since 3.3.0
+     */
+    private long maxOutstandingConfirmsTimeoutMs = 10_000;
+
+    /**
+     * Whether synchronous sends wait for the publisher confirm of the message.
+     *
+     * @since 3.3.0
+     */
+    private boolean confirmedSends = false;
+
+    /**
+     * How long confirmed and batched sends wait for publisher confirms.
+     *
+     * @since 3.3.0
+     */
+    private long confirmTimeoutMs = 10_000;
+
+    /**
+     * What queue consumers with a message selector do with the messages it does not match.
+     *
+     * @since 3.3.0
+     */
+    private QueueSelectorPolicy queueSelectorPolicy = QueueSelectorPolicy.REQUEUE;
+
     /**
      * Whether {@link MessageProducer} properties (delivery mode,
      * priority, TTL) take precedence over respective {@link Message}
@@ -163,6 +320,186 @@ public class ConnectionParams {
         return this;
     }
 
+    public int getReceivePrefetch() {
+        return receivePrefetch;
+    }
+
+    public ConnectionParams setReceivePrefetch(int receivePrefetch) {
+        this.receivePrefetch = receivePrefetch;
+        return this;
+    }
+
+    public int getListenerDispatchLanes() {
+        return listenerDispatchLanes;
+    }
+
+    public ConnectionParams setListenerDispatchLanes(int listenerDispatchLanes) {
+        this.listenerDispatchLanes = listenerDispatchLanes;
+        return this;
+    }
+
+    public String getListenerDispatchKey() {
+        return listenerDispatchKey;
+    }
+
+    public ConnectionParams setListenerDispatchKey(String listenerDispatchKey) {
+        this.listenerDispatchKey = listenerDispatchKey;
+        return this;
+    }
+
+    public boolean isDirectOnMessageDelivery() {
+        return directOnMessageDelivery;
+    }
+
+    public ConnectionParams setDirectOnMessageDelivery(boolean directOnMessageDelivery) {
+        this.directOnMessageDelivery = directOnMessageDelivery;
+        return this;
+    }
+
+    public boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    public ConnectionParams setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+        return this;
+    }
+
+    public int getAckCoalescingBatchSize() {
+        return ackCoalescingBatchSize;
+    }
+
+    public ConnectionParams setAckCoalescingBatchSize(int ackCoalescingBatchSize) {
+        this.ackCoalescingBatchSize = ackCoalescingBatchSize;
+        return this;
+    }
+
+    public int getAckCoalescingIntervalMs() {
+        return ackCoalescingIntervalMs;
+    }
+
+    public ConnectionParams setAckCoalescingIntervalMs(int ackCoalescingIntervalMs) {
+        this.ackCoalescingIntervalMs = ackCoalescingIntervalMs;
+        return this;
+    }
+
+    public boolean isCoalesceAutoAcknowledgements() {
+        return coalesceAutoAcknowledgements;
+    }
+
+    public ConnectionParams setCoalesceAutoAcknowledgements(boolean coalesceAutoAcknowledgements) {
+        this.coalesceAutoAcknowledgements = coalesceAutoAcknowledgements;
+        return this;
+    }
+
+    public int getMessageFormatVersion() {
+        return messageFormatVersion;
+    }
+
+    public ConnectionParams setMessageFormatVersion(int messageFormatVersion) {
+        this.messageFormatVersion = messageFormatVersion;
+        return this;
+    }
+
+    public CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    public ConnectionParams setCompressionCodec(CompressionCodec compressionCodec) {
+        this.compressionCodec = compressionCodec;
+        return this;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public ConnectionParams setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+        return this;
+    }
+
+    public int getMaxDecompressedBodySize() {
+        return maxDecompressedBodySize;
+    }
+
+    public ConnectionParams setMaxDecompressedBodySize(int maxDecompressedBodySize) {
+        this.maxDecompressedBodySize = maxDecompressedBodySize;
+        return this;
+    }
+
+    public MessageIdGenerator getMessageIdGenerator() {
+        return messageIdGenerator;
+    }
+
+    public ConnectionParams setMessageIdGenerator(MessageIdGenerator messageIdGenerator) {
+        this.messageIdGenerator = messageIdGenerator;
+        return this;
+    }
+
+    public boolean isCacheDeclarations() {
+        return cacheDeclarations;
+    }
+
+    public ConnectionParams setCacheDeclarations(boolean cacheDeclarations) {
+        this.cacheDeclarations = cacheDeclarations;
+        return this;
+    }
+
+    public int getSelectorCacheSize() {
+        return selectorCacheSize;
+    }
+
+    public ConnectionParams setSelectorCacheSize(int selectorCacheSize) {
+        this.selectorCacheSize = selectorCacheSize;
+        return this;
+    }
+
+    public int getMaxOutstandingConfirms() {
+        return maxOutstandingConfirms;
+    }
+
+    public ConnectionParams setMaxOutstandingConfirms(int maxOutstandingConfirms) {
+        this.maxOutstandingConfirms = maxOutstandingConfirms;
+        return this;
+    }
+
+    public long getMaxOutstandingConfirmsTimeoutMs() {
+        return maxOutstandingConfirmsTimeoutMs;
+    }
+
+    public ConnectionParams setMaxOutstandingConfirmsTimeoutMs(long maxOutstandingConfirmsTimeoutMs) {
+        this.maxOutstandingConfirmsTimeoutMs = maxOutstandingConfirmsTimeoutMs;
+        return this;
+    }
+
+    public boolean isConfirmedSends() {
+        return confirmedSends;
+    }
+
+    public ConnectionParams setConfirmedSends(boolean confirmedSends) {
+        this.confirmedSends = confirmedSends;
+        return this;
+    }
+
+    public long getConfirmTimeoutMs() {
+        return confirmTimeoutMs;
+    }
+
+    public ConnectionParams setConfirmTimeoutMs(long confirmTimeoutMs) {
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        return this;
+    }
+
+    public QueueSelectorPolicy getQueueSelectorPolicy() {
+        return queueSelectorPolicy;
+    }
+
+    public ConnectionParams setQueueSelectorPolicy(QueueSelectorPolicy queueSelectorPolicy) {
+        this.queueSelectorPolicy = queueSelectorPolicy;
+        return this;
+    }
+
     public boolean willPreferProducerMessageProperty() {
         return preferProducerMessageProperty;
     }
@@ -0,0 +1,59 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link MessageIdGenerator} made of a random prefix drawn once and a counter, the default.
+ * <p>
+ * IDs are the random UUID of the generator, a colon and the counter in hexadecimal, e.g.
+ * <code>0e5d2a0c-9b4e-4f0a-8a4c-2b8f1c6d3e7a:1f</code>. They are cheaper to generate than random UUIDs, which
+ * draw from a shared {@link java.security.SecureRandom}. Each connection uses its own generator unless one is set
+ * on the connection factory.
+ *
+ * @since 3.3.0
+ */
+public final class CounterMessageIdGenerator implements MessageIdGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] prefix;
+    private final AtomicLong counter = new AtomicLong();
+
+    public CounterMessageIdGenerator() {
+        this.prefix = (UUID.randomUUID() + ":").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public String generateId() {
+        long value = this.counter.incrementAndGet();
+        int digits = Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 3) >> 2);
+        byte[] id = new byte[this.prefix.length + digits];
+        System.arraycopy(this.prefix, 0, id, 0, this.prefix.length);
+        for (int i = id.length - 1; i >= this.prefix.length; i--) {
+            id[i] = HEX_DIGITS[(int) value & 0xf];
+            value >>>= 4;
+        }
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A deserialized copy gets its own prefix, so it does not generate the IDs of the original.
+     */
+    private Object readResolve() {
+        return new CounterMessageIdGenerator();
+    }
+
+    @Override
+    public String toString() {
+        return "CounterMessageIdGenerator{prefix=" + new String(this.prefix, StandardCharsets.US_ASCII) + "}";
+    }
+}
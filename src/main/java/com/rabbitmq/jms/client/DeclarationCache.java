@@ -0,0 +1,86 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exchanges, queues and bindings of destinations already declared on a connection, shared by its sessions.
+ * <p>
+ * A declaration is identified by all its parameters, so a destination declared with other parameters, e.g. other
+ * queue arguments, is declared again and gets the error of the broker. The cache is cleared when a channel or the
+ * connection is closed by an error, e.g. when publishing to an exchange deleted by another application, so the
+ * topology is declared again afterwards.
+ * </p>
+ * <p>
+ * Queues of temporary destinations are not cached, their names are unique. The cache holds at most {@link #MAX_SIZE}
+ * declarations and is cleared when full, declaring again an existing exchange, queue or binding being harmless.
+ * </p>
+ *
+ * @since 3.3.0
+ */
+final class DeclarationCache {
+
+    static final int MAX_SIZE = 10_000;
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final Set<List<Object>> declared = ConcurrentHashMap.newKeySet();
+
+    DeclarationCache(boolean enabled) {
+        this(enabled, MAX_SIZE);
+    }
+
+    DeclarationCache(boolean enabled, int maxSize) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+    }
+
+    static List<Object> exchange(String name, String type, boolean durable) {
+        return Arrays.asList("exchange", name, type, durable);
+    }
+
+    static List<Object> queue(String name, boolean durable, boolean exclusive, boolean autoDelete,
+                              Map<String, Object> arguments) {
+        return Arrays.asList("queue", name, durable, exclusive, autoDelete,
+            arguments == null ? null : new HashMap<>(arguments));
+    }
+
+    static List<Object> binding(String queue, String exchange, String routingKey) {
+        return Arrays.asList("binding", queue, exchange, routingKey);
+    }
+
+    /**
+     * @param declaration a declaration, see {@link #exchange(String, String, boolean)},
+     * {@link #queue(String, boolean, boolean, boolean, Map)} and {@link #binding(String, String, String)}
+     * @return whether the declaration has been made on the connection
+     */
+    boolean isDeclared(List<Object> declaration) {
+        return this.enabled && this.declared.contains(declaration);
+    }
+
+    void declared(List<Object> declaration) {
+        if (this.enabled) {
+            if (this.declared.size() >= this.maxSize) {
+                this.declared.clear();
+            }
+            this.declared.add(declaration);
+        }
+    }
+
+    void clear() {
+        this.declared.clear();
+    }
+
+    int size() {
+        return this.declared.size();
+    }
+}
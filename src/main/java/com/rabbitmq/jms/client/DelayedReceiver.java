@@ -6,6 +6,8 @@
 package com.rabbitmq.jms.client;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +21,12 @@ import com.rabbitmq.jms.util.TimeTracker;
  * The blocking method <code>get()</code> only returns with <code>null</code> when either the Receiver is closed,
  * or the timeout expires.
  * </p>
+ * <p>
+ * Messages are gotten one at a time: the AMQP client has one outstanding RPC per channel, so <code>basic.get</code>
+ * calls cannot be pipelined, even with {@link com.rabbitmq.client.Channel#asyncCompletableRpc}, which waits for the
+ * previous RPC before sending its method, and getting more at once would not save round-trips. Consumers that need
+ * messages pipelined have them pushed instead, see {@link PrefetchingReceiver}.
+ * </p>
  */
 class DelayedReceiver {
 
@@ -26,19 +34,16 @@ class DelayedReceiver {
 
     private static final TimeTracker POLLING_INTERVAL = new TimeTracker(100, TimeUnit.MILLISECONDS); // one tenth of a second
 
-    @SuppressWarnings("unused")
-    private final int batchingSize;
     private final RMQMessageConsumer rmqMessageConsumer;
 
-    private final Object responseLock = new Object();
+    private final ReentrantLock responseLock = new ReentrantLock();
+    private final Condition responseCondition = this.responseLock.newCondition();
     private boolean aborted = false; // @GuardedBy(responseLock)
 
     /**
-     * @param batchingSize - the intended limit of messages that can be pre-fetched.
      * @param rmqMessageConsumer - the JMS MessageConsumer we are serving.
      */
-    public DelayedReceiver(int batchingSize, RMQMessageConsumer rmqMessageConsumer) {
-        this.batchingSize = batchingSize;
+    public DelayedReceiver(RMQMessageConsumer rmqMessageConsumer) {
         this.rmqMessageConsumer = rmqMessageConsumer;
     }
 
@@ -49,16 +54,19 @@ class DelayedReceiver {
      */
     public GetResponse get(TimeTracker tt) {
         try {
-            synchronized (this.responseLock) {
+            this.responseLock.lock();
+            try {
                 GetResponse resp = this.rmqMessageConsumer.getFromRabbitQueue();
                 if (resp != null) return resp;
                 while (!this.aborted && !tt.timedOut()) {
                     resp = this.rmqMessageConsumer.getFromRabbitQueue();
                     if (resp != null)
                         break;
-                    new TimeTracker(POLLING_INTERVAL).timedWait(this.responseLock);
+                    new TimeTracker(POLLING_INTERVAL).timedAwait(this.responseCondition);
                 }
                 return resp;
+            } finally {
+                this.responseLock.unlock();
             }
 
         } catch (InterruptedException e) {
@@ -69,9 +77,12 @@ class DelayedReceiver {
     }
 
     private void abort() {
-        synchronized(this.responseLock) {
+        this.responseLock.lock();
+        try {
             this.aborted = true;
-            this.responseLock.notifyAll();
+            this.responseCondition.signalAll();
+        } finally {
+            this.responseLock.unlock();
         }
     }
 
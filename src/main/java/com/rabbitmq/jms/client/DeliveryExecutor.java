@@ -10,6 +10,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -22,6 +23,11 @@ import com.rabbitmq.jms.util.RMQJMSException;
  * Class to deliver messages to the <code>onMessage()</code> callback. Handles execution on a different thread, timeout
  * if execution takes too long (set on instantiation), and interrupts execution on closure or timeout. Also serialises
  * calls. There is one instance of this executor per session.
+ * <p>
+ * In direct mode, <code>onMessage()</code> runs on the calling thread instead, and a shared {@link OnMessageWatchdog}
+ * interrupts it if it takes too long. The timeout policy is the same as with the executor thread, but a listener that
+ * does not respond to interruption keeps the calling thread until it returns.
+ * </p>
  */
 class DeliveryExecutor {
 
@@ -49,9 +55,24 @@ class DeliveryExecutor {
     private ExecutorService onMessageExecutorService = null;
     private final Object lockOnMessageExecutorService = new Object();
 
+    /** Whether onMessage runs on the calling thread, watched by the {@link OnMessageWatchdog} */
+    private final boolean direct;
+    /** Allocated on the first direct delivery */
+    private volatile OnMessageWatchdog.Watch watch = null; // written under lockOnMessageExecutorService
+    private boolean closed = false; // @GuardedBy(lockOnMessageExecutorService)
+
+    /** Creates the executor thread, <code>null</code> for the default (platform) thread factory */
+    private final ThreadFactory threadFactory;
+
     DeliveryExecutor(long onMessageTimeoutMs, boolean closeOnTimeout) {
+        this(onMessageTimeoutMs, closeOnTimeout, false, null);
+    }
+
+    DeliveryExecutor(long onMessageTimeoutMs, boolean closeOnTimeout, boolean direct, ThreadFactory threadFactory) {
         this.onMessageTimeoutMs = onMessageTimeoutMs;
         this.closeOnTimeout = closeOnTimeout;
+        this.direct = direct;
+        this.threadFactory = threadFactory;
     }
 
     /**
@@ -66,6 +87,9 @@ class DeliveryExecutor {
      * @throws InterruptedException if executing thread is interrupted
      */
     public void deliverMessageWithProtection(RMQMessage rmqMessage, MessageListener messageListener) throws JMSException, InterruptedException {
+        if (this.direct && this.deliverDirectly(rmqMessage, messageListener)) {
+            return;
+        }
         Future<Boolean> task = null;
         try {
             task = this.getExecutorService().submit(new CallOnMessage(rmqMessage, messageListener));
@@ -83,8 +107,59 @@ class DeliveryExecutor {
         }
     }
 
+    /**
+     * Call <code>onMessage</code> on the current thread, under the watch of the {@link OnMessageWatchdog}.
+     * @return <code>false</code> if the message could not be delivered directly, because another thread
+     * is delivering or the executor is closed
+     */
+    private boolean deliverDirectly(RMQMessage rmqMessage, MessageListener messageListener) throws JMSException {
+        OnMessageWatchdog.Watch w = this.watch;
+        if (w == null) {
+            w = this.getWatch();
+        }
+        if (w == null || !w.begin(TimeUnit.MILLISECONDS.toNanos(this.onMessageTimeoutMs))) {
+            return false;
+        }
+        RuntimeException listenerException = null;
+        boolean timedOut;
+        try {
+            messageListener.onMessage(rmqMessage);
+        } catch (RuntimeException e) {
+            listenerException = e;
+        } finally {
+            timedOut = w.end();
+        }
+        if (timedOut) {
+            if (this.closeOnTimeout) {
+                throw new RMQJMSException("onMessage took too long and was interrupted", null);
+            } else {
+                throw new DeliveryProcessingTimeoutException();
+            }
+        }
+        if (listenerException != null) {
+            throw new RMQMessageListenerExecutionJMSException("onMessage threw exception", listenerException);
+        }
+        return true;
+    }
+
+    private OnMessageWatchdog.Watch getWatch() {
+        synchronized (this.lockOnMessageExecutorService) {
+            if (this.watch == null && !this.closed) {
+                this.watch = OnMessageWatchdog.INSTANCE.newWatch();
+            }
+            return this.watch;
+        }
+    }
+
     public void close() {
         closeExecutorService(this.takeExecutorService());
+        synchronized (this.lockOnMessageExecutorService) {
+            this.closed = true;
+            if (this.watch != null) {
+                this.watch.close();
+                this.watch = null;
+            }
+        }
     }
 
     private void closeAbruptly() {
@@ -111,7 +186,8 @@ class DeliveryExecutor {
     private ExecutorService getExecutorService() {
         synchronized (this.lockOnMessageExecutorService) {
             if (this.onMessageExecutorService == null) {
-                this.onMessageExecutorService = Executors.newSingleThreadExecutor();
+                this.onMessageExecutorService = this.threadFactory == null ?
+                    Executors.newSingleThreadExecutor() : Executors.newSingleThreadExecutor(this.threadFactory);
             }
             return this.onMessageExecutorService;
         }
@@ -0,0 +1,229 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+/**
+ * Set of delivery tags of a channel.
+ * <p>
+ * Delivery tags are positive and increase monotonically on a channel, so the tags still tracked are close to each
+ * other. They are kept as bits in a sliding window of 64-bit words: a ring of <code>long</code>s whose first word
+ * holds the lowest tracked tag. Adding, removing and looking up a tag do not allocate and take constant time
+ * (amortised when the window grows); removing every tag up to a given one takes a time proportional to the number of
+ * words it spans.
+ * </p>
+ * <p>
+ * The window spans from the lowest to the highest tracked tag, so a tag that is never removed keeps every later
+ * word in memory (one bit per delivery).
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+final class DeliveryTagTracker {
+
+    /** Value returned when there is no such tag; delivery tags are positive */
+    static final long NONE = -1;
+
+    private static final int INITIAL_WORDS = 16;
+
+    /** Ring of words, its length is a power of 2 */
+    private long[] words = new long[INITIAL_WORDS];
+    /** Index in {@link #words} of the first word of the window */
+    private int head = 0;
+    /** Number of words in the window */
+    private int length = 0;
+    /** Tag divided by 64 of the first word of the window */
+    private long firstWordTag = 0;
+    private int size = 0;
+
+    /**
+     * @return the number of tracked tags
+     */
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Track a delivery tag.
+     * @param tag the delivery tag, positive
+     * @return <code>false</code> if the tag was already tracked
+     */
+    boolean add(long tag) {
+        long wordTag = tag >>> 6;
+        if (this.length == 0) {
+            this.firstWordTag = wordTag;
+            this.length = 1;
+        } else if (wordTag < this.firstWordTag) {
+            this.extendDown(wordTag);
+        } else if (wordTag - this.firstWordTag >= this.length) {
+            this.extendUp(wordTag);
+        }
+        int index = this.index(wordTag);
+        long bit = 1L << tag;
+        if ((this.words[index] & bit) != 0) return false;
+        this.words[index] |= bit;
+        this.size++;
+        return true;
+    }
+
+    /**
+     * @param tag a delivery tag
+     * @return <code>true</code> if the tag is tracked
+     */
+    boolean contains(long tag) {
+        long offset = (tag >>> 6) - this.firstWordTag;
+        if (this.length == 0 || offset < 0 || offset >= this.length) return false;
+        return (this.words[this.index(tag >>> 6)] & (1L << tag)) != 0;
+    }
+
+    /**
+     * Stop tracking a delivery tag.
+     * @param tag the delivery tag
+     * @return <code>false</code> if the tag was not tracked
+     */
+    boolean remove(long tag) {
+        if (!this.contains(tag)) return false;
+        this.words[this.index(tag >>> 6)] &= ~(1L << tag);
+        this.size--;
+        this.trim();
+        return true;
+    }
+
+    /**
+     * Stop tracking every delivery tag lower than or equal to the given one.
+     * @param tag the delivery tag
+     * @return the number of tags no longer tracked
+     */
+    int removeUpTo(long tag) {
+        if (this.length == 0 || tag < (this.firstWordTag << 6)) return 0;
+        int removed = 0;
+        long lastWordTag = Math.min(tag >>> 6, this.firstWordTag + this.length - 1);
+        for (long wordTag = this.firstWordTag; wordTag <= lastWordTag; wordTag++) {
+            int index = this.index(wordTag);
+            long mask = wordTag < (tag >>> 6) ? -1L : -1L >>> (63 - (tag & 63));
+            removed += Long.bitCount(this.words[index] & mask);
+            this.words[index] &= ~mask;
+        }
+        this.size -= removed;
+        this.trim();
+        return removed;
+    }
+
+    /**
+     * Stop tracking all tags.
+     */
+    void clear() {
+        for (int i = 0; i < this.length; i++) {
+            this.words[(this.head + i) & (this.words.length - 1)] = 0;
+        }
+        this.head = 0;
+        this.length = 0;
+        this.size = 0;
+    }
+
+    /**
+     * @return the lowest tracked tag, or {@link #NONE}
+     */
+    long first() {
+        if (this.size == 0) return NONE;
+        // the first word of the window is never empty
+        return (this.firstWordTag << 6) + Long.numberOfTrailingZeros(this.words[this.head]);
+    }
+
+    /**
+     * @return the highest tracked tag, or {@link #NONE}
+     */
+    long last() {
+        return this.lastUpTo(Long.MAX_VALUE);
+    }
+
+    /**
+     * @param tag a delivery tag
+     * @return the highest tracked tag lower than or equal to the given one, or {@link #NONE}
+     */
+    long lastUpTo(long tag) {
+        if (this.size == 0 || tag < (this.firstWordTag << 6)) return NONE;
+        long wordTag = Math.min(tag >>> 6, this.firstWordTag + this.length - 1);
+        long mask = wordTag < (tag >>> 6) ? -1L : -1L >>> (63 - (tag & 63));
+        for (; wordTag >= this.firstWordTag; wordTag--) {
+            long word = this.words[this.index(wordTag)] & mask;
+            if (word != 0) {
+                return (wordTag << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            mask = -1L;
+        }
+        return NONE;
+    }
+
+    /**
+     * @param tag a delivery tag
+     * @return the lowest tracked tag greater than or equal to the given one, or {@link #NONE}
+     */
+    long firstFrom(long tag) {
+        if (this.size == 0) return NONE;
+        long wordTag = Math.max(tag >>> 6, this.firstWordTag);
+        long mask = wordTag > (tag >>> 6) ? -1L : -1L << tag;
+        long lastWordTag = this.firstWordTag + this.length - 1;
+        for (; wordTag <= lastWordTag; wordTag++) {
+            long word = this.words[this.index(wordTag)] & mask;
+            if (word != 0) {
+                return (wordTag << 6) + Long.numberOfTrailingZeros(word);
+            }
+            mask = -1L;
+        }
+        return NONE;
+    }
+
+    private int index(long wordTag) {
+        return (int) (this.head + (wordTag - this.firstWordTag)) & (this.words.length - 1);
+    }
+
+    /** Drop empty words at both ends of the window, so that the first word holds the lowest tag. */
+    private void trim() {
+        if (this.size == 0) {
+            this.clear();
+            return;
+        }
+        while (this.words[this.head] == 0) {
+            this.head = (this.head + 1) & (this.words.length - 1);
+            this.firstWordTag++;
+            this.length--;
+        }
+        while (this.words[(this.head + this.length - 1) & (this.words.length - 1)] == 0) {
+            this.length--;
+        }
+    }
+
+    private void extendUp(long wordTag) {
+        int newLength = (int) Math.min(Integer.MAX_VALUE, wordTag - this.firstWordTag + 1);
+        this.ensureCapacity(newLength);
+        this.length = newLength;
+    }
+
+    private void extendDown(long wordTag) {
+        int newLength = (int) Math.min(Integer.MAX_VALUE, this.firstWordTag - wordTag + this.length);
+        int shift = newLength - this.length;
+        this.ensureCapacity(newLength);
+        this.head = (this.head - shift) & (this.words.length - 1);
+        this.firstWordTag = wordTag;
+        this.length = newLength;
+    }
+
+    private void ensureCapacity(int newLength) {
+        if (newLength <= this.words.length) return;
+        int capacity = Integer.highestOneBit(newLength - 1) << 1;
+        long[] newWords = new long[capacity];
+        for (int i = 0; i < this.length; i++) {
+            newWords[i] = this.words[(this.head + i) & (this.words.length - 1)];
+        }
+        this.words = newWords;
+        this.head = 0;
+    }
+}
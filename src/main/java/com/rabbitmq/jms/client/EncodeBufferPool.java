@@ -0,0 +1,123 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.rabbitmq.jms.util.CompactEncoder;
+import com.rabbitmq.jms.util.RMQByteArrayOutputStream;
+
+/**
+ * Pool of the arrays the messages of a session are encoded into before they are published.
+ * <p>
+ * The pool keeps one array and a moving average of the sizes of the messages encoded. Arrays are handed out in
+ * power-of-two size classes, the class being that of the average plus some headroom, so encoding seldom has to grow
+ * the array. A kept array much larger than recent messages is dropped, so one large message does not pin memory, and
+ * arrays larger than {@link #MAX_POOLED_SIZE} are never kept.
+ * </p>
+ * <p>
+ * The pool is guarded by the publishing lock of the session, which is only held while an array is taken or given
+ * back, not while a message is encoded into it. Producers of the session encoding messages from several threads at
+ * once get new arrays while the pooled one is in use. Memory is kept per session, not per thread, so sending from
+ * many short-lived threads, e.g. virtual threads, does not keep an array for each of them.
+ * </p>
+ * <p>
+ * The encoded bytes are still copied once into an array of the exact length, which is what the AMQP client publishes.
+ * </p>
+ *
+ * @since 3.3.0
+ */
+final class EncodeBufferPool {
+
+    static final int MIN_SIZE = Math.max(16, Integer.highestOneBit(RMQMessage.DEFAULT_MESSAGE_BODY_SIZE));
+    static final int MAX_POOLED_SIZE = Integer.getInteger("com.rabbitmq.jms.client.message.pool.max.size", 1024 * 1024);
+
+    /** A kept array this many times larger than the current size class is dropped */
+    private static final int SHRINK_FACTOR = 4;
+
+    private final Lock lock;
+    private byte[] pooled; // @GuardedBy(lock)
+    private int averageSize = MIN_SIZE; // @GuardedBy(lock)
+
+    /**
+     * Pool with its own lock, for messages encoded outside a session.
+     */
+    EncodeBufferPool() {
+        this(new ReentrantLock());
+    }
+
+    /**
+     * @param lock the lock guarding the pool, the publishing lock of the session
+     */
+    EncodeBufferPool(Lock lock) {
+        this.lock = lock;
+    }
+
+    /**
+     * @return an array to encode a message into, to give back with {@link #release(byte[], int)}
+     */
+    byte[] acquire() {
+        int size;
+        byte[] buf;
+        this.lock.lock();
+        try {
+            size = sizeClass(this.averageSize + (this.averageSize >> 2));
+            buf = this.pooled;
+            this.pooled = null;
+        } finally {
+            this.lock.unlock();
+        }
+        if (buf == null || buf.length < size || buf.length / SHRINK_FACTOR >= size) {
+            buf = new byte[size];
+        }
+        return buf;
+    }
+
+    /**
+     * Gives an array back to the pool.
+     * @param buf the array, possibly replaced by a larger one while encoding
+     * @param used number of bytes encoded into it
+     */
+    void release(byte[] buf, int used) {
+        this.lock.lock();
+        try {
+            // exponential moving average, weight 1/8
+            this.averageSize += (used - this.averageSize) >> 3;
+            if (buf.length <= MAX_POOLED_SIZE) {
+                this.pooled = buf;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    RMQByteArrayOutputStream outputStream() {
+        return new RMQByteArrayOutputStream(this.acquire());
+    }
+
+    void release(RMQByteArrayOutputStream out) {
+        this.release(out.buffer(), out.size());
+    }
+
+    CompactEncoder encoder() {
+        return new CompactEncoder(this.acquire());
+    }
+
+    void release(CompactEncoder out) {
+        this.release(out.buffer(), out.size());
+    }
+
+    static int sizeClass(int size) {
+        if (size <= MIN_SIZE) {
+            return MIN_SIZE;
+        }
+        if (size > MAX_POOLED_SIZE) {
+            return size;
+        }
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+}
@@ -0,0 +1,235 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.jms.JMSException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rabbitmq.jms.util.TimeTracker;
+
+/**
+ * Dispatches the deliveries of a session to its message listeners on several ordered lanes.
+ * <p>
+ * A message is assigned to a lane by hashing its dispatch key, which is the <code>JMSXGroupID</code> property by default,
+ * the <code>JMSCorrelationID</code> header, or any other message property. Messages with the same key are delivered one at
+ * a time and in order, messages with different keys may be delivered in parallel. Messages without a key are spread over
+ * the lanes.
+ * </p>
+ * <p>
+ * Each lane uses its own {@link DeliveryExecutor}, so <code>onMessage</code> timeouts are handled as in serial delivery.
+ * There is one instance of this dispatcher per session, if the session is configured with more than one lane.
+ * </p>
+ */
+class KeyOrderedDispatcher {
+
+    private final Logger logger = LoggerFactory.getLogger(KeyOrderedDispatcher.class);
+
+    static final String DEFAULT_DISPATCH_KEY = RMQConnectionMetaData.JMSX_GROUP_ID_LABEL;
+    private static final String CORRELATION_ID_KEY = "JMSCorrelationID";
+
+    /** Work dispatched to a lane: delivery to the listener and acknowledgement. */
+    @FunctionalInterface
+    interface LaneTask {
+        void run(DeliveryExecutor deliveryExecutor) throws JMSException, InterruptedException;
+    }
+
+    private final String dispatchKey;
+    private final Lane[] lanes;
+    private final long onMessageTimeoutMs;
+    /** Delivery tags dispatched to a lane and not settled yet (neither acknowledged nor tracked as unacknowledged). */
+    private final ConcurrentSkipListSet<Long> pendingTags = new ConcurrentSkipListSet<>();
+    /** Incremented when pending messages have been requeued by the session, so they must not be delivered. */
+    private final AtomicInteger generation = new AtomicInteger(0);
+    private final ThreadLocal<Lane> currentLane = new ThreadLocal<>();
+
+    /**
+     * @param laneCount number of lanes (at least 2)
+     * @param dispatchKey name of the property (or <code>JMSCorrelationID</code>) that orders messages
+     * @param onMessageTimeoutMs timeout for <code>onMessage</code> executions
+     * @param closeOnTimeout whether lanes are closed abruptly when <code>onMessage</code> times out
+     * @param directDelivery whether <code>onMessage</code> runs on the lane thread (see {@link DeliveryExecutor})
+     * @param threadFactory creates lane threads, <code>null</code> for the default (platform) thread factory
+     */
+    KeyOrderedDispatcher(int laneCount, String dispatchKey, long onMessageTimeoutMs, boolean closeOnTimeout, boolean directDelivery,
+                         ThreadFactory threadFactory) {
+        this.dispatchKey = dispatchKey == null ? DEFAULT_DISPATCH_KEY : dispatchKey;
+        this.onMessageTimeoutMs = onMessageTimeoutMs;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            this.lanes[i] = new Lane(new DeliveryExecutor(onMessageTimeoutMs, closeOnTimeout, directDelivery, threadFactory), threadFactory);
+        }
+    }
+
+    /**
+     * Dispatch a message to the lane of its key. Does not block.
+     * @param rmqMessage the message to deliver
+     * @param deliveryTag the delivery tag of the message
+     * @param task what to do with the message on the lane
+     * @throws JMSException if the dispatch key of the message cannot be read
+     */
+    void dispatch(RMQMessage rmqMessage, long deliveryTag, LaneTask task) throws JMSException {
+        Object key = this.keyOf(rmqMessage);
+        int hash = key == null ? Long.hashCode(deliveryTag) : spread(key.hashCode());
+        Lane lane = this.lanes[Math.floorMod(hash, this.lanes.length)];
+        int dispatchGeneration = this.generation.get();
+        this.pendingTags.add(deliveryTag);
+        try {
+            lane.executorService().execute(() -> this.runOnLane(lane, deliveryTag, dispatchGeneration, task));
+        } catch (RejectedExecutionException e) {
+            this.pendingTags.remove(deliveryTag);
+            throw new RMQMessageListenerExecutionJMSException("Dispatcher is closed", e);
+        }
+    }
+
+    private void runOnLane(Lane lane, long deliveryTag, int dispatchGeneration, LaneTask task) {
+        this.currentLane.set(lane);
+        try {
+            if (dispatchGeneration != this.generation.get()) {
+                logger.debug("skipping delivery of requeued message (dtag={})", deliveryTag);
+                return;
+            }
+            task.run(lane.deliveryExecutor);
+        } catch (InterruptedException e) {
+            logger.warn("Message delivery has been interrupted", e);
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Error while delivering message (dtag={})", deliveryTag, e);
+        } finally {
+            this.pendingTags.remove(deliveryTag);
+            this.currentLane.remove();
+        }
+    }
+
+    private Object keyOf(RMQMessage rmqMessage) throws JMSException {
+        if (CORRELATION_ID_KEY.equals(this.dispatchKey)) {
+            return rmqMessage.getJMSCorrelationID();
+        }
+        return rmqMessage.getObjectProperty(this.dispatchKey);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return the lowest delivery tag dispatched and not settled yet, or {@link Long#MAX_VALUE} if there is none.
+     * A cumulative acknowledgement must not go beyond this tag.
+     */
+    long lowestPendingTag() {
+        try {
+            return this.pendingTags.first();
+        } catch (java.util.NoSuchElementException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Messages dispatched so far have been requeued by the session; they will not be delivered.
+     */
+    void discardPending() {
+        this.generation.incrementAndGet();
+    }
+
+    /**
+     * Wait for the messages dispatched so far to be processed, except on the calling thread's own lane.
+     * @param tt time available
+     * @return <code>true</code> if all lanes caught up in time, <code>false</code> otherwise
+     */
+    boolean awaitIdle(TimeTracker tt) {
+        Lane ownLane = this.currentLane.get();
+        for (Lane lane : this.lanes) {
+            if (lane == ownLane) continue;
+            ExecutorService es = lane.existingExecutorService();
+            if (es == null) continue;
+            try {
+                Future<?> barrier = es.submit(() -> { });
+                barrier.get(tt.remainingNanos(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException | ExecutionException e) {
+                // lane closed, nothing to wait for
+            } catch (TimeoutException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Close the lanes, waiting for messages already dispatched to be processed.
+     */
+    void close() {
+        for (Lane lane : this.lanes) {
+            ExecutorService es = lane.takeExecutorService();
+            if (es != null) {
+                es.shutdown();
+                try {
+                    if (!es.awaitTermination(this.onMessageTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        es.shutdownNow();
+                    }
+                } catch (InterruptedException e) {
+                    es.shutdownNow();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            lane.deliveryExecutor.close();
+        }
+    }
+
+    private static final class Lane {
+        private final DeliveryExecutor deliveryExecutor;
+        private final ThreadFactory threadFactory;
+        /** Executor allocated when the first message is dispatched to this lane. */
+        private ExecutorService executorService = null; // @GuardedBy(lock)
+        private boolean closed = false; // @GuardedBy(lock)
+        private final Object lock = new Object();
+
+        private Lane(DeliveryExecutor deliveryExecutor, ThreadFactory threadFactory) {
+            this.deliveryExecutor = deliveryExecutor;
+            this.threadFactory = threadFactory;
+        }
+
+        private ExecutorService executorService() {
+            synchronized (this.lock) {
+                if (this.closed) throw new RejectedExecutionException("Lane is closed");
+                if (this.executorService == null) {
+                    this.executorService = this.threadFactory == null ?
+                        Executors.newSingleThreadExecutor() : Executors.newSingleThreadExecutor(this.threadFactory);
+                }
+                return this.executorService;
+            }
+        }
+
+        private ExecutorService existingExecutorService() {
+            synchronized (this.lock) {
+                return this.executorService;
+            }
+        }
+
+        private ExecutorService takeExecutorService() {
+            synchronized (this.lock) {
+                ExecutorService es = this.executorService;
+                this.executorService = null;
+                this.closed = true;
+                return es;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.io.Serializable;
+
+/**
+ * Generates the IDs of the messages sent, see {@link jakarta.jms.Message#getJMSMessageID()}.
+ * <p>
+ * Implementations must be thread-safe, as the generator of a connection is used by all its sessions.
+ *
+ * @see CounterMessageIdGenerator
+ * @see UuidMessageIdGenerator
+ * @see com.rabbitmq.jms.admin.RMQConnectionFactory#setMessageIdGenerator(MessageIdGenerator)
+ * @since 3.3.0
+ */
+public interface MessageIdGenerator extends Serializable {
+
+    /**
+     * Generates a message ID, unique across all the messages sent. The <code>ID:</code> prefix of JMS message IDs is
+     * added by the caller.
+     *
+     * @return the message ID, without the <code>ID:</code> prefix
+     */
+    String generateId();
+}
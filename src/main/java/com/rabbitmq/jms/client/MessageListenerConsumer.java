@@ -6,10 +6,16 @@
 package com.rabbitmq.jms.client;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import jakarta.jms.JMSException;
+import jakarta.jms.Message;
 import jakarta.jms.MessageListener;
 
 import com.rabbitmq.jms.util.RMQJMSException;
@@ -55,6 +61,12 @@ class MessageListenerConsumer implements Consumer, Abortable {
 
     private final ReceivingContextConsumer receivingContextConsumer;
 
+    /** Set when the listener receives messages in batches */
+    private final BatchMessageListener batchListener;
+    private final ReentrantLock batchLock = new ReentrantLock();
+    private final List<RMQMessage> batch = new ArrayList<>(); // @GuardedBy(batchLock)
+    private ScheduledFuture<?> batchFlush = null; // @GuardedBy(batchLock)
+
     /**
      * Constructor
      * @param messageConsumer to which this Rabbit Consumer belongs
@@ -79,6 +91,10 @@ class MessageListenerConsumer implements Consumer, Abortable {
         this.skipAck = messageConsumer.amqpAutoAck();
         this.receivingContextConsumer = receivingContextConsumer;
         this.requeueOnTimeout = requeueOnTimeout;
+        this.batchListener = messageListener instanceof BatchMessageListener ? (BatchMessageListener) messageListener : null;
+        if (this.batchListener != null) {
+            messageConsumer.getSession().batchListenerSet();
+        }
     }
 
     private String getConsTag() {
@@ -124,17 +140,33 @@ class MessageListenerConsumer implements Consumer, Abortable {
     @Override
     public void handleDelivery(String consumerTag, Envelope envelope, BasicProperties properties, byte[] body) throws IOException {
         logger.trace("consumerTag='{}' envelope='{}'", consumerTag, envelope);
+        if (this.skipAck) {
+            this.messageConsumer.getSession().autoAcknowledged(envelope.getDeliveryTag());
+        }
         if (this.rejecting) {
             long dtag = envelope.getDeliveryTag();
             logger.debug("basicNack: dtag='{}'", dtag);
             nack(dtag);
             return;
         }
+        if (!this.messageConsumer.isSelected(envelope, properties)) {
+            return;
+        }
         /* Wrap the incoming message in a GetResponse */
         GetResponse response = new GetResponse(envelope, properties, body, 0); // last parameter is remaining message count, which we don't know.
         try {
             long dtag = envelope.getDeliveryTag();
-            if (this.messageListener != null) {
+            KeyOrderedDispatcher dispatcher = this.messageConsumer.getSession().getKeyOrderedDispatcher();
+            if (this.batchListener != null) {
+                RMQMessage msg = RMQMessage.convertMessage(this.messageConsumer.getSession(), this.messageConsumer.getDestination(),
+                    response, this.receivingContextConsumer);
+                this.addToBatch(msg);
+            } else if (this.messageListener != null && dispatcher != null) {
+                // delivery and acknowledgment happen on the lane of the message key, this thread moves on
+                RMQMessage msg = RMQMessage.convertMessage(this.messageConsumer.getSession(), this.messageConsumer.getDestination(),
+                    response, this.receivingContextConsumer);
+                dispatcher.dispatch(msg, dtag, deliveryExecutor -> this.deliverOnLane(msg, dtag, deliveryExecutor));
+            } else if (this.messageListener != null) {
                 if (this.requeueOnMessageListenerException) {
                     // requeuing in case of RuntimeException from the listener
                     // see https://github.com/rabbitmq/rabbitmq-jms-client/issues/23
@@ -184,6 +216,169 @@ class MessageListenerConsumer implements Consumer, Abortable {
         }
     }
 
+    /**
+     * Deliver a message dispatched to a lane of the session {@link KeyOrderedDispatcher}, then acknowledge it.
+     * Same acknowledgment and requeuing rules as the serial delivery in {@link #handleDelivery}, except that
+     * a delivery error cannot fail the channel from a lane: the consumer stops consuming instead.
+     */
+    private void deliverOnLane(RMQMessage msg, long dtag, DeliveryExecutor deliveryExecutor) throws InterruptedException {
+        if (this.rejecting) {
+            logger.debug("basicNack: dtag='{}' (consumer stopped)", dtag);
+            nack(dtag);
+            return;
+        }
+        if (this.requeueOnMessageListenerException) {
+            this.messageConsumer.getSession().addUncommittedTag(dtag);
+            try {
+                deliveryExecutor.deliverMessageWithProtection(msg, this.messageListener);
+            } catch (DeliveryExecutor.DeliveryProcessingTimeoutException timeoutException) {
+                logger.debug("nacking {} because of timeout", dtag);
+                nack(dtag);
+                return;
+            } catch (JMSException e) {
+                if (!(e instanceof RMQMessageListenerExecutionJMSException && e.getCause() instanceof RuntimeException)) {
+                    logger.error("Error while delivering message, stopping consumer", e);
+                }
+                nack(dtag);
+                this.abort();
+                return;
+            }
+            dealWithAcknowledgments(dtag);
+        } else {
+            dealWithAcknowledgments(dtag);
+            this.messageConsumer.getSession().addUncommittedTag(dtag);
+            try {
+                deliveryExecutor.deliverMessageWithProtection(msg, this.messageListener);
+            } catch (JMSException e) {
+                logger.error("Error while delivering message, stopping consumer", e);
+                this.abort();
+            }
+        }
+    }
+
+    private void addToBatch(RMQMessage msg) throws JMSException, InterruptedException {
+        this.batchLock.lock();
+        try {
+            this.batch.add(msg);
+            if (this.batch.size() >= this.batchListener.getMaxBatchSize()) {
+                this.deliverBatch();
+            } else if (this.batchFlush == null) {
+                // the listener may take long, it is not called on a timer thread
+                this.batchFlush = ClientScheduler.schedule(() -> ClientScheduler.execute(this::flushBatch),
+                    this.batchListener.getMaxBatchDelayMs(), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            this.batchLock.unlock();
+        }
+    }
+
+    /**
+     * Deliver the incomplete batch whose delay expired. Runs on a worker thread of the {@link ClientScheduler}, so a
+     * delivery error cannot fail the channel: the consumer stops consuming instead.
+     */
+    private void flushBatch() {
+        this.batchLock.lock();
+        try {
+            this.batchFlush = null;
+            if (!this.batch.isEmpty()) {
+                this.deliverBatch();
+            }
+        } catch (JMSException e) {
+            logger.error("Error while delivering batch of messages, stopping consumer", e);
+            this.abort();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.batchLock.unlock();
+        }
+    }
+
+    /**
+     * Deliver the current batch, then acknowledge it, with the same requeuing rules as single messages.
+     */
+    private void deliverBatch() throws JMSException, InterruptedException { // @GuardedBy(batchLock)
+        if (this.batchFlush != null) {
+            this.batchFlush.cancel(false);
+            this.batchFlush = null;
+        }
+        List<RMQMessage> messages = new ArrayList<>(this.batch);
+        this.batch.clear();
+        long[] dtags = new long[messages.size()];
+        for (int i = 0; i < dtags.length; i++) {
+            dtags[i] = messages.get(i).getRabbitDeliveryTag();
+        }
+        if (this.rejecting) {
+            logger.debug("basicNack: {} messages (consumer stopped)", dtags.length);
+            nackAll(dtags);
+            return;
+        }
+        RMQSession session = this.messageConsumer.getSession();
+        List<Message> batchView = Collections.unmodifiableList(messages);
+        MessageListener batchDelivery = message -> this.batchListener.onMessages(batchView);
+        for (long dtag : dtags) {
+            session.addUncommittedTag(dtag);
+        }
+        if (this.requeueOnMessageListenerException) {
+            try {
+                session.deliverMessage(messages.get(messages.size() - 1), batchDelivery);
+            } catch (DeliveryExecutor.DeliveryProcessingTimeoutException timeoutException) {
+                // happens only if requeueOnTimeout is true
+                logger.debug("nacking {} messages because of timeout", dtags.length);
+                nackAll(dtags);
+                return;
+            } catch (RMQMessageListenerExecutionJMSException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    nackAll(dtags);
+                    this.abort();
+                    return;
+                }
+                throw e;
+            }
+            acknowledgeBatch(dtags);
+        } else {
+            // "historical" behavior, messages are acknowledged before delivery
+            acknowledgeBatch(dtags);
+            session.deliverMessage(messages.get(messages.size() - 1), batchDelivery);
+        }
+    }
+
+    private void acknowledgeBatch(long[] dtags) {
+        if (skipAck) return;
+        if (this.autoAck) {
+            this.messageConsumer.getSession().explicitAckAll(dtags);
+        } else {
+            for (long dtag : dtags) {
+                this.messageConsumer.dealWithAcknowledgements(false, dtag);
+            }
+        }
+    }
+
+    private void nackAll(long[] dtags) {
+        for (long dtag : dtags) {
+            nack(dtag);
+        }
+    }
+
+    /**
+     * Requeue the messages of the current batch and cancel its delayed delivery.
+     */
+    private void discardBatch() {
+        if (this.batchListener == null) return;
+        this.batchLock.lock();
+        try {
+            if (this.batchFlush != null) {
+                this.batchFlush.cancel(false);
+                this.batchFlush = null;
+            }
+            for (RMQMessage msg : this.batch) {
+                nack(msg.getRabbitDeliveryTag());
+            }
+            this.batch.clear();
+        } finally {
+            this.batchLock.unlock();
+        }
+    }
+
     private void nack(long dtag) {
         if (!skipAck) {
             this.messageConsumer.getSession().explicitNack(dtag);
@@ -227,6 +422,7 @@ class MessageListenerConsumer implements Consumer, Abortable {
         }
         this.rejecting = true;
         this.completion.setComplete();
+        this.discardBatch();
     }
 
     @Override
@@ -256,6 +452,7 @@ class MessageListenerConsumer implements Consumer, Abortable {
                 logger.error("basicCancel (consumerTag='{}') threw unexpected exception", cT, e);
             }
         }
+        this.discardBatch();
     }
 
     @Override
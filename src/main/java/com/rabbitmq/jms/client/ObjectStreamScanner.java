@@ -0,0 +1,292 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the primitive data written by {@link java.io.ObjectOutputStream} and {@link RMQMessage#writePrimitive(Object,
+ * java.io.ObjectOutput)} straight from the encoded bytes, without {@link java.io.ObjectInputStream}.
+ * <p>
+ * Primitive data is written in block data records, which this scanner reads across. Any other content, e.g. a
+ * serialized object, cannot be scanned: methods then throw {@link NotScannableException} and the caller falls back
+ * to {@link java.io.ObjectInputStream}. Malformed or truncated data is reported the same way.
+ * </p>
+ * <p>
+ * Not thread-safe.
+ * </p>
+ */
+final class ObjectStreamScanner {
+
+    private static final byte TC_BLOCKDATA = (byte) 0x77;
+    private static final byte TC_BLOCKDATALONG = (byte) 0x7A;
+
+    private final byte[] buf;
+    /** Read position in {@link #buf} */
+    private int pos;
+    /** End of the current block data record */
+    private int blockEnd;
+
+    /**
+     * @param buf bytes written by an {@link java.io.ObjectOutputStream}
+     * @throws NotScannableException if the bytes do not start with a serialization stream header
+     */
+    ObjectStreamScanner(byte[] buf) throws NotScannableException {
+        if (buf.length < 4 || buf[0] != (byte) 0xAC || buf[1] != (byte) 0xED || buf[2] != 0 || buf[3] != 5) {
+            throw NotScannableException.INSTANCE;
+        }
+        this.buf = buf;
+        this.pos = 4;
+        this.blockEnd = 4;
+    }
+
+    int readUnsignedByte() throws NotScannableException {
+        if (this.pos == this.blockEnd) {
+            nextBlock();
+        }
+        return this.buf[this.pos++] & 0xFF;
+    }
+
+    byte readByte() throws NotScannableException {
+        return (byte) readUnsignedByte();
+    }
+
+    int readUnsignedShort() throws NotScannableException {
+        if (this.blockEnd - this.pos >= 2) {
+            int value = ((this.buf[this.pos] & 0xFF) << 8) | (this.buf[this.pos + 1] & 0xFF);
+            this.pos += 2;
+            return value;
+        }
+        return (readUnsignedByte() << 8) | readUnsignedByte();
+    }
+
+    int readInt() throws NotScannableException {
+        if (this.blockEnd - this.pos >= 4) {
+            int value = ((this.buf[this.pos] & 0xFF) << 24) | ((this.buf[this.pos + 1] & 0xFF) << 16)
+                | ((this.buf[this.pos + 2] & 0xFF) << 8) | (this.buf[this.pos + 3] & 0xFF);
+            this.pos += 4;
+            return value;
+        }
+        return (readUnsignedByte() << 24) | (readUnsignedByte() << 16) | (readUnsignedByte() << 8) | readUnsignedByte();
+    }
+
+    long readLong() throws NotScannableException {
+        return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    void skip(long length) throws NotScannableException {
+        if (length < 0) {
+            throw NotScannableException.INSTANCE;
+        }
+        while (length > 0) {
+            if (this.pos == this.blockEnd) {
+                nextBlock();
+            }
+            int step = (int) Math.min(length, this.blockEnd - this.pos);
+            this.pos += step;
+            length -= step;
+        }
+    }
+
+    /**
+     * @return a string written with {@link java.io.DataOutput#writeUTF(String)}
+     */
+    String readUTF() throws NotScannableException {
+        int length = readUnsignedShort();
+        if (this.blockEnd - this.pos >= length && isAscii(this.buf, this.pos, length)) {
+            String value = new String(this.buf, this.pos, length, StandardCharsets.ISO_8859_1);
+            this.pos += length;
+            return value;
+        }
+        char[] chars = new char[length];
+        int count = 0;
+        int consumed = 0;
+        while (consumed < length) {
+            int c = readUnsignedByte();
+            consumed += utfCharLength(c);
+            if (consumed > length) {
+                throw NotScannableException.INSTANCE;
+            }
+            chars[count++] = readUtfChar(c);
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Compares a string written with {@link java.io.DataOutput#writeUTF(String)} with the given one, without
+     * decoding it into a new string. The string is consumed whatever the outcome.
+     *
+     * @param expected the string to compare with
+     * @return whether the strings are equal
+     */
+    boolean utfEquals(String expected) throws NotScannableException {
+        int length = readUnsignedShort();
+        boolean equal = true;
+        int index = 0;
+        int consumed = 0;
+        while (consumed < length) {
+            int c = readUnsignedByte();
+            consumed += utfCharLength(c);
+            if (consumed > length) {
+                throw NotScannableException.INSTANCE;
+            }
+            char ch = readUtfChar(c);
+            if (equal && (index >= expected.length() || expected.charAt(index) != ch)) {
+                equal = false;
+            }
+            index++;
+        }
+        return equal && index == expected.length();
+    }
+
+    /**
+     * @return a value written with {@link RMQMessage#writePrimitive(Object, java.io.ObjectOutput, boolean)}
+     * @throws NotScannableException if the value is a serialized object
+     */
+    Object readPrimitive() throws NotScannableException {
+        byte type = readByte();
+        switch (type) {
+        case -1:
+            return null;
+        case 1:
+            return readUnsignedByte() != 0;
+        case 2:
+            return readByte();
+        case 3:
+            return (short) readUnsignedShort();
+        case 4:
+            return readInt();
+        case 5:
+            return readLong();
+        case 6:
+            return Float.intBitsToFloat(readInt());
+        case 7:
+            return Double.longBitsToDouble(readLong());
+        case 8:
+            return readUTF();
+        case 9:
+            return (char) readUnsignedShort();
+        case 10: {
+            int length = readInt();
+            if (length < 0 || length > this.buf.length) {
+                throw NotScannableException.INSTANCE;
+            }
+            byte[] value = new byte[length];
+            for (int i = 0; i < length; i++) {
+                value[i] = readByte();
+            }
+            return value;
+        }
+        default:
+            throw NotScannableException.INSTANCE;
+        }
+    }
+
+    /**
+     * Skips a value written with {@link RMQMessage#writePrimitive(Object, java.io.ObjectOutput, boolean)}.
+     * @throws NotScannableException if the value is a serialized object
+     */
+    void skipPrimitive() throws NotScannableException {
+        byte type = readByte();
+        switch (type) {
+        case -1:
+            break;
+        case 1:
+        case 2:
+            skip(1);
+            break;
+        case 3:
+        case 9:
+            skip(2);
+            break;
+        case 4:
+        case 6:
+            skip(4);
+            break;
+        case 5:
+        case 7:
+            skip(8);
+            break;
+        case 8:
+            skip(readUnsignedShort());
+            break;
+        case 10:
+            skip(readInt());
+            break;
+        default:
+            throw NotScannableException.INSTANCE;
+        }
+    }
+
+    private void nextBlock() throws NotScannableException {
+        if (this.pos + 2 > this.buf.length) {
+            throw NotScannableException.INSTANCE;
+        }
+        byte tc = this.buf[this.pos];
+        int length;
+        if (tc == TC_BLOCKDATA) {
+            length = this.buf[this.pos + 1] & 0xFF;
+            this.pos += 2;
+        } else if (tc == TC_BLOCKDATALONG && this.pos + 5 <= this.buf.length) {
+            length = ((this.buf[this.pos + 1] & 0xFF) << 24) | ((this.buf[this.pos + 2] & 0xFF) << 16)
+                | ((this.buf[this.pos + 3] & 0xFF) << 8) | (this.buf[this.pos + 4] & 0xFF);
+            this.pos += 5;
+        } else {
+            throw NotScannableException.INSTANCE;
+        }
+        if (length <= 0 || length > this.buf.length - this.pos) {
+            throw NotScannableException.INSTANCE;
+        }
+        this.blockEnd = this.pos + length;
+    }
+
+    private static int utfCharLength(int firstByte) throws NotScannableException {
+        switch (firstByte >> 4) {
+        case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+            return 1;
+        case 12: case 13:
+            return 2;
+        case 14:
+            return 3;
+        default:
+            throw NotScannableException.INSTANCE;
+        }
+    }
+
+    private char readUtfChar(int firstByte) throws NotScannableException {
+        switch (firstByte >> 4) {
+        case 12: case 13:
+            return (char) (((firstByte & 0x1F) << 6) | (readUnsignedByte() & 0x3F));
+        case 14:
+            return (char) (((firstByte & 0x0F) << 12) | ((readUnsignedByte() & 0x3F) << 6) | (readUnsignedByte() & 0x3F));
+        default:
+            return (char) firstByte;
+        }
+    }
+
+    private static boolean isAscii(byte[] buf, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (buf[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Signals content the scanner cannot read. Shared and without stack trace: it is used for control flow.
+     */
+    static final class NotScannableException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        static final NotScannableException INSTANCE = new NotScannableException();
+
+        private NotScannableException() {
+            super("Content cannot be scanned", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects <code>onMessage</code> executions that take too long when they run directly on the dispatching thread.
+ * <p>
+ * A periodic sweep on the {@link ClientScheduler}, shared by all connections, checks the registered {@link Watch}es
+ * and interrupts the threads whose <code>onMessage</code> execution is overdue. A delivery only writes to its
+ * {@link Watch}, so watching a delivery costs neither a thread hand-off nor an allocation. The sweep is cancelled
+ * when there is no {@link Watch} left.
+ * </p>
+ */
+final class OnMessageWatchdog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OnMessageWatchdog.class);
+
+    /** Resolution of timeout detection */
+    static final long SWEEP_PERIOD_MS = 10;
+
+    static final OnMessageWatchdog INSTANCE = new OnMessageWatchdog();
+
+    private final Set<Watch> watches = ConcurrentHashMap.newKeySet();
+    private ScheduledFuture<?> sweep = null; // @GuardedBy(this)
+
+    private OnMessageWatchdog() {
+    }
+
+    /**
+     * @return a new watch, checked by the sweep until it is {@link Watch#close()}d
+     */
+    Watch newWatch() {
+        Watch watch = new Watch();
+        synchronized (this) {
+            this.watches.add(watch);
+            if (this.sweep == null) {
+                this.sweep = ClientScheduler.scheduleWithFixedDelay(this::sweep, SWEEP_PERIOD_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+        return watch;
+    }
+
+    private void sweep() {
+        synchronized (this) {
+            if (this.watches.isEmpty()) {
+                if (this.sweep != null) {
+                    this.sweep.cancel(false);
+                    this.sweep = null;
+                }
+                return;
+            }
+        }
+        long now = System.nanoTime();
+        for (Watch watch : this.watches) {
+            watch.expireIfOverdue(now);
+        }
+    }
+
+    /**
+     * Watches the <code>onMessage</code> executions of one thread at a time.
+     */
+    final class Watch {
+        private static final int IDLE = 0, STARTING = 1, ACTIVE = 2, EXPIRING = 3, EXPIRED = 4;
+
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private volatile Thread thread;
+        private volatile long deadlineNanos;
+
+        private Watch() {
+        }
+
+        /**
+         * Start watching an execution of the current thread.
+         * @param timeoutNanos time the execution may take
+         * @return <code>false</code> if the watch is already watching another execution
+         */
+        boolean begin(long timeoutNanos) {
+            if (!this.state.compareAndSet(IDLE, STARTING)) return false;
+            this.thread = Thread.currentThread();
+            this.deadlineNanos = System.nanoTime() + timeoutNanos;
+            this.state.set(ACTIVE);
+            return true;
+        }
+
+        /**
+         * Stop watching the execution of the current thread. The interrupt status of the thread is
+         * cleared if the watchdog interrupted it.
+         * @return <code>true</code> if the execution took too long
+         */
+        boolean end() {
+            if (this.state.compareAndSet(ACTIVE, IDLE)) return false;
+            while (this.state.get() == EXPIRING) {
+                Thread.onSpinWait(); // the sweep is about to interrupt us
+            }
+            Thread.interrupted();
+            this.state.set(IDLE);
+            return true;
+        }
+
+        private void expireIfOverdue(long now) {
+            if (this.state.get() == ACTIVE && now - this.deadlineNanos > 0 && this.state.compareAndSet(ACTIVE, EXPIRING)) {
+                LOGGER.debug("onMessage overran its timeout by {} ms, interrupting {}",
+                    TimeUnit.NANOSECONDS.toMillis(now - this.deadlineNanos), this.thread);
+                this.thread.interrupt();
+                this.state.set(EXPIRED);
+            }
+        }
+
+        /**
+         * Stop checking this watch.
+         */
+        void close() {
+            OnMessageWatchdog.this.watches.remove(this);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rabbitmq.client.AMQP.BasicProperties;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import com.rabbitmq.client.ShutdownSignalException;
+import com.rabbitmq.jms.util.Abortable;
+import com.rabbitmq.jms.util.TimeTracker;
+
+/**
+ * Receive messages from RMQ Queue through a subscription.
+ * <p>
+ * The broker pushes up to <code>prefetch</code> messages to a local buffer, which the blocking method
+ * <code>get()</code> drains. The subscription is created on the first <code>get()</code>, cancelled when
+ * the receiver is {@link #stop()}ped or {@link #release()}d, and created again when it is {@link #start()}ed.
+ * Buffered messages that have not been handed over are requeued when the subscription is cancelled.
+ * </p>
+ * <p>
+ * The blocking method <code>get()</code> only returns with <code>null</code> when either the Receiver is aborted,
+ * or the timeout expires.
+ * </p>
+ */
+class PrefetchingReceiver implements Consumer, Abortable {
+
+    private final Logger logger = LoggerFactory.getLogger(PrefetchingReceiver.class);
+
+    private final int prefetch;
+    private final RMQMessageConsumer rmqMessageConsumer;
+    /**
+     * True when AMQP auto-ack is used (direct reply-to): buffered messages
+     * are already acknowledged and cannot be requeued.
+     */
+    private final boolean skipAck;
+
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private final Condition bufferCondition = this.bufferLock.newCondition();
+    private final Deque<GetResponse> buffer = new ArrayDeque<>(); // @GuardedBy(bufferLock)
+    /** The consumer tag of the current subscription, <code>null</code> if there is none. */
+    private String consTag = null; // @GuardedBy(bufferLock)
+    /** Whether a subscription is wanted, i.e. <code>get()</code> has been called since the last {@link #release()}. */
+    private boolean subscribing = false; // @GuardedBy(bufferLock)
+    private boolean stopped = false; // @GuardedBy(bufferLock)
+    private boolean aborted = false; // @GuardedBy(bufferLock)
+
+    /**
+     * @param prefetch - the maximum number of messages the broker pushes before they are received.
+     * @param rmqMessageConsumer - the JMS MessageConsumer we are serving.
+     * @param stopped - <code>true</code> if the connection is {@link jakarta.jms.Connection#stop}ped.
+     */
+    PrefetchingReceiver(int prefetch, RMQMessageConsumer rmqMessageConsumer, boolean stopped) {
+        this.prefetch = prefetch;
+        this.rmqMessageConsumer = rmqMessageConsumer;
+        this.skipAck = rmqMessageConsumer.amqpAutoAck();
+        this.stopped = stopped;
+    }
+
+    /**
+     * Get a message from the buffer; if there isn't one, wait for the broker to push one, within the total time available.
+     * Subscribes to the queue if necessary. Aborts if closed while waiting.
+     * @param tt - keeps track of the time available
+     * @return message gotten, or <code>null</code> if timeout or receiver aborted.
+     */
+    public GetResponse get(TimeTracker tt) {
+        try {
+            this.bufferLock.lock();
+            try {
+                if (this.aborted) return null;
+                this.subscribing = true;
+                this.subscribeIfNecessary();
+                while (this.buffer.isEmpty() && !this.aborted && !tt.timedOut()) {
+                    tt.timedAwait(this.bufferCondition);
+                }
+                return this.aborted ? null : this.buffer.poll();
+            } finally {
+                this.bufferLock.unlock();
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Get interrupted while waiting for a pushed message.", e);
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Drop the buffered messages without requeuing them, because the session requeued them already
+     * (with <code>basic.recover</code>).
+     */
+    void discardBuffered() {
+        this.bufferLock.lock();
+        try {
+            this.buffer.clear();
+        } finally {
+            this.bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Cancel the subscription, if any, and requeue buffered messages. The next <code>get()</code> subscribes again.
+     */
+    void release() {
+        this.bufferLock.lock();
+        try {
+            this.subscribing = false;
+            this.cancelSubscription();
+        } finally {
+            this.bufferLock.unlock();
+        }
+    }
+
+    @Override
+    public void abort() {
+        this.bufferLock.lock();
+        try {
+            this.aborted = true;
+            this.cancelSubscription();
+            this.bufferCondition.signalAll();
+        } finally {
+            this.bufferLock.unlock();
+        }
+    }
+
+    @Override
+    public void stop() {
+        this.bufferLock.lock();
+        try {
+            this.stopped = true;
+            this.cancelSubscription();
+        } finally {
+            this.bufferLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        this.bufferLock.lock();
+        try {
+            this.stopped = false;
+            if (this.subscribing) {
+                this.subscribeIfNecessary();
+            }
+        } finally {
+            this.bufferLock.unlock();
+        }
+    }
+
+    private void subscribeIfNecessary() {
+        if (this.consTag != null || this.stopped || this.aborted) return;
+        String cT = RMQMessageConsumer.newConsumerTag();
+        try {
+            this.rmqMessageConsumer.basicConsume(this, cT, this.prefetch);
+            this.consTag = cT;
+        } catch (Exception e) { // includes unchecked exceptions, e.g. ShutdownSignalException
+            if (!(e instanceof ShutdownSignalException) && !(e.getCause() instanceof ShutdownSignalException)) {
+                logger.error("basicConsume (consumerTag='{}') threw unexpected exception", cT, e);
+            }
+        }
+    }
+
+    private void cancelSubscription() {
+        String cT = this.consTag;
+        this.consTag = null;
+        if (cT != null) {
+            try {
+                logger.debug("basicCancel: consumerTag='{}'", cT);
+                this.rmqMessageConsumer.getSession().getChannel().basicCancel(cT);
+            } catch (Exception e) {
+                logger.debug("basicCancel (consumerTag='{}') threw exception", cT, e);
+            }
+        }
+        if (this.aborted || !this.skipAck) {
+            this.requeueBuffered();
+        }
+    }
+
+    private void requeueBuffered() {
+        GetResponse resp;
+        while ((resp = this.buffer.poll()) != null) {
+            this.nack(resp.getEnvelope().getDeliveryTag());
+        }
+    }
+
+    private void nack(long dtag) {
+        if (!this.skipAck) {
+            logger.debug("basicNack: dtag='{}'", dtag);
+            this.rmqMessageConsumer.getSession().explicitNack(dtag);
+        }
+    }
+
+    @Override
+    public void handleDelivery(String consumerTag, Envelope envelope, BasicProperties properties, byte[] body) throws IOException {
+        logger.trace("consumerTag='{}' envelope='{}'", consumerTag, envelope);
+        if (this.skipAck) {
+            this.rmqMessageConsumer.getSession().autoAcknowledged(envelope.getDeliveryTag());
+        }
+        this.bufferLock.lock();
+        try {
+            if (!consumerTag.equals(this.consTag) && (this.aborted || !this.skipAck)) {
+                // subscription cancelled (or replaced) while this message was in flight
+                this.nack(envelope.getDeliveryTag());
+                return;
+            }
+            // last parameter is remaining message count, which we don't know.
+            this.buffer.add(new GetResponse(envelope, properties, body, 0));
+            this.bufferCondition.signalAll();
+        } finally {
+            this.bufferLock.unlock();
+        }
+    }
+
+    @Override
+    public void handleConsumeOk(String consumerTag) {
+        logger.trace("consumerTag='{}'", consumerTag);
+    }
+
+    @Override
+    public void handleCancelOk(String consumerTag) {
+        logger.trace("consumerTag='{}'", consumerTag);
+    }
+
+    @Override
+    public void handleCancel(String consumerTag) {
+        logger.trace("consumerTag='{}'", consumerTag);
+        this.bufferLock.lock();
+        try {
+            if (consumerTag.equals(this.consTag)) {
+                // cancelled by the broker (e.g. queue deleted): subscribe again on the next get()
+                this.consTag = null;
+            }
+        } finally {
+            this.bufferLock.unlock();
+        }
+    }
+
+    @Override
+    public void handleShutdownSignal(String consumerTag, ShutdownSignalException sig) {
+        logger.trace("consumerTag='{}'", consumerTag, sig);
+        this.bufferLock.lock();
+        try {
+            if (consumerTag.equals(this.consTag)) {
+                // the channel is gone, and so are the delivery tags of buffered messages
+                this.consTag = null;
+                this.buffer.clear();
+            }
+        } finally {
+            this.bufferLock.unlock();
+        }
+    }
+
+    @Override
+    public void handleRecoverOk(String consumerTag) {
+        logger.trace("consumerTag='{}'", consumerTag);
+        // noop
+    }
+}
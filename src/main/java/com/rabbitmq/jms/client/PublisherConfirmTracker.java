@@ -0,0 +1,280 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.jms.CompletionListener;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.ResourceAllocationException;
+
+import com.rabbitmq.jms.util.RMQJMSException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Messages published on a channel in confirm mode and not confirmed yet, indexed by publishing sequence number.
+ * <p>
+ * The messages are kept in a ring, the slot of a sequence number being the number modulo the size of the ring, which
+ * grows when the unconfirmed sequence numbers span more than its size. The lowest unconfirmed sequence number only
+ * moves forward, so each slot is visited once when confirms are settled, whether they are single or multiple.
+ * </p>
+ * <p>
+ * The number of unconfirmed messages can be bounded: publishing then waits for confirms, and fails if there is still
+ * no room after a timeout. Publishing from a {@link CompletionListener} fails straight away instead, as listeners run
+ * on the connection thread that delivers the confirms.
+ * </p>
+ *
+ * @since 3.3.0
+ */
+final class PublisherConfirmTracker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PublisherConfirmTracker.class);
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Message published without completion listener, only counted */
+    private static final Outstanding NO_LISTENER = new Outstanding(null, null);
+
+    /** Set while the current thread notifies completion listeners, of any tracker */
+    private static final ThreadLocal<Boolean> COMPLETING = new ThreadLocal<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition settled = this.lock.newCondition();
+    private final int maxOutstanding;
+    private final long maxOutstandingTimeoutMs;
+
+    private Outstanding[] ring = new Outstanding[INITIAL_CAPACITY];
+    /** Lowest unconfirmed sequence number, {@link #next} when all messages are confirmed */
+    private long lowest;
+    /** Sequence number after the highest registered */
+    private long next;
+    private int outstanding;
+
+    /**
+     * @param maxOutstanding maximum number of unconfirmed messages, 0 for no limit
+     * @param maxOutstandingTimeoutMs how long to wait for room before failing, 0 to fail immediately
+     */
+    PublisherConfirmTracker(int maxOutstanding, long maxOutstandingTimeoutMs) {
+        this.maxOutstanding = maxOutstanding;
+        this.maxOutstandingTimeoutMs = maxOutstandingTimeoutMs;
+    }
+
+    /**
+     * Registers a message about to be published, waiting for room if the number of unconfirmed messages is bounded.
+     *
+     * @param message the message
+     * @param completionListener the listener to notify of the confirm, may be <code>null</code>
+     * @param sequenceNumber the publishing sequence number of the message, 0 if the channel is not in confirm mode
+     * @throws ResourceAllocationException if there is no room after the timeout
+     */
+    void register(Message message, CompletionListener completionListener, long sequenceNumber) throws JMSException {
+        if (sequenceNumber <= 0) {
+            // no confirm will come
+            return;
+        }
+        Outstanding context = completionListener == null ? NO_LISTENER : new Outstanding(message, completionListener);
+        this.lock.lock();
+        try {
+            awaitRoom();
+            if (this.outstanding == 0 || sequenceNumber < this.lowest) {
+                // nothing to keep, or the numbering restarted with a new channel
+                clear();
+                this.lowest = sequenceNumber;
+            }
+            long span = sequenceNumber - this.lowest + 1;
+            if (span > this.ring.length) {
+                grow(span);
+            }
+            this.ring[index(sequenceNumber)] = context;
+            this.next = Math.max(this.next, sequenceNumber + 1);
+            this.outstanding++;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void awaitRoom() throws JMSException {
+        if (this.maxOutstanding <= 0 || this.outstanding < this.maxOutstanding) {
+            return;
+        }
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(this.maxOutstandingTimeoutMs);
+        if (COMPLETING.get() != null) {
+            // waiting would block the thread that receives the confirms
+            throw new ResourceAllocationException(String.format(
+                "%d published messages are waiting for confirmation, the maximum, and a CompletionListener cannot wait for confirms",
+                this.maxOutstanding));
+        }
+        try {
+            while (this.outstanding >= this.maxOutstanding) {
+                if (remainingNanos <= 0) {
+                    throw new ResourceAllocationException(String.format(
+                        "%d published messages are waiting for confirmation, the maximum", this.maxOutstanding));
+                }
+                remainingNanos = this.settled.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RMQJMSException("Interrupted while waiting for publisher confirms", e);
+        }
+    }
+
+    /**
+     * Settles the messages confirmed by an ack or a nack and notifies their listeners.
+     *
+     * @param deliveryTag the sequence number confirmed
+     * @param multiple whether all the sequence numbers up to the tag are confirmed
+     * @param ack whether the messages are acked or nacked
+     */
+    void settle(long deliveryTag, boolean multiple, boolean ack) {
+        List<Outstanding> settled = null;
+        this.lock.lock();
+        try {
+            if (this.outstanding == 0 || deliveryTag < this.lowest || (!multiple && deliveryTag >= this.next)) {
+                return;
+            }
+            if (multiple) {
+                long last = Math.min(deliveryTag, this.next - 1);
+                for (long sequenceNumber = this.lowest; sequenceNumber <= last; sequenceNumber++) {
+                    Outstanding context = take(sequenceNumber);
+                    if (context != null && context.completionListener != null) {
+                        if (settled == null) {
+                            settled = new ArrayList<>();
+                        }
+                        settled.add(context);
+                    }
+                }
+                this.lowest = last + 1;
+            } else {
+                Outstanding context = take(deliveryTag);
+                if (context != null && context.completionListener != null) {
+                    settled = Collections.singletonList(context);
+                }
+            }
+            while (this.lowest < this.next && this.ring[index(this.lowest)] == null) {
+                this.lowest++;
+            }
+            this.settled.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        // listeners are notified without the lock, they may publish
+        if (settled != null) {
+            complete(settled, ack, null);
+        }
+    }
+
+    /**
+     * Fails all the unconfirmed messages, when their confirms cannot come anymore, e.g. because the channel is closed.
+     *
+     * @param cause the cause of the failure
+     */
+    void failAll(Exception cause) {
+        List<Outstanding> failed = new ArrayList<>();
+        this.lock.lock();
+        try {
+            for (long sequenceNumber = this.lowest; sequenceNumber < this.next; sequenceNumber++) {
+                Outstanding context = take(sequenceNumber);
+                if (context != null && context.completionListener != null) {
+                    failed.add(context);
+                }
+            }
+            this.lowest = this.next;
+            this.settled.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        complete(failed, false, cause);
+    }
+
+    private static void complete(List<Outstanding> contexts, boolean ack, Exception cause) {
+        boolean nested = COMPLETING.get() != null;
+        COMPLETING.set(Boolean.TRUE);
+        try {
+            for (Outstanding context : contexts) {
+                context.complete(ack, cause);
+            }
+        } finally {
+            if (!nested) {
+                COMPLETING.remove();
+            }
+        }
+    }
+
+    int outstanding() {
+        this.lock.lock();
+        try {
+            return this.outstanding;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private Outstanding take(long sequenceNumber) {
+        int index = index(sequenceNumber);
+        Outstanding context = this.ring[index];
+        if (context != null) {
+            this.ring[index] = null;
+            this.outstanding--;
+        }
+        return context;
+    }
+
+    private void clear() {
+        if (this.outstanding > 0) {
+            Arrays.fill(this.ring, null);
+            this.outstanding = 0;
+        }
+        this.next = 0;
+    }
+
+    private void grow(long span) {
+        int capacity = this.ring.length;
+        while (capacity < span) {
+            capacity <<= 1;
+        }
+        Outstanding[] grown = new Outstanding[capacity];
+        for (long sequenceNumber = this.lowest; sequenceNumber < this.next; sequenceNumber++) {
+            grown[(int) (sequenceNumber & (capacity - 1))] = this.ring[index(sequenceNumber)];
+        }
+        this.ring = grown;
+    }
+
+    private int index(long sequenceNumber) {
+        return (int) (sequenceNumber & (this.ring.length - 1));
+    }
+
+    private static final class Outstanding {
+
+        private final Message message;
+        private final CompletionListener completionListener;
+
+        private Outstanding(Message message, CompletionListener completionListener) {
+            this.message = message;
+            this.completionListener = completionListener;
+        }
+
+        private void complete(boolean ack, Exception cause) {
+            try {
+                if (ack) {
+                    this.completionListener.onCompletion(this.message);
+                } else {
+                    this.completionListener.onException(this.message, cause != null ? cause :
+                        new JMSException("Outbound message was negatively acknowledged"));
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Error while executing CompletionListener: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -6,15 +6,8 @@
 package com.rabbitmq.jms.client;
 
 import com.rabbitmq.client.Channel;
+import com.rabbitmq.jms.util.RMQJMSException;
 import jakarta.jms.CompletionListener;
-import jakarta.jms.JMSException;
-import jakarta.jms.Message;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Consumer;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Utility class to handle publisher confirms.
@@ -23,116 +16,50 @@ import org.slf4j.LoggerFactory;
  */
 class PublisherConfirmsUtils {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(PublisherConfirmsUtils.class);
+  /**
+   * Enables publisher confirms support, without limit on the number of unconfirmed messages.
+   *
+   * @param channel
+   * @return
+   * @see #configurePublisherConfirmsSupport(Channel, int, long)
+   */
+  static PublishingListener configurePublisherConfirmsSupport(Channel channel) {
+    return configurePublisherConfirmsSupport(channel, 0, 0);
+  }
 
   /**
    * Enables publisher confirms support.
    * <p>
    * Adds a {@link com.rabbitmq.client.ConfirmListener} to the AMQP {@link Channel} and notifies the
-   * user-provided {@link CompletionListener}  when confirms arrive.
+   * user-provided {@link CompletionListener}  when confirms arrive. The listeners of unconfirmed
+   * messages are notified of an exception when the channel is closed.
    * <p>
-   * Returns a {@link PublishingListener} that must be called whenever a message is published.
+   * Returns a {@link PublishingListener} that must be called whenever a message is published, and
+   * which blocks while there are <code>maxOutstanding</code> unconfirmed messages.
    *
    * @param channel
+   * @param maxOutstanding maximum number of unconfirmed messages, 0 for no limit
+   * @param maxOutstandingTimeoutMs how long to wait for confirms when the maximum is reached
    * @return
+   * @see PublisherConfirmTracker
    */
-  static PublishingListener configurePublisherConfirmsSupport(Channel channel) {
-    final Map<Long, OutboundMessageContext> outstandingConfirms = new ConcurrentHashMap<>();
-    final AtomicLong multipleLowerBound = new AtomicLong(1);
-    PublishingListener publishingListener = (message, completionListener, sequenceNumber) -> {
-      outstandingConfirms.put(sequenceNumber,
-          new OutboundMessageContext(message, completionListener));
-    };
+  static PublishingListener configurePublisherConfirmsSupport(Channel channel, int maxOutstanding,
+      long maxOutstandingTimeoutMs) {
+    PublisherConfirmTracker tracker = new PublisherConfirmTracker(maxOutstanding, maxOutstandingTimeoutMs);
     channel.addConfirmListener(new com.rabbitmq.client.ConfirmListener() {
       @Override
       public void handleAck(long deliveryTag, boolean multiple) {
-        cleanPublisherConfirmsCorrelation(
-            outstandingConfirms, multipleLowerBound,
-            deliveryTag, multiple, context -> {
-              executeSafely(
-                  () -> context.completionListener.onCompletion(context.message),
-                  "CompletionListener"
-              );
-            }
-        );
+        tracker.settle(deliveryTag, multiple, true);
       }
 
       @Override
       public void handleNack(long deliveryTag, boolean multiple) {
-        cleanPublisherConfirmsCorrelation(
-            outstandingConfirms, multipleLowerBound,
-            deliveryTag, multiple, context -> {
-              executeSafely(
-                  () -> context.completionListener.onException(context.message,
-                      new JMSException("Outbound message was negatively acknowledged")),
-                  "CompletionListener"
-              );
-            }
-        );
+        tracker.settle(deliveryTag, multiple, false);
       }
     });
-    return publishingListener;
-  }
-
-  private static void executeSafely(VoidCallable callable, String object) {
-    try {
-      callable.call();
-    } catch (Exception e) {
-      LOGGER.warn("Error while executing {}: {}", object, e.getMessage());
-    }
-  }
-
-  /**
-   * Cleans the data structure used to correlate publishing sequence numbers to messages when a
-   * confirm comes in.
-   * <p>
-   * Invoke a provided callback for each message confirmed/nack-ed.
-   *
-   * @param outstandingConfirms
-   * @param multipleLowerBound
-   * @param deliveryTag
-   * @param multiple
-   * @param messageConsumer
-   */
-  private static void cleanPublisherConfirmsCorrelation(
-      Map<Long, OutboundMessageContext> outstandingConfirms, AtomicLong multipleLowerBound,
-      long deliveryTag, boolean multiple, Consumer<OutboundMessageContext> messageConsumer) {
-    Long lowerBound = multipleLowerBound.get();
-    if (multiple) {
-      for (long i = lowerBound; i <= deliveryTag; i++) {
-        OutboundMessageContext context = outstandingConfirms.remove(i);
-        if (context != null) {
-          messageConsumer.accept(context);
-        }
-      }
-    } else {
-      OutboundMessageContext context = outstandingConfirms.remove(deliveryTag);
-      if (context != null) {
-        messageConsumer.accept(context);
-      }
-      if (deliveryTag == lowerBound + 1) {
-        multipleLowerBound.compareAndSet(lowerBound, deliveryTag);
-      }
-    }
-  }
-
-  @FunctionalInterface
-  private interface VoidCallable {
-
-    void call() throws Exception;
-
-  }
-
-  private static class OutboundMessageContext {
-
-    private final Message message;
-    private final CompletionListener completionListener;
-
-
-    private OutboundMessageContext(Message message, CompletionListener completionListener) {
-      this.message = message;
-      this.completionListener = completionListener;
-    }
+    channel.addShutdownListener(cause -> tracker.failAll(
+        new RMQJMSException("Channel closed before the outbound message was confirmed", cause)));
+    return tracker::register;
   }
 
 }
@@ -6,6 +6,7 @@
 package com.rabbitmq.jms.client;
 
 import jakarta.jms.CompletionListener;
+import jakarta.jms.JMSException;
 import jakarta.jms.Message;
 
 /**
@@ -15,6 +16,6 @@ import jakarta.jms.Message;
  */
 interface PublishingListener {
 
-    void publish(Message message, CompletionListener completionListener, long sequenceNumber);
+    void publish(Message message, CompletionListener completionListener, long sequenceNumber) throws JMSException;
 
 }
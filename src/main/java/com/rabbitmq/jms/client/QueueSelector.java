@@ -0,0 +1,79 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import static com.rabbitmq.jms.client.Subscription.JMS_TYPE_IDENTS;
+
+import jakarta.jms.JMSException;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.jms.parse.sql.SqlEvaluator;
+import com.rabbitmq.jms.util.RMQJMSSelectorException;
+
+/**
+ * Message selector of a queue consumer, evaluated by the client.
+ * <p>
+ * The selector is evaluated on the AMQP properties of the deliveries, before they are converted to JMS messages.
+ * The values of the identifiers are those of the JMS messages the deliveries convert to, see
+ * {@link SelectorEnvironment}.
+ * </p>
+ * <p>
+ * Messages the selector does not match are handled according to the {@link QueueSelectorPolicy}. Requeued messages
+ * are held by a {@link SelectorSkipWindow} first, which keeps room in the prefetch window of the consumer.
+ * </p>
+ *
+ * @since 3.3.0
+ */
+final class QueueSelector {
+
+    private final String selector;
+    private final SqlEvaluator evaluator;
+    private final QueueSelectorPolicy policy;
+
+    private QueueSelector(String selector, SqlEvaluator evaluator, QueueSelectorPolicy policy) {
+        this.selector = selector;
+        this.evaluator = evaluator;
+        this.policy = policy;
+    }
+
+    /**
+     * @param selectorCache the selectors compiled on the connection
+     * @param selector the message selector
+     * @param policy what to do with the messages the selector does not match
+     * @return the selector, <code>null</code> if the selector is empty
+     * @throws RMQJMSSelectorException if the selector is invalid
+     */
+    static QueueSelector create(SelectorCache selectorCache, String selector, QueueSelectorPolicy policy)
+        throws JMSException {
+        if (selector == null || selector.trim().isEmpty()) {
+            return null;
+        }
+        SqlEvaluator evaluator = selectorCache.get(selector, JMS_TYPE_IDENTS).evaluator();
+        if (!evaluator.evaluatorOk()) {
+            throw new RMQJMSSelectorException(evaluator.getErrorMessage());
+        }
+        return new QueueSelector(selector, evaluator, policy);
+    }
+
+    String selector() {
+        return this.selector;
+    }
+
+    QueueSelectorPolicy policy() {
+        return this.policy;
+    }
+
+    /**
+     * @param envelope the envelope of a delivery
+     * @param properties the AMQP properties of the delivery
+     * @param amqp whether the delivery is from an AMQP destination
+     * @return whether the selector matches the message
+     */
+    boolean matches(Envelope envelope, AMQP.BasicProperties properties, boolean amqp) {
+        return this.evaluator.evaluate(new SelectorEnvironment(envelope, properties, amqp));
+    }
+}
@@ -0,0 +1,26 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+/**
+ * What a queue consumer with a message selector does with the messages its selector does not match.
+ *
+ * @see com.rabbitmq.jms.admin.RMQConnectionFactory#setQueueSelectorPolicy(QueueSelectorPolicy)
+ * @since 3.3.0
+ */
+public enum QueueSelectorPolicy {
+
+    /**
+     * The message is held unacknowledged for a short while, so the consumer gets the messages behind it, then it is
+     * rejected with requeuing: it goes back to its place in the queue, for other consumers, flagged as redelivered.
+     */
+    REQUEUE,
+    /**
+     * The message is rejected without requeuing, so it goes to the dead letter exchange of the queue, if any, and is
+     * dropped otherwise.
+     */
+    DEAD_LETTER;
+}
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
@@ -26,6 +27,7 @@ import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.ShutdownListener;
 import com.rabbitmq.client.ShutdownSignalException;
 import com.rabbitmq.jms.util.RMQJMSException;
+import com.rabbitmq.jms.util.VirtualThreads;
 
 /**
  * Implementation of the {@link Connection}, {@link QueueConnection} and {@link TopicConnection} interfaces.
@@ -52,6 +54,8 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
     private final AtomicReference<ExceptionListener> exceptionListener = new AtomicReference<ExceptionListener>();
     /** The list of all {@link RMQSession} objects created by this connection */
     private final List<RMQSession> sessions = Collections.<RMQSession> synchronizedList(new ArrayList<RMQSession>());
+    /** The list of all {@link RMQConnectionConsumer} objects created by this connection */
+    private final List<RMQConnectionConsumer> connectionConsumers = new CopyOnWriteArrayList<>();
     /** value to see if this connection has been closed */
     private volatile boolean closed = false;
     /** atomic flag to pause and unpause the connection consumers (see {@link #start()} and {@link #stop()} methods) */
@@ -81,6 +85,147 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
      */
     private final int channelsQos;
 
+    /**
+     * Number of messages pre-fetched by consumers used with
+     * {@link MessageConsumer#receive()}, 0 if messages are polled.
+     *
+     * @since 3.3.0
+     */
+    private final int receivePrefetch;
+
+    /**
+     * Number of lanes delivering messages to the {@link jakarta.jms.MessageListener}s of a session concurrently.
+     *
+     * @since 3.3.0
+     */
+    private final int listenerDispatchLanes;
+
+    /**
+     * Message property that orders concurrent deliveries to {@link jakarta.jms.MessageListener}s.
+     *
+     * @since 3.3.0
+     */
+    private final String listenerDispatchKey;
+
+    /**
+     * Whether {@link jakarta.jms.MessageListener#onMessage(jakarta.jms.Message)} runs directly on the thread dispatching messages.
+     *
+     * @since 3.3.0
+     */
+    private final boolean directOnMessageDelivery;
+
+    /**
+     * Whether message listeners run on virtual threads.
+     *
+     * @since 3.3.0
+     */
+    private final boolean useVirtualThreads;
+
+    /**
+     * Number of messages acknowledged at once in {@link jakarta.jms.Session#DUPS_OK_ACKNOWLEDGE} mode.
+     *
+     * @since 3.3.0
+     */
+    private final int ackCoalescingBatchSize;
+
+    /**
+     * Maximum time in milliseconds an acknowledgment is delayed in {@link jakarta.jms.Session#DUPS_OK_ACKNOWLEDGE} mode.
+     *
+     * @since 3.3.0
+     */
+    private final int ackCoalescingIntervalMs;
+
+    /**
+     * Whether acknowledgments are coalesced in {@link jakarta.jms.Session#AUTO_ACKNOWLEDGE} mode as well.
+     *
+     * @since 3.3.0
+     */
+    private final boolean coalesceAutoAcknowledgements;
+
+    /**
+     * Format of the JMS messages sent: 1 for Java serialization, 2 for the compact format.
+     *
+     * @since 3.3.0
+     */
+    private final int messageFormatVersion;
+
+    /**
+     * Codec to compress the body of the messages sent with, <code>null</code> for none.
+     *
+     * @since 3.3.0
+     */
+    private final CompressionCodec compressionCodec;
+
+    /**
+     * Minimum size in bytes of the message bodies to compress.
+     *
+     * @since 3.3.0
+     */
+    private final int compressionThreshold;
+
+    /**
+     * Maximum size in bytes of the message bodies once decompressed.
+     *
+     * @since 3.3.0
+     */
+    private final int maxDecompressedBodySize;
+
+    /**
+     * Generator of the IDs of the messages sent, shared by the sessions.
+     *
+     * @since 3.3.0
+     */
+    private final MessageIdGenerator messageIdGenerator;
+
+    /**
+     * Destinations declared on this connection, shared by the sessions.
+     *
+     * @since 3.3.0
+     */
+    private final DeclarationCache declarationCache;
+
+    /**
+     * Message selectors compiled on this connection, shared by the sessions.
+     *
+     * @since 3.3.0
+     */
+    private final SelectorCache selectorCache;
+
+    /**
+     * Maximum number of unconfirmed messages per session, 0 for no maximum.
+     *
+     * @since 3.3.0
+     */
+    private final int maxOutstandingConfirms;
+
+    /**
+     * How long sending waits for confirms when the maximum of unconfirmed messages is reached.
+     *
+     * @since 3.3.0
+     */
+    private final long maxOutstandingConfirmsTimeoutMs;
+
+    /**
+     * Whether synchronous sends wait for the publisher confirm of the message.
+     *
+     * @since 3.3.0
+     */
+    private final boolean confirmedSends;
+
+    /**
+     * How long confirmed and batched sends wait for publisher confirms.
+     *
+     * @since 3.3.0
+     */
+    private final long confirmTimeoutMs;
+
+    /**
+     * What queue consumers with a message selector do with the messages it does not match.
+     *
+     * @since 3.3.0
+     */
+    private final QueueSelectorPolicy queueSelectorPolicy;
+
     /**
      * Whether {@link MessageProducer} properties (delivery mode,
      * priority, TTL) take precedence over respective {@link Message}
@@ -178,6 +323,27 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
         this.queueBrowserReadMax = connectionParams.getQueueBrowserReadMax();
         this.onMessageTimeoutMs = connectionParams.getOnMessageTimeoutMs();
         this.channelsQos = connectionParams.getChannelsQos();
+        this.receivePrefetch = connectionParams.getReceivePrefetch();
+        this.listenerDispatchLanes = connectionParams.getListenerDispatchLanes();
+        this.listenerDispatchKey = connectionParams.getListenerDispatchKey();
+        this.directOnMessageDelivery = connectionParams.isDirectOnMessageDelivery();
+        this.useVirtualThreads = connectionParams.isUseVirtualThreads();
+        this.ackCoalescingBatchSize = connectionParams.getAckCoalescingBatchSize();
+        this.ackCoalescingIntervalMs = connectionParams.getAckCoalescingIntervalMs();
+        this.coalesceAutoAcknowledgements = connectionParams.isCoalesceAutoAcknowledgements();
+        this.messageFormatVersion = connectionParams.getMessageFormatVersion();
+        this.compressionCodec = connectionParams.getCompressionCodec();
+        this.compressionThreshold = connectionParams.getCompressionThreshold();
+        this.maxDecompressedBodySize = connectionParams.getMaxDecompressedBodySize();
+        this.messageIdGenerator = connectionParams.getMessageIdGenerator() == null ?
+            new CounterMessageIdGenerator() : connectionParams.getMessageIdGenerator();
+        this.declarationCache = new DeclarationCache(connectionParams.isCacheDeclarations());
+        this.selectorCache = new SelectorCache(connectionParams.getSelectorCacheSize());
+        this.maxOutstandingConfirms = connectionParams.getMaxOutstandingConfirms();
+        this.maxOutstandingConfirmsTimeoutMs = connectionParams.getMaxOutstandingConfirmsTimeoutMs();
+        this.confirmedSends = connectionParams.isConfirmedSends();
+        this.confirmTimeoutMs = connectionParams.getConfirmTimeoutMs();
+        this.queueSelectorPolicy = connectionParams.getQueueSelectorPolicy();
         this.preferProducerMessageProperty = connectionParams.willPreferProducerMessageProperty();
         this.requeueOnMessageListenerException = connectionParams.willRequeueOnMessageListenerException();
         this.nackOnRollback = connectionParams.willNackOnRollback();
@@ -235,6 +401,26 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
             .setOnMessageTimeoutMs(onMessageTimeoutMs)
             .setMode(acknowledgeMode)
             .setSubscriptions(this.subscriptions)
+            .setReceivePrefetch(this.receivePrefetch)
+            .setListenerDispatchLanes(this.listenerDispatchLanes)
+            .setListenerDispatchKey(this.listenerDispatchKey)
+            .setDirectOnMessageDelivery(this.directOnMessageDelivery)
+            .setUseVirtualThreads(this.useVirtualThreads)
+            .setAckCoalescingBatchSize(this.ackCoalescingBatchSize)
+            .setAckCoalescingIntervalMs(this.ackCoalescingIntervalMs)
+            .setCoalesceAutoAcknowledgements(this.coalesceAutoAcknowledgements)
+            .setMessageFormatVersion(this.messageFormatVersion)
+            .setCompressionCodec(this.compressionCodec)
+            .setCompressionThreshold(this.compressionThreshold)
+            .setMaxDecompressedBodySize(this.maxDecompressedBodySize)
+            .setMessageIdGenerator(this.messageIdGenerator)
+            .setDeclarationCache(this.declarationCache)
+            .setSelectorCache(this.selectorCache)
+            .setMaxOutstandingConfirms(this.maxOutstandingConfirms)
+            .setMaxOutstandingConfirmsTimeoutMs(this.maxOutstandingConfirmsTimeoutMs)
+            .setConfirmedSends(this.confirmedSends)
+            .setConfirmTimeoutMs(this.confirmTimeoutMs)
+            .setQueueSelectorPolicy(this.queueSelectorPolicy)
             .setPreferProducerMessageProperty(this.preferProducerMessageProperty)
             .setRequeueOnMessageListenerException(this.requeueOnMessageListenerException)
             .setNackOnRollback(this.nackOnRollback)
@@ -293,6 +479,17 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
         return trustedPackages;
     }
 
+    /**
+     * Statistics of the message selectors compiled and cached by this connection.
+     *
+     * @return the statistics at the time of the call
+     * @see com.rabbitmq.jms.admin.RMQConnectionFactory#setSelectorCacheSize(int)
+     * @since 3.3.0
+     */
+    public SelectorCacheStatistics getSelectorCacheStatistics() {
+        return this.selectorCache.statistics();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -382,6 +579,7 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
         // We null any exception listener since we don't want it driven during close().
         this.exceptionListener.set(null);
 
+        closeAllConnectionConsumers();
         closeAllSessions();
         this.delayedMessageService.close();
 
@@ -402,6 +600,17 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
             CLIENT_IDS.remove(cID);
     }
 
+    private void closeAllConnectionConsumers() {
+        for (RMQConnectionConsumer connectionConsumer : this.connectionConsumers) {
+            try {
+                connectionConsumer.close();
+            } catch (Exception e) {
+                logger.error("exception closing connection consumer ({})", connectionConsumer, e);
+            }
+        }
+        this.connectionConsumers.clear();
+    }
+
     private void closeAllSessions() {
         for (RMQSession session : this.sessions) {
             try {
@@ -419,6 +628,12 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
 
     Channel createRabbitChannel(boolean transactional) throws IOException {
         Channel channel = this.rabbitConnection.createChannel();
+        // a channel error may come from a destination deleted by another application
+        channel.addShutdownListener(cause -> {
+            if (!cause.isInitiatedByApplication()) {
+                this.declarationCache.clear();
+            }
+        });
         if(this.channelsQos != NO_CHANNEL_QOS) {
             channel.basicQos(channelsQos);
         }
@@ -428,6 +643,13 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
         return channel;
     }
 
+    /**
+     * @return the QoS setting applied to channels created by this connection, or {@link #NO_CHANNEL_QOS}
+     */
+    int getChannelsQos() {
+        return this.channelsQos;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -437,12 +659,13 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
     }
 
     /**
-     * @throws UnsupportedOperationException - optional method not implemented
+     * {@inheritDoc}
+     * @see #createConnectionConsumer(Destination, String, ServerSessionPool, int)
      */
     @Override
     public ConnectionConsumer
             createConnectionConsumer(Topic topic, String messageSelector, ServerSessionPool sessionPool, int maxMessages) throws JMSException {
-        throw new UnsupportedOperationException();
+        return this.createConnectionConsumer((Destination) topic, messageSelector, sessionPool, maxMessages);
     }
 
     /**
@@ -454,37 +677,61 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
     }
 
     /**
-     * @throws UnsupportedOperationException - optional method not implemented
+     * {@inheritDoc}
+     * @see #createConnectionConsumer(Destination, String, ServerSessionPool, int)
      */
     @Override
     public ConnectionConsumer createConnectionConsumer(Queue queue,
                                                        String messageSelector,
                                                        ServerSessionPool sessionPool,
                                                        int maxMessages) throws JMSException {
-        throw new UnsupportedOperationException();
+        return this.createConnectionConsumer((Destination) queue, messageSelector, sessionPool, maxMessages);
     }
 
     /**
-     * @throws UnsupportedOperationException - optional method not implemented
+     * {@inheritDoc}
+     * <p>
+     * A single consumer receives the messages of the destination and loads them, <code>maxMessages</code> at most at
+     * a time, into the sessions of the server session pool. Each message is acknowledged individually, when the
+     * listener of the session returns (or when the application calls {@link Message#acknowledge()} if the session
+     * uses {@link Session#CLIENT_ACKNOWLEDGE} mode).
+     * </p>
      */
     @Override
     public ConnectionConsumer createConnectionConsumer(Destination destination,
                                                        String messageSelector,
                                                        ServerSessionPool sessionPool,
-                                                       int maxMessages) {
-        throw new UnsupportedOperationException();
+                                                       int maxMessages) throws JMSException {
+        return this.createConnectionConsumer(sessionPool, maxMessages,
+            session -> session.createConsumer(destination, messageSelector));
     }
 
     /**
-     * @throws UnsupportedOperationException - optional method not implemented
+     * {@inheritDoc}
+     * @see #createConnectionConsumer(Destination, String, ServerSessionPool, int)
      */
     @Override
     public ConnectionConsumer createDurableConnectionConsumer(Topic topic,
                                                               String subscriptionName,
                                                               String messageSelector,
                                                               ServerSessionPool sessionPool,
-                                                              int maxMessages) {
-        throw new UnsupportedOperationException();
+                                                              int maxMessages) throws JMSException {
+        return this.createConnectionConsumer(sessionPool, maxMessages,
+            session -> session.createDurableConsumer(topic, subscriptionName, messageSelector, false));
+    }
+
+    private ConnectionConsumer createConnectionConsumer(ServerSessionPool sessionPool, int maxMessages,
+                                                        RMQConnectionConsumer.ConsumerFactory consumerFactory) throws JMSException {
+        illegalStateExceptionIfClosed();
+        RMQConnectionConsumer connectionConsumer = new RMQConnectionConsumer(this, sessionPool, maxMessages,
+            this.requeueOnMessageListenerException, this.useVirtualThreads ? VirtualThreads.threadFactory() : null,
+            consumerFactory);
+        this.connectionConsumers.add(connectionConsumer);
+        return connectionConsumer;
+    }
+
+    void connectionConsumerClosed(RMQConnectionConsumer connectionConsumer) {
+        this.connectionConsumers.remove(connectionConsumer);
     }
 
     /* Internal methods. */
@@ -523,6 +770,7 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
     private class RMQConnectionShutdownListener implements ShutdownListener {
         @Override
         public void shutdownCompleted(ShutdownSignalException cause) {
+            declarationCache.clear();
             if ( null==exceptionListener.get() || cause.isInitiatedByApplication() )
                 return; // Ignore this
             exceptionListener.get().onException(new RMQJMSException(String.format("error in %s, connection closed, with reason %s", cause.getReference(), cause.getReason()), cause));
@@ -544,22 +792,26 @@ public class RMQConnection implements Connection, QueueConnection, TopicConnecti
     }
 
     /**
-     * @throws UnsupportedOperationException - optional method not implemented
+     * {@inheritDoc}
+     * @see #createConnectionConsumer(Destination, String, ServerSessionPool, int)
      */
     @Override
     public ConnectionConsumer createSharedConnectionConsumer(Topic topic, String subscriptionName,
-        String messageSelector, ServerSessionPool sessionPool, int maxMessages) {
-        throw new UnsupportedOperationException();
+        String messageSelector, ServerSessionPool sessionPool, int maxMessages) throws JMSException {
+        return this.createConnectionConsumer(sessionPool, maxMessages,
+            session -> session.createSharedConsumer(topic, subscriptionName, messageSelector));
     }
 
     /**
-     * @throws UnsupportedOperationException - optional method not implemented
+     * {@inheritDoc}
+     * @see #createConnectionConsumer(Destination, String, ServerSessionPool, int)
      */
     @Override
     public ConnectionConsumer createSharedDurableConnectionConsumer(Topic topic,
         String subscriptionName, String messageSelector, ServerSessionPool sessionPool,
-        int maxMessages) {
-        throw new UnsupportedOperationException();
+        int maxMessages) throws JMSException {
+        return this.createConnectionConsumer(sessionPool, maxMessages,
+            session -> session.createSharedDurableConsumer(topic, subscriptionName, messageSelector));
     }
 
     /**
@@ -0,0 +1,244 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.jms.ConnectionConsumer;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageListener;
+import jakarta.jms.ServerSession;
+import jakarta.jms.ServerSessionPool;
+import jakarta.jms.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rabbitmq.jms.util.RMQJMSException;
+
+/**
+ * {@link ConnectionConsumer} of the Application Server Facilities (JMS specification, chapter 8.2).
+ * <p>
+ * A single consumer, on an internal session of the connection, receives the messages of the destination. A dispatching
+ * thread gets a {@link ServerSession} from the {@link ServerSessionPool} for up to <code>maxMessages</code> messages,
+ * loads them into its session and starts it: the application server then calls {@link Session#run()}, which passes
+ * them to the distinguished {@link MessageListener} of the session, so several server sessions consume in parallel.
+ * The dispatching thread waits when the pool has no server session available, and the prefetch of the consumer
+ * bounds the number of messages waiting for a server session or being consumed by one: the consumer prefetch of the
+ * destination or <code>channelsQos</code> if set, {@link #PREFETCH_BATCHES} times <code>maxMessages</code> otherwise.
+ * </p>
+ * <p>
+ * If dispatching fails, the consumer is closed and the messages waiting for a server session are requeued.
+ * </p>
+ * <p>
+ * Messages are acknowledged on the channel of the internal session, one by one:
+ * <ul>
+ * <li>when the listener returns, unless the server session uses {@link Session#CLIENT_ACKNOWLEDGE} mode;</li>
+ * <li>with {@link jakarta.jms.Message#acknowledge()} in {@link Session#CLIENT_ACKNOWLEDGE} mode, which acknowledges
+ * only this message.</li>
+ * </ul>
+ * A message whose listener throws a {@link RuntimeException} is requeued if <code>requeueOnMessageListenerException</code>
+ * is enabled. Acknowledgments cannot join the transaction of a transacted server session.
+ * </p>
+ */
+class RMQConnectionConsumer implements ConnectionConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RMQConnectionConsumer.class);
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
+
+    /** Number of batches of <code>maxMessages</code> messages prefetched, when nothing else bounds the prefetch */
+    static final int PREFETCH_BATCHES = 16;
+
+    /** Creates the consumer of the destination on the internal session */
+    @FunctionalInterface
+    interface ConsumerFactory {
+        MessageConsumer create(Session session) throws JMSException;
+    }
+
+    private final RMQConnection connection;
+    private final ServerSessionPool sessionPool;
+    private final int maxMessages;
+    private final boolean requeueOnMessageListenerException;
+    private final RMQSession internalSession;
+    /** Messages received and not loaded into a server session yet */
+    private final BlockingQueue<RMQMessage> received = new LinkedBlockingQueue<>();
+    /** Messages are no longer queued for dispatching once it has failed */
+    private final ReentrantLock receivedLock = new ReentrantLock();
+    private boolean dispatchFailed = false; // @GuardedBy(receivedLock)
+    private final MessageConsumer consumer;
+    private final Thread dispatcher;
+    private volatile boolean closed = false;
+
+    /**
+     * @param connection the connection, which owns the internal session
+     * @param sessionPool the pool of server sessions to dispatch messages to
+     * @param maxMessages maximum number of messages loaded into a server session at once
+     * @param requeueOnMessageListenerException whether a listener exception requeues the message
+     * @param threadFactory creates the dispatching thread, may be <code>null</code>
+     * @param consumerFactory creates the consumer of the destination
+     * @throws JMSException if the consumer cannot be created
+     */
+    RMQConnectionConsumer(RMQConnection connection, ServerSessionPool sessionPool, int maxMessages,
+                          boolean requeueOnMessageListenerException, ThreadFactory threadFactory,
+                          ConsumerFactory consumerFactory) throws JMSException {
+        if (sessionPool == null) {
+            throw new jakarta.jms.IllegalStateException("A server session pool is required");
+        }
+        this.connection = connection;
+        this.sessionPool = sessionPool;
+        this.maxMessages = Math.max(1, maxMessages);
+        this.requeueOnMessageListenerException = requeueOnMessageListenerException;
+        // individual acknowledgments: server sessions complete their messages in any order
+        this.internalSession = (RMQSession) connection.createSession(false, RMQSession.CLIENT_INDIVIDUAL_ACKNOWLEDGE);
+        try {
+            if (connection.getChannelsQos() == RMQConnection.NO_CHANNEL_QOS) {
+                // applies to the consumer, unless its destination has a consumer prefetch
+                this.internalSession.getChannel().basicQos(this.maxMessages * PREFETCH_BATCHES);
+            }
+            this.consumer = consumerFactory.create(this.internalSession);
+            this.consumer.setMessageListener(message -> this.received((RMQMessage) message));
+        } catch (IOException e) {
+            this.internalSession.close();
+            throw new RMQJMSException(e);
+        } catch (JMSException | RuntimeException e) {
+            this.internalSession.close();
+            throw e;
+        }
+        String threadName = "rabbitmq-jms-connection-consumer-" + THREAD_COUNTER.incrementAndGet();
+        if (threadFactory == null) {
+            this.dispatcher = new Thread(this::dispatch, threadName);
+            this.dispatcher.setDaemon(true);
+        } else {
+            this.dispatcher = threadFactory.newThread(this::dispatch);
+        }
+        this.dispatcher.start();
+    }
+
+    @Override
+    public ServerSessionPool getServerSessionPool() throws JMSException {
+        if (this.closed) throw new jakarta.jms.IllegalStateException("Connection consumer is closed");
+        return this.sessionPool;
+    }
+
+    @Override
+    public void close() throws JMSException {
+        if (this.closed) return;
+        this.closed = true;
+        this.dispatcher.interrupt();
+        try {
+            // the dispatcher may not react to the interrupt, e.g. when blocked in the server session pool
+            this.dispatcher.join(this.connection.getTerminationTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.received.clear();
+        // unacknowledged messages are requeued when the channel closes
+        this.internalSession.close();
+        this.connection.connectionConsumerClosed(this);
+    }
+
+    private void dispatch() {
+        List<RMQMessage> batch = new ArrayList<>(this.maxMessages);
+        try {
+            while (!this.closed) {
+                batch.add(this.received.take());
+                ServerSession serverSession = this.sessionPool.getServerSession();
+                Session session = serverSession.getSession();
+                if (!(session instanceof RMQSession)) {
+                    throw new RMQJMSException("Server session must be a session of this library: " + session, null);
+                }
+                RMQSession rmqSession = (RMQSession) session;
+                this.received.drainTo(batch, this.maxMessages - 1);
+                for (RMQMessage message : batch) {
+                    rmqSession.loadMessage(() -> this.deliver(rmqSession, message));
+                }
+                batch.clear();
+                serverSession.start();
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Connection consumer dispatching interrupted, closed={}", this.closed);
+        } catch (JMSException | RuntimeException e) {
+            logger.error("Error while dispatching messages to server sessions, connection consumer stopped", e);
+            this.dispatchFailed(batch);
+        }
+    }
+
+    private void received(RMQMessage message) {
+        this.receivedLock.lock();
+        try {
+            if (!this.dispatchFailed) {
+                this.received.add(message);
+                return;
+            }
+        } finally {
+            this.receivedLock.unlock();
+        }
+        this.requeue(message);
+    }
+
+    /**
+     * Stop consuming and requeue the messages not loaded into a server session, as nothing dispatches them any more.
+     */
+    private void dispatchFailed(List<RMQMessage> batch) {
+        this.receivedLock.lock();
+        try {
+            this.dispatchFailed = true;
+            this.received.drainTo(batch);
+        } finally {
+            this.receivedLock.unlock();
+        }
+        try {
+            this.consumer.close();
+        } catch (JMSException | RuntimeException e) {
+            logger.warn("Cannot close consumer of connection consumer", e);
+        }
+        for (RMQMessage message : batch) {
+            this.requeue(message);
+        }
+    }
+
+    /**
+     * Deliver a message loaded into a server session, from {@link Session#run()}.
+     */
+    private void deliver(RMQSession session, RMQMessage message) {
+        MessageListener listener = session.getDistinguishedMessageListener();
+        if (listener == null) {
+            logger.warn("No message listener set on server session {}, requeuing message", session);
+            this.requeue(message);
+            return;
+        }
+        boolean clientAck = !session.isAutoAck();
+        try {
+            listener.onMessage(message);
+        } catch (RuntimeException e) {
+            logger.error("Message listener of server session {} threw exception", session, e);
+            if (this.requeueOnMessageListenerException) {
+                this.requeue(message);
+                return;
+            }
+        }
+        if (!clientAck) {
+            try {
+                message.acknowledge();
+            } catch (JMSException e) {
+                logger.error("Cannot acknowledge message {}", message.getRabbitDeliveryTag(), e);
+            }
+        }
+    }
+
+    private void requeue(RMQMessage message) {
+        this.internalSession.requeueMessage(message.getRabbitDeliveryTag());
+    }
+}
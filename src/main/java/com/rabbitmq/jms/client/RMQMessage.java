@@ -15,10 +15,12 @@ import com.rabbitmq.jms.client.message.RMQMapMessage;
 import com.rabbitmq.jms.client.message.RMQObjectMessage;
 import com.rabbitmq.jms.client.message.RMQStreamMessage;
 import com.rabbitmq.jms.client.message.RMQTextMessage;
+import com.rabbitmq.jms.util.CompactDecoder;
+import com.rabbitmq.jms.util.CompactEncoder;
 import com.rabbitmq.jms.util.HexDisplay;
 import com.rabbitmq.jms.util.IteratorEnum;
+import com.rabbitmq.jms.util.RMQByteArrayOutputStream;
 import com.rabbitmq.jms.util.RMQJMSException;
-import com.rabbitmq.jms.util.Util;
 import com.rabbitmq.jms.util.WhiteListObjectInputStream;
 import java.nio.charset.StandardCharsets;
 import org.slf4j.Logger;
@@ -39,9 +41,11 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInput;
+import java.io.ObjectInputStream;
 import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.io.StreamCorruptedException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.Charset;
@@ -100,7 +104,7 @@ public abstract class RMQMessage implements Message, Cloneable {
     /**
      * We store all the JMS hard coded values, such as {@link #setJMSMessageID(String)}, as properties instead of hard
      * coded fields. This way we can create a structure later on that the rabbit MQ broker can read by just changing the
-     * {@link #toByteArray()}} and {@link #fromMessage(byte[], List)}.
+     * {@link #toByteArray(EncodeBufferPool)}} and {@link #fromMessage(byte[], List)}.
      */
     private static final String PREFIX = "rmq.";
     private static final String JMS_MESSAGE_ID = PREFIX + "jms.message.id";
@@ -121,7 +125,39 @@ public abstract class RMQMessage implements Message, Cloneable {
     /**
      * JMS Defined Properties
      */
-    private static final String JMS_X_DELIVERY_COUNT = "JMSXDeliveryCount";
+    static final String JMS_X_DELIVERY_COUNT = "JMSXDeliveryCount";
+
+    /** Java serialization format of messages, see {@link #toByteArray(EncodeBufferPool)} */
+    static final int FORMAT_VERSION_1 = 1;
+    /** Compact format of messages, see {@link #toCompactByteArray(EncodeBufferPool)} */
+    static final int FORMAT_VERSION_2 = 2;
+    /**
+     * The compact format starts with these bytes: 'R', 'J' and the version. A Java serialization stream starts with
+     * 0xACED, so receivers tell the formats apart.
+     */
+    private static final byte[] COMPACT_FORMAT_HEADER = {'R', 'J', FORMAT_VERSION_2};
+    /** Message classes in the compact format, part of the format */
+    private static final byte COMPACT_NULL_MESSAGE = 0;
+    private static final byte COMPACT_BYTES_MESSAGE = 1;
+    private static final byte COMPACT_MAP_MESSAGE = 2;
+    private static final byte COMPACT_OBJECT_MESSAGE = 3;
+    private static final byte COMPACT_STREAM_MESSAGE = 4;
+    private static final byte COMPACT_TEXT_MESSAGE = 5;
+    /**
+     * Property names written as their index in the compact format. The index of a name is part of the format:
+     * new names are only ever appended.
+     */
+    private static final String[] COMPACT_PROPERTY_NAMES = {
+        JMS_MESSAGE_ID, JMS_MESSAGE_TIMESTAMP, JMS_MESSAGE_CORR_ID, JMS_MESSAGE_REPLY_TO, JMS_MESSAGE_DESTINATION,
+        JMS_MESSAGE_REDELIVERED, JMS_MESSAGE_TYPE, JMS_MESSAGE_DELIVERY_MODE, JMS_MESSAGE_EXPIRATION,
+        JMS_MESSAGE_PRIORITY, JMS_MESSAGE_DELIVERY_TIME, JMS_X_DELIVERY_COUNT, "JMSXGroupID", "JMSXGroupSeq"
+    };
+    private static final Map<String, Integer> COMPACT_PROPERTY_INDEXES = new HashMap<>();
+    static {
+        for (int i = 0; i < COMPACT_PROPERTY_NAMES.length; i++) {
+            COMPACT_PROPERTY_INDEXES.put(COMPACT_PROPERTY_NAMES[i], i);
+        }
+    }
 
     /**
      * For turning {@link String}s into <code>byte[]</code> and back we use this {@link Charset} instance.
@@ -133,6 +169,28 @@ public abstract class RMQMessage implements Message, Cloneable {
     private final Map<String, Serializable> rmqProperties = new HashMap<>();
     /** Here we store the user’s custom JMS properties */
     private final Map<String, Serializable> userJmsProperties = new HashMap<>();
+    /**
+     * Encoded form of a received message, its properties and body are decoded on first access.
+     * <code>null</code> once both are decoded.
+     */
+    private byte[] encoded;
+    /** Trusted packages to decode the body and properties of {@link #encoded} with */
+    private List<String> encodedTrustedPackages;
+    /**
+     * True while the properties of {@link #encoded} are not decoded. Properties set in the meantime are in
+     * {@link #rmqProperties} and {@link #userJmsProperties} and take precedence over the encoded ones.
+     */
+    private boolean propertiesEncoded = false;
+    /** True while the body of {@link #encoded} is not decoded */
+    private boolean bodyEncoded = false;
+    /** True if {@link #encoded} is in the compact format, false if it is Java-serialized */
+    private boolean encodedCompact = false;
+    /**
+     * True while the body of a message received in the compact format is the one in {@link #encoded}, i.e. until
+     * {@link #clearBody()}. The encoded body is then sent again as it is, see
+     * {@link #toCompactByteArray(EncodeBufferPool)}, and {@link #encoded} is kept even once decoded.
+     */
+    private boolean encodedBodyUnmodified = false;
     /**
      * We generate a unique message ID each time we send a message
      * It is stored here. This is also used for
@@ -424,6 +482,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     @Override
     public final void clearProperties() throws JMSException {
+        this.decodeProperties();
         this.userJmsProperties.clear();
         this.setReadOnlyProperties(false);
     }
@@ -432,7 +491,14 @@ public abstract class RMQMessage implements Message, Cloneable {
      * {@inheritDoc}
      */
     @Override
-    public boolean propertyExists(String name) {
+    public boolean propertyExists(String name) throws JMSException {
+        if (this.propertiesEncoded && !propertiesFor(name).containsKey(name)) {
+            try {
+                return scanProperty(name) != ABSENT;
+            } catch (ObjectStreamScanner.NotScannableException e) {
+                this.decodeProperties();
+            }
+        }
         return this.userJmsProperties.containsKey(name) || this.rmqProperties.containsKey(name);
     }
 
@@ -441,7 +507,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     @Override
     public boolean getBooleanProperty(String name) throws JMSException {
-        return Utils.getBooleanProperty(propertiesFor(name), name);
+        return Utils.getBooleanProperty(this.lookupProperty(name));
     }
 
     /**
@@ -449,7 +515,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     @Override
     public byte getByteProperty(String name) throws JMSException {
-        return Utils.getByteProperty(propertiesFor(name), name);
+        return Utils.getByteProperty(this.lookupProperty(name));
     }
 
     /**
@@ -457,7 +523,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     @Override
     public short getShortProperty(String name) throws JMSException {
-        return Utils.getShortProperty(propertiesFor(name), name);
+        return Utils.getShortProperty(this.lookupProperty(name));
     }
 
     /**
@@ -465,7 +531,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     @Override
     public int getIntProperty(String name) throws JMSException {
-        return Utils.getIntProperty(propertiesFor(name), name);
+        return Utils.getIntProperty(this.lookupProperty(name));
     }
 
     /**
@@ -473,7 +539,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     @Override
     public long getLongProperty(String name) throws JMSException {
-        return Utils.getLongProperty(propertiesFor(name), name);
+        return Utils.getLongProperty(this.lookupProperty(name));
     }
 
     /**
@@ -481,7 +547,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     @Override
     public float getFloatProperty(String name) throws JMSException {
-        return Utils.getFloatProperty(propertiesFor(name), name);
+        return Utils.getFloatProperty(this.lookupProperty(name));
     }
 
     /**
@@ -489,7 +555,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     @Override
     public double getDoubleProperty(String name) throws JMSException {
-        return Utils.getDoubleProperty(propertiesFor(name), name);
+        return Utils.getDoubleProperty(this.lookupProperty(name));
     }
 
     /**
@@ -497,7 +563,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     @Override
     public String getStringProperty(String name) throws JMSException {
-        return Utils.getStringProperty(propertiesFor(name), name);
+        return Utils.getStringProperty(this.lookupProperty(name));
     }
 
     /**
@@ -505,18 +571,101 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     @Override
     public Object getObjectProperty(String name) throws JMSException {
-        return propertiesFor(name).get(name);
+        return this.lookupProperty(name);
     }
 
     private Map<String, Serializable> propertiesFor(String name) {
        return name.startsWith(PREFIX) ? this.rmqProperties : this.userJmsProperties;
     }
 
+    /**
+     * Looks a property up. The properties of a received message are scanned in its encoded form while they are not
+     * decoded, they are decoded only if the scan fails, e.g. on a serialized object.
+     */
+    private Object lookupProperty(String name) throws JMSException {
+        Map<String, Serializable> properties = propertiesFor(name);
+        if (this.propertiesEncoded) {
+            Serializable value = properties.get(name);
+            if (value != null) {
+                return value;
+            }
+            try {
+                Object scanned = scanProperty(name);
+                return scanned == ABSENT ? null : scanned;
+            } catch (ObjectStreamScanner.NotScannableException e) {
+                this.decodeProperties();
+            }
+        }
+        return properties.get(name);
+    }
+
+    /** Marks a property missing from the encoded form */
+    private static final Object ABSENT = new Object();
+
+    /**
+     * Scans the encoded properties for a property, without decoding them.
+     * @return the value of the property, or {@link #ABSENT}
+     */
+    private Object scanProperty(String name) throws ObjectStreamScanner.NotScannableException, JMSException {
+        if (this.encodedCompact) {
+            return scanCompactProperty(name);
+        }
+        ObjectStreamScanner scanner = new ObjectStreamScanner(this.encoded);
+        scanner.skip(scanner.readUnsignedShort()); // class name
+        scanner.skip(scanner.readUnsignedShort()); // message id
+        int size = scanner.readInt();
+        if (!name.startsWith(PREFIX)) {
+            // skip JMS properties to get to custom properties
+            for (int i = 0; i < size; i++) {
+                scanner.skip(scanner.readUnsignedShort());
+                scanner.skipPrimitive();
+            }
+            size = scanner.readInt();
+        }
+        for (int i = 0; i < size; i++) {
+            if (scanner.utfEquals(name)) {
+                return scanner.readPrimitive();
+            }
+            scanner.skipPrimitive();
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Scans the properties of the compact format. All values can be skipped, so the properties never need decoding.
+     * @return the value of the property, or {@link #ABSENT}
+     */
+    private Object scanCompactProperty(String name) throws JMSException {
+        CompactDecoder in = this.compactDecoder();
+        int size = in.readVarInt();
+        if (!name.startsWith(PREFIX)) {
+            // skip JMS properties to get to custom properties
+            for (int i = 0; i < size; i++) {
+                if (in.readVarInt() == 0) {
+                    in.skip(in.readLength());
+                }
+                in.skipValue();
+            }
+            size = in.readVarInt();
+        }
+        Integer index = COMPACT_PROPERTY_INDEXES.get(name);
+        for (int i = 0; i < size; i++) {
+            int nameIndex = in.readVarInt();
+            boolean found = nameIndex == 0 ? in.stringEquals(name) : index != null && nameIndex == index + 1;
+            if (found) {
+                return readCompactProperty(in, this.encodedTrustedPackages);
+            }
+            in.skipValue();
+        }
+        return ABSENT;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Enumeration<?> getPropertyNames() throws JMSException {
+        this.decodeProperties();
         return new IteratorEnum<>(this.userJmsProperties.keySet().iterator());
     }
 
@@ -644,6 +793,10 @@ public abstract class RMQMessage implements Message, Cloneable {
                 }
             }
 
+            if (value == null) {
+                // the encoded value must not show through
+                this.decodeProperties();
+            }
             if (name!=null && name.startsWith(PREFIX)) {
                 if (value==null) {
                     this.rmqProperties.remove(name);
@@ -715,6 +868,11 @@ public abstract class RMQMessage implements Message, Cloneable {
     @Override
     public final void clearBody() throws JMSException {
         setReadOnlyBody(false);
+        this.bodyEncoded = false;
+        this.encodedBodyUnmodified = false;
+        if (!this.propertiesEncoded) {
+            this.releaseEncoded();
+        }
         clearBodyInternal();
     }
 
@@ -726,7 +884,7 @@ public abstract class RMQMessage implements Message, Cloneable {
     }
 
     /**
-     * Invoked when {@link RMQMessage#toByteArray()} is called to create
+     * Invoked when {@link RMQMessage#toByteArray(EncodeBufferPool)} is called to create
      * a byte[] from a message. Each subclass must implement this, but ONLY
      * write its specific body. All the properties defined in {@link Message}
      * will be written by the parent class.
@@ -737,7 +895,7 @@ public abstract class RMQMessage implements Message, Cloneable {
     protected abstract void writeBody(ObjectOutput out, ByteArrayOutputStream bout) throws IOException;
 
     /**
-     * Invoked when {@link RMQMessage#toAmqpByteArray()} is called to create
+     * Invoked when {@link RMQMessage#toAmqpByteArray(EncodeBufferPool)} is called to create
      * a byte[] from a message. Each subclass must implement this, but ONLY
      * write its specific body.
      * @param out - the output stream to which the message body is written
@@ -745,6 +903,16 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     protected abstract void writeAmqpBody(ByteArrayOutputStream out) throws IOException;
 
+    /**
+     * Invoked when {@link RMQMessage#toAmqpByteArray(EncodeBufferPool)} is called, to publish the body without
+     * copying it when it is already a byte array which is never modified, like the body of a received
+     * {@link jakarta.jms.BytesMessage}.
+     * @return the AMQP body, or <code>null</code> to write it with {@link #writeAmqpBody(ByteArrayOutputStream)}
+     */
+    protected byte[] unmodifiableAmqpBody() {
+        return null;
+    }
+
     /**
      * Invoked when a message is being deserialized to read and decode the message body.
      * The implementing class should <i>only</i> read its body from this stream.
@@ -757,6 +925,25 @@ public abstract class RMQMessage implements Message, Cloneable {
      */
     protected abstract void readBody(ObjectInput inputStream, ByteArrayInputStream bin) throws IOException, ClassNotFoundException;
 
+    /**
+     * Invoked when {@link RMQMessage#toCompactByteArray(EncodeBufferPool)} is called to create a byte[] from a message
+     * in the compact format. Each subclass must implement this, but ONLY write its specific body.
+     * @param out - the encoder to which the message body is written
+     * @throws IOException if the body can not be written
+     * @throws JMSException if the body contains values the format does not support
+     */
+    protected abstract void writeCompactBody(CompactEncoder out) throws IOException, JMSException;
+
+    /**
+     * Invoked when the body of a message in the compact format is decoded. The implementing class should
+     * <i>only</i> read its body, it extends to the end of the decoder.
+     * @param in - the decoder to read the body from
+     * @throws IOException if the body can not be read
+     * @throws ClassNotFoundException if the class of an object cannot be found
+     * @throws JMSException if the body is malformed
+     */
+    protected abstract void readCompactBody(CompactDecoder in) throws IOException, ClassNotFoundException, JMSException;
+
     /**
      * Invoked when an AMQP message is being transformed into a RMQMessage
      * The implementing class should <i>only</i> read its body by this method
@@ -801,6 +988,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      * </blockquote>
      */
     Map<String, Object> toHeaders() throws IOException, JMSException {
+        this.decodeProperties();
         Map<String, Object> hdrs = new HashMap<>();
 
         // set non-null user properties
@@ -829,6 +1017,7 @@ public abstract class RMQMessage implements Message, Cloneable {
     static RMQMessage convertMessage(RMQSession session, RMQDestination dest, GetResponse response, ReceivingContextConsumer receivingContextConsumer) throws JMSException {
         if (response == null) /* return null if the response is null */
             return null;
+        response = decompress(session, dest, response);
         if (dest.isAmqp()) {
             return convertAmqpMessage(session, dest, response, receivingContextConsumer);
         } else {
@@ -836,6 +1025,26 @@ public abstract class RMQMessage implements Message, Cloneable {
         }
     }
 
+    /**
+     * Decompresses the body of a message with a content encoding the session has a codec for.
+     */
+    private static GetResponse decompress(RMQSession session, RMQDestination dest, GetResponse response) throws JMSException {
+        String contentEncoding = response.getProps() == null ? null : response.getProps().getContentEncoding();
+        if (contentEncoding == null) {
+            return response;
+        }
+        CompressionCodec codec = session.decompressionCodec(contentEncoding, dest.isAmqp());
+        if (codec == null) {
+            return response;
+        }
+        try {
+            return new GetResponse(response.getEnvelope(), response.getProps(), codec.decompress(response.getBody(), session.getMaxDecompressedBodySize()),
+                response.getMessageCount());
+        } catch (IOException x) {
+            throw new RMQJMSException(x);
+        }
+    }
+
     static RMQMessage convertJmsMessage(RMQSession session, RMQDestination dest, GetResponse response, ReceivingContextConsumer receivingContextConsumer) throws JMSException {
         // Deserialize the message payload from the byte[] body
         RMQMessage message = fromMessage(response.getBody(), session.getTrustedPackages());
@@ -961,6 +1170,7 @@ public abstract class RMQMessage implements Message, Cloneable {
      * </blockquote>
      */
     Map<String, Object> toAmqpHeaders() throws IOException, JMSException {
+        this.decodeProperties();
         Map<String, Object> hdrs = new HashMap<>();
 
         // set non-null user properties
@@ -1001,88 +1211,391 @@ public abstract class RMQMessage implements Message, Cloneable {
      * Generates an AMQP byte array body for this message.
      * This method invokes the {@link #writeAmqpBody(ByteArrayOutputStream)}} method
      * on the message subclass.
+     * @param pool the pool of the arrays messages are encoded into, the one of the sending session
      * @return the body in a byte array
      * @throws IOException if conversion fails
      */
-    byte[] toAmqpByteArray() throws IOException, JMSException {
-        ByteArrayOutputStream bout = new ByteArrayOutputStream(DEFAULT_MESSAGE_BODY_SIZE);
-        //invoke write body
-        this.writeAmqpBody(bout);
-        //flush and return
-        bout.flush();
-        return bout.toByteArray();
+    byte[] toAmqpByteArray(EncodeBufferPool pool) throws IOException, JMSException {
+        this.decodeBody();
+        byte[] body = this.unmodifiableAmqpBody();
+        if (body != null) {
+            return body;
+        }
+        RMQByteArrayOutputStream bout = pool.outputStream();
+        try {
+            //invoke write body
+            this.writeAmqpBody(bout);
+            //flush and return
+            bout.flush();
+            return bout.toByteArray();
+        } finally {
+            pool.release(bout);
+        }
     }
 
     /**
      * Generates a JMS byte array body for this message.
      * This method invokes the {@link #writeBody(ObjectOutput, ByteArrayOutputStream)} method
      * on the class that is being serialized
+     * @param pool the pool of the arrays messages are encoded into, the one of the sending session
      * @return the body in a byte array
      * @throws IOException if serialization fails
      */
-    byte[] toByteArray() throws IOException, JMSException {
-        ByteArrayOutputStream bout = new ByteArrayOutputStream(DEFAULT_MESSAGE_BODY_SIZE);
-        ObjectOutputStream out = new ObjectOutputStream(bout);
-        //write the class of the message so we can instantiate on the other end
-        out.writeUTF(this.getClass().getName());
-        //write out message id
-        out.writeUTF(this.internalMessageID);
-        //write our JMS properties
-        out.writeInt(this.rmqProperties.size());
-        for (Map.Entry<String, Serializable> entry : this.rmqProperties.entrySet()) {
-            out.writeUTF(entry.getKey());
-            writePrimitive(entry.getValue(), out, true);
+    byte[] toByteArray(EncodeBufferPool pool) throws IOException, JMSException {
+        this.decodeBody();
+        RMQByteArrayOutputStream bout = pool.outputStream();
+        try {
+            ObjectOutputStream out = new ObjectOutputStream(bout);
+            //write the class of the message so we can instantiate on the other end
+            out.writeUTF(this.getClass().getName());
+            //write out message id
+            out.writeUTF(encodedInternalID(this.internalMessageID));
+            //write our JMS properties
+            out.writeInt(this.rmqProperties.size());
+            for (Map.Entry<String, Serializable> entry : this.rmqProperties.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writePrimitive(entry.getValue(), out, true);
+            }
+            //write custom properties
+            out.writeInt(this.userJmsProperties.size());
+            for (Map.Entry<String, Serializable> entry : this.userJmsProperties.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writePrimitive(entry.getValue(), out, true);
+            }
+            out.flush();  // ensure structured part written to byte stream
+            this.writeBody(out, bout);
+            out.flush();  // force any more structured data to byte stream
+            return bout.toByteArray();
+        } finally {
+            pool.release(bout);
+        }
+    }
+
+    /**
+     * Generates a JMS byte array body for this message in the compact format.
+     * <p>
+     * The format starts with {@link #COMPACT_FORMAT_HEADER} and the message class, followed by the message ID, the JMS
+     * properties, the custom properties and the body written by {@link #writeCompactBody(CompactEncoder)}. Property
+     * names are written as an index in {@link #COMPACT_PROPERTY_NAMES}, or 0 and the name. Property values are typed
+     * values of {@link CompactEncoder}, destinations of this library and serializable objects included.
+     * </p>
+     * <p>
+     * Messages of other classes than those of this library are written with {@link #toByteArray(EncodeBufferPool)}.
+     * </p>
+     * @param pool the pool of the arrays messages are encoded into, the one of the sending session
+     * @return the body in a byte array
+     * @throws IOException if a property cannot be serialized
+     */
+    byte[] toCompactByteArray(EncodeBufferPool pool) throws IOException, JMSException {
+        byte messageClass = this.compactMessageClass();
+        if (messageClass < 0) {
+            return this.toByteArray(pool);
         }
-        //write custom properties
-        out.writeInt(this.userJmsProperties.size());
-        for (Map.Entry<String, Serializable> entry : this.userJmsProperties.entrySet()) {
-            out.writeUTF(entry.getKey());
-            writePrimitive(entry.getValue(), out, true);
+        this.decodeForCompact();
+        CompactEncoder out = pool.encoder();
+        try {
+            out.writeBytes(COMPACT_FORMAT_HEADER, 0, COMPACT_FORMAT_HEADER.length);
+            out.writeByte(messageClass);
+            out.writeString(encodedInternalID(this.internalMessageID));
+            writeCompactProperties(out, this.rmqProperties);
+            writeCompactProperties(out, this.userJmsProperties);
+            this.writeCompactBodyOrEncoded(out);
+            return out.toByteArray();
+        } finally {
+            pool.release(out);
         }
-        out.flush();  // ensure structured part written to byte stream
-        this.writeBody(out, bout);
-        out.flush();  // force any more structured data to byte stream
-        return bout.toByteArray();
     }
 
     /**
-     * Deserializes a {@link RMQMessage} from a JMS generated byte array
-     * This method invokes the {@link #readBody(ObjectInput, ByteArrayInputStream)} method
-     * on the deserialized class
+     * Generates JMS byte array bodies for this message in the compact format, to send it to several destinations.
+     * <p>
+     * The message is encoded once, with the JMSDestination property last among the JMS properties, so that only this
+     * property is encoded for each destination, see {@link CompactFanOut#toByteArray(RMQDestination)}.
+     * </p>
+     * @param pool the pool of the arrays messages are encoded into, the one of the sending session
+     * @return the encoded message, <code>null</code> for messages of other classes than those of this library
+     * @throws IOException if a property cannot be serialized
+     */
+    CompactFanOut toCompactFanOut(EncodeBufferPool pool) throws IOException, JMSException {
+        byte messageClass = this.compactMessageClass();
+        if (messageClass < 0) {
+            return null;
+        }
+        this.decodeForCompact();
+        CompactEncoder out = pool.encoder();
+        try {
+            out.writeBytes(COMPACT_FORMAT_HEADER, 0, COMPACT_FORMAT_HEADER.length);
+            out.writeByte(messageClass);
+            out.writeString(encodedInternalID(this.internalMessageID));
+            boolean hasDestination = this.rmqProperties.containsKey(JMS_MESSAGE_DESTINATION);
+            out.writeVarInt(hasDestination ? this.rmqProperties.size() : this.rmqProperties.size() + 1);
+            for (Map.Entry<String, Serializable> entry : this.rmqProperties.entrySet()) {
+                if (!JMS_MESSAGE_DESTINATION.equals(entry.getKey())) {
+                    writeCompactProperty(out, entry.getKey(), entry.getValue());
+                }
+            }
+            int destinationOffset = out.size();
+            writeCompactProperties(out, this.userJmsProperties);
+            this.writeCompactBodyOrEncoded(out);
+            return new CompactFanOut(out.toByteArray(), destinationOffset);
+        } finally {
+            pool.release(out);
+        }
+    }
+
+    /**
+     * Decodes what is needed to encode the message in the compact format: the body is not decoded if it can be
+     * copied from {@link #encoded}.
+     */
+    private void decodeForCompact() throws RMQJMSException {
+        if (this.encodedBodyUnmodified) {
+            this.decodeProperties();
+        } else {
+            this.decodeBody();
+        }
+    }
+
+    /**
+     * Writes the body in the compact format, copying it from {@link #encoded} if the message was received in this
+     * format and its body was not cleared since.
+     */
+    private void writeCompactBodyOrEncoded(CompactEncoder out) throws IOException, JMSException {
+        if (this.encodedBodyUnmodified) {
+            CompactDecoder in = this.compactDecoder();
+            readCompactProperties(in, null, this.encodedTrustedPackages);
+            readCompactProperties(in, null, this.encodedTrustedPackages);
+            out.writeBytes(this.encoded, in.position(), in.remaining());
+        } else {
+            this.writeCompactBody(out);
+        }
+    }
+
+    /**
+     * A message encoded in the compact format but for its JMSDestination property.
+     */
+    static final class CompactFanOut {
+
+        private final byte[] encoded;
+        private final int destinationOffset;
+
+        private CompactFanOut(byte[] encoded, int destinationOffset) {
+            this.encoded = encoded;
+            this.destinationOffset = destinationOffset;
+        }
+
+        /**
+         * @param destination the destination the message is sent to
+         * @return the message encoded with this JMSDestination property
+         * @throws IOException if the destination cannot be serialized
+         */
+        byte[] toByteArray(RMQDestination destination) throws IOException, JMSException {
+            CompactEncoder out = new CompactEncoder(64);
+            writeCompactProperty(out, JMS_MESSAGE_DESTINATION, destination);
+            byte[] data = new byte[this.encoded.length + out.size()];
+            System.arraycopy(this.encoded, 0, data, 0, this.destinationOffset);
+            System.arraycopy(out.buffer(), 0, data, this.destinationOffset, out.size());
+            System.arraycopy(this.encoded, this.destinationOffset, data, this.destinationOffset + out.size(),
+                this.encoded.length - this.destinationOffset);
+            return data;
+        }
+    }
+
+    private byte compactMessageClass() {
+        Class<?> clazz = this.getClass();
+        if (clazz == RMQTextMessage.class) {
+            return COMPACT_TEXT_MESSAGE;
+        } else if (clazz == RMQBytesMessage.class) {
+            return COMPACT_BYTES_MESSAGE;
+        } else if (clazz == RMQMapMessage.class) {
+            return COMPACT_MAP_MESSAGE;
+        } else if (clazz == RMQObjectMessage.class) {
+            return COMPACT_OBJECT_MESSAGE;
+        } else if (clazz == RMQStreamMessage.class) {
+            return COMPACT_STREAM_MESSAGE;
+        } else if (clazz == RMQNullMessage.class) {
+            return COMPACT_NULL_MESSAGE;
+        }
+        return -1;
+    }
+
+    private static void writeCompactProperties(CompactEncoder out, Map<String, Serializable> properties) throws IOException, JMSException {
+        out.writeVarInt(properties.size());
+        for (Map.Entry<String, Serializable> entry : properties.entrySet()) {
+            writeCompactProperty(out, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void writeCompactProperty(CompactEncoder out, String name, Serializable value) throws IOException, JMSException {
+        Integer index = COMPACT_PROPERTY_INDEXES.get(name);
+        if (index == null) {
+            out.writeVarInt(0);
+            out.writeString(name);
+        } else {
+            out.writeVarInt(index + 1);
+        }
+        writeCompactProperty(out, value);
+    }
+
+    private static void writeCompactProperty(CompactEncoder out, Serializable value) throws IOException, JMSException {
+        if (CompactEncoder.isValue(value)) {
+            out.writeValue(value);
+        } else if (!(value instanceof RMQDestination) || !((RMQDestination) value).writeCompact(out)) {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            try (ObjectOutputStream oout = new ObjectOutputStream(bout)) {
+                oout.writeObject(value);
+            }
+            out.writeByte(CompactEncoder.TYPE_SERIALIZABLE);
+            out.writeVarInt(bout.size());
+            out.writeBytes(bout.toByteArray(), 0, bout.size());
+        }
+    }
+
+    private static Object readCompactProperty(CompactDecoder in, List<String> trustedPackages) throws JMSException {
+        byte type = in.readByte();
+        if (type == CompactEncoder.TYPE_DESTINATION) {
+            in.readLength();
+            return RMQDestination.readCompact(in);
+        } else if (type == CompactEncoder.TYPE_SERIALIZABLE) {
+            try (ObjectInputStream oin = new WhiteListObjectInputStream(in.readInputStream(in.readLength()), trustedPackages)) {
+                return oin.readObject();
+            } catch (IOException | ClassNotFoundException x) {
+                throw new RMQJMSException(x);
+            }
+        }
+        return in.readValue(type);
+    }
+
+    /**
+     * Creates a {@link RMQMessage} from a JMS generated byte array.
+     * <p>
+     * Only the class and the ID of the message are read here. The properties are looked up in the byte array
+     * and decoded on demand, the body is decoded on first access, with the
+     * {@link #readBody(ObjectInput, ByteArrayInputStream)} method of the message class.
+     * </p>
      * @param b - the message bytes
      * @param trustedPackages prefixes of packages that are trusted to be safe to deserialize
      * @return a RMQMessage object
      * @throws RMQJMSException if RJMS class-related errors occur
      */
     static RMQMessage fromMessage(byte[] b, List<String> trustedPackages) throws RMQJMSException {
+        if (b.length >= COMPACT_FORMAT_HEADER.length && b[0] == COMPACT_FORMAT_HEADER[0] && b[1] == COMPACT_FORMAT_HEADER[1]) {
+            return fromCompactMessage(b, trustedPackages);
+        }
         /* If we don't recognise the message format this throws an exception */
+        String clazz;
+        String messageId;
         try {
-            ByteArrayInputStream bin = new ByteArrayInputStream(b);
-            WhiteListObjectInputStream in = new WhiteListObjectInputStream(bin, trustedPackages);
-            // read the class name from the stream
-            String clazz = in.readUTF();
-            // instantiate the message object
-            RMQMessage msg = instantiateRmqMessage(clazz, trustedPackages);
-
-            // read the message id
-            msg.internalMessageID = in.readUTF();
-            // read JMS properties
-            int propsize = in.readInt();
-            for (int i = 0; i < propsize; i++) {
-                String name = in.readUTF();
-                Object value = readPrimitive(in);
-                msg.rmqProperties.put(name, (Serializable) value);
-            }
-            //read custom properties
-            propsize = in.readInt();
-            for (int i = 0; i < propsize; i++) {
-                String name = in.readUTF();
-                Object value = readPrimitive(in);
-                msg.userJmsProperties.put(name, (Serializable) value);
+            ObjectStreamScanner scanner = new ObjectStreamScanner(b);
+            clazz = scanner.readUTF();
+            messageId = scanner.readUTF();
+        } catch (ObjectStreamScanner.NotScannableException x) {
+            throw new RMQJMSException(new StreamCorruptedException("Invalid JMS message format"));
+        }
+        // instantiate the message object
+        RMQMessage msg = instantiateRmqMessage(clazz, trustedPackages);
+        msg.internalMessageID = decodedInternalID(messageId);
+        msg.encoded = b;
+        msg.encodedTrustedPackages = trustedPackages;
+        msg.propertiesEncoded = true;
+        msg.bodyEncoded = true;
+        return msg;
+    }
+
+    private static RMQMessage fromCompactMessage(byte[] b, List<String> trustedPackages) throws RMQJMSException {
+        if (b[2] != FORMAT_VERSION_2) {
+            throw new RMQJMSException(new StreamCorruptedException("Unsupported JMS message format version " + b[2]));
+        }
+        try {
+            CompactDecoder in = new CompactDecoder(b, COMPACT_FORMAT_HEADER.length);
+            RMQMessage msg;
+            byte messageClass = in.readByte();
+            switch (messageClass) {
+            case COMPACT_TEXT_MESSAGE:
+                msg = new RMQTextMessage();
+                break;
+            case COMPACT_BYTES_MESSAGE:
+                msg = new RMQBytesMessage();
+                break;
+            case COMPACT_MAP_MESSAGE:
+                msg = new RMQMapMessage();
+                break;
+            case COMPACT_OBJECT_MESSAGE:
+                msg = new RMQObjectMessage(trustedPackages);
+                break;
+            case COMPACT_STREAM_MESSAGE:
+                msg = new RMQStreamMessage(trustedPackages);
+                break;
+            case COMPACT_NULL_MESSAGE:
+                msg = new RMQNullMessage();
+                break;
+            default:
+                throw new StreamCorruptedException("Invalid JMS message class " + messageClass);
             }
-            // read the body of the message
-            msg.readBody(in, bin);
+            msg.internalMessageID = decodedInternalID(in.readString());
+            msg.encoded = b;
+            msg.encodedTrustedPackages = trustedPackages;
+            msg.encodedCompact = true;
+            msg.encodedBodyUnmodified = true;
+            msg.propertiesEncoded = true;
+            msg.bodyEncoded = true;
             return msg;
+        } catch (MessageFormatException | StreamCorruptedException x) {
+            throw new RMQJMSException(x);
+        }
+    }
+
+    /**
+     * @return a decoder of {@link #encoded} in the compact format, after the message class and ID
+     */
+    private CompactDecoder compactDecoder() throws MessageFormatException {
+        CompactDecoder in = new CompactDecoder(this.encoded, COMPACT_FORMAT_HEADER.length + 1);
+        in.skip(in.readLength());
+        return in;
+    }
+
+    /**
+     * Decodes the properties of a received message, if not done yet.
+     * @throws RMQJMSException if the properties cannot be decoded
+     */
+    private void decodeProperties() throws RMQJMSException {
+        if (this.propertiesEncoded) {
+            this.decode(false);
+        }
+    }
+
+    /**
+     * Decodes the body of a received message, if not done yet. Message classes call this method before accessing
+     * their body.
+     * @throws RMQJMSException if the body cannot be decoded
+     */
+    protected final void decodeBody() throws RMQJMSException {
+        if (this.bodyEncoded) {
+            this.decode(true);
+        }
+    }
+
+    private void decode(boolean body) throws RMQJMSException {
+        if (this.encodedCompact) {
+            this.decodeCompact(body);
+            return;
+        }
+        try {
+            ByteArrayInputStream bin = new ByteArrayInputStream(this.encoded);
+            WhiteListObjectInputStream in = new WhiteListObjectInputStream(bin, this.encodedTrustedPackages);
+            // class name and message id, already read
+            in.readUTF();
+            in.readUTF();
+            boolean properties = this.propertiesEncoded;
+            readProperties(in, properties ? this.rmqProperties : null);
+            readProperties(in, properties ? this.userJmsProperties : null);
+            if (body) {
+                this.readBody(in, bin);
+                this.bodyEncoded = false;
+            }
+            this.propertiesEncoded = false;
+            if (!this.bodyEncoded) {
+                this.releaseEncoded();
+            }
         } catch (IOException x) {
             throw new RMQJMSException(x);
         } catch (ClassNotFoundException x) {
@@ -1090,6 +1603,76 @@ public abstract class RMQMessage implements Message, Cloneable {
         }
     }
 
+    private void decodeCompact(boolean body) throws RMQJMSException {
+        try {
+            CompactDecoder in = this.compactDecoder();
+            boolean properties = this.propertiesEncoded;
+            readCompactProperties(in, properties ? this.rmqProperties : null, this.encodedTrustedPackages);
+            readCompactProperties(in, properties ? this.userJmsProperties : null, this.encodedTrustedPackages);
+            if (body) {
+                this.readCompactBody(in);
+                this.bodyEncoded = false;
+            }
+            this.propertiesEncoded = false;
+            if (!this.bodyEncoded && !this.encodedBodyUnmodified) {
+                this.releaseEncoded();
+            }
+        } catch (IOException | ClassNotFoundException | JMSException x) {
+            throw new RMQJMSException(x);
+        }
+    }
+
+    /**
+     * Reads properties of the compact format into a map, without overwriting the properties set since the message
+     * was received.
+     * @param properties the map, properties are skipped if <code>null</code>
+     */
+    private static void readCompactProperties(CompactDecoder in, Map<String, Serializable> properties,
+                                              List<String> trustedPackages) throws JMSException {
+        int size = in.readVarInt();
+        for (int i = 0; i < size; i++) {
+            int nameIndex = in.readVarInt();
+            if (properties == null) {
+                if (nameIndex == 0) {
+                    in.skip(in.readLength());
+                }
+                in.skipValue();
+            } else {
+                String name;
+                if (nameIndex == 0) {
+                    name = in.readString();
+                } else if (nameIndex <= COMPACT_PROPERTY_NAMES.length) {
+                    name = COMPACT_PROPERTY_NAMES[nameIndex - 1];
+                } else {
+                    throw new MessageFormatException("Unknown property name index " + nameIndex);
+                }
+                properties.putIfAbsent(name, (Serializable) readCompactProperty(in, trustedPackages));
+            }
+        }
+    }
+
+    /**
+     * Reads properties into a map, without overwriting the properties set since the message was received.
+     * @param properties the map, properties are skipped if <code>null</code>
+     */
+    private static void readProperties(ObjectInput in, Map<String, Serializable> properties) throws IOException, ClassNotFoundException {
+        int propsize = in.readInt();
+        for (int i = 0; i < propsize; i++) {
+            String name = in.readUTF();
+            Object value = readPrimitive(in);
+            if (properties != null) {
+                properties.putIfAbsent(name, (Serializable) value);
+            }
+        }
+    }
+
+    private void releaseEncoded() {
+        this.encoded = null;
+        this.encodedTrustedPackages = null;
+        this.encodedCompact = false;
+        this.encodedBodyUnmodified = false;
+    }
+
     private static RMQMessage instantiateRmqMessage(String messageClass, List<String> trustedPackages) throws RMQJMSException {
         if(isRmqObjectMessageClass(messageClass)) {
             return instantiateRmqObjectMessageWithTrustedPackages(trustedPackages);
@@ -1230,14 +1813,49 @@ public abstract class RMQMessage implements Message, Cloneable {
         return this.internalMessageID;
     }
 
+    /**
+     * Messages sent without ID are encoded with an empty ID.
+     */
+    private static String encodedInternalID(String internalMessageID) {
+        return internalMessageID == null ? "" : internalMessageID;
+    }
+
+    private static String decodedInternalID(String encodedInternalID) {
+        return encodedInternalID.isEmpty() ? null : encodedInternalID;
+    }
+
     /**
      * Called when a message is sent so that each message is unique
      */
     void generateInternalID() {
-        this.internalMessageID = Util.generateUUID("");
+        this.generateInternalID(UuidMessageIdGenerator.INSTANCE);
+    }
+
+    /**
+     * Called when a message is sent so that each message is unique
+     * @param generator generator of the ID
+     */
+    void generateInternalID(MessageIdGenerator generator) {
+        this.internalMessageID = generator.generateId();
         this.rmqProperties.put(JMS_MESSAGE_ID, "ID:" + this.internalMessageID);
     }
 
+    /**
+     * Called when a message is sent without ID, see {@link jakarta.jms.MessageProducer#setDisableMessageID(boolean)}
+     */
+    void clearInternalID() {
+        this.internalMessageID = null;
+        this.rmqProperties.remove(JMS_MESSAGE_ID);
+    }
+
+    /**
+     * Called when a message is sent without timestamp, see
+     * {@link jakarta.jms.MessageProducer#setDisableMessageTimestamp(boolean)}
+     */
+    void clearJMSTimestamp() {
+        this.rmqProperties.remove(JMS_MESSAGE_TIMESTAMP);
+    }
+
 	/**
 	 * Utility method used to be able to write primitives and objects to a data
 	 * stream without keeping track of order and type.
@@ -1405,7 +2023,7 @@ public abstract class RMQMessage implements Message, Cloneable {
         return isTextMessage;
     }
 
-    private static long objectToLong(Object val, long dft) {
+    static long objectToLong(Object val, long dft) {
         if (val==null) return dft;
         if (val instanceof Number) return ((Number) val).longValue();
         try {
@@ -1414,7 +2032,7 @@ public abstract class RMQMessage implements Message, Cloneable {
         return dft;
     }
 
-    private static int objectToInt(Object val, int dft) {
+    static int objectToInt(Object val, int dft) {
         if (val==null) return dft;
         if (val instanceof Number) return ((Number) val).intValue();
         try {
@@ -1482,6 +2100,7 @@ public abstract class RMQMessage implements Message, Cloneable {
 
     @Override
     public <T> T getBody(Class<T> c) throws JMSException {
+        this.decodeBody();
         if (this.isBodyAssignableTo(c)) {
             return doGetBody(c);
         } else {
@@ -27,8 +27,10 @@ import com.rabbitmq.jms.util.RMQJMSException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
 import com.rabbitmq.client.GetResponse;
 import com.rabbitmq.client.ShutdownSignalException;
 import com.rabbitmq.jms.admin.RMQDestination;
@@ -41,7 +43,8 @@ import com.rabbitmq.jms.util.Util;
 /**
  * The implementation of {@link MessageConsumer} in the RabbitMQ JMS Client.
  * <p>
- * Single message {@link #receive receive()}s are implemented by abortable polling in {@link DelayedReceiver}.
+ * Single message {@link #receive receive()}s are implemented by abortable polling in {@link DelayedReceiver}, or,
+ * when the connection is configured with a receive prefetch, by a subscription in {@link PrefetchingReceiver}.
  * </p>
  * <p>
  * {@link MessageListener#onMessage} calls are implemented with a more conventional {@link Consumer}.
@@ -52,7 +55,6 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
 
     private static final String DIRECT_REPLY_TO = "amq.rabbitmq.reply-to";
 
-    private static final int DEFAULT_BATCHING_SIZE = 5;
     private static final long STOP_TIMEOUT_MS = 1000; // ONE SECOND
     /** The destination that this consumer belongs to */
     private final RMQDestination destination;
@@ -62,6 +64,10 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
     private final String uuidTag;
     /** The selector used to filter messages consumed */
     private final String messageSelector;
+    /** The selector evaluated by the client for queue consumers, <code>null</code> otherwise */
+    private final QueueSelector queueSelector;
+    /** Messages not selected, held before they are requeued, <code>null</code> unless they are requeued */
+    private final SelectorSkipWindow skipWindow;
     /** The {@link Consumer} that we use to subscribe to Rabbit messages which drives {@link MessageListener#onMessage}. */
     private final AtomicReference<MessageListenerConsumer> listenerConsumer = new AtomicReference<MessageListenerConsumer>();
     /** Entry and exit of application threads calling {@link #receive} are managed by an {@link EntryExitManager}. */
@@ -80,6 +86,8 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
     private volatile boolean noLocal = false;
     /** For getting messages from {@link #receive} queues. */
     private final DelayedReceiver delayedReceiver;
+    /** For getting messages from {@link #receive} queues through a subscription, <code>null</code> if messages are polled. */
+    private final PrefetchingReceiver prefetchingReceiver;
     private final List<ClosedListener> closedListeners = new CopyOnWriteArrayList<>();
     /** Record and preserve the need to acknowledge automatically */
     private final boolean autoAck;
@@ -105,17 +113,34 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
      *            unique name.
      * @param paused - true if the connection is {@link jakarta.jms.Connection#stop}ped, false otherwise.
      * @param requeueOnMessageListenerException true to requeue message on RuntimeException in listener, false otherwise
+     * @param receivePrefetch - number of messages pushed to {@link #receive} calls, 0 to poll the queue instead.
+     * @param queueSelector - the selector of a queue consumer, evaluated by the client, <code>null</code> if none.
      */
     RMQMessageConsumer(RMQSession session, RMQDestination destination, String uuidTag, boolean paused, String messageSelector, boolean requeueOnMessageListenerException,
-            ReceivingContextConsumer receivingContextConsumer, boolean requeueOnTimeout) {
+            ReceivingContextConsumer receivingContextConsumer, boolean requeueOnTimeout, int receivePrefetch,
+            QueueSelector queueSelector) {
         if (requeueOnTimeout && !requeueOnMessageListenerException) {
             throw new IllegalArgumentException("requeueOnTimeout can be true only if requeueOnMessageListenerException is true as well");
         }
         this.session = session;
         this.destination = destination;
         this.uuidTag = uuidTag;
-        this.delayedReceiver = new DelayedReceiver(DEFAULT_BATCHING_SIZE, this);
+        this.delayedReceiver = new DelayedReceiver(this);
+        if (receivePrefetch > 0) {
+            int prefetch = destination.getConsumerPrefetch() > 0 ? destination.getConsumerPrefetch() : receivePrefetch;
+            this.prefetchingReceiver = new PrefetchingReceiver(prefetch, this, paused);
+            this.abortables.add(this.prefetchingReceiver);
+        } else {
+            this.prefetchingReceiver = null;
+        }
         this.messageSelector = messageSelector;
+        this.queueSelector = queueSelector;
+        if (queueSelector != null && queueSelector.policy() == QueueSelectorPolicy.REQUEUE) {
+            this.skipWindow = new SelectorSkipWindow(this.prefetch(receivePrefetch), session::requeueUnselected);
+            this.abortables.add(this.skipWindow);
+        } else {
+            this.skipWindow = null;
+        }
         if (!paused)
             this.receiveManager.openGate();
         this.autoAck = session.isAutoAck();
@@ -124,6 +149,19 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
         this.requeueOnTimeout = requeueOnTimeout;
     }
 
+    /**
+     * @return the maximum number of unacknowledged messages delivered to this consumer, 0 if unbounded
+     */
+    private int prefetch(int receivePrefetch) {
+        if (this.destination.getConsumerPrefetch() > 0) {
+            return this.destination.getConsumerPrefetch();
+        } else if (receivePrefetch > 0) {
+            return receivePrefetch;
+        }
+        int channelsQos = this.session.getConnection().getChannelsQos();
+        return channelsQos == RMQConnection.NO_CHANNEL_QOS ? 0 : channelsQos;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -163,6 +201,11 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
         if (listConsumer != null) {
             this.abortables.remove(listConsumer);
             listConsumer.stop();  // orderly stop
+            KeyOrderedDispatcher dispatcher = this.session.getKeyOrderedDispatcher();
+            if (dispatcher != null) {
+                // messages already dispatched to lanes are delivered before the listener goes away
+                dispatcher.awaitIdle(new TimeTracker(this.session.getConnection().getTerminationTimeout(), TimeUnit.MILLISECONDS));
+            }
         }
     }
 
@@ -184,6 +227,9 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
      * Notwithstanding, we attempt to clear the previous listener gracefully (by cancelling the Consumer) if there is
      * one.
      * </p>
+     * <p>
+     * A {@link BatchMessageListener} receives messages in batches.
+     * </p>
      * {@inheritDoc}
      */
     @Override
@@ -197,6 +243,9 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
         }
         logger.trace("setting MessageListener({})", messageListener);
         this.removeListenerConsumer();  // if there is any
+        if (messageListener != null && this.prefetchingReceiver != null) {
+            this.prefetchingReceiver.release(); // messages pushed for receive() go back to the queue
+        }
         this.messageListener = messageListener;
         try {
             this.setNewListenerConsumer(messageListener); // if needed
@@ -283,7 +332,8 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
     }
 
     /**
-     * Register a {@link Consumer} with the Rabbit API to receive messages
+     * Register a {@link Consumer} with the Rabbit API to receive messages, with the prefetch of the destination
+     * if it has one.
      *
      * @param consumer the SynchronousConsumer being registered
      * @param consTag the ConsumerTag to use for RabbitMQ callbacks
@@ -291,6 +341,15 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
      * @see Channel#basicConsume(String, boolean, String, boolean, boolean, java.util.Map, Consumer)
      */
     void basicConsume(Consumer consumer, String consTag) throws IOException {
+        int consumerPrefetch = this.destination.getConsumerPrefetch();
+        if (consumerPrefetch > 0) {
+            basicConsume(consumer, consTag, consumerPrefetch);
+        } else {
+            subscribe(consumer, consTag);
+        }
+    }
+
+    private void subscribe(Consumer consumer, String consTag) throws IOException {
         String name = rmqQueueName();
         // never ack async messages automatically, only when we can deliver them
         // to the actual consumer so we pass in false as the auto ack mode
@@ -311,6 +370,27 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
                        );
     }
 
+    /**
+     * Register a {@link Consumer} with the Rabbit API to receive at most <code>prefetch</code> unacknowledged messages.
+     * The channel QoS is set for this consumer only and restored to the connection setting afterwards.
+     *
+     * @param consumer the Consumer being registered
+     * @param consTag the ConsumerTag to use for RabbitMQ callbacks
+     * @param prefetch the maximum number of unacknowledged messages delivered to this consumer
+     * @throws IOException from RabbitMQ calls
+     * @see Channel#basicQos(int)
+     */
+    void basicConsume(Consumer consumer, String consTag, int prefetch) throws IOException {
+        Channel channel = getSession().getChannel();
+        int channelsQos = getSession().getConnection().getChannelsQos();
+        channel.basicQos(prefetch); // applies to consumers subsequently created on the channel
+        try {
+            subscribe(consumer, consTag);
+        } finally {
+            channel.basicQos(channelsQos == RMQConnection.NO_CHANNEL_QOS ? 0 : channelsQos);
+        }
+    }
+
     /**
      * RabbitMQ {@link Channel#basicConsume} should accept a {@link null} consumer-tag, to cause it to generate a new,
      * unique one for us; but it doesn't :-(
@@ -351,9 +431,21 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
                 return null; // timed out while stopped
             /* Try to receive a message, there's some time left! */
             try {
-                GetResponse resp = this.delayedReceiver.get(tt);
-                if (resp == null) return null; // nothing received in time or aborted
-                this.dealWithAcknowledgements(this.isAutoAck(), resp.getEnvelope().getDeliveryTag());
+                GetResponse resp;
+                int notSelected = 0;
+                while (true) {
+                    if (this.skipWindow != null && !this.skipWindow.receiveAwaitRoom(tt)) {
+                        return null; // only messages not selected were received in time
+                    }
+                    resp = this.prefetchingReceiver != null ? this.prefetchingReceiver.get(tt) : this.delayedReceiver.get(tt);
+                    if (resp == null) return null; // nothing received in time or aborted
+                    if (this.isSelected(resp.getEnvelope(), resp.getProps())) break;
+                    // receivers get at least one message, but must not go through the whole queue once out of time
+                    if (++notSelected >= SelectorSkipWindow.MAX_HELD && tt.timedOut()) return null;
+                }
+                if (!this.amqpAutoAck()) { // already acknowledged by the broker otherwise
+                    this.dealWithAcknowledgements(this.isAutoAck(), resp.getEnvelope().getDeliveryTag());
+                }
                 this.session.addUncommittedTag(resp.getEnvelope().getDeliveryTag());
                 return RMQMessage.convertMessage(this.session, this.destination, resp, this.receivingContextConsumer);
             } finally {
@@ -371,6 +463,50 @@ class RMQMessageConsumer implements MessageConsumer, QueueReceiver, TopicSubscri
         }
     }
 
+    /**
+     * Whether a message delivered to this consumer matches its queue selector, if it has one. A message that does not
+     * match is disposed of according to the {@link QueueSelectorPolicy}.
+     *
+     * @param envelope the envelope of the delivery
+     * @param properties the AMQP properties of the delivery
+     * @return <code>true</code> if the message is to be delivered to the application
+     */
+    boolean isSelected(Envelope envelope, AMQP.BasicProperties properties) {
+        if (this.queueSelector == null) {
+            return true;
+        }
+        long dtag = envelope.getDeliveryTag();
+        if (this.queueSelector.matches(envelope, properties, this.destination.isAmqp())) {
+            if (this.skipWindow != null) {
+                this.skipWindow.selected();
+            }
+            return true;
+        }
+        logger.trace("message not selected by '{}' (dTag={})", this.messageSelector, dtag);
+        if (this.amqpAutoAck()) { // already acknowledged by the broker
+            return false;
+        }
+        if (this.skipWindow != null) {
+            this.session.unselectedMessageHeld(dtag);
+            this.skipWindow.hold(dtag);
+        } else {
+            this.session.deadLetter(dtag);
+        }
+        return false;
+    }
+
+    /**
+     * Drop messages pushed for {@link #receive} but not received yet; called after the session requeued them.
+     */
+    void discardPrefetched() {
+        if (this.prefetchingReceiver != null) {
+            this.prefetchingReceiver.discardBuffered();
+        }
+        if (this.skipWindow != null) {
+            this.skipWindow.forget();
+        }
+    }
+
     void dealWithAcknowledgements(boolean ack, long dtag) {
         if (ack) {
             this.session.explicitAck(dtag);
@@ -10,8 +10,16 @@ import com.rabbitmq.client.Channel;
 import com.rabbitmq.jms.admin.RMQDestination;
 import com.rabbitmq.jms.client.message.RMQTextMessage;
 import com.rabbitmq.jms.util.RMQJMSException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import jakarta.jms.CompletionListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +34,7 @@ import jakarta.jms.QueueSender;
 import jakarta.jms.Topic;
 import jakarta.jms.TopicPublisher;
 import java.io.IOException;
+import java.util.concurrent.locks.Lock;
 import java.util.function.BiFunction;
 
 import static com.rabbitmq.jms.client.RMQMessage.*;
@@ -66,14 +75,12 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
     private int deliveryMode = Message.DEFAULT_DELIVERY_MODE;
     /**
      * Should we use message IDs or not.
-     * In this implementation, this flag is ignored and we will
-     * always use message IDs
+     * Messages are sent without ID when set.
      */
     private boolean disableMessageID = false;
     /**
      * Should we disable timestamps
-     * In this implementation, this flag is ignored and we will
-     * always use message timestamps
+     * Messages are sent with a zero timestamp when set.
      */
     private boolean disableMessageTimestamp = false;
     /**
@@ -97,13 +104,30 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
 
     private final boolean keepTextMessageType;
 
+    /** Format of the JMS messages sent, see {@link RMQMessage#toCompactByteArray(EncodeBufferPool)} */
+    private final int messageFormatVersion;
+    /** Codec to compress the body of the messages sent with, <code>null</code> for none */
+    private final CompressionCodec compressionCodec;
+    /** Minimum size in bytes of the message bodies to compress */
+    private final int compressionThreshold;
+
+    private final MessageIdGenerator messageIdGenerator;
+
+    /** Whether synchronous sends wait for the publisher confirm of the message */
+    private final boolean confirmedSends;
+    /** How long to wait for publisher confirms, in milliseconds */
+    private final long confirmTimeoutMs;
+
     private final AtomicBoolean publishConfirmedEnabled = new AtomicBoolean(false);
 
     RMQMessageProducer(RMQSession session, RMQDestination destination, boolean preferProducerMessageProperty,
                               BiFunction<AMQP.BasicProperties.Builder, Message, AMQP.BasicProperties.Builder> amqpPropertiesCustomiser,
                               SendingContextConsumer sendingContextConsumer,
                               PublishingListener publishingListener,
-                              boolean keepTextMessageType) {
+                              boolean keepTextMessageType, int messageFormatVersion,
+                              CompressionCodec compressionCodec, int compressionThreshold,
+                              MessageIdGenerator messageIdGenerator,
+                              boolean confirmedSends, long confirmTimeoutMs) {
         this.session = session;
         this.destination = destination;
         if (preferProducerMessageProperty) {
@@ -120,13 +144,19 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
                 publishingListener.publish(message, completionListener, channel.getNextPublishSeqNo());
         }
         this.keepTextMessageType = keepTextMessageType;
+        this.messageFormatVersion = messageFormatVersion;
+        this.compressionCodec = compressionCodec;
+        this.compressionThreshold = compressionThreshold;
+        this.messageIdGenerator = messageIdGenerator;
+        this.confirmedSends = confirmedSends;
+        this.confirmTimeoutMs = confirmTimeoutMs;
     }
 
     public RMQMessageProducer(RMQSession session, RMQDestination destination, boolean preferProducerMessageProperty,
             BiFunction<AMQP.BasicProperties.Builder, Message, AMQP.BasicProperties.Builder> amqpPropertiesCustomiser,
             SendingContextConsumer sendingContextConsumer) {
         this(session, destination, preferProducerMessageProperty, amqpPropertiesCustomiser, sendingContextConsumer, null,
-            false);
+            false, RMQMessage.FORMAT_VERSION_1, null, 0, UuidMessageIdGenerator.INSTANCE, false, 10_000);
     }
 
     public RMQMessageProducer(RMQSession session, RMQDestination destination, boolean preferProducerMessageProperty,
@@ -298,6 +328,120 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
             deliveryMode, priority, timeToLive);
     }
 
+    /**
+     * Sends a message to several destinations, using the producer's default delivery mode, priority and time to live,
+     * or those of the message, depending on the <code>preferProducerMessageProperty</code> setting.
+     * <p>
+     * The message is prepared and encoded once for all the destinations, which is cheaper than sending it to each
+     * destination in turn. The copies of the message only differ in their JMSDestination header: they share the
+     * message ID and the timestamp, like the copies of a message published to a topic. The message has the last
+     * destination as JMSDestination once sent.
+     * </p>
+     * <p>
+     * With the Java serialization message format (the default <code>messageFormatVersion</code>), the message is still
+     * serialized for each JMS destination, as it contains its destination. Use the compact format to encode it once.
+     * </p>
+     *
+     * @param destinations the destinations to send the message to, not empty
+     * @param message the message to send
+     * @throws JMSException if the message cannot be sent to one of the destinations, in which case it may have been sent
+     * to the previous ones
+     * @throws UnsupportedOperationException if the producer has a destination
+     * @since 3.3.0
+     */
+    public void send(Collection<? extends Destination> destinations, Message message) throws JMSException {
+        List<RMQDestination> rmqDestinations = this.checkFanOutDestinations(destinations);
+        this.sendingStrategy.send(rmqDestinations, message, NO_OP_COMPLETION_LISTENER);
+    }
+
+    /**
+     * Sends a message to several destinations asynchronously, see {@link #send(Collection, Message)}.
+     * <p>
+     * The completion listener is called once for all the destinations: when the message is confirmed for all of them,
+     * or as soon as it is negatively acknowledged for one of them.
+     * </p>
+     *
+     * @param destinations the destinations to send the message to, not empty
+     * @param message the message to send
+     * @param completionListener the listener to notify when the message is confirmed for all the destinations
+     * @throws JMSException if the message cannot be sent to one of the destinations, the listener is not called then
+     * @throws UnsupportedOperationException if the producer has a destination
+     * @since 3.3.0
+     */
+    public void send(Collection<? extends Destination> destinations, Message message,
+        CompletionListener completionListener) throws JMSException {
+        List<RMQDestination> rmqDestinations = this.checkFanOutDestinations(destinations);
+        checkCompletionListenerNotNull(completionListener);
+        enablePublishConfirm();
+        this.sendingStrategy.send(rmqDestinations, message, completionListener);
+    }
+
+    /**
+     * Sends messages to the destination of the producer and waits for their publisher confirms, see
+     * {@link #sendBatch(Destination, List)}.
+     *
+     * @param messages the messages to send
+     * @throws JMSException if a message cannot be sent, is negatively acknowledged, or is not confirmed in time
+     * @since 3.3.0
+     */
+    public void sendBatch(List<? extends Message> messages) throws JMSException {
+        this.internalSendBatch(this.destination, messages);
+    }
+
+    /**
+     * Sends messages and waits once for the publisher confirms of all of them, using the producer's default delivery
+     * mode, priority and time to live, or those of the messages, depending on the
+     * <code>preferProducerMessageProperty</code> setting.
+     * <p>
+     * The messages are published one after the other and the broker usually confirms them together, so sending a batch
+     * costs about one round-trip, instead of one per message with <code>confirmedSends</code>. This works whether
+     * <code>confirmedSends</code> is enabled or not, but not on transacted sessions, whose channel cannot be in confirm
+     * mode.
+     * </p>
+     *
+     * @param destination the destination to send the messages to
+     * @param messages the messages to send
+     * @throws JMSException if a message cannot be sent, in which case the previous ones may have been sent, if a
+     * message is negatively acknowledged, or if the messages are not confirmed after <code>confirmTimeoutMs</code>
+     * @throws UnsupportedOperationException if the producer has a destination
+     * @throws jakarta.jms.IllegalStateException if the session is transacted
+     * @since 3.3.0
+     */
+    public void sendBatch(Destination destination, List<? extends Message> messages) throws JMSException {
+        this.checkUnidentifiedMessageProducer(destination);
+        this.internalSendBatch(destination, messages);
+    }
+
+    private void internalSendBatch(Destination destination, List<? extends Message> messages) throws JMSException {
+        if (this.session.getTransacted()) {
+            throw new jakarta.jms.IllegalStateException("Batches cannot wait for publisher confirms in a transacted session");
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        enablePublishConfirm();
+        ConfirmWait confirmWait = new ConfirmWait(messages.size());
+        for (Message message : messages) {
+            this.sendingStrategy.send(destination, message, confirmWait);
+        }
+        confirmWait.await(this.confirmTimeoutMs);
+    }
+
+    private List<RMQDestination> checkFanOutDestinations(Collection<? extends Destination> destinations)
+        throws InvalidDestinationException {
+        if (this.destination != null)
+            throw new UnsupportedOperationException("Must not supply destinations unless MessageProducer is unidentified.");
+        if (destinations == null || destinations.isEmpty())
+            throw new InvalidDestinationException("No destination supplied.");
+        List<RMQDestination> rmqDestinations = new ArrayList<>(destinations.size());
+        for (Destination destination : destinations) {
+            if (destination == null)
+                throw new InvalidDestinationException("Null destination supplied.");
+            rmqDestinations.add((RMQDestination) destination);
+        }
+        return rmqDestinations;
+    }
+
     private void internalSend(RMQDestination destination, Message message, CompletionListener completionListener,
                               int deliveryMode, int priority, long timeToLiveOrExpiration,
                               MessageExpirationType messageExpirationType,
@@ -311,6 +455,73 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
             destination = this.destination;
         if (destination == null)
             throw new InvalidDestinationException("No destination supplied, or implied.");
+
+        PreparedMessage prepared = prepare(message, destination, deliveryMode, priority, timeToLiveOrExpiration,
+            messageExpirationType, deliveryTimeSource);
+
+        ConfirmWait confirmWait = null;
+        if (completionListener == NO_OP_COMPLETION_LISTENER && this.waitsForConfirm()) {
+            enablePublishConfirm();
+            completionListener = confirmWait = new ConfirmWait(1);
+        }
+
+        /* Now send it */
+        if (destination.isAmqp()) {
+            sendAMQPMessage(destination, prepared.message, message, completionListener,
+                prepared.deliveryMode, priority, prepared.ttl, prepared.deliveryDelay);
+        } else {
+            sendJMSMessage(destination, prepared.message, message, completionListener,
+                prepared.deliveryMode, priority, prepared.ttl, prepared.deliveryDelay);
+        }
+        if (confirmWait != null) {
+            confirmWait.await(this.confirmTimeoutMs);
+        }
+    }
+
+    private void internalSend(List<RMQDestination> destinations, Message message, CompletionListener completionListener,
+                              int deliveryMode, int priority, long timeToLiveOrExpiration,
+                              MessageExpirationType messageExpirationType,
+                              DeliveryTimeSource deliveryTimeSource) throws JMSException {
+        logger.trace("send/publish message({}) to destinations({}) with properties deliveryMode({}), priority({}), timeToLive({}), deliveryTimeSource({})",
+                message, destinations, deliveryMode, priority, timeToLiveOrExpiration, deliveryTimeSource);
+
+        for (RMQDestination destination : destinations) {
+            this.sendingContextConsumer.accept(new SendingContext(destination, message));
+        }
+
+        PreparedMessage prepared = prepare(message, destinations.get(0), deliveryMode, priority, timeToLiveOrExpiration,
+            messageExpirationType, deliveryTimeSource);
+
+        FanOutCompletionListener fanOutCompletionListener = null;
+        ConfirmWait confirmWait = null;
+        if (completionListener != NO_OP_COMPLETION_LISTENER) {
+            fanOutCompletionListener = new FanOutCompletionListener(completionListener, destinations.size());
+            completionListener = fanOutCompletionListener;
+        } else if (this.waitsForConfirm()) {
+            enablePublishConfirm();
+            completionListener = confirmWait = new ConfirmWait(destinations.size());
+        }
+        try {
+            sendFanOut(destinations, prepared, message, completionListener, priority);
+        } catch (JMSException | RuntimeException e) {
+            if (fanOutCompletionListener != null) {
+                // the application is told by the exception, not by the listener
+                fanOutCompletionListener.abandon();
+            }
+            throw e;
+        }
+        if (confirmWait != null) {
+            confirmWait.await(this.confirmTimeoutMs);
+        }
+    }
+
+    /**
+     * Normalises the message to its internal form and sets the JMS message properties that need to be set during
+     * the send call.
+     */
+    private PreparedMessage prepare(Message message, RMQDestination destination, int deliveryMode, int priority,
+                                    long timeToLiveOrExpiration, MessageExpirationType messageExpirationType,
+                                    DeliveryTimeSource deliveryTimeSource) throws JMSException {
         if (deliveryMode != jakarta.jms.DeliveryMode.PERSISTENT)
             deliveryMode = jakarta.jms.DeliveryMode.NON_PERSISTENT;
 
@@ -333,19 +544,20 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
         rmqMessage.setJMSPriority(priority);
         rmqMessage.setJMSExpiration(expiration);
         rmqMessage.setJMSDestination(destination);
-        rmqMessage.setJMSTimestamp(currentTime);
-        rmqMessage.generateInternalID();
-        long deliveryDelay = getDeliveryDelayAndSetJMSDeliveryTimeIfNeeded(rmqMessage, deliveryTimeSource);
-
-        /* Now send it */
-        if (destination.isAmqp()) {
-            sendAMQPMessage(destination, rmqMessage, message, completionListener,
-                deliveryMode, priority, ttl, deliveryDelay);
+        if (this.disableMessageTimestamp) {
+            rmqMessage.clearJMSTimestamp();
         } else {
-            sendJMSMessage(destination, rmqMessage, message, completionListener,
-                deliveryMode, priority, ttl, deliveryDelay);
+            rmqMessage.setJMSTimestamp(currentTime);
         }
+        if (this.disableMessageID) {
+            rmqMessage.clearInternalID();
+        } else {
+            rmqMessage.generateInternalID(this.messageIdGenerator);
+        }
+        long deliveryDelay = getDeliveryDelayAndSetJMSDeliveryTimeIfNeeded(rmqMessage, deliveryTimeSource);
+        return new PreparedMessage(rmqMessage, deliveryMode, ttl, deliveryDelay);
     }
+
     private long getDeliveryDelayAndSetJMSDeliveryTimeIfNeeded(RMQMessage rmqMessage, DeliveryTimeSource deliveryTimeSource) throws JMSException {
         long deliveryDelay = 0L;
         long currentTime = System.currentTimeMillis();
@@ -368,28 +580,21 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
 
         if (msg.isAmqpWritable()) {
             try {
-                AMQP.BasicProperties.Builder bob = new AMQP.BasicProperties.Builder();
-                bob.contentType("application/octet-stream");
-                bob.deliveryMode(RMQMessage.rmqDeliveryMode(deliveryMode));
-                bob.priority(priority);
-                bob.correlationId(msg.getJMSCorrelationID());
-                bob.expiration(rmqExpiration(timeToLive));
-                Map<String, Object> messageHeaders = msg.toAmqpHeaders();
-                if (this.keepTextMessageType && msg instanceof RMQTextMessage) {
-                    messageHeaders.put(RMQMessage.JMS_TYPE_HEADER,
-                                       RMQMessage.TEXT_MESSAGE_HEADER_VALUE);
-                }
+                AMQP.BasicProperties.Builder bob = basicProperties(msg, deliveryMode, priority, timeToLive);
+                Map<String, Object> messageHeaders = amqpHeaders(msg);
                 String targetAmqpExchangeName = session.delayMessage(destination, messageHeaders, deliveryDelay);
                 bob.headers(messageHeaders);
 
-                setReplyToProperty(bob, msg);
-
                 bob = amqpPropertiesCustomiser.apply(bob, msg);
 
-                byte[] data = msg.toAmqpByteArray();
+                byte[] data = msg.toAmqpByteArray(this.session.getEncodeBufferPool());
+                byte[] compressed = this.compress(data);
+                if (compressed != null) {
+                    bob.contentEncoding(this.compressionCodec.contentEncoding());
+                    data = compressed;
+                }
 
-                this.beforePublishingCallback.beforePublishing(originalMessage, completionListener, this.session.getChannel());
-                this.session.getChannel().basicPublish(targetAmqpExchangeName, destination.getAmqpRoutingKey(), bob.build(), data);
+                publish(targetAmqpExchangeName, destination, bob.build(), data, originalMessage, completionListener);
             } catch (IOException x) {
                 throw new RMQJMSException(x);
             }
@@ -405,28 +610,154 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
                                   int deliveryMode, int priority, long timeToLive, long deliveryDelay) throws JMSException {
         this.session.declareDestinationIfNecessary(destination);
         try {
-            AMQP.BasicProperties.Builder bob = new AMQP.BasicProperties.Builder();
-            bob.contentType("application/octet-stream");
-            bob.deliveryMode(RMQMessage.rmqDeliveryMode(deliveryMode));
-            bob.priority(priority);
-            bob.correlationId(msg.getJMSCorrelationID());
-            bob.expiration(rmqExpiration(timeToLive));
+            AMQP.BasicProperties.Builder bob = basicProperties(msg, deliveryMode, priority, timeToLive);
             Map<String, Object> headers = msg.toHeaders();
             String targetAmqpExchangeName = session.delayMessage(destination, headers, deliveryDelay);
             bob.headers(headers);
 
-            setReplyToProperty(bob, msg);
+            EncodeBufferPool pool = this.session.getEncodeBufferPool();
+            byte[] data = this.messageFormatVersion == RMQMessage.FORMAT_VERSION_2 ? msg.toCompactByteArray(pool) : msg.toByteArray(pool);
+            byte[] compressed = this.compress(data);
+            if (compressed != null) {
+                bob.contentEncoding(this.compressionCodec.contentEncoding());
+                data = compressed;
+            }
 
-            byte[] data = msg.toByteArray();
+            publish(targetAmqpExchangeName, destination, bob.build(), data, originalMessage, completionListener);
+        } catch (IOException x) {
+            throw new RMQJMSException(x);
+        }
+    }
 
-            this.beforePublishingCallback.beforePublishing(originalMessage, completionListener,
-                this.session.getChannel());
-            this.session.getChannel().basicPublish(targetAmqpExchangeName, destination.getAmqpRoutingKey(), bob.build(), data);
+    /**
+     * Sends a message to several destinations, preparing the headers and the AMQP properties and encoding the
+     * message once, when they are first needed. The message sent to JMS destinations is encoded for each destination
+     * with the Java serialization format, which cannot be spliced.
+     */
+    private void sendFanOut(List<RMQDestination> destinations, PreparedMessage prepared, Message originalMessage,
+                            CompletionListener completionListener, int priority) throws JMSException {
+        RMQMessage msg = prepared.message;
+        boolean delayed = prepared.deliveryDelay > 0L;
+        Map<String, Object> amqpHeaders = null;
+        byte[] amqpData = null;
+        boolean amqpDataCompressed = false;
+        Map<String, Object> jmsHeaders = null;
+        AMQP.BasicProperties jmsProperties = null;
+        RMQMessage.CompactFanOut compactFanOut = null;
+        try {
+            for (RMQDestination destination : destinations) {
+                msg.setJMSDestination(destination);
+                if (destination.isAmqp()) {
+                    if (!destination.isAmqpWritable()) {
+                        this.logger.error("Cannot write to AMQP destination {}", destination);
+                        throw new RMQJMSException("Cannot write to AMQP destination", new UnsupportedOperationException("MessageProducer.send to undefined AMQP resource"));
+                    }
+                    if (!msg.isAmqpWritable()) {
+                        this.logger.error("Unsupported message type {} for AMQP destination {}", msg.getClass().getName(), destination);
+                        throw new RMQJMSException("Unsupported message type for AMQP destination", new UnsupportedOperationException("MessageProducer.send to AMQP resource: Message not Text or Bytes"));
+                    }
+                    if (amqpData == null) {
+                        amqpHeaders = amqpHeaders(msg);
+                        amqpData = msg.toAmqpByteArray(this.session.getEncodeBufferPool());
+                        byte[] compressed = this.compress(amqpData);
+                        if (compressed != null) {
+                            amqpData = compressed;
+                            amqpDataCompressed = true;
+                        }
+                    }
+                    // delayMessage adds headers specific to the destination
+                    Map<String, Object> headers = delayed ? new HashMap<>(amqpHeaders) : amqpHeaders;
+                    String targetAmqpExchangeName = session.delayMessage(destination, headers, prepared.deliveryDelay);
+                    AMQP.BasicProperties.Builder bob = basicProperties(msg, prepared.deliveryMode, priority, prepared.ttl);
+                    bob.headers(headers);
+                    if (amqpDataCompressed) {
+                        bob.contentEncoding(this.compressionCodec.contentEncoding());
+                    }
+                    bob = amqpPropertiesCustomiser.apply(bob, msg);
+                    publish(targetAmqpExchangeName, destination, bob.build(), amqpData, originalMessage, completionListener);
+                } else {
+                    this.session.declareDestinationIfNecessary(destination);
+                    if (jmsHeaders == null) {
+                        jmsHeaders = msg.toHeaders();
+                        if (this.messageFormatVersion == RMQMessage.FORMAT_VERSION_2) {
+                            compactFanOut = msg.toCompactFanOut(this.session.getEncodeBufferPool());
+                        }
+                    }
+                    Map<String, Object> headers = delayed ? new HashMap<>(jmsHeaders) : jmsHeaders;
+                    String targetAmqpExchangeName = session.delayMessage(destination, headers, prepared.deliveryDelay);
+                    byte[] data = compactFanOut != null ? compactFanOut.toByteArray(destination) : msg.toByteArray(this.session.getEncodeBufferPool());
+                    byte[] compressed = this.compress(data);
+                    AMQP.BasicProperties properties;
+                    if (compressed != null) {
+                        properties = basicProperties(msg, prepared.deliveryMode, priority, prepared.ttl).headers(headers)
+                            .contentEncoding(this.compressionCodec.contentEncoding()).build();
+                        data = compressed;
+                    } else {
+                        properties = jmsProperties;
+                        if (properties == null) {
+                            properties = basicProperties(msg, prepared.deliveryMode, priority, prepared.ttl).headers(headers).build();
+                            if (!delayed) {
+                                jmsProperties = properties;
+                            }
+                        }
+                    }
+                    publish(targetAmqpExchangeName, destination, properties, data, originalMessage, completionListener);
+                }
+            }
         } catch (IOException x) {
             throw new RMQJMSException(x);
         }
     }
 
+    /**
+     * @return the compressed body, <code>null</code> if compression is disabled, the body is too small or does not get
+     * smaller
+     */
+    private byte[] compress(byte[] data) throws IOException {
+        if (this.compressionCodec == null || data.length < this.compressionThreshold) {
+            return null;
+        }
+        byte[] compressed = this.compressionCodec.compress(data);
+        return compressed.length < data.length ? compressed : null;
+    }
+
+    /**
+     * Publishes a message under the publishing lock of the session, so that the sequence number registered for the
+     * publisher confirm is that of the publication when producers of the session are used from several threads.
+     */
+    private void publish(String exchange, RMQDestination destination, AMQP.BasicProperties properties, byte[] data,
+                         Message originalMessage, CompletionListener completionListener) throws IOException, JMSException {
+        Lock publishingLock = this.session.getPublishingLock();
+        publishingLock.lock();
+        try {
+            this.beforePublishingCallback.beforePublishing(originalMessage, completionListener, this.session.getChannel());
+            this.session.getChannel().basicPublish(exchange, destination.getAmqpRoutingKey(), properties, data);
+        } finally {
+            publishingLock.unlock();
+        }
+    }
+
+    private static AMQP.BasicProperties.Builder basicProperties(RMQMessage msg, int deliveryMode, int priority,
+                                                                long timeToLive) throws JMSException {
+        AMQP.BasicProperties.Builder bob = new AMQP.BasicProperties.Builder();
+        bob.contentType("application/octet-stream");
+        bob.deliveryMode(RMQMessage.rmqDeliveryMode(deliveryMode));
+        bob.priority(priority);
+        bob.correlationId(msg.getJMSCorrelationID());
+        bob.expiration(rmqExpiration(timeToLive));
+        setReplyToProperty(bob, msg);
+        return bob;
+    }
+
+    private Map<String, Object> amqpHeaders(RMQMessage msg) throws IOException, JMSException {
+        Map<String, Object> messageHeaders = msg.toAmqpHeaders();
+        if (this.keepTextMessageType && msg instanceof RMQTextMessage) {
+            messageHeaders.put(RMQMessage.JMS_TYPE_HEADER,
+                               RMQMessage.TEXT_MESSAGE_HEADER_VALUE);
+        }
+        return messageHeaders;
+    }
+
     /**
      * Set AMQP reply-to property to reply-to if necessary.
      * <p>
@@ -555,6 +886,9 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
         void send(Destination destination, Message message, CompletionListener completionListener,
             int deliveryMode, int priority, long timeToLive) throws JMSException;
 
+        void send(List<RMQDestination> destinations, Message message, CompletionListener completionListener)
+            throws JMSException;
+
     }
 
     private enum DeliveryTimeSource {
@@ -583,6 +917,14 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
                     timeToLive, MessageExpirationType.TTL, DeliveryTimeSource.PRODUCER);
         }
 
+        @Override
+        public void send(List<RMQDestination> destinations, Message message, CompletionListener completionListener)
+            throws JMSException {
+            internalSend(destinations, message, completionListener,
+                getDeliveryMode(), getPriority(), getTimeToLive(), MessageExpirationType.TTL,
+                    DeliveryTimeSource.PRODUCER);
+        }
+
     }
 
     /**
@@ -609,15 +951,133 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
                 deliveryMode, priority, timeToLive, MessageExpirationType.TTL, DeliveryTimeSource.MESSAGE);
         }
 
+        @Override
+        public void send(List<RMQDestination> destinations, Message message, CompletionListener completionListener)
+            throws JMSException {
+            internalSend(destinations, message, completionListener,
+                message.propertyExists(JMS_MESSAGE_DELIVERY_MODE) ? message.getJMSDeliveryMode() : getDeliveryMode(),
+                message.propertyExists(JMS_MESSAGE_PRIORITY) ? message.getJMSPriority() : getPriority(),
+                message.propertyExists(JMS_MESSAGE_EXPIRATION) ? message.getJMSExpiration() : getTimeToLive(),
+                message.propertyExists(JMS_MESSAGE_EXPIRATION) ? MessageExpirationType.EXPIRATION : MessageExpirationType.TTL,
+                message.propertyExists(JMS_MESSAGE_DELIVERY_TIME) ? DeliveryTimeSource.MESSAGE : DeliveryTimeSource.PRODUCER);
+        }
+
     }
 
     private enum MessageExpirationType {
         TTL, EXPIRATION
     }
 
+    /**
+     * A message normalised to its internal form, ready to be sent.
+     */
+    private static final class PreparedMessage {
+
+        private final RMQMessage message;
+        private final int deliveryMode;
+        private final long ttl;
+        private final long deliveryDelay;
+
+        private PreparedMessage(RMQMessage message, int deliveryMode, long ttl, long deliveryDelay) {
+            this.message = message;
+            this.deliveryMode = deliveryMode;
+            this.ttl = ttl;
+            this.deliveryDelay = deliveryDelay;
+        }
+    }
+
+    /**
+     * Completion listener of a message sent to several destinations, notifying the listener of the application once
+     * for all of them.
+     */
+    static final class FanOutCompletionListener implements CompletionListener {
+
+        private final CompletionListener delegate;
+        private final AtomicInteger outstanding;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        FanOutCompletionListener(CompletionListener delegate, int destinationCount) {
+            this.delegate = delegate;
+            this.outstanding = new AtomicInteger(destinationCount);
+        }
+
+        @Override
+        public void onCompletion(Message message) {
+            if (this.outstanding.decrementAndGet() == 0 && this.done.compareAndSet(false, true)) {
+                this.delegate.onCompletion(message);
+            }
+        }
+
+        @Override
+        public void onException(Message message, Exception exception) {
+            if (this.done.compareAndSet(false, true)) {
+                this.delegate.onException(message, exception);
+            }
+        }
+
+        /**
+         * Ignores the outcome of the copies already sent.
+         */
+        void abandon() {
+            this.done.set(true);
+        }
+    }
+
+    /**
+     * Completion listener of messages sent synchronously, for the sending thread to wait for their publisher confirms.
+     */
+    static final class ConfirmWait implements CompletionListener {
+
+        private final int count;
+        private final CountDownLatch latch;
+        private final AtomicInteger failures = new AtomicInteger(0);
+        private volatile Exception firstFailure;
+
+        ConfirmWait(int count) {
+            this.count = count;
+            this.latch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void onCompletion(Message message) {
+            this.latch.countDown();
+        }
+
+        @Override
+        public void onException(Message message, Exception exception) {
+            if (this.failures.getAndIncrement() == 0) {
+                this.firstFailure = exception;
+            }
+            this.latch.countDown();
+        }
+
+        /**
+         * Waits for the confirms of all the messages.
+         *
+         * @param timeoutMs how long to wait, in milliseconds
+         * @throws JMSException if a message is negatively acknowledged, or if the confirms do not come in time
+         */
+        void await(long timeoutMs) throws JMSException {
+            try {
+                if (!this.latch.await(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new RMQJMSException(String.format("%d of %d messages not confirmed after %d ms",
+                        this.latch.getCount(), this.count, timeoutMs), new TimeoutException());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RMQJMSException("Interrupted while waiting for publisher confirms", e);
+            }
+            int failed = this.failures.get();
+            if (failed > 0) {
+                throw new RMQJMSException(String.format("%d of %d messages were negatively acknowledged",
+                    failed, this.count), this.firstFailure);
+            }
+        }
+    }
+
     interface BeforePublishingCallback {
 
-        void beforePublishing(Message message, CompletionListener completionListener, Channel channel);
+        void beforePublishing(Message message, CompletionListener completionListener, Channel channel) throws JMSException;
 
     }
 
@@ -673,6 +1133,14 @@ public class RMQMessageProducer implements MessageProducer, QueueSender, TopicPu
         }
     }
 
+    /**
+     * Synchronous sends of transacted sessions do not wait for confirms: the channel is in transaction mode, which
+     * cannot be combined with confirm mode, and the commit tells the messages were accepted.
+     */
+    private boolean waitsForConfirm() throws JMSException {
+        return this.confirmedSends && !this.session.getTransacted();
+    }
+
     private void enablePublishConfirm() throws JMSException {
         if (this.publishConfirmedEnabled.compareAndSet(false, true)) {
             try {
@@ -14,6 +14,9 @@ import java.io.ObjectOutput;
 import jakarta.jms.JMSException;
 import jakarta.jms.Message;
 
+import com.rabbitmq.jms.util.CompactDecoder;
+import com.rabbitmq.jms.util.CompactEncoder;
+
 
 class RMQNullMessage extends RMQMessage {
 
@@ -40,6 +43,16 @@ class RMQNullMessage extends RMQMessage {
         // no-op
     }
 
+    @Override
+    protected void writeCompactBody(CompactEncoder out) {
+        // no-op
+    }
+
+    @Override
+    protected void readCompactBody(CompactDecoder in) {
+        // no-op
+    }
+
     @Override
     protected void readAmqpBody(byte[] barr) {
         // no-op
@@ -15,12 +15,12 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 
 import jakarta.jms.BytesMessage;
@@ -63,6 +63,8 @@ import com.rabbitmq.jms.client.message.RMQObjectMessage;
 import com.rabbitmq.jms.client.message.RMQStreamMessage;
 import com.rabbitmq.jms.client.message.RMQTextMessage;
 import com.rabbitmq.jms.util.RMQJMSException;
+import com.rabbitmq.jms.util.TimeTracker;
+import com.rabbitmq.jms.util.VirtualThreads;
 import com.rabbitmq.jms.util.Util;
 
 /**
@@ -140,8 +142,10 @@ public class RMQSession implements Session, QueueSession, TopicSession {
     private final Channel channel;
     /** Set to true if close() has been called and completed */
     private volatile boolean closed = false;
-    /** The message listener for this session. */
+    /** The distinguished message listener for this session, used by {@link #run()}. */
     private volatile MessageListener messageListener;
+    /** Deliveries loaded by a {@link RMQConnectionConsumer}, run by {@link #run()} */
+    private final java.util.Queue<Runnable> loadedDeliveries = new ConcurrentLinkedQueue<>();
     /** A list of all the producers created by this session.
      * When a producer is closed, it will be removed from this list */
     private final ArrayList<RMQMessageProducer> producers = new ArrayList<>();
@@ -151,20 +155,27 @@ public class RMQSession implements Session, QueueSession, TopicSession {
     /** We keep an ordered set of the message tags (acknowledgement tags) for all messages received and unacknowledged.
      * Each message acknowledgement must ACK all (unacknowledged) messages received up to this point, and
      * we must never acknowledge a message more than once (nor acknowledge a message that doesn't exist). */
-    private final SortedSet<Long> unackedMessageTags = Collections.synchronizedSortedSet(
-        new TreeSet<>());
+    private final DeliveryTagTracker unackedMessageTags = new DeliveryTagTracker(); // @GuardedBy(unackedLock)
+    private final ReentrantLock unackedLock = new ReentrantLock();
+    /** Tags of the messages not selected by queue consumers and held before they are requeued: they must not be
+     * covered by a multiple acknowledgment. */
+    private final DeliveryTagTracker unselectedMessageTags = new DeliveryTagTracker(); // @GuardedBy(unackedLock)
 
     /* Holds the uncommited tags to commit a nack on rollback */
-    private final List<Long> uncommittedMessageTags = new ArrayList<>(); // GuardedBy("commitLock");
+    private final DeliveryTagTracker uncommittedMessageTags = new DeliveryTagTracker(); // GuardedBy("commitLock");
 
     /** List of all our topic subscriptions so we can track them */
     private final Subscriptions subscriptions;
 
+    /** Number of messages pushed to consumers used with {@link MessageConsumer#receive()}, 0 if they poll */
+    private final int receivePrefetch;
+
     /** Lock for waiting for close */
     private final Object closeLock = new Object();
 
     /** Lock and parms for commit and rollback blocking of other commands */
-    private final Object commitLock = new Object();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final Condition commitCondition = this.commitLock.newCondition();
     private static final long COMMIT_WAIT_MAX = 2000L; // 2 seconds
     private boolean committing = false; // GuardedBy("commitLock");
 
@@ -192,6 +203,15 @@ public class RMQSession implements Session, QueueSession, TopicSession {
 
     private final DeliveryExecutor deliveryExecutor;
 
+    /** Dispatches listener deliveries on ordered lanes, <code>null</code> if they are delivered serially */
+    private final KeyOrderedDispatcher keyOrderedDispatcher;
+
+    /**
+     * Coalesces automatic acknowledgments, <code>null</code> if messages are acknowledged one by one. Created when the
+     * session is created if coalescing is enabled, or when a {@link BatchMessageListener} is set, and never unset.
+     */
+    private volatile AckCoalescer ackCoalescer;
+
     /** The channels we use for browsing queues (there may be more than one in operation at a time) */
     private Set<Channel> browsingChannels = new HashSet<>(); // @GuardedBy(bcLock)
     private final Object bcLock = new Object();
@@ -212,6 +232,91 @@ public class RMQSession implements Session, QueueSession, TopicSession {
 
     private final boolean keepTextMessageType;
 
+    /**
+     * Format of the JMS messages sent: 1 for Java serialization, 2 for the compact format.
+     *
+     * @since 3.3.0
+     */
+    private final int messageFormatVersion;
+
+    /**
+     * Codec to compress the body of the messages sent with, <code>null</code> for none.
+     *
+     * @since 3.3.0
+     */
+    private final CompressionCodec compressionCodec;
+
+    /**
+     * Minimum size in bytes of the message bodies to compress.
+     *
+     * @since 3.3.0
+     */
+    private final int compressionThreshold;
+
+    /**
+     * Maximum size in bytes of the message bodies once decompressed.
+     *
+     * @since 3.3.0
+     */
+    private final int maxDecompressedBodySize;
+
+    /**
+     * Generator of the IDs of the messages sent.
+     *
+     * @since 3.3.0
+     */
+    private final MessageIdGenerator messageIdGenerator;
+
+    /**
+     * Whether synchronous sends wait for the publisher confirm of the message.
+     *
+     * @since 3.3.0
+     */
+    private final boolean confirmedSends;
+
+    /**
+     * How long confirmed and batched sends wait for publisher confirms.
+     *
+     * @since 3.3.0
+     */
+    private final long confirmTimeoutMs;
+
+    /**
+     * What queue consumers with a message selector do with the messages it does not match.
+     *
+     * @since 3.3.0
+     */
+    private final QueueSelectorPolicy queueSelectorPolicy;
+
+    /**
+     * Held while publishing, so that the sequence numbers registered for publisher confirms are those of the
+     * publications when producers are used from several threads.
+     *
+     * @since 3.3.0
+     */
+    private final Lock publishingLock = new ReentrantLock();
+
+    /**
+     * Arrays the messages sent are encoded into, guarded by the publishing lock.
+     *
+     * @since 3.3.0
+     */
+    private final EncodeBufferPool encodeBufferPool = new EncodeBufferPool(this.publishingLock);
+
+    /**
+     * Destinations declared on the connection, not declared again.
+     *
+     * @since 3.3.0
+     */
+    private final DeclarationCache declarationCache;
+
+    /**
+     * Message selectors compiled on the connection, not compiled again.
+     *
+     * @since 3.3.0
+     */
+    private final SelectorCache selectorCache;
+
     private final SubscriptionNameValidator subscriptionNameValidator;
 
     private final AtomicBoolean confirmSelectCalledOnChannel = new AtomicBoolean(false);
@@ -246,8 +351,22 @@ public class RMQSession implements Session, QueueSession, TopicSession {
         this.connection = sessionParams.getConnection();
         this.transacted = sessionParams.isTransacted();
         this.subscriptions = sessionParams.getSubscriptions();
+        this.receivePrefetch = sessionParams.getReceivePrefetch();
         boolean deliveryExecutorCloseOnTimeout = !sessionParams.willRequeueOnTimeout();
-        this.deliveryExecutor = new DeliveryExecutor(sessionParams.getOnMessageTimeoutMs(), deliveryExecutorCloseOnTimeout);
+        ThreadFactory deliveryThreadFactory = sessionParams.isUseVirtualThreads() ? VirtualThreads.threadFactory() : null;
+        this.deliveryExecutor = new DeliveryExecutor(sessionParams.getOnMessageTimeoutMs(), deliveryExecutorCloseOnTimeout,
+            sessionParams.isDirectOnMessageDelivery(), deliveryThreadFactory);
+        if (sessionParams.getListenerDispatchLanes() > 1 && this.transacted) {
+            logger.info("Transacted session: ignoring {} listener dispatch lanes, messages are delivered serially",
+                sessionParams.getListenerDispatchLanes());
+            this.keyOrderedDispatcher = null;
+        } else if (sessionParams.getListenerDispatchLanes() > 1) {
+            this.keyOrderedDispatcher = new KeyOrderedDispatcher(sessionParams.getListenerDispatchLanes(),
+                sessionParams.getListenerDispatchKey(), sessionParams.getOnMessageTimeoutMs(), deliveryExecutorCloseOnTimeout,
+                sessionParams.isDirectOnMessageDelivery(), deliveryThreadFactory);
+        } else {
+            this.keyOrderedDispatcher = null;
+        }
         this.preferProducerMessageProperty = sessionParams.willPreferProducerMessageProperty();
         this.requeueOnMessageListenerException = sessionParams.willRequeueOnMessageListenerException();
         this.nackOnRollback = sessionParams.willNackOnRollback();
@@ -259,6 +378,20 @@ public class RMQSession implements Session, QueueSession, TopicSession {
         this.trustedPackages = sessionParams.getTrustedPackages();
         this.requeueOnTimeout = sessionParams.willRequeueOnTimeout();
         this.keepTextMessageType = sessionParams.isKeepTextMessageType();
+        this.messageFormatVersion = sessionParams.getMessageFormatVersion();
+        this.compressionCodec = sessionParams.getCompressionCodec();
+        this.compressionThreshold = sessionParams.getCompressionThreshold();
+        this.maxDecompressedBodySize = sessionParams.getMaxDecompressedBodySize();
+        this.messageIdGenerator = sessionParams.getMessageIdGenerator() == null ?
+            new CounterMessageIdGenerator() : sessionParams.getMessageIdGenerator();
+        this.confirmedSends = sessionParams.isConfirmedSends();
+        this.confirmTimeoutMs = sessionParams.getConfirmTimeoutMs();
+        this.queueSelectorPolicy = sessionParams.getQueueSelectorPolicy() == null ?
+            QueueSelectorPolicy.REQUEUE : sessionParams.getQueueSelectorPolicy();
+        this.declarationCache = sessionParams.getDeclarationCache() == null ?
+            new DeclarationCache(true) : sessionParams.getDeclarationCache();
+        this.selectorCache = sessionParams.getSelectorCache() == null ?
+            new SelectorCache(SelectorCache.DEFAULT_MAXIMUM_SIZE) : sessionParams.getSelectorCache();
         this.delayedMessageService = sessionParams.getDelayedMessageService();
         this.subscriptionNameValidator = name -> {
             boolean subscriptionIsValid = Utils.SUBSCRIPTION_NAME_PREDICATE.test(name);
@@ -284,10 +417,16 @@ public class RMQSession implements Session, QueueSession, TopicSession {
             this.acknowledgeMode = sessionParams.getMode();
             this.isIndividualAck = false;
         }
+        boolean coalesceAcks = this.acknowledgeMode == Session.DUPS_OK_ACKNOWLEDGE ||
+            (this.acknowledgeMode == Session.AUTO_ACKNOWLEDGE && sessionParams.isCoalesceAutoAcknowledgements());
+        if (coalesceAcks) {
+            this.ackCoalescer = new AckCoalescer(sessionParams.getAckCoalescingBatchSize(),
+                sessionParams.getAckCoalescingIntervalMs(), this::basicAck);
+        }
         try {
             this.channel = connection.createRabbitChannel(transacted);
             this.publishingListener = PublisherConfirmsUtils.configurePublisherConfirmsSupport(
-                this.channel
+                this.channel, sessionParams.getMaxOutstandingConfirms(), sessionParams.getMaxOutstandingConfirmsTimeoutMs()
             );
         } catch (Exception x) { // includes unchecked exceptions, e.g. ShutdownSignalException
             throw new RMQJMSException(x);
@@ -315,6 +454,14 @@ public class RMQSession implements Session, QueueSession, TopicSession {
         );
     }
 
+    Lock getPublishingLock() {
+        return this.publishingLock;
+    }
+
+    EncodeBufferPool getEncodeBufferPool() {
+        return this.encodeBufferPool;
+    }
+
     void enablePublishConfirmOnChannel() throws IOException {
         if (this.confirmSelectCalledOnChannel.compareAndSet(false, true)) {
             this.channel.confirmSelect();
@@ -432,6 +579,28 @@ public class RMQSession implements Session, QueueSession, TopicSession {
         return trustedPackages;
     }
 
+    int getMaxDecompressedBodySize() {
+        return this.maxDecompressedBodySize;
+    }
+
+    /**
+     * Messages of AMQP destinations are decompressed only if compression is configured, as other publishers may
+     * compress messages for applications which decompress them.
+     *
+     * @param contentEncoding the AMQP content encoding of a received message
+     * @param amqp whether the message is from an AMQP destination
+     * @return the codec to decompress the message with, <code>null</code> if it is not to be decompressed
+     */
+    CompressionCodec decompressionCodec(String contentEncoding, boolean amqp) {
+        if (this.compressionCodec != null && this.compressionCodec.contentEncoding().equalsIgnoreCase(contentEncoding)) {
+            return this.compressionCodec;
+        }
+        if (amqp && this.compressionCodec == null) {
+            return null;
+        }
+        return CompressionCodecs.forContentEncoding(contentEncoding);
+    }
+
     /**
      * Set arguments to be used when declaring a queue while creating a producer.
      * <p>
@@ -457,24 +626,28 @@ public class RMQSession implements Session, QueueSession, TopicSession {
     }
 
     private boolean enterCommittingBlock() {
-        synchronized(this.commitLock){
-            try {
-                while(this.committing) {
-                    this.commitLock.wait(COMMIT_WAIT_MAX);
-                }
-                this.committing = true;
-                return true;
-            } catch(InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                return false;
+        this.commitLock.lock();
+        try {
+            while(this.committing) {
+                this.commitCondition.await(COMMIT_WAIT_MAX, TimeUnit.MILLISECONDS);
             }
+            this.committing = true;
+            return true;
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            this.commitLock.unlock();
         }
     }
 
     private void leaveCommittingBlock() {
-        synchronized(this.commitLock){
+        this.commitLock.lock();
+        try {
             this.committing = false;
-            this.commitLock.notifyAll();
+            this.commitCondition.signalAll();
+        } finally {
+            this.commitLock.unlock();
         }
     }
 
@@ -513,8 +686,10 @@ public class RMQSession implements Session, QueueSession, TopicSession {
             try {
                 // rollback the RabbitMQ transaction which may cause some messages to become unacknowledged
                 this.channel.txRollback();
-                if (this.nackOnRollback && this.uncommittedMessageTags.size() > 0) {
-                    for (Long dtag : this.uncommittedMessageTags) {
+                if (this.nackOnRollback && !this.uncommittedMessageTags.isEmpty()) {
+                    for (long dtag = this.uncommittedMessageTags.first();
+                         dtag != DeliveryTagTracker.NONE;
+                         dtag = this.uncommittedMessageTags.firstFrom(dtag + 1)) {
                         this.channel.basicNack(dtag, false, false);
                     }
                     this.channel.txCommit();
@@ -522,6 +697,7 @@ public class RMQSession implements Session, QueueSession, TopicSession {
                 }
                 // requeue all unacknowledged messages (not automatically done by RabbitMQ)
                 this.channel.basicRecover(true); // requeue
+                this.discardPrefetchedMessages();
             } catch (IOException x) {
                 this.logger.error("RabbitMQ exception on channel.txRollback() or channel.basicRecover(true) in session {}",
                                   this, x);
@@ -533,6 +709,10 @@ public class RMQSession implements Session, QueueSession, TopicSession {
     }
 
     void explicitAck(long deliveryTag) {
+        if (this.ackCoalescer != null) {
+            this.ackCoalescer.ack(deliveryTag);
+            return;
+        }
         if (this.enterCommittingBlock()) {
             try {
                 this.channel.basicAck(deliveryTag, false);
@@ -559,6 +739,142 @@ public class RMQSession implements Session, QueueSession, TopicSession {
                 this.leaveCommittingBlock();
             }
         }
+        if (this.ackCoalescer != null) {
+            this.ackCoalescer.settled(deliveryTag);
+        }
+    }
+
+    /**
+     * A message delivered to a queue consumer whose selector does not match it is held, before it is requeued.
+     * @param deliveryTag the delivery tag of the message
+     * @see SelectorSkipWindow
+     */
+    void unselectedMessageHeld(long deliveryTag) {
+        this.unackedLock.lock();
+        try {
+            this.unselectedMessageTags.add(deliveryTag);
+        } finally {
+            this.unackedLock.unlock();
+        }
+    }
+
+    /**
+     * Rejects with requeuing messages not selected by a queue consumer, so they go back to their place in the queue.
+     * Messages already requeued by <code>basic.recover</code> are skipped.
+     * @param deliveryTags the delivery tags of the messages
+     */
+    void requeueUnselected(long[] deliveryTags) {
+        if (this.enterCommittingBlock()) {
+            try {
+                this.unackedLock.lock();
+                try {
+                    for (long deliveryTag : deliveryTags) {
+                        if (!this.unselectedMessageTags.remove(deliveryTag)) continue;
+                        try {
+                            this.channel.basicNack(deliveryTag, false, true);
+                        } catch (Exception x) {
+                            this.logger.warn("Cannot requeue message not selected (dTag={})", deliveryTag, x);
+                        }
+                        if (this.ackCoalescer != null) {
+                            this.ackCoalescer.settled(deliveryTag);
+                        }
+                    }
+                } finally {
+                    this.unackedLock.unlock();
+                }
+            } finally {
+                this.leaveCommittingBlock();
+            }
+        }
+    }
+
+    /**
+     * Rejects a message without requeuing, so it goes to the dead letter exchange of its queue, if any.
+     * @param deliveryTag the delivery tag of the message
+     */
+    void deadLetter(long deliveryTag) {
+        if (this.enterCommittingBlock()) {
+            try {
+                this.channel.basicNack(deliveryTag, false, false);
+            } catch (Exception x) {
+                this.logger.warn("Cannot reject message received (dTag={})", deliveryTag, x);
+            } finally {
+                this.leaveCommittingBlock();
+            }
+        }
+        if (this.ackCoalescer != null) {
+            this.ackCoalescer.settled(deliveryTag);
+        }
+    }
+
+    /**
+     * Requeue an unacknowledged message received by this session.
+     * @param deliveryTag the delivery tag of the message
+     */
+    void requeueMessage(long deliveryTag) {
+        this.unackedLock.lock();
+        try {
+            this.unackedMessageTags.remove(deliveryTag);
+        } finally {
+            this.unackedLock.unlock();
+        }
+        this.explicitNack(deliveryTag);
+    }
+
+    /**
+     * Acknowledge a batch of messages delivered to a {@link BatchMessageListener}, with a single multiple
+     * acknowledgment when possible.
+     * @param deliveryTags the delivery tags of the messages
+     */
+    void explicitAckAll(long[] deliveryTags) {
+        if (this.ackCoalescer != null) {
+            this.ackCoalescer.ackAll(deliveryTags);
+        } else {
+            for (long deliveryTag : deliveryTags) {
+                this.explicitAck(deliveryTag);
+            }
+        }
+    }
+
+    /**
+     * A {@link BatchMessageListener} is set on a consumer of this session: settled deliveries are tracked from now
+     * on, so that its batches get a single multiple acknowledgment, while other acknowledgments are still sent
+     * immediately if they are not coalesced. Deliveries acknowledged directly before are not known to be settled, so
+     * batches only get multiple acknowledgments once the tracking has moved past them, see {@link AckCoalescer}.
+     */
+    void batchListenerSet() {
+        if (this.ackCoalescer != null ||
+            (this.acknowledgeMode != Session.AUTO_ACKNOWLEDGE && this.acknowledgeMode != Session.DUPS_OK_ACKNOWLEDGE)) {
+            return;
+        }
+        this.unackedLock.lock();
+        try {
+            if (this.ackCoalescer == null) {
+                this.ackCoalescer = new AckCoalescer(1, 0, this::basicAck);
+            }
+        } finally {
+            this.unackedLock.unlock();
+        }
+    }
+
+    /**
+     * A message has been delivered with AMQP auto-ack (direct reply-to), it is never acknowledged explicitly.
+     * @param deliveryTag the delivery tag of the message
+     */
+    void autoAcknowledged(long deliveryTag) {
+        if (this.ackCoalescer != null) {
+            this.ackCoalescer.settled(deliveryTag);
+        }
+    }
+
+    private void basicAck(long deliveryTag, boolean multiple) throws IOException {
+        if (this.enterCommittingBlock()) {
+            try {
+                this.channel.basicAck(deliveryTag, multiple);
+            } finally {
+                this.leaveCommittingBlock();
+            }
+        }
     }
 
     /**
@@ -587,6 +903,12 @@ public class RMQSession implements Session, QueueSession, TopicSession {
 
                 //clear up potential executor
                 this.deliveryExecutor.close();
+                if (this.keyOrderedDispatcher != null) {
+                    this.keyOrderedDispatcher.close();
+                }
+                if (this.ackCoalescer != null) {
+                    this.ackCoalescer.close();
+                }
 
                 //close all producers created by this session
                 for (RMQMessageProducer producer : this.producers) {
@@ -623,6 +945,13 @@ public class RMQSession implements Session, QueueSession, TopicSession {
         this.deliveryExecutor.deliverMessageWithProtection(rmqMessage, messageListener);
     }
 
+    /**
+     * @return the dispatcher for concurrent listener deliveries, or <code>null</code> if they are serial
+     */
+    KeyOrderedDispatcher getKeyOrderedDispatcher() {
+        return this.keyOrderedDispatcher;
+    }
+
     private void closeRabbitChannels() throws JMSException {
         this.clearBrowsingChannels(); // does not throw exception
         if (this.channel == null)
@@ -657,7 +986,8 @@ public class RMQSession implements Session, QueueSession, TopicSession {
         if (getTransactedNoException()) {
             throw new jakarta.jms.IllegalStateException("Session is transacted.");
         } else {
-            synchronized (this.unackedMessageTags) {
+            this.unackedLock.lock();
+            try {
                 /* If we have messages to recover */
                 if (!this.unackedMessageTags.isEmpty()) {
                     try {
@@ -666,12 +996,34 @@ public class RMQSession implements Session, QueueSession, TopicSession {
                         logger.warn("basicRecover on channel({}) failed", this.channel, x);
                         throw new RMQJMSException(x);
                     }
+                    this.discardPrefetchedMessages();
                     this.unackedMessageTags.clear();
                 }
+            } finally {
+                this.unackedLock.unlock();
             }
         }
     }
 
+    /**
+     * Messages pushed to consumers but not received yet have been requeued by <code>basic.recover</code>,
+     * their delivery tags must not be acknowledged any more.
+     */
+    private void discardPrefetchedMessages() {
+        this.unackedLock.lock();
+        try {
+            this.unselectedMessageTags.clear();
+        } finally {
+            this.unackedLock.unlock();
+        }
+        for (RMQMessageConsumer consumer : this.consumers) {
+            consumer.discardPrefetched();
+        }
+        if (this.keyOrderedDispatcher != null) {
+            this.keyOrderedDispatcher.discardPending();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -686,17 +1038,34 @@ public class RMQSession implements Session, QueueSession, TopicSession {
      */
     @Override
     public void setMessageListener(MessageListener listener) throws JMSException {
-        // not implemented
-        throw new UnsupportedOperationException();
+        illegalStateExceptionIfClosed();
+        this.messageListener = listener;
+    }
+
+    MessageListener getDistinguishedMessageListener() {
+        return this.messageListener;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Delivers the messages loaded by a {@link jakarta.jms.ConnectionConsumer} to the distinguished message listener.
+     * </p>
      */
     @Override
     public void run() {
-        //this will not be implemented
-        throw new UnsupportedOperationException();
+        Runnable delivery;
+        while ((delivery = this.loadedDeliveries.poll()) != null) {
+            delivery.run();
+        }
+    }
+
+    /**
+     * Load a message delivery into this session, performed by the next {@link #run()} call.
+     * @param delivery the delivery
+     */
+    void loadMessage(Runnable delivery) {
+        this.loadedDeliveries.add(delivery);
     }
 
     /**
@@ -713,7 +1082,8 @@ public class RMQSession implements Session, QueueSession, TopicSession {
         declareDestinationIfNecessary(dest);
         RMQMessageProducer producer = new RMQMessageProducer(this, dest, this.preferProducerMessageProperty,
             this.amqpPropertiesCustomiser, this.sendingContextConsumer, this.publishingListener,
-            this.keepTextMessageType);
+            this.keepTextMessageType, this.messageFormatVersion, this.compressionCodec, this.compressionThreshold,
+            this.messageIdGenerator, this.confirmedSends, this.confirmTimeoutMs);
         this.producers.add(producer);
         return producer;
     }
@@ -785,6 +1155,8 @@ public class RMQSession implements Session, QueueSession, TopicSession {
     private RMQMessageConsumer createConsumerInternal(RMQDestination dest, String uuidTag, boolean durableSubscriber, String jmsSelector) throws JMSException {
         String consumerTag = uuidTag != null ? uuidTag : generateJmsConsumerQueueName();
         logger.trace("create consumer for destination '{}' with consumerTag '{}' and selector '{}'", dest, consumerTag, jmsSelector);
+        // queue selectors are evaluated by the client, topic selectors by the topic selector exchange
+        QueueSelector queueSelector = dest.isQueue() ? QueueSelector.create(this.selectorCache, jmsSelector, this.queueSelectorPolicy) : null;
         declareDestinationIfNecessary(dest);
         if (!dest.isQueue()) {
             String subscriptionName = consumerTag;
@@ -798,7 +1170,7 @@ public class RMQSession implements Session, QueueSession, TopicSession {
         }
         RMQMessageConsumer consumer = new RMQMessageConsumer(this, dest, consumerTag, getConnection().isStopped(),
             jmsSelector, this.requeueOnMessageListenerException, this.receivingContextConsumer,
-            this.requeueOnTimeout);
+            this.requeueOnTimeout, this.receivePrefetch, queueSelector);
         this.consumers.add(consumer);
         return consumer;
     }
@@ -813,6 +1185,10 @@ public class RMQSession implements Session, QueueSession, TopicSession {
      * @return this session's Selection Exchange
      * @throws IOException
      */
+    SelectorCache getSelectorCache() {
+        return this.selectorCache;
+    }
+
     String getSelectionExchange(boolean durableSubscriber) throws IOException {
         if (durableSubscriber) {
             return this.getDurableTopicSelectorExchange();
@@ -841,18 +1217,18 @@ public class RMQSession implements Session, QueueSession, TopicSession {
 
     /**
      * {@inheritDoc}
-     * @throws UnsupportedOperationException - method not implemented until we support selectors
+     * <p>
+     * Selectors of queue consumers are evaluated by the client, see {@link QueueSelectorPolicy} for what happens to
+     * the messages they do not match.
+     * </p>
      */
     @Override
     public MessageConsumer createConsumer(Destination destination, String messageSelector) throws JMSException {
         illegalStateExceptionIfClosed();
         if (nullOrEmpty(messageSelector)) {
             return createConsumer(destination);
-        } else if (isTopic(destination)) {
-            return createConsumerInternal((RMQDestination) destination, null, false, messageSelector);
         } else {
-            // selectors are not supported for queues
-            throw new UnsupportedOperationException();
+            return createConsumerInternal((RMQDestination) destination, null, false, messageSelector);
         }
     }
 
@@ -860,13 +1236,12 @@ public class RMQSession implements Session, QueueSession, TopicSession {
         return str==null || str.trim().isEmpty();
     }
 
-    private static boolean isTopic(Destination destination) {
-        return !((RMQDestination) destination).isQueue();
-    }
-
     /**
      * {@inheritDoc}
-     * @throws UnsupportedOperationException - method not implemented until we support selectors
+     * <p>
+     * Selectors of queue consumers are evaluated by the client, see {@link QueueSelectorPolicy} for what happens to
+     * the messages they do not match.
+     * </p>
      */
     @Override
     public MessageConsumer createConsumer(Destination destination, String messageSelector, boolean noLocal) throws JMSException {
@@ -875,13 +1250,10 @@ public class RMQSession implements Session, QueueSession, TopicSession {
             RMQMessageConsumer consumer = (RMQMessageConsumer)createConsumer(destination);
             consumer.setNoLocal(noLocal);
             return consumer;
-        } else if (isTopic(destination)) {
+        } else {
             RMQMessageConsumer consumer = createConsumerInternal((RMQDestination) destination, null, false, messageSelector);
             consumer.setNoLocal(noLocal);
             return consumer;
-        }  else {
-            // selectors are not supported for queues
-            throw new UnsupportedOperationException();
         }
     }
 
@@ -927,19 +1299,27 @@ public class RMQSession implements Session, QueueSession, TopicSession {
          */
         boolean exclusive = dest.isTemporary() || ((!dest.isQueue()) && (!durableSubscriber));
 
+        /* only the queues of queue destinations are cached, subscription queues come and go with subscriptions
+           and temporary queues have unique names */
+        boolean cache = queueNameOverride == null && !dest.isTemporary();
+
         if (dest.isQueue()) {
             if (dest.noNeedToDeclareExchange()) {
                 logger.warn("no need to declare built-in exchange for queue destination '{}'", dest);
             }
             else {
-                logger.trace("declare RabbitMQ exchange for queue destinations '{}'", dest);
-                try {
-                    this.channel.exchangeDeclare(exchangeName, exchangeType, durable,
-                                                 false, // autoDelete
-                                                 false, // internal
-                                                 null); // object properties
-                } catch (Exception x) {
-                    throw new RMQJMSException(x);
+                List<Object> exchangeDeclaration = DeclarationCache.exchange(exchangeName, exchangeType, durable);
+                if (!this.declarationCache.isDeclared(exchangeDeclaration)) {
+                    logger.trace("declare RabbitMQ exchange for queue destinations '{}'", dest);
+                    try {
+                        this.channel.exchangeDeclare(exchangeName, exchangeType, durable,
+                                                     false, // autoDelete
+                                                     false, // internal
+                                                     null); // object properties
+                    } catch (Exception x) {
+                        throw new RMQJMSException(x);
+                    }
+                    this.declarationCache.declared(exchangeDeclaration);
                 }
             }
         }
@@ -950,26 +1330,33 @@ public class RMQSession implements Session, QueueSession, TopicSession {
         boolean autoDelete = cleanUpServerNamedQueuesForNonDurableTopics ?
             !durable && queueNameOverride != null && !dest.isQueue() : false;
 
-        try { /* Declare the queue to RabbitMQ -- this creates it if it doesn't already exist */
-            this.logger.debug("declare RabbitMQ queue name({}), durable({}), exclusive({}), auto-delete({}), arguments({} + {})",
-                              queueName, durable, exclusive, false,
-                              this.queueDeclareArguments, dest.getQueueDeclareArguments());
-            Map<String, Object> arguments = merge(this.queueDeclareArguments, dest.getQueueDeclareArguments());
-            this.channel.queueDeclare(queueName,
-                                      durable,
-                                      exclusive,
-                                      autoDelete,
-                                      arguments);
-
-            /* Temporary or 'topic queues' are exclusive and therefore get deleted by RabbitMQ on close */
-        } catch (Exception x) {
-            this.logger.error("RabbitMQ exception on queue declare name({}), durable({}), exclusive({}), auto-delete({}), arguments({} + {})",
-                              queueName, durable, exclusive, autoDelete, this.queueDeclareArguments,
-                              dest.getQueueDeclareArguments(), x);
-            throw new RMQJMSException(x);
+        Map<String, Object> arguments = merge(this.queueDeclareArguments, dest.getQueueDeclareArguments());
+        List<Object> queueDeclaration = DeclarationCache.queue(queueName, durable, exclusive, autoDelete, arguments);
+        if (!cache || !this.declarationCache.isDeclared(queueDeclaration)) {
+            try { /* Declare the queue to RabbitMQ -- this creates it if it doesn't already exist */
+                this.logger.debug("declare RabbitMQ queue name({}), durable({}), exclusive({}), auto-delete({}), arguments({} + {})",
+                                  queueName, durable, exclusive, false,
+                                  this.queueDeclareArguments, dest.getQueueDeclareArguments());
+                this.channel.queueDeclare(queueName,
+                                          durable,
+                                          exclusive,
+                                          autoDelete,
+                                          arguments);
+
+                /* Temporary or 'topic queues' are exclusive and therefore get deleted by RabbitMQ on close */
+            } catch (Exception x) {
+                this.logger.error("RabbitMQ exception on queue declare name({}), durable({}), exclusive({}), auto-delete({}), arguments({} + {})",
+                                  queueName, durable, exclusive, autoDelete, this.queueDeclareArguments,
+                                  dest.getQueueDeclareArguments(), x);
+                throw new RMQJMSException(x);
+            }
+            if (cache) {
+                this.declarationCache.declared(queueDeclaration);
+            }
         }
 
-        if (bind) {
+        List<Object> bindingDeclaration = DeclarationCache.binding(queueName, exchangeName, queueName);
+        if (bind && !(cache && this.declarationCache.isDeclared(bindingDeclaration))) {
             try { /* Bind the queue to our exchange -- this allows publications to succeed. */
                 this.logger.debug("bind queue name({}), to exchange({}), with r-key({}), no arguments",
                         queueName, exchangeName, queueName);
@@ -981,6 +1368,9 @@ public class RMQSession implements Session, QueueSession, TopicSession {
                         queueName, durable, exclusive, false, queueDeclareArguments, x);
                 throw new RMQJMSException(x);
             }
+            if (cache) {
+                this.declarationCache.declared(bindingDeclaration);
+            }
         }
         dest.setDeclared(true);
     }
@@ -1007,23 +1397,28 @@ public class RMQSession implements Session, QueueSession, TopicSession {
             logger.warn("no need to declare built-in exchange for topic destination '{}'", dest);
         }
         else {
-            logger.trace("declare RabbitMQ exchange for topic destination '{}'", dest);
-            try {
-                this.channel.exchangeDeclare(/* the name of the exchange */
-                                             dest.getAmqpExchangeName(),
-                                             /* the type of exchange to use */
-                                             dest.getAmqpExchangeType(),
-                                             /* durable for all except temporary topics */
-                                             !dest.isTemporary(),
-                                             // TODO: how do we delete exchanges used for temporary topics
-                                             /* auto delete is always false */
-                                             false,
-                                             /* internal is false: JMS clients will want to publish directly to the exchange */
-                                             false,
-                                             /* object parameters */
-                                             null);
-            } catch (IOException x) {
-                throw new RMQJMSException(x);
+            List<Object> exchangeDeclaration = DeclarationCache.exchange(dest.getAmqpExchangeName(),
+                dest.getAmqpExchangeType(), !dest.isTemporary());
+            if (!this.declarationCache.isDeclared(exchangeDeclaration)) {
+                logger.trace("declare RabbitMQ exchange for topic destination '{}'", dest);
+                try {
+                    this.channel.exchangeDeclare(/* the name of the exchange */
+                                                 dest.getAmqpExchangeName(),
+                                                 /* the type of exchange to use */
+                                                 dest.getAmqpExchangeType(),
+                                                 /* durable for all except temporary topics */
+                                                 !dest.isTemporary(),
+                                                 // TODO: how do we delete exchanges used for temporary topics
+                                                 /* auto delete is always false */
+                                                 false,
+                                                 /* internal is false: JMS clients will want to publish directly to the exchange */
+                                                 false,
+                                                 /* object parameters */
+                                                 null);
+                } catch (IOException x) {
+                    throw new RMQJMSException(x);
+                }
+                this.declarationCache.declared(exchangeDeclaration);
             }
         }
         dest.setDeclared(true);
@@ -1270,6 +1665,15 @@ public class RMQSession implements Session, QueueSession, TopicSession {
                 throw new RMQJMSException(x);
             }
         }
+        if (this.keyOrderedDispatcher != null) {
+            // messages already dispatched to lanes are delivered before the connection is stopped
+            if (!this.keyOrderedDispatcher.awaitIdle(new TimeTracker(this.connection.getTerminationTimeout(), TimeUnit.MILLISECONDS))) {
+                logger.warn("Listener dispatch lanes of session {} did not complete before timeout", this);
+            }
+        }
+        if (this.ackCoalescer != null) {
+            this.ackCoalescer.flush();
+        }
     }
 
     /**
@@ -1290,8 +1694,11 @@ public class RMQSession implements Session, QueueSession, TopicSession {
 
     void unackedMessageReceived(long dTag) {
         if (!getTransactedNoException()) {
-            synchronized (this.unackedMessageTags) {
+            this.unackedLock.lock();
+            try {
                 this.unackedMessageTags.add(dTag);
+            } finally {
+                this.unackedLock.unlock();
             }
         }
     }
@@ -1306,11 +1713,15 @@ public class RMQSession implements Session, QueueSession, TopicSession {
     }
 
     void acknowledgeMessages() throws JMSException {
+        long lastMessageTag;
+        this.unackedLock.lock();
         try {
-            Long lastMessageTag = this.unackedMessageTags.last();
+            lastMessageTag = this.unackedMessageTags.last();
+        } finally {
+            this.unackedLock.unlock();
+        }
+        if (lastMessageTag != DeliveryTagTracker.NONE) {
             this.acknowledge(lastMessageTag);
-        } catch (NoSuchElementException e) {
-           // nothing to acknowledge
         }
     }
 
@@ -1320,7 +1731,7 @@ public class RMQSession implements Session, QueueSession, TopicSession {
 
         boolean individualAck = this.getIndividualAck();
         boolean groupAck      = true;  // This assumption is new in RJMS 1.2.0 and is consistent with other implementations. It allows a form of group acknowledge.
-        if (!isAutoAck() && !this.unackedMessageTags.isEmpty()) {
+        if (!isAutoAck()) {
             /**
              * Per JMS specification of {@link Message#acknowledge()}, <i>if we ack the last message in a group, we will ack all the ones prior received</i>.
              * <p>But, JMS spec 11.2.21 says:</p>
@@ -1331,8 +1742,10 @@ public class RMQSession implements Session, QueueSession, TopicSession {
              * The individualAck option is set by session mode (CLIENT_INDIVIDUAL_ACKNOWLEDGE) and overrides groupAck (default) and acknowledges at most a single message.
              * </p>
              */
-            synchronized (this.unackedMessageTags) {
+            this.unackedLock.lock();
+            try {
                 try {
+                    if (this.unackedMessageTags.isEmpty()) return; // no message to acknowledge
                     if (individualAck) {
                         if (!this.unackedMessageTags.contains(messageTag)) return; // this message already acknowledged
                         /* ACK a single message */
@@ -1340,13 +1753,25 @@ public class RMQSession implements Session, QueueSession, TopicSession {
                         this.unackedMessageTags.remove(messageTag);
                     } else if (groupAck) {
                         /** The tags that precede the given one, and the given one, if unacknowledged */
-                        SortedSet<Long> previousTags = this.unackedMessageTags.headSet(messageTag+1);
-                        if (previousTags.isEmpty()) return; // no message to acknowledge
-                        /* ack multiple message up until the existing tag */
-                        this.getChannel().basicAck(previousTags.last(), // we ack the latest one (which might be this one, but might not be)
-                                              true);               // and everything prior to that
+                        if (this.unackedMessageTags.first() > messageTag) return; // no message to acknowledge
+                        /* messages still on dispatch lanes, or not selected and held, must not be covered by a multiple ack */
+                        long lowestPendingTag = this.keyOrderedDispatcher == null ? Long.MAX_VALUE : this.keyOrderedDispatcher.lowestPendingTag();
+                        if (!this.unselectedMessageTags.isEmpty()) {
+                            lowestPendingTag = Math.min(lowestPendingTag, this.unselectedMessageTags.first());
+                        }
+                        long contiguousTag = this.unackedMessageTags.lastUpTo(Math.min(messageTag, lowestPendingTag - 1));
+                        if (contiguousTag != DeliveryTagTracker.NONE) {
+                            /* ack multiple message up until the existing tag */
+                            this.getChannel().basicAck(contiguousTag, // we ack the latest one (which might be this one, but might not be)
+                                                  true);         // and everything prior to that
+                        }
+                        for (long tag = this.unackedMessageTags.firstFrom(lowestPendingTag);
+                             tag != DeliveryTagTracker.NONE && tag <= messageTag;
+                             tag = this.unackedMessageTags.firstFrom(tag + 1)) {
+                            this.getChannel().basicAck(tag, false);
+                        }
                         // now remove all the tags <= messageTag
-                        previousTags.clear();
+                        this.unackedMessageTags.removeUpTo(messageTag);
                     } else {
                         // this block is no longer possible (groupAck == true) after RJMS 1.2.0
                         this.getChannel().basicAck(this.unackedMessageTags.last(), // we ack the highest tag
@@ -1357,6 +1782,8 @@ public class RMQSession implements Session, QueueSession, TopicSession {
                     this.logger.error("RabbitMQ exception on basicAck of message {}; on session '{}'", messageTag, this, x);
                     throw new RMQJMSException(x);
                 }
+            } finally {
+                this.unackedLock.unlock();
             }
         }
     }
@@ -230,42 +230,42 @@ class RmqJmsProducer implements JMSProducer {
 
   @Override
   public boolean getBooleanProperty(String name) {
-    return wrap(() -> Utils.getBooleanProperty(this.properties, name));
+    return wrap(() -> Utils.getBooleanProperty(this.properties.get(name)));
   }
 
   @Override
   public byte getByteProperty(String name) {
-    return wrap(() -> Utils.getByteProperty(this.properties, name));
+    return wrap(() -> Utils.getByteProperty(this.properties.get(name)));
   }
 
   @Override
   public short getShortProperty(String name) {
-    return wrap(() -> Utils.getShortProperty(this.properties, name));
+    return wrap(() -> Utils.getShortProperty(this.properties.get(name)));
   }
 
   @Override
   public int getIntProperty(String name) {
-    return wrap(() -> Utils.getIntProperty(this.properties, name));
+    return wrap(() -> Utils.getIntProperty(this.properties.get(name)));
   }
 
   @Override
   public long getLongProperty(String name) {
-    return wrap(() -> Utils.getLongProperty(this.properties, name));
+    return wrap(() -> Utils.getLongProperty(this.properties.get(name)));
   }
 
   @Override
   public float getFloatProperty(String name) {
-    return wrap(() -> Utils.getFloatProperty(this.properties, name));
+    return wrap(() -> Utils.getFloatProperty(this.properties.get(name)));
   }
 
   @Override
   public double getDoubleProperty(String name) {
-    return wrap(() -> Utils.getDoubleProperty(this.properties, name));
+    return wrap(() -> Utils.getDoubleProperty(this.properties.get(name)));
   }
 
   @Override
   public String getStringProperty(String name) {
-    return wrap(() -> Utils.getStringProperty(this.properties, name));
+    return wrap(() -> Utils.getStringProperty(this.properties.get(name)));
   }
 
   @Override
@@ -286,7 +286,7 @@ class RmqJmsProducer implements JMSProducer {
 
   @Override
   public byte[] getJMSCorrelationIDAsBytes() {
-    String id = Utils.getStringProperty(this.headers, JMS_MESSAGE_CORR_ID);
+    String id = Utils.getStringProperty(this.headers.get(JMS_MESSAGE_CORR_ID));
     return id == null ? null : id.getBytes(getCharset());
   }
 
@@ -297,7 +297,7 @@ class RmqJmsProducer implements JMSProducer {
 
   @Override
   public String getJMSCorrelationID() {
-    return Utils.getStringProperty(this.headers, JMS_MESSAGE_CORR_ID);
+    return Utils.getStringProperty(this.headers.get(JMS_MESSAGE_CORR_ID));
   }
 
   @Override
@@ -307,7 +307,7 @@ class RmqJmsProducer implements JMSProducer {
 
   @Override
   public String getJMSType() {
-    return Utils.getStringProperty(this.headers, JMS_MESSAGE_TYPE);
+    return Utils.getStringProperty(this.headers.get(JMS_MESSAGE_TYPE));
   }
 
   @Override
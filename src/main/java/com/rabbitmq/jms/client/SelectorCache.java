@@ -0,0 +1,176 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.rabbitmq.jms.parse.sql.SqlCompiler;
+import com.rabbitmq.jms.parse.sql.SqlEvaluator;
+import com.rabbitmq.jms.parse.sql.SqlExpressionType;
+import com.rabbitmq.jms.parse.sql.SqlParser;
+
+/**
+ * Message selectors already compiled on a connection, shared by its sessions, so subscriptions, queue consumers and
+ * browsers with the same selector do not parse and compile it again.
+ * <p>
+ * A selector is identified by its text and the types of its identifiers. The cache holds at most a given number of
+ * selectors and evicts a least recently used one when it is full. Invalid selectors are cached too, with their
+ * error message.
+ * </p>
+ * <p>
+ * Lookups do not lock: each use of a selector is stamped with the value of an access counter, and on a miss the
+ * entry with the oldest stamp among at most {@link #EVICTION_SAMPLE_SIZE} entries is evicted. Eviction is exact for
+ * caches up to this size and approximate above.
+ * </p>
+ *
+ * @since 3.3.0
+ */
+final class SelectorCache {
+
+    static final int DEFAULT_MAXIMUM_SIZE = 256;
+    static final int EVICTION_SAMPLE_SIZE = 32;
+
+    private final int maximumSize;
+    private final ConcurrentMap<Key, Entry> selectors = new ConcurrentHashMap<>();
+    private final AtomicLong accessCounter = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maximumSize the maximum number of selectors, 0 to not cache selectors
+     */
+    SelectorCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @param selector the text of the selector
+     * @param identifierTypes the types of the identifiers of the selector, not modified afterwards
+     * @return the compiled selector, which may be invalid, see {@link SqlEvaluator#evaluatorOk()}
+     */
+    CompiledSelector get(String selector, Map<String, SqlExpressionType> identifierTypes) {
+        Key key = new Key(selector, identifierTypes);
+        Entry entry = this.selectors.get(key);
+        if (entry != null) {
+            this.hits.incrementAndGet();
+            entry.lastAccess = this.accessCounter.incrementAndGet();
+            return entry.compiled;
+        }
+        this.misses.incrementAndGet();
+        // concurrent misses on the same selector compile it more than once
+        CompiledSelector compiled = new CompiledSelector(new SqlEvaluator(new SqlParser(selector), identifierTypes));
+        if (this.maximumSize > 0) {
+            Entry existing = this.selectors.putIfAbsent(key, new Entry(compiled, this.accessCounter.incrementAndGet()));
+            if (existing != null) {
+                return existing.compiled;
+            }
+            while (this.selectors.size() > this.maximumSize) {
+                this.evictOne();
+            }
+        }
+        return compiled;
+    }
+
+    private void evictOne() {
+        Map.Entry<Key, Entry> eldest = null;
+        Iterator<Map.Entry<Key, Entry>> iterator = this.selectors.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && iterator.hasNext(); ++i) {
+            Map.Entry<Key, Entry> candidate = iterator.next();
+            if (eldest == null || candidate.getValue().lastAccess < eldest.getValue().lastAccess) {
+                eldest = candidate;
+            }
+        }
+        if (eldest != null && this.selectors.remove(eldest.getKey(), eldest.getValue())) {
+            this.evictions.incrementAndGet();
+        }
+    }
+
+    SelectorCacheStatistics statistics() {
+        return new SelectorCacheStatistics(this.hits.get(), this.misses.get(), this.evictions.get(),
+            this.selectors.size());
+    }
+
+    private static final class Key {
+
+        private final String selector;
+        private final Map<String, SqlExpressionType> identifierTypes;
+        private final int hash;
+
+        private Key(String selector, Map<String, SqlExpressionType> identifierTypes) {
+            this.selector = selector;
+            this.identifierTypes = identifierTypes;
+            this.hash = 31 * selector.hashCode() + identifierTypes.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.hash == other.hash && this.selector.equals(other.selector)
+                && (this.identifierTypes == other.identifierTypes
+                    || this.identifierTypes.equals(other.identifierTypes));
+        }
+    }
+
+    private static final class Entry {
+
+        private final CompiledSelector compiled;
+        private volatile long lastAccess;
+
+        private Entry(CompiledSelector compiled, long lastAccess) {
+            this.compiled = compiled;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * A selector compiled for evaluation by the client, and to an Erlang term for the topic selector exchange. It is
+     * immutable and thread-safe.
+     */
+    static final class CompiledSelector {
+
+        private final SqlEvaluator evaluator;
+        private volatile SqlCompiler compiler;
+
+        private CompiledSelector(SqlEvaluator evaluator) {
+            this.evaluator = evaluator;
+        }
+
+        /** @return the evaluator, with the parse tree of the selector and its predicate */
+        SqlEvaluator evaluator() {
+            return this.evaluator;
+        }
+
+        /** @return the compiler of the selector to an Erlang term, compiled on first use */
+        SqlCompiler compiler() {
+            SqlCompiler result = this.compiler;
+            if (result == null) {
+                synchronized (this) {
+                    result = this.compiler;
+                    if (result == null) {
+                        this.compiler = result = new SqlCompiler(this.evaluator);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
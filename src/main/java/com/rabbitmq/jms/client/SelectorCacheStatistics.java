@@ -0,0 +1,60 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+/**
+ * Statistics of the cache of the message selectors compiled on a connection, at the time they were taken.
+ * <p>
+ * A hit is a selector found compiled in the cache, a miss a selector compiled because it was not.
+ *
+ * @see RMQConnection#getSelectorCacheStatistics()
+ * @see com.rabbitmq.jms.admin.RMQConnectionFactory#setSelectorCacheSize(int)
+ * @since 3.3.0
+ */
+public final class SelectorCacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+
+    SelectorCacheStatistics(long hits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /** @return the number of selectors found compiled in the cache */
+    public long getHits() {
+        return hits;
+    }
+
+    /** @return the number of selectors compiled because they were not in the cache */
+    public long getMisses() {
+        return misses;
+    }
+
+    /** @return the number of selectors evicted because the cache was full */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /** @return the number of selectors in the cache */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "SelectorCacheStatistics{" +
+            "hits=" + hits +
+            ", misses=" + misses +
+            ", evictions=" + evictions +
+            ", size=" + size +
+            '}';
+    }
+}
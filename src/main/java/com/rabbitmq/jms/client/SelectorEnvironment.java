@@ -0,0 +1,96 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.LongString;
+
+/**
+ * The values of the identifiers of a message selector for a delivery, read from its AMQP properties and envelope when
+ * the selector is evaluated, so the delivery is only converted to a JMS message if it is selected.
+ * <p>
+ * The values are those of the headers and properties of the JMS message the delivery converts to, as in
+ * {@link RMQMessage#toHeaders()}:
+ * </p>
+ * <ul>
+ * <li>Messages sent by this library to JMS destinations carry these values in their AMQP headers. The JMS headers
+ * are derived from the AMQP properties if the AMQP headers do not have them.</li>
+ * <li>For messages from AMQP destinations, the JMS headers are derived from the AMQP properties, unless they are
+ * AMQP headers, and the other AMQP headers are string properties.</li>
+ * <li><code>JMSXDeliveryCount</code> is derived from the envelope.</li>
+ * </ul>
+ *
+ * @since 3.3.0
+ */
+final class SelectorEnvironment implements Function<String, Object> {
+
+    private static final Integer FIRST_DELIVERY = 1;
+    private static final Integer UNKNOWN_REDELIVERY = 2;
+
+    private final Envelope envelope;
+    private final AMQP.BasicProperties properties;
+    private final Map<String, Object> headers;
+    private final boolean amqp;
+
+    /**
+     * @param envelope the envelope of the delivery
+     * @param properties the AMQP properties of the delivery
+     * @param amqp whether the delivery is from an AMQP destination
+     */
+    SelectorEnvironment(Envelope envelope, AMQP.BasicProperties properties, boolean amqp) {
+        this.envelope = envelope;
+        this.properties = properties;
+        this.headers = properties.getHeaders();
+        this.amqp = amqp;
+    }
+
+    @Override
+    public Object apply(String identifier) {
+        if (RMQMessage.JMS_X_DELIVERY_COUNT.equals(identifier)) {
+            return deliveryCount();
+        }
+        Object header = this.headers == null ? null : this.headers.get(identifier);
+        if (header != null && !this.amqp) {
+            return header instanceof LongString ? header.toString() : header;
+        }
+        switch (identifier) {
+        case "JMSDeliveryMode":
+            return Integer.valueOf(2).equals(this.properties.getDeliveryMode()) ? "PERSISTENT" : "NON_PERSISTENT";
+        case "JMSTimestamp":
+            if (header != null) {
+                return RMQMessage.objectToLong(header, 0L);
+            }
+            Date timestamp = this.properties.getTimestamp();
+            return timestamp == null ? 0L : timestamp.getTime() / 1000L;
+        case "JMSPriority":
+            return header != null ? Integer.valueOf(RMQMessage.objectToInt(header, 4)) : this.properties.getPriority();
+        case "JMSMessageID":
+            return header != null ? header.toString() : this.properties.getMessageId();
+        case "JMSCorrelationID":
+            return header != null ? header.toString() : this.properties.getCorrelationId();
+        case RMQMessage.JMS_TYPE_HEADER:
+            // messages from AMQP destinations are text messages only if the header says so
+            return header != null ? header.toString() : (this.amqp ? "BytesMessage" : null);
+        default:
+            // properties of AMQP messages are strings, and the other JMS headers are not set from AMQP headers
+            return header == null || identifier.startsWith("JMS") ? null : header.toString();
+        }
+    }
+
+    private Integer deliveryCount() {
+        if (!this.envelope.isRedeliver()) {
+            return FIRST_DELIVERY;
+        }
+        Object count = this.headers == null ? null : this.headers.get("x-delivery-count");
+        // the count starts at 0 for RabbitMQ
+        return count instanceof Number ? ((Number) count).intValue() + 1 : UNKNOWN_REDELIVERY;
+    }
+}
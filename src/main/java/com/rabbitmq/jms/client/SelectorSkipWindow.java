@@ -0,0 +1,198 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.rabbitmq.jms.util.Abortable;
+import com.rabbitmq.jms.util.TimeTracker;
+
+/**
+ * Messages a queue consumer's selector does not match, with the {@link QueueSelectorPolicy#REQUEUE} policy.
+ * <p>
+ * The messages are held unacknowledged, so the broker delivers the messages behind them, then they are all rejected
+ * with requeuing: they go back to their place in the queue, flagged as redelivered, for other consumers.
+ * </p>
+ * <p>
+ * The window is released some time after its first message is held. That time starts at
+ * {@link #INITIAL_RELEASE_DELAY_MS} and doubles, up to {@link #MAX_RELEASE_DELAY_MS}, each time the window is
+ * released without a message selected in the meantime, so a queue holding only messages the consumer does not select
+ * is not read in a loop.
+ * </p>
+ * <p>
+ * The window holds fewer messages than the prefetch of the consumer, if it is bounded, so the consumer can still be
+ * delivered messages it selects; {@link #receiveAwaitRoom(TimeTracker)} makes a receiver wait while it is full.
+ * It is released straight away when the consumer is stopped or closed.
+ * </p>
+ *
+ * @since 3.3.0
+ */
+final class SelectorSkipWindow implements Abortable {
+
+    /** Maximum number of messages held, when the prefetch of the consumer is not lower */
+    static final int MAX_HELD = 100;
+    static final long INITIAL_RELEASE_DELAY_MS = 100;
+    static final long MAX_RELEASE_DELAY_MS = 1_000;
+
+    /** Rejects held messages with requeuing. */
+    @FunctionalInterface
+    interface Requeuer {
+        void requeue(long[] deliveryTags);
+    }
+
+    private final int capacity;
+    private final Requeuer requeuer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = this.lock.newCondition();
+    private final DeliveryTagTracker held = new DeliveryTagTracker(); // @GuardedBy(lock)
+    private long releaseDelayMs = INITIAL_RELEASE_DELAY_MS; // @GuardedBy(lock)
+    private boolean selectedSinceRelease = false; // @GuardedBy(lock)
+    private ScheduledFuture<?> scheduledRelease = null; // @GuardedBy(lock)
+    private boolean aborted = false; // @GuardedBy(lock)
+
+    /**
+     * @param prefetch the maximum number of unacknowledged messages delivered to the consumer, 0 if unbounded
+     * @param requeuer rejects held messages with requeuing
+     */
+    SelectorSkipWindow(int prefetch, Requeuer requeuer) {
+        this.capacity = prefetch > 0 ? Math.max(1, Math.min(MAX_HELD, prefetch - 1)) : MAX_HELD;
+        this.requeuer = requeuer;
+    }
+
+    int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Hold a message the selector does not match.
+     * @param deliveryTag the delivery tag of the message
+     */
+    void hold(long deliveryTag) {
+        this.lock.lock();
+        try {
+            if (!this.aborted) {
+                this.held.add(deliveryTag);
+                if (this.scheduledRelease == null) {
+                    this.scheduledRelease = ClientScheduler.schedule(this::release, this.releaseDelayMs, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        this.requeuer.requeue(new long[] { deliveryTag });
+    }
+
+    /**
+     * A message has been selected, the consumer is not only getting messages it does not select.
+     */
+    void selected() {
+        this.lock.lock();
+        try {
+            this.selectedSinceRelease = true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until the window can hold another message, before a receiver gets one.
+     * @param tt keeps track of the time available
+     * @return <code>false</code> if the window is still full when the time is up
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    boolean receiveAwaitRoom(TimeTracker tt) throws InterruptedException {
+        this.lock.lock();
+        try {
+            while (this.held.size() >= this.capacity && !this.aborted) {
+                if (tt.timedOut()) return false;
+                tt.timedAwait(this.released);
+            }
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Requeue the held messages now.
+     */
+    void release() {
+        long[] deliveryTags;
+        this.lock.lock();
+        try {
+            if (this.scheduledRelease != null) {
+                this.scheduledRelease.cancel(false);
+                this.scheduledRelease = null;
+            }
+            deliveryTags = this.drainLocked();
+            if (deliveryTags.length > 0) {
+                this.releaseDelayMs = this.selectedSinceRelease ?
+                    INITIAL_RELEASE_DELAY_MS : Math.min(2 * this.releaseDelayMs, MAX_RELEASE_DELAY_MS);
+            }
+            this.selectedSinceRelease = false;
+            this.released.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        if (deliveryTags.length > 0) {
+            this.requeuer.requeue(deliveryTags);
+        }
+    }
+
+    /**
+     * Drop the held messages without requeuing them, because the session requeued them already
+     * (with <code>basic.recover</code>).
+     */
+    void forget() {
+        this.lock.lock();
+        try {
+            if (this.scheduledRelease != null) {
+                this.scheduledRelease.cancel(false);
+                this.scheduledRelease = null;
+            }
+            this.held.clear();
+            this.released.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private long[] drainLocked() {
+        long[] deliveryTags = new long[this.held.size()];
+        int i = 0;
+        for (long tag = this.held.first(); tag != DeliveryTagTracker.NONE; tag = this.held.firstFrom(tag + 1)) {
+            deliveryTags[i++] = tag;
+        }
+        this.held.clear();
+        return deliveryTags;
+    }
+
+    @Override
+    public void abort() {
+        this.lock.lock();
+        try {
+            this.aborted = true;
+        } finally {
+            this.lock.unlock();
+        }
+        this.release();
+    }
+
+    @Override
+    public void stop() {
+        this.release();
+    }
+
+    @Override
+    public void start() {
+        // noop: messages are held as they are delivered
+    }
+}
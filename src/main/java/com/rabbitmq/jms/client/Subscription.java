@@ -12,10 +12,7 @@ import static java.lang.String.format;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.jms.admin.RMQDestination;
 import com.rabbitmq.jms.parse.sql.SqlCompiler;
-import com.rabbitmq.jms.parse.sql.SqlEvaluator;
 import com.rabbitmq.jms.parse.sql.SqlExpressionType;
-import com.rabbitmq.jms.parse.sql.SqlParser;
-import com.rabbitmq.jms.parse.sql.SqlTokenStream;
 import com.rabbitmq.jms.util.RMQJMSException;
 import com.rabbitmq.jms.util.RMQJMSSelectorException;
 import java.io.IOException;
@@ -268,7 +265,7 @@ class Subscription {
           // bind it to the topic exchange with the topic routing key
           channel.exchangeBind(selectionExchange, topic.getAmqpExchangeName(),
               topic.getAmqpRoutingKey());
-          this.bindSelectorQueue(channel, topic, selector, this.queue, selectionExchange);
+          this.bindSelectorQueue(session, channel, topic, selector, this.queue, selectionExchange);
         }
       } catch (IOException x) {
         LOGGER.error("consumer with tag '{}' could not be created", this.name, x);
@@ -277,12 +274,12 @@ class Subscription {
     }
   }
 
-  private void bindSelectorQueue(Channel channel, RMQDestination dest, String jmsSelector,
+  private void bindSelectorQueue(RMQSession session, Channel channel, RMQDestination dest,
+      String jmsSelector,
       String queueName,
       String selectionExchange)
       throws InvalidSelectorException, IOException {
-    SqlCompiler compiler = new SqlCompiler(
-        new SqlEvaluator(new SqlParser(new SqlTokenStream(jmsSelector)), JMS_TYPE_IDENTS));
+    SqlCompiler compiler = session.getSelectorCache().get(jmsSelector, JMS_TYPE_IDENTS).compiler();
     if (compiler.compileOk()) {
       Map<String, Object> args = new HashMap<>(5);
       args.put(RJMS_COMPILED_SELECTOR_ARG, compiler.compile());
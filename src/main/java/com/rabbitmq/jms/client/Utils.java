@@ -6,8 +6,6 @@
 
 package com.rabbitmq.jms.client;
 
-import java.io.Serializable;
-import java.util.Map;
 import java.util.function.Predicate;
 import jakarta.jms.JMSException;
 import jakarta.jms.JMSRuntimeException;
@@ -59,9 +57,7 @@ abstract class Utils {
     }
   }
 
-  static boolean getBooleanProperty(Map<String, Serializable> properties, String name)
-      throws JMSException {
-    Object o = properties.get(name);
+  static boolean getBooleanProperty(Object o) throws JMSException {
     if (o == null) {
       //default value for null is false
       return false;
@@ -75,9 +71,7 @@ abstract class Utils {
     }
   }
 
-  static byte getByteProperty(Map<String, Serializable> properties, String name)
-      throws JMSException {
-    Object o = properties.get(name);
+  static byte getByteProperty(Object o) throws JMSException {
     if (o == null) {
       throw new NumberFormatException("Null is not a valid byte");
     } else if (o instanceof String) {
@@ -90,9 +84,7 @@ abstract class Utils {
     }
   }
 
-  static short getShortProperty(Map<String, Serializable> properties, String name)
-      throws JMSException {
-    Object o = properties.get(name);
+  static short getShortProperty(Object o) throws JMSException {
     if (o == null) {
       throw new NumberFormatException("Null is not a valid short");
     } else if (o instanceof String) {
@@ -107,8 +99,7 @@ abstract class Utils {
     }
   }
 
-  static int getIntProperty(Map<String, Serializable> properties, String name) throws JMSException {
-    Object o = properties.get(name);
+  static int getIntProperty(Object o) throws JMSException {
     if (o == null) {
       throw new NumberFormatException("Null is not a valid int");
     } else if (o instanceof String) {
@@ -125,9 +116,7 @@ abstract class Utils {
     }
   }
 
-  static long getLongProperty(Map<String, Serializable> properties, String name)
-      throws JMSException {
-    Object o = properties.get(name);
+  static long getLongProperty(Object o) throws JMSException {
     return convertToLong(o);
   }
 
@@ -150,9 +139,7 @@ abstract class Utils {
     }
   }
 
-  static float getFloatProperty(Map<String, Serializable> properties, String name)
-      throws JMSException {
-    Object o = properties.get(name);
+  static float getFloatProperty(Object o) throws JMSException {
     if (o == null) {
       throw new NumberFormatException("Null is not a valid float");
     } else if (o instanceof String) {
@@ -165,9 +152,7 @@ abstract class Utils {
     }
   }
 
-  static double getDoubleProperty(Map<String, Serializable> properties, String name)
-      throws JMSException {
-    Object o = properties.get(name);
+  static double getDoubleProperty(Object o) throws JMSException {
     if (o == null) {
       throw new NumberFormatException("Null is not a valid double");
     } else if (o instanceof String) {
@@ -182,8 +167,7 @@ abstract class Utils {
     }
   }
 
-  static String getStringProperty(Map<String, Serializable> properties, String name) {
-    Object o = properties.get(name);
+  static String getStringProperty(Object o) {
     if (o == null) {
       return null;
     } else if (o instanceof String) {
@@ -0,0 +1,32 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import com.rabbitmq.jms.util.Util;
+
+/**
+ * {@link MessageIdGenerator} of random UUIDs, as message IDs were generated before {@link MessageIdGenerator}
+ * was introduced.
+ *
+ * @since 3.3.0
+ */
+public final class UuidMessageIdGenerator implements MessageIdGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final UuidMessageIdGenerator INSTANCE = new UuidMessageIdGenerator();
+
+    private UuidMessageIdGenerator() { }
+
+    @Override
+    public String generateId() {
+        return Util.generateUUID("");
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+}
@@ -20,6 +20,8 @@ import jakarta.jms.MessageNotReadableException;
 import jakarta.jms.MessageNotWriteableException;
 
 import com.rabbitmq.jms.client.RMQMessage;
+import com.rabbitmq.jms.util.CompactDecoder;
+import com.rabbitmq.jms.util.CompactEncoder;
 import com.rabbitmq.jms.util.RMQByteArrayOutputStream;
 import com.rabbitmq.jms.util.RMQJMSException;
 import com.rabbitmq.jms.util.RMQMessageFormatException;
@@ -64,6 +66,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public boolean readBoolean() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.pos + Bits.NUM_BYTES_IN_BOOLEAN > this.buf.length)
@@ -76,6 +79,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public byte readByte() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.pos + 1 > this.buf.length)
@@ -88,6 +92,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public int readUnsignedByte() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.pos + 1 > this.buf.length)
@@ -100,6 +105,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public short readShort() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.pos + Bits.NUM_BYTES_IN_SHORT > this.buf.length)
@@ -114,6 +120,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public int readUnsignedShort() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.pos + Bits.NUM_BYTES_IN_SHORT > this.buf.length)
@@ -128,6 +135,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public char readChar() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.pos + Bits.NUM_BYTES_IN_CHAR > this.buf.length)
@@ -142,6 +150,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public int readInt() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.pos + Bits.NUM_BYTES_IN_INT > this.buf.length)
@@ -156,6 +165,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public long readLong() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.pos + Bits.NUM_BYTES_IN_LONG > this.buf.length)
@@ -170,6 +180,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public float readFloat() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.pos + Bits.NUM_BYTES_IN_FLOAT > this.buf.length)
@@ -184,6 +195,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public double readDouble() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.pos + Bits.NUM_BYTES_IN_DOUBLE > this.buf.length)
@@ -198,6 +210,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public String readUTF() throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         int posOfUtfItem = this.pos;
@@ -233,6 +246,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public int readBytes(byte[] value, int length) throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (length<0 || length>value.length) {
@@ -381,6 +395,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public void reset() throws JMSException {
+        decodeBody();
         if (this.reading) {
             //if we already are reading, all we want to do is reset to the
             //beginning of the stream
@@ -402,6 +417,7 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     public long getBodyLength() throws JMSException {
+        decodeBody();
         return this.reading ? this.buf.length : this.bout.size();
     }
 
@@ -416,9 +432,12 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
         this.reading = false;
     }
 
-    private byte[] getByteArray() {
-        if (reading) return this.buf;
-        else return this.bout.toByteArray();
+    /**
+     * Writes the bytes of the message, without copying them first when they are being written.
+     */
+    private void writeByteArray(ByteArrayOutputStream out) throws IOException {
+        if (reading) out.write(this.buf);
+        else this.bout.writeTo(out);
     }
 
     /**
@@ -426,14 +445,21 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
      */
     @Override
     protected void writeBody(ObjectOutput oOut, ByteArrayOutputStream bout) throws IOException {
-        byte[] buf = getByteArray();
-        bout.write(buf);
+        writeByteArray(bout);
     }
 
     @Override
     protected void writeAmqpBody(ByteArrayOutputStream baos) throws IOException {
-        byte[] buf = getByteArray();
-        baos.write(buf);
+        writeByteArray(baos);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The bytes of a message being read are never modified, {@link #clearBody()} replaces them.
+     */
+    @Override
+    protected byte[] unmodifiableAmqpBody() {
+        return this.reading ? this.buf : null;
     }
 
     /**
@@ -449,6 +475,26 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
         this.pos = 0;
     }
 
+    /**
+     * {@inheritDoc}
+     * The bytes extend to the end of the message.
+     */
+    @Override
+    protected void writeCompactBody(CompactEncoder out) {
+        if (reading) out.writeBytes(this.buf, 0, this.buf.length);
+        else this.bout.writeTo(out);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void readCompactBody(CompactDecoder in) throws JMSException {
+        this.buf = in.readBytes(in.remaining());
+        this.reading = true;
+        this.pos = 0;
+    }
+
     @Override
     protected void readAmqpBody(byte[] barr) {
         this.buf = barr;
@@ -574,7 +620,8 @@ public class RMQBytesMessage extends RMQMessage implements BytesMessage {
 
     @SuppressWarnings("unchecked")
     @Override
-    public boolean isBodyAssignableTo(Class c) {
+    public boolean isBodyAssignableTo(Class c) throws JMSException {
+        this.decodeBody();
         return this.buf == null ? true : c.isAssignableFrom(byte[].class);
     }
 
@@ -23,6 +23,8 @@ import jakarta.jms.MessageFormatException;
 import jakarta.jms.MessageNotWriteableException;
 
 import com.rabbitmq.jms.client.RMQMessage;
+import com.rabbitmq.jms.util.CompactDecoder;
+import com.rabbitmq.jms.util.CompactEncoder;
 import com.rabbitmq.jms.util.DiscardingObjectOutput;
 import com.rabbitmq.jms.util.IteratorEnum;
 import com.rabbitmq.jms.util.RMQMessageFormatException;
@@ -36,6 +38,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public boolean getBoolean(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null)
             return false;
@@ -49,6 +52,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public byte getByte(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null)
             throw new NumberFormatException(String.format(UNABLE_TO_CAST, o, "byte"));
@@ -62,6 +66,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public short getShort(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null)
             throw new NumberFormatException(String.format(UNABLE_TO_CAST, o, "short"));
@@ -77,6 +82,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public char getChar(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null)
             throw new NumberFormatException(String.format(UNABLE_TO_CAST, o, "char"));
@@ -88,6 +94,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public int getInt(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null)
             throw new NumberFormatException(String.format(UNABLE_TO_CAST, o, "int"));
@@ -105,6 +112,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public long getLong(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null)
             throw new NumberFormatException(String.format(UNABLE_TO_CAST, o, "long"));
@@ -124,6 +132,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public float getFloat(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null)
             throw new NumberFormatException(String.format(UNABLE_TO_CAST, o, "float"));
@@ -137,6 +146,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public double getDouble(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null)
             throw new NumberFormatException(String.format(UNABLE_TO_CAST, o, "double"));
@@ -152,6 +162,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public String getString(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null)
             return null;
@@ -165,6 +176,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public byte[] getBytes(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null) {
             return null;
@@ -179,6 +191,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public Object getObject(String name) throws JMSException {
+        decodeBody();
         Object o = this.data.get(name);
         if (o == null) {
             return null;
@@ -191,6 +204,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public Enumeration<String> getMapNames() throws JMSException {
+        decodeBody();
         return new IteratorEnum<>(this.data.keySet().iterator());
     }
 
@@ -292,6 +306,7 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @Override
     public boolean itemExists(String name) throws JMSException {
+        decodeBody();
         return this.data.containsKey(name);
     }
 
@@ -324,6 +339,24 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
         }
     }
 
+    @Override
+    protected void writeCompactBody(CompactEncoder out) throws JMSException {
+        out.writeVarInt(this.data.size());
+        for (Map.Entry<String, Serializable> entry : this.data.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeValue(entry.getValue());
+        }
+    }
+
+    @Override
+    protected void readCompactBody(CompactDecoder in) throws JMSException {
+        int size = in.readVarInt();
+        for (int i = 0; i < size; i++) {
+            String name = in.readString();
+            this.data.put(name, (Serializable) in.readValue());
+        }
+    }
+
     @Override
     protected void readAmqpBody(byte[] barr) {
         throw new UnsupportedOperationException();
@@ -395,7 +428,8 @@ public class RMQMapMessage extends RMQMessage implements MapMessage {
 
     @SuppressWarnings("unchecked")
     @Override
-    public boolean isBodyAssignableTo(Class c) {
+    public boolean isBodyAssignableTo(Class c) throws JMSException {
+        this.decodeBody();
         return this.data == null ? true : c.isAssignableFrom(Map.class)
             || Serializable.class == c;
     }
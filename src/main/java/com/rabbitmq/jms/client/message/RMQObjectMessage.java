@@ -15,10 +15,13 @@ import java.io.Serializable;
 import java.util.List;
 
 import jakarta.jms.JMSException;
+import jakarta.jms.MessageFormatException;
 import jakarta.jms.MessageNotWriteableException;
 import jakarta.jms.ObjectMessage;
 
 import com.rabbitmq.jms.client.RMQMessage;
+import com.rabbitmq.jms.util.CompactDecoder;
+import com.rabbitmq.jms.util.CompactEncoder;
 import com.rabbitmq.jms.util.RMQJMSException;
 import com.rabbitmq.jms.util.WhiteListObjectInputStream;
 
@@ -67,6 +70,7 @@ public class RMQObjectMessage extends RMQMessage implements ObjectMessage {
     }
 
     public Serializable getObject(List<String> trustedPackages) throws JMSException {
+        decodeBody();
         if (buf == null) {
             return null;
         } else {
@@ -107,6 +111,21 @@ public class RMQObjectMessage extends RMQMessage implements ObjectMessage {
         }
     }
 
+    @Override
+    protected void writeCompactBody(CompactEncoder out) throws JMSException {
+        // the object is already serialized, there is no other way to write it
+        out.writeValue(this.buf);
+    }
+
+    @Override
+    protected void readCompactBody(CompactDecoder in) throws JMSException {
+        Object buf = in.readValue();
+        if (buf != null && !(buf instanceof byte[])) {
+            throw new MessageFormatException("Malformed ObjectMessage body");
+        }
+        this.buf = (byte[]) buf;
+    }
+
     @Override
     protected void readAmqpBody(byte[] barr) {
         throw new UnsupportedOperationException();
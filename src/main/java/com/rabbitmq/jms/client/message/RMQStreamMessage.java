@@ -25,6 +25,8 @@ import jakarta.jms.MessageNotWriteableException;
 import jakarta.jms.StreamMessage;
 
 import com.rabbitmq.jms.client.RMQMessage;
+import com.rabbitmq.jms.util.CompactDecoder;
+import com.rabbitmq.jms.util.CompactEncoder;
 import com.rabbitmq.jms.util.RMQJMSException;
 import com.rabbitmq.jms.util.RMQMessageFormatException;
 
@@ -83,6 +85,7 @@ public class RMQStreamMessage extends RMQMessage implements StreamMessage {
     }
 
     private Object readPrimitiveType(Class<?> type) throws JMSException {
+        decodeBody();
         if (!this.reading)
             throw new MessageNotReadableException(NOT_READABLE);
         if (this.readbuf!=null) {
@@ -452,6 +455,7 @@ public class RMQStreamMessage extends RMQMessage implements StreamMessage {
      */
     @Override
     public void reset() throws JMSException {
+        decodeBody();
         this.readbuf = null;
 
         if (this.reading) {
@@ -525,6 +529,49 @@ public class RMQStreamMessage extends RMQMessage implements StreamMessage {
         this.in = new WhiteListObjectInputStream(this.bin, this.trustedPackages);
     }
 
+    /**
+     * {@inheritDoc}
+     * The values, which are primitive values, strings or byte arrays only, extend to the end of the message.
+     */
+    @Override
+    protected void writeCompactBody(CompactEncoder out) throws IOException, JMSException {
+        byte[] buf;
+        if (this.reading) {
+            buf = this.buf;
+        } else {
+            this.out.flush();
+            buf = this.bout.toByteArray();
+        }
+        // the values are stored in the Java serialization format
+        ObjectInputStream in = new WhiteListObjectInputStream(new ByteArrayInputStream(buf), this.trustedPackages);
+        try {
+            while (true) {
+                out.writeValue(RMQMessage.readPrimitive(in));
+            }
+        } catch (EOFException x) {
+            // all values written
+        } catch (ClassNotFoundException x) {
+            throw new RMQJMSException(x);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void readCompactBody(CompactDecoder in) throws IOException, JMSException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream(in.remaining() + 16);
+        ObjectOutputStream out = new ObjectOutputStream(bout);
+        while (!in.isAtEnd()) {
+            RMQMessage.writePrimitive(in.readValue(), out);
+        }
+        out.flush();
+        this.buf = bout.toByteArray();
+        this.reading = true;
+        this.bin = new ByteArrayInputStream(this.buf);
+        this.in = new WhiteListObjectInputStream(this.bin, this.trustedPackages);
+    }
+
     @Override
     protected void readAmqpBody(byte[] barr) {
         throw new UnsupportedOperationException();
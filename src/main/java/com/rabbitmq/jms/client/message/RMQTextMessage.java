@@ -13,10 +13,14 @@ import java.io.ObjectOutput;
 import java.io.UnsupportedEncodingException;
 
 import jakarta.jms.JMSException;
+import jakarta.jms.MessageFormatException;
 import jakarta.jms.MessageNotWriteableException;
 import jakarta.jms.TextMessage;
 
 import com.rabbitmq.jms.client.RMQMessage;
+import com.rabbitmq.jms.util.CompactDecoder;
+import com.rabbitmq.jms.util.CompactEncoder;
+import com.rabbitmq.jms.util.RMQByteArrayOutputStream;
 
 
 /**
@@ -40,6 +44,7 @@ public class RMQTextMessage extends RMQMessage implements TextMessage {
      */
     @Override
     public String getText() throws JMSException {
+        decodeBody();
         return this.text;
     }
 
@@ -79,6 +84,26 @@ public class RMQTextMessage extends RMQMessage implements TextMessage {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void writeCompactBody(CompactEncoder out) throws JMSException {
+        out.writeValue(this.text);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void readCompactBody(CompactDecoder in) throws JMSException {
+        Object text = in.readValue();
+        if (text != null && !(text instanceof String)) {
+            throw new MessageFormatException("Malformed TextMessage body");
+        }
+        this.text = (String) text;
+    }
+
     @Override
     protected void readAmqpBody(byte[] barr) {
         try {
@@ -96,7 +121,13 @@ public class RMQTextMessage extends RMQMessage implements TextMessage {
 
     @Override
     protected void writeAmqpBody(ByteArrayOutputStream out) throws IOException {
-        out.write((this.text!=null ? this.text : "").getBytes("UTF-8"));
+        String text = this.text != null ? this.text : "";
+        if (out instanceof RMQByteArrayOutputStream) {
+            // encode straight into the buffer, without an intermediate array
+            ((RMQByteArrayOutputStream) out).writeUTF8(text);
+        } else {
+            out.write(text.getBytes("UTF-8"));
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -1,19 +1,22 @@
 /* Copyright (c) 2014-2023 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries. */
 package com.rabbitmq.jms.parse.sql;
 
-import static com.rabbitmq.jms.parse.ParseTreeTraverser.traverse;
-
 import java.util.Map;
+import java.util.function.Function;
 
 import com.rabbitmq.jms.parse.Evaluator;
 
 /**
  * A boolean evaluator for JMS Sql selector expressions.
- *
+ * <p>
+ * The expression is compiled to an {@link SqlPredicate} when the evaluator is created, so an evaluator
+ * can be used by several threads at once.
+ * </p>
  */
 public class SqlEvaluator implements Evaluator {
 
     private final SqlParseTree typedParseTree;
+    private final SqlPredicate predicate;
     private final String errorMessage;
     private final boolean evaluatorOk;
 
@@ -22,14 +25,17 @@ public class SqlEvaluator implements Evaluator {
             SqlParseTree parseTree = parser.parse();
             if (this.evaluatorOk = canBeBool(SqlTypeChecker.deriveExpressionType(parseTree, identTypes))) {
                 this.typedParseTree = parseTree;
+                this.predicate = SqlPredicate.compile(parseTree);
                 this.errorMessage = null;
             } else {
                 this.errorMessage = "Type error in expression";
                 this.typedParseTree = null;
+                this.predicate = null;
             }
         } else {
            this.evaluatorOk = false;
            this.typedParseTree = null;
+           this.predicate = null;
            this.errorMessage = parser.getErrorMessage();
         }
     }
@@ -40,15 +46,17 @@ public class SqlEvaluator implements Evaluator {
 
     @Override
     public boolean evaluate(Map<String, Object> env) {
-        if (this.evaluatorOk){
-            SqlEvaluatorVisitor eVisitor = new SqlEvaluatorVisitor(env);
-            if (traverse(this.typedParseTree, eVisitor)) {
-                Object val = this.typedParseTree.getNode().getExpValue().getValue();
-                if (val != null && val instanceof Boolean)
-                    return (Boolean) val;
-            }
-        }
-        return false;
+        return this.evaluatorOk && this.predicate.evaluate(env);
+    }
+
+    /**
+     * Evaluates the expression with identifier values looked up when they are needed, rather than
+     * collected in a map beforehand.
+     * @param identifierValues - the values of the identifiers, <code>null</code> for an identifier without value
+     * @return the evaluated result: true or false
+     */
+    public boolean evaluate(Function<String, Object> identifierValues) {
+        return this.evaluatorOk && this.predicate.evaluate(identifierValues);
     }
 
     /**
@@ -3,8 +3,6 @@ package com.rabbitmq.jms.parse.sql;
 
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.rabbitmq.jms.parse.Visitor;
 
@@ -60,27 +58,9 @@ class SqlEvaluatorVisitor implements Visitor<SqlTreeNode> {
         }
     }
 
-    private static final Pattern pattern(Object o1, Object o2) {
+    static final SqlLikePattern pattern(Object o1, Object o2) {
         if (!isString(o1)) return null;
-        String pattString = Pattern.quote((String) o1);  // enLiteral everything to start with
-
-        boolean noEscape = true;
-        char escChar = ' ';       // ignored if noEscape==true
-        if (isString(o2) && ((String)o2).length()>0) {
-            noEscape=false;
-            escChar=((String)o2).charAt(0);
-        }
-
-        boolean nextAsis = false;
-        StringBuilder sp = new StringBuilder();
-        for (char ch : pattString.toCharArray()) {
-                 if (nextAsis)                 { sp.append(ch); nextAsis = false; }
-            else if (!noEscape && ch==escChar)   nextAsis = true;
-            else if (ch=='_')                    sp.append('.');
-            else if (ch=='%')                    sp.append(".*");
-            else                                 sp.append(ch);
-        }
-        return Pattern.compile(sp.toString());
+        return SqlLikePattern.compile((String) o1, isString(o2) ? (String) o2 : null);
     }
 
     private static final Object operationValue(SqlTokenType op, Object[] vals) {
@@ -121,8 +101,7 @@ class SqlEvaluatorVisitor implements Visitor<SqlTreeNode> {
         // assert: o1 is an identifier value -- so may be any type or null;
         if (!isString(o1)) return null;
         if (!isPattern(o2)) return null;
-        Matcher matcher = ((Pattern)o2).matcher((String)o1);
-        return matcher.matches();
+        return ((SqlLikePattern)o2).matches((String)o1);
     }
 
     private static final Object add(Object o1, Object o2) {
@@ -296,6 +275,6 @@ class SqlEvaluatorVisitor implements Visitor<SqlTreeNode> {
     }
 
     private static final boolean isPattern(Object o) {
-        return o!=null && o instanceof Pattern;
+        return o!=null && o instanceof SqlLikePattern;
     }
 }
@@ -17,7 +17,7 @@ class SqlExpressionValue {
     private Object expValue;
     // INVARIANT: the expValue must either be null or be an object of type consistent with expType;
     //      one of:
-    //      NOT_SET(null), BOOL(Boolean), ARITH(Float, Double, Integer, Long), STRING(String), LIST(List<?>)
+    //      NOT_SET(null, or the SqlLikePattern of a PATTERN node), BOOL(Boolean), ARITH(Float, Double, Integer, Long), STRING(String), LIST(List<?>)
     //      but not INVALID.
     //      ANY can be any of the above, except LIST.
 
@@ -55,6 +55,7 @@ class SqlExpressionValue {
         case BOOL:   return filter(val, Boolean.class);
         case LIST:   return filter(val, List.class);
         case STRING: return filter(val, String.class);
+        case NOT_SET:return filter(val, SqlLikePattern.class);
         default:     return null;
         }
     }
@@ -0,0 +1,307 @@
+/* Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries. */
+package com.rabbitmq.jms.parse.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hand-written lexical scanner for SQL selector expressions, which reads the tokens one at a time in a single pass
+ * over the characters.
+ * <p>
+ * It recognises the same tokens as the regular expressions of {@link SqlTokenType} applied in turn by
+ * {@link SqlTokenStream}, including their quirks: the first pattern that matches wins, rather than the longest one,
+ * so for example <code>0x1F</code> is the integer <code>0</code> followed by the identifier <code>x1F</code>.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+final class SqlLexer {
+
+    private final CharSequence cseq;
+    private final int length;
+
+    private int index = 0;       // position after the last token
+    private int tokenStart = 0;  // position of the last token
+
+    SqlLexer(CharSequence cseq) {
+        this.cseq = cseq;
+        this.length = cseq.length();
+    }
+
+    /**
+     * @return the next token, <code>null</code> at the end of the input or if the next characters are not a token,
+     * see {@link #atEnd()}
+     */
+    SqlToken next() {
+        skipWhitespace();
+        this.tokenStart = this.index;
+        if (this.index == this.length) return null;
+        int start = this.index;
+        char c = this.cseq.charAt(start);
+        SqlTokenType type;
+        int end = start + 1;
+        switch (c) {
+        case '=': type = SqlTokenType.CMP_EQ;   break;
+        case '+': type = SqlTokenType.OP_PLUS;  break;
+        case '-': type = SqlTokenType.OP_MINUS; break;
+        case '*': type = SqlTokenType.OP_MULT;  break;
+        case '/': type = SqlTokenType.OP_DIV;   break;
+        case ',': type = SqlTokenType.COMMA;    break;
+        case '(': type = SqlTokenType.LP;       break;
+        case ')': type = SqlTokenType.RP;       break;
+        case '<':
+            if (charIs(end, '>'))      { type = SqlTokenType.CMP_NEQ;  ++end; }
+            else if (charIs(end, '=')) { type = SqlTokenType.CMP_LTEQ; ++end; }
+            else                         type = SqlTokenType.CMP_LT;
+            break;
+        case '>':
+            if (charIs(end, '='))      { type = SqlTokenType.CMP_GTEQ; ++end; }
+            else                         type = SqlTokenType.CMP_GT;
+            break;
+        case '\'':
+            end = stringEnd(start);
+            if (end < 0) return null;
+            type = SqlTokenType.STRING;
+            break;
+        default:
+            if (isDigit(c)) {
+                int digitsEnd = digitsEnd(start);
+                end = floatEnd(digitsEnd);
+                if (end < 0) {
+                    end = digitsEnd;
+                    type = SqlTokenType.INT;
+                } else {
+                    type = SqlTokenType.FLOAT;
+                }
+            } else if (isIdentStart(c)) {
+                end = wordEnd(start);
+                type = keyword(start, end);
+                if (type == null) {
+                    type = SqlTokenType.IDENT;
+                } else {
+                    end = keywordEnd(type, end);
+                }
+            } else {
+                return null;
+            }
+        }
+        this.index = end;
+        return new SqlToken(type, this.cseq.subSequence(start, end).toString());
+    }
+
+    /**
+     * @return <code>true</code> if all the input has been scanned, <code>false</code> if {@link #next()} stopped at
+     * characters which are not a token
+     */
+    boolean atEnd() {
+        return this.index == this.length;
+    }
+
+    /** @return position of the last token read or, when there is none, where scanning stopped */
+    int tokenStart() {
+        return this.tokenStart;
+    }
+
+    /** @return position after the last token read */
+    int index() {
+        return this.index;
+    }
+
+    /**
+     * @param cseq the characters to scan
+     * @return the tokens, up to the first characters which are not a token, if any
+     */
+    static List<SqlToken> tokenize(CharSequence cseq) {
+        SqlLexer lexer = new SqlLexer(cseq);
+        List<SqlToken> tokens = new ArrayList<>();
+        for (SqlToken token = lexer.next(); token != null; token = lexer.next()) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private void skipWhitespace() {
+        while (this.index < this.length && isWhitespace(this.cseq.charAt(this.index))) ++this.index;
+    }
+
+    /**
+     * The keyword of a word, if any; some keywords (NOT LIKE, IS NULL, ...) are several words.
+     */
+    private SqlTokenType keyword(int start, int end) {
+        switch (end - start) {
+        case 2:
+            if (wordIs(start, end, "in"))      return SqlTokenType.IN;
+            if (wordIs(start, end, "or"))      return SqlTokenType.OR;
+            if (wordIs(start, end, "is")) {
+                int next = nextWordAfterWhitespace(end);
+                if (next > 0 && wordIs(next, wordEnd(next), "null")) return SqlTokenType.NULL;
+                if (next > 0 && wordIs(next, wordEnd(next), "not")) {
+                    int nextNext = nextWordAfterWhitespace(wordEnd(next));
+                    if (nextNext > 0 && wordIs(nextNext, wordEnd(nextNext), "null")) return SqlTokenType.NOT_NULL;
+                }
+            }
+            return null;
+        case 3:
+            if (wordIs(start, end, "not")) {
+                int next = nextWordAfterWhitespace(end);
+                if (next > 0) {
+                    int nextEnd = wordEnd(next);
+                    if (wordIs(next, nextEnd, "like"))    return SqlTokenType.NOT_LIKE;
+                    if (wordIs(next, nextEnd, "in"))      return SqlTokenType.NOT_IN;
+                    if (wordIs(next, nextEnd, "between")) return SqlTokenType.NOT_BETWEEN;
+                }
+                return SqlTokenType.NOT;
+            }
+            if (wordIs(start, end, "and"))     return SqlTokenType.AND;
+            return null;
+        case 4:
+            if (wordIs(start, end, "like"))    return SqlTokenType.LIKE;
+            if (wordIs(start, end, "true"))    return SqlTokenType.TRUE;
+            return null;
+        case 5:
+            if (wordIs(start, end, "false"))   return SqlTokenType.FALSE;
+            return null;
+        case 6:
+            if (wordIs(start, end, "escape"))  return SqlTokenType.ESCAPE;
+            return null;
+        case 7:
+            if (wordIs(start, end, "between")) return SqlTokenType.BETWEEN;
+            return null;
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * @return the end of a keyword starting with the word ending at <code>end</code>
+     */
+    private int keywordEnd(SqlTokenType type, int end) {
+        switch (type) {
+        case NOT_LIKE:
+        case NOT_IN:
+        case NOT_BETWEEN:
+        case NULL:
+            return wordEnd(nextWordAfterWhitespace(end));
+        case NOT_NULL:
+            return wordEnd(nextWordAfterWhitespace(wordEnd(nextWordAfterWhitespace(end))));
+        default:
+            return end;
+        }
+    }
+
+    /** @return the start of the word after some whitespace, -1 if there is no whitespace or no word */
+    private int nextWordAfterWhitespace(int pos) {
+        int i = pos;
+        while (i < this.length && isWhitespace(this.cseq.charAt(i))) ++i;
+        if (i == pos || i == this.length || !isIdentStart(this.cseq.charAt(i))) return -1;
+        return i;
+    }
+
+    private boolean wordIs(int start, int end, String lowerCaseWord) {
+        if (end - start != lowerCaseWord.length()) return false;
+        for (int i = start; i < end; ++i) {
+            char c = this.cseq.charAt(i);
+            if (c >= 'A' && c <= 'Z') c += ('a' - 'A');
+            if (c != lowerCaseWord.charAt(i - start)) return false;
+        }
+        return true;
+    }
+
+    private int wordEnd(int start) {
+        int i = start + 1;
+        while (i < this.length && isIdentPart(this.cseq.charAt(i))) ++i;
+        return i;
+    }
+
+    /**
+     * A string is quoted with <code>'</code>, which is doubled inside it.
+     * @return the end of the string, -1 if it is not terminated
+     */
+    private int stringEnd(int start) {
+        int lastDoubled = -1;
+        int i = start + 1;
+        while (i < this.length) {
+            if (this.cseq.charAt(i) == '\'') {
+                if (!charIs(i + 1, '\'')) return i + 1;
+                lastDoubled = i;
+                i += 2;
+            } else {
+                ++i;
+            }
+        }
+        // not terminated: as the regular expression does when backtracking, end at the last doubled quote
+        return lastDoubled < 0 ? -1 : lastDoubled + 1;
+    }
+
+    private int digitsEnd(int start) {
+        int i = start;
+        while (i < this.length && isDigit(this.cseq.charAt(i))) ++i;
+        return i;
+    }
+
+    /**
+     * The alternatives of the {@link SqlTokenType#FLOAT} pattern after the leading digits, in order.
+     * @return the end of the float, -1 if the digits are not followed by a fraction, exponent or suffix
+     */
+    private int floatEnd(int i) {
+        if (charIs(i, '.')) {
+            int fractionEnd = digitsEnd(i + 1);
+            // .digits exponent
+            if (fractionEnd > i + 1) {
+                int end = exponentEnd(fractionEnd);
+                if (end > 0) return end;
+            }
+            // .exponent
+            int end = exponentEnd(i + 1);
+            if (end > 0) return end;
+        } else {
+            // exponent
+            int end = exponentEnd(i);
+            if (end > 0) return end;
+        }
+        // (.digits)? suffix
+        if (charIs(i, '.')) {
+            int fractionEnd = digitsEnd(i + 1);
+            if (isSuffix(fractionEnd)) return fractionEnd + 1;
+        }
+        if (isSuffix(i)) return i + 1;
+        // .digits
+        if (charIs(i, '.')) return digitsEnd(i + 1);
+        return -1;
+    }
+
+    /** @return the end of an exponent at <code>i</code>, -1 if there is none */
+    private int exponentEnd(int i) {
+        if (!charIs(i, 'e') && !charIs(i, 'E')) return -1;
+        int j = i + 1;
+        if (charIs(j, '-') || charIs(j, '+')) ++j;
+        int end = digitsEnd(j);
+        return end > j ? end : -1;
+    }
+
+    private boolean isSuffix(int i) {
+        return charIs(i, 'f') || charIs(i, 'F') || charIs(i, 'd') || charIs(i, 'D');
+    }
+
+    private boolean charIs(int i, char c) {
+        return i < this.length && this.cseq.charAt(i) == c;
+    }
+
+    /** whitespace as <code>\s</code> in a regular expression */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$';
+    }
+
+    private static boolean isIdentPart(char c) {
+        return isIdentStart(c) || isDigit(c) || c == '.';
+    }
+}
@@ -0,0 +1,91 @@
+/* Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries. */
+package com.rabbitmq.jms.parse.sql;
+
+import java.util.Arrays;
+
+/**
+ * The pattern of an SQL <code>LIKE</code> expression, where <code>_</code> stands for any one character,
+ * <code>%</code> for any sequence of characters, and the escape character, if any, makes the character
+ * following it stand for itself.
+ * <p>
+ * Patterns are immutable, and matching does not allocate.
+ * </p>
+ */
+final class SqlLikePattern {
+
+    private static final byte LITERAL = 0;
+    private static final byte ANY_ONE = 1;
+    private static final byte ANY_SEQUENCE = 2;
+
+    private final String source;
+    private final char[] chars;
+    private final byte[] kinds;
+
+    private SqlLikePattern(String source, char[] chars, byte[] kinds) {
+        this.source = source;
+        this.chars = chars;
+        this.kinds = kinds;
+    }
+
+    /**
+     * @param pattern the pattern string
+     * @param escape the escape string, only its first character is used; <code>null</code> or empty if none
+     * @return the compiled pattern
+     */
+    static SqlLikePattern compile(String pattern, String escape) {
+        boolean noEscape = (escape == null || escape.isEmpty());
+        char escChar = noEscape ? ' ' : escape.charAt(0);
+        char[] chars = new char[pattern.length()];
+        byte[] kinds = new byte[pattern.length()];
+        int length = 0;
+        boolean nextAsis = false;
+        for (int i = 0; i < pattern.length(); ++i) {
+            char ch = pattern.charAt(i);
+            if (nextAsis) {
+                nextAsis = false;
+            } else if (!noEscape && ch == escChar) {
+                nextAsis = true;
+                continue;
+            } else if (ch == '_') {
+                kinds[length] = ANY_ONE;
+            } else if (ch == '%') {
+                if (length > 0 && kinds[length - 1] == ANY_SEQUENCE) continue; // %% is the same as %
+                kinds[length] = ANY_SEQUENCE;
+            }
+            chars[length++] = ch;
+        }
+        return new SqlLikePattern(pattern, Arrays.copyOf(chars, length), Arrays.copyOf(kinds, length));
+    }
+
+    /**
+     * @param s the string to match
+     * @return whether the whole string matches the pattern
+     */
+    boolean matches(String s) {
+        final int len = s.length();
+        int i = 0, p = 0;
+        int lastSequence = -1, resumeAt = 0; // backtracking point: the last % seen, and where its match ends
+        while (i < len) {
+            if (p < this.kinds.length && this.kinds[p] != ANY_SEQUENCE
+                && (this.kinds[p] == ANY_ONE || this.chars[p] == s.charAt(i))) {
+                ++i; ++p;
+            } else if (p < this.kinds.length && this.kinds[p] == ANY_SEQUENCE) {
+                lastSequence = p++;
+                resumeAt = i;
+            } else if (lastSequence >= 0) {
+                // let the last % match one more character
+                p = lastSequence + 1;
+                i = ++resumeAt;
+            } else {
+                return false;
+            }
+        }
+        while (p < this.kinds.length && this.kinds[p] == ANY_SEQUENCE) ++p;
+        return p == this.kinds.length;
+    }
+
+    @Override
+    public String toString() {
+        return this.source;
+    }
+}
@@ -5,9 +5,10 @@ import com.rabbitmq.jms.parse.Parser;
 import com.rabbitmq.jms.parse.TokenStream;
 
 /**
- * This uses {@link SqlProduction} as a naïve parser for the grammar defined in that type.
+ * This parses the grammar defined in {@link SqlProduction}, either with {@link SqlPredictiveParser} from the selector
+ * text, or with {@link SqlProduction} as a naïve parser from a {@link SqlTokenStream}.
  * <p>
- * This class is <i>not thread-safe during construction</i> since it then modifies the passed {@link TokenStream} which is (potentially) shared.
+ * This class is <i>not thread-safe during construction</i> from a {@link TokenStream} since it then modifies the passed {@link TokenStream} which is (potentially) shared.
  * </p>
  */
 public class SqlParser implements Parser<SqlTreeNode> {
@@ -16,6 +17,26 @@ public class SqlParser implements Parser<SqlTreeNode> {
     private final String errorMessage;
     private final SqlParseTree parseTree;
 
+    /**
+     * Parses the selector in a single pass; the error message of a selector not in the grammar gives the position of
+     * the error.
+     * @param selector the text of the selector
+     */
+    public SqlParser(CharSequence selector) {
+        SqlParseTree tree;
+        String error;
+        try {
+            tree = new SqlPredictiveParser(selector).parse();
+            error = null;
+        } catch (SqlPredictiveParser.SyntaxError e) {
+            tree = null;
+            error = e.getMessage();
+        }
+        this.parseTree = tree;
+        this.parseOk = tree != null;
+        this.errorMessage = error;
+    }
+
     public SqlParser(SqlTokenStream tokenStream) {
         if ("".equals(tokenStream.getResidue())) {
             this.parseTree = SqlProduction.ROOT.parse(tokenStream);
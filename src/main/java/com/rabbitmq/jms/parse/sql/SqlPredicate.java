@@ -0,0 +1,636 @@
+/* Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries. */
+package com.rabbitmq.jms.parse.sql;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An SQL (selector) expression compiled from its type-checked {@link SqlParseTree}, for repeated evaluation.
+ * <p>
+ * The compiled expression is a tree of immutable nodes, so it can be evaluated by several threads at once. Constant
+ * subexpressions are folded when compiling, <code>LIKE</code> patterns are compiled once, <code>IN</code> lists are
+ * hash sets, and comparisons and arithmetic are done on primitive values, so that evaluation does not allocate.
+ * </p>
+ * <p>
+ * The result of an evaluation is the same as that of interpreting the tree with {@link SqlEvaluatorVisitor}: logical
+ * operators have the three-valued logic of the JMS specification, where <code>UNKNOWN</code> is not <code>true</code>.
+ * </p>
+ */
+final class SqlPredicate {
+
+    // truth values
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+    private static final int UNKNOWN = 2;
+
+    // kinds of values
+    private static final int NULL = 0;
+    private static final int LONG = 1;
+    private static final int DOUBLE = 2;
+    private static final int OTHER = 3;
+
+    private static final Function<String, Object> NO_VALUES = ident -> null;
+
+    private final Node root;
+
+    private SqlPredicate(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @param typedParseTree a parse tree of a valid expression, typed by {@link SqlTypeChecker}
+     * @return the compiled expression
+     */
+    static SqlPredicate compile(SqlParseTree typedParseTree) {
+        return new SqlPredicate(compileTree(typedParseTree));
+    }
+
+    /**
+     * @param env the values of the identifiers, may be <code>null</code>
+     * @return <code>true</code> if the expression is true, <code>false</code> if it is false or unknown
+     */
+    boolean evaluate(Map<String, Object> env) {
+        return evaluate(env == null ? NO_VALUES : env::get);
+    }
+
+    /**
+     * @param identifierValues the values of the identifiers, <code>null</code> if an identifier has no value
+     * @return <code>true</code> if the expression is true, <code>false</code> if it is false or unknown
+     */
+    boolean evaluate(Function<String, Object> identifierValues) {
+        return this.root.truth(identifierValues) == TRUE;
+    }
+
+    private static Node compileTree(SqlParseTree tree) {
+        // the interpreter has no value for subexpressions of invalid type
+        if (tree.getNode().getExpValue().getType() == SqlExpressionType.INVALID) return Const.UNKNOWN_VALUE;
+        SqlParseTree[] subtrees = tree.getChildren();
+        Node[] children = new Node[subtrees.length];
+        for (int i = 0; i < subtrees.length; ++i) children[i] = compileTree(subtrees[i]);
+        return fold(compileNode(tree.getNode(), children), children);
+    }
+
+    private static Node compileNode(SqlTreeNode node, Node[] children) {
+        switch (node.treeType()) {
+        case CONJUNCTION:   return new And(children[0], children[1]);
+        case DISJUNCTION:   return new Or(children[0], children[1]);
+
+        case LEAF:          return leaf(node.value(), node.getExpValue().getType());
+
+        case LIST:          return new Const(node.value().getList());
+
+        case PATTERN1:      return new LikePattern(children[0], null);
+        case PATTERN2:      return new LikePattern(children[0], children[1]);
+
+        case POSTFIXUNARYOP:
+        case PREFIXUNARYOP:
+        case TERNARYOP:
+        case BINARYOP:      return operation(node.value().type(), children);
+
+        default:            return Const.UNKNOWN_VALUE;
+        }
+    }
+
+    private static Node leaf(SqlToken value, SqlExpressionType type) {
+        switch (value.type()) {
+        case TRUE:   return Const.TRUE_VALUE;
+        case FALSE:  return Const.FALSE_VALUE;
+        case FLOAT:  return new Const(value.getFloat());
+        case HEX:    return new Const(value.getHex());
+        case INT:    return new Const(value.getLong());
+        case LIST:   return new Const(value.getList());
+        case IDENT:  return new Ident(value.getIdent(), type);
+        case STRING: return new Const(value.getString());
+        default:
+            return Const.UNKNOWN_VALUE;
+        }
+    }
+
+    private static Node operation(SqlTokenType op, Node[] args) {
+        switch (op) {
+        case NOT_BETWEEN:   return new Between(args[0], args[1], args[2], true);
+        case BETWEEN:       return new Between(args[0], args[1], args[2], false);
+
+        case CMP_EQ:        return new Equals(args[0], args[1], false);
+        case CMP_NEQ:       return new Equals(args[0], args[1], true);
+        case CMP_GT:        return new GreaterThan(args[0], args[1], false);
+        case CMP_LTEQ:      return new GreaterThan(args[0], args[1], true);
+        case CMP_LT:        return new GreaterThan(args[1], args[0], false);
+        case CMP_GTEQ:      return new GreaterThan(args[1], args[0], true);
+
+        case IN:            return new In(args[0], args[1], false);
+        case NOT_IN:        return new In(args[0], args[1], true);
+
+        case LIKE:          return new Like(args[0], args[1], false);
+        case NOT_LIKE:      return new Like(args[0], args[1], true);
+
+        case NULL:          return new IsNull(args[0], false);
+        case NOT_NULL:      return new IsNull(args[0], true);
+
+        case OP_DIV:
+        case OP_MULT:       return new Arithmetic(op, args[0], args[1]);
+        // OP_MINUS and OP_PLUS may be unary prefix or binary ops:
+        case OP_MINUS:
+        case OP_PLUS:       return (args.length > 1 ? new Arithmetic(op, args[0], args[1]) : new Sign(op, args[0]));
+
+        case NOT:           return new Not(args[0]);
+
+        default:            return Const.UNKNOWN_VALUE;
+        }
+    }
+
+    /**
+     * Replaces a node by its value if it does not depend on identifiers.
+     */
+    private static Node fold(Node node, Node[] children) {
+        if (node instanceof Const) return node;
+        if (node instanceof And || node instanceof Or) {
+            // false AND anything is false, true OR anything is true
+            int dominant = (node instanceof And) ? FALSE : TRUE;
+            for (Node child : children) {
+                if (child instanceof Const && ((Const) child).truth == dominant) return child;
+            }
+        }
+        if (children.length == 0) return node;
+        for (Node child : children) {
+            if (!(child instanceof Const)) return node;
+        }
+        try {
+            return new Const(node.value(NO_VALUES));
+        } catch (ArithmeticException e) { // e.g. integer division by zero, fails when evaluated
+            return node;
+        }
+    }
+
+    private static int kindOf(Object o) {
+        if (o == null) return NULL;
+        if (o instanceof Long || o instanceof Integer) return LONG;
+        if (o instanceof Double || o instanceof Float) return DOUBLE;
+        return OTHER;
+    }
+
+    private static int truthOf(Object o) {
+        if (o instanceof Boolean) return ((Boolean) o) ? TRUE : FALSE;
+        return UNKNOWN;
+    }
+
+    private static Boolean booleanOf(int truth) {
+        return truth == UNKNOWN ? null : Boolean.valueOf(truth == TRUE);
+    }
+
+    private static int not(int truth) {
+        return truth == UNKNOWN ? UNKNOWN : TRUE - truth;
+    }
+
+    private static int truthOf(boolean b) {
+        return b ? TRUE : FALSE;
+    }
+
+    private static boolean isNumber(int kind) {
+        return kind == LONG || kind == DOUBLE;
+    }
+
+    /**
+     * <code>a &gt; b</code>, the values of <code>a</code> and <code>b</code> being of kinds <code>ka</code> and <code>kb</code>
+     */
+    private static int greaterThan(Node a, int ka, Node b, int kb, Function<String, Object> env) {
+        if (!isNumber(ka) || !isNumber(kb)) return UNKNOWN;
+        if (ka == LONG && kb == LONG) return truthOf(a.asLong(env) > b.asLong(env));
+        return truthOf(a.asDouble(env) > b.asDouble(env));
+    }
+
+    /**
+     * A node of a compiled expression.
+     * <p>
+     * The value of a node is an {@link Object}, as for the interpreter, <code>null</code> if unknown; subclasses
+     * override the other methods to get the truth or the numeric value of the node without boxing it.
+     * </p>
+     */
+    private abstract static class Node {
+
+        abstract Object value(Function<String, Object> env);
+
+        /** @return {@link #TRUE}, {@link #FALSE}, or {@link #UNKNOWN} if the value is not boolean */
+        int truth(Function<String, Object> env) {
+            return truthOf(value(env));
+        }
+
+        /** @return {@link #NULL}, {@link #LONG}, {@link #DOUBLE}, or {@link #OTHER} */
+        int kind(Function<String, Object> env) {
+            return kindOf(value(env));
+        }
+
+        /** only called when the kind of the value is {@link #LONG} */
+        long asLong(Function<String, Object> env) {
+            return ((Number) value(env)).longValue();
+        }
+
+        /** only called when the kind of the value is {@link #LONG} or {@link #DOUBLE} */
+        double asDouble(Function<String, Object> env) {
+            return ((Number) value(env)).doubleValue();
+        }
+    }
+
+    private static final class Const extends Node {
+
+        static final Const TRUE_VALUE = new Const(Boolean.TRUE);
+        static final Const FALSE_VALUE = new Const(Boolean.FALSE);
+        static final Const UNKNOWN_VALUE = new Const(null);
+
+        private final Object value;
+        private final int truth;
+        private final int kind;
+        private final long longValue;
+        private final double doubleValue;
+
+        Const(Object value) {
+            this.value = value;
+            this.truth = truthOf(value);
+            this.kind = kindOf(value);
+            this.longValue = this.kind == LONG ? ((Number) value).longValue() : 0L;
+            this.doubleValue = isNumber(this.kind) ? ((Number) value).doubleValue() : 0.0D;
+        }
+
+        @Override Object value(Function<String, Object> env) { return this.value; }
+        @Override int truth(Function<String, Object> env) { return this.truth; }
+        @Override int kind(Function<String, Object> env) { return this.kind; }
+        @Override long asLong(Function<String, Object> env) { return this.longValue; }
+        @Override double asDouble(Function<String, Object> env) { return this.doubleValue; }
+    }
+
+    /**
+     * Identifier, whose values are only those of its type, as in {@link SqlExpressionValue}; other values are unknown.
+     */
+    private static final class Ident extends Node {
+
+        private final String name;
+        private final SqlExpressionType type;
+
+        Ident(String name, SqlExpressionType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        Object value(Function<String, Object> env) {
+            Object o = env.apply(this.name);
+            return isOfType(o) ? o : null;
+        }
+
+        private boolean isOfType(Object o) {
+            switch (this.type) {
+            case ANY:    return o instanceof String || o instanceof Boolean || kindOf(o) == LONG || kindOf(o) == DOUBLE;
+            case ARITH:  return kindOf(o) == LONG || kindOf(o) == DOUBLE;
+            case BOOL:   return o instanceof Boolean;
+            case STRING: return o instanceof String;
+            default:     return false;
+            }
+        }
+    }
+
+    /**
+     * Node of boolean value, which is computed as a truth value.
+     */
+    private abstract static class Condition extends Node {
+
+        @Override
+        abstract int truth(Function<String, Object> env);
+
+        @Override
+        Object value(Function<String, Object> env) {
+            return booleanOf(truth(env));
+        }
+
+        @Override
+        int kind(Function<String, Object> env) {
+            return truth(env) == UNKNOWN ? NULL : OTHER;
+        }
+    }
+
+    private static final class And extends Condition {
+
+        private final Node left, right;
+
+        And(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int truth(Function<String, Object> env) {
+            int l = this.left.truth(env);
+            if (l == FALSE) return FALSE;
+            int r = this.right.truth(env);
+            if (r == FALSE) return FALSE;
+            return (l == TRUE && r == TRUE) ? TRUE : UNKNOWN;
+        }
+    }
+
+    private static final class Or extends Condition {
+
+        private final Node left, right;
+
+        Or(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int truth(Function<String, Object> env) {
+            int l = this.left.truth(env);
+            if (l == TRUE) return TRUE;
+            int r = this.right.truth(env);
+            if (r == TRUE) return TRUE;
+            return (l == FALSE && r == FALSE) ? FALSE : UNKNOWN;
+        }
+    }
+
+    private static final class Not extends Condition {
+
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        int truth(Function<String, Object> env) {
+            return not(this.operand.truth(env));
+        }
+    }
+
+    private static final class IsNull extends Condition {
+
+        private final Node operand;
+        private final boolean negated;
+
+        IsNull(Node operand, boolean negated) {
+            this.operand = operand;
+            this.negated = negated;
+        }
+
+        @Override
+        int truth(Function<String, Object> env) {
+            return truthOf((this.operand.kind(env) == NULL) != this.negated);
+        }
+    }
+
+    private static final class Equals extends Condition {
+
+        private final Node left, right;
+        private final boolean negated;
+
+        Equals(Node left, Node right, boolean negated) {
+            this.left = left;
+            this.right = right;
+            this.negated = negated;
+        }
+
+        @Override
+        int truth(Function<String, Object> env) {
+            int t = equals(env);
+            return this.negated ? not(t) : t;
+        }
+
+        private int equals(Function<String, Object> env) {
+            int kl = this.left.kind(env);
+            int kr = this.right.kind(env);
+            if (kl == NULL || kr == NULL) return UNKNOWN;
+            if (isNumber(kl) && isNumber(kr)) {
+                if (kl == LONG && kr == LONG) return truthOf(this.left.asLong(env) == this.right.asLong(env));
+                return truthOf(this.left.asDouble(env) == this.right.asDouble(env));
+            }
+            if (isNumber(kl) || isNumber(kr)) return FALSE;
+            // strings and booleans, identifier values of other types are never equal
+            Object l = this.left.value(env);
+            Object r = this.right.value(env);
+            if (l instanceof String) return truthOf(l.equals(r));
+            if (l instanceof Boolean && r instanceof Boolean) return truthOf(l.equals(r));
+            return FALSE;
+        }
+    }
+
+    /**
+     * <code>a &gt; b</code>, or <code>a &lt;= b</code> if negated
+     */
+    private static final class GreaterThan extends Condition {
+
+        private final Node a, b;
+        private final boolean negated;
+
+        GreaterThan(Node a, Node b, boolean negated) {
+            this.a = a;
+            this.b = b;
+            this.negated = negated;
+        }
+
+        @Override
+        int truth(Function<String, Object> env) {
+            int t = greaterThan(this.a, this.a.kind(env), this.b, this.b.kind(env), env);
+            return this.negated ? not(t) : t;
+        }
+    }
+
+    private static final class Between extends Condition {
+
+        private final Node operand, low, high;
+        private final boolean negated;
+
+        Between(Node operand, Node low, Node high, boolean negated) {
+            this.operand = operand;
+            this.low = low;
+            this.high = high;
+            this.negated = negated;
+        }
+
+        @Override
+        int truth(Function<String, Object> env) {
+            int k = this.operand.kind(env);
+            // NOT BETWEEN is low > operand OR operand > high
+            int below = greaterThan(this.low, this.low.kind(env), this.operand, k, env);
+            int notBetween = below == TRUE ? TRUE : greaterThan(this.operand, k, this.high, this.high.kind(env), env);
+            if (notBetween != TRUE && below == UNKNOWN) notBetween = UNKNOWN;
+            return this.negated ? notBetween : not(notBetween);
+        }
+    }
+
+    private static final class In extends Condition {
+
+        private final Node operand;
+        private final Node list;
+        /** the strings of a constant list, <code>null</code> if the list is not constant */
+        private final Set<String> strings;
+        private final boolean negated;
+
+        @SuppressWarnings("unchecked") // assert: this is a type-checked tree being compiled
+        In(Node operand, Node list, boolean negated) {
+            this.operand = operand;
+            this.list = list;
+            this.negated = negated;
+            Object listValue = (list instanceof Const) ? list.value(NO_VALUES) : null;
+            this.strings = (listValue == null) ? null : new HashSet<>((List<String>) listValue);
+        }
+
+        @Override
+        int truth(Function<String, Object> env) {
+            Object o = this.operand.value(env);
+            if (!(o instanceof String)) return UNKNOWN;
+            boolean in;
+            if (this.strings != null) {
+                in = this.strings.contains(o);
+            } else {
+                Object listValue = this.list.value(env);
+                if (listValue == null) return UNKNOWN;
+                in = ((List<?>) listValue).contains(o);
+            }
+            return truthOf(in != this.negated);
+        }
+    }
+
+    private static final class LikePattern extends Node {
+
+        private final Node pattern, escape;
+
+        LikePattern(Node pattern, Node escape) {
+            this.pattern = pattern;
+            this.escape = escape;
+        }
+
+        @Override
+        Object value(Function<String, Object> env) {
+            return SqlEvaluatorVisitor.pattern(this.pattern.value(env), this.escape == null ? null : this.escape.value(env));
+        }
+    }
+
+    private static final class Like extends Condition {
+
+        private final Node operand;
+        private final Node pattern;
+        private final boolean negated;
+
+        Like(Node operand, Node pattern, boolean negated) {
+            this.operand = operand;
+            this.pattern = pattern;
+            this.negated = negated;
+        }
+
+        @Override
+        int truth(Function<String, Object> env) {
+            Object o = this.operand.value(env);
+            if (!(o instanceof String)) return UNKNOWN;
+            Object p = this.pattern.value(env); // constant, unless the tree was not folded
+            if (!(p instanceof SqlLikePattern)) return UNKNOWN;
+            return truthOf(((SqlLikePattern) p).matches((String) o) != this.negated);
+        }
+    }
+
+    /**
+     * Node of numeric value, which is computed on primitives; the value is only boxed if it is used as an object.
+     */
+    private abstract static class Numeric extends Node {
+
+        @Override
+        abstract int kind(Function<String, Object> env);
+
+        @Override
+        abstract long asLong(Function<String, Object> env);
+
+        @Override
+        abstract double asDouble(Function<String, Object> env);
+
+        @Override
+        Object value(Function<String, Object> env) {
+            switch (kind(env)) {
+            case LONG:   return asLong(env);
+            case DOUBLE: return asDouble(env);
+            default:     return null;
+            }
+        }
+
+        @Override
+        int truth(Function<String, Object> env) {
+            return UNKNOWN; // never boolean
+        }
+    }
+
+    private static final class Arithmetic extends Numeric {
+
+        private final SqlTokenType op;
+        private final Node left, right;
+
+        Arithmetic(SqlTokenType op, Node left, Node right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int kind(Function<String, Object> env) {
+            int kl = this.left.kind(env);
+            int kr = this.right.kind(env);
+            if (!isNumber(kl) || !isNumber(kr)) return NULL;
+            return (kl == LONG && kr == LONG) ? LONG : DOUBLE;
+        }
+
+        @Override
+        long asLong(Function<String, Object> env) {
+            long l = this.left.asLong(env);
+            long r = this.right.asLong(env);
+            switch (this.op) {
+            case OP_DIV:    return l / r;
+            case OP_MULT:   return l * r;
+            case OP_MINUS:  return l - r;
+            default:        return l + r;
+            }
+        }
+
+        @Override
+        double asDouble(Function<String, Object> env) {
+            if (kind(env) == LONG) return asLong(env);
+            double l = this.left.asDouble(env);
+            double r = this.right.asDouble(env);
+            switch (this.op) {
+            case OP_DIV:    return l / r;
+            case OP_MULT:   return l * r;
+            case OP_MINUS:  return l - r;
+            default:        return l + r;
+            }
+        }
+    }
+
+    /**
+     * Unary <code>-</code> or <code>+</code>
+     */
+    private static final class Sign extends Numeric {
+
+        private final boolean minus;
+        private final Node operand;
+
+        Sign(SqlTokenType op, Node operand) {
+            this.minus = (op == SqlTokenType.OP_MINUS);
+            this.operand = operand;
+        }
+
+        @Override
+        int kind(Function<String, Object> env) {
+            int k = this.operand.kind(env);
+            return isNumber(k) ? k : NULL;
+        }
+
+        @Override
+        long asLong(Function<String, Object> env) {
+            long v = this.operand.asLong(env);
+            return this.minus ? 0L - v : v;
+        }
+
+        @Override
+        double asDouble(Function<String, Object> env) {
+            if (kind(env) == LONG) return asLong(env);
+            double v = this.operand.asDouble(env);
+            return this.minus ? 0.0D - v : v + 0.0D;
+        }
+    }
+}
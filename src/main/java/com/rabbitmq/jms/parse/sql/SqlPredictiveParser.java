@@ -0,0 +1,243 @@
+/* Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries. */
+package com.rabbitmq.jms.parse.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recursive descent parser for the grammar defined in {@link SqlProduction}, which reads the tokens of a
+ * {@link SqlLexer} once, choosing each alternative on the next token only.
+ * <p>
+ * It builds the same trees as the productions do, with binary operators associating to the right, and reports the
+ * position, in characters from the start of the selector, of the first token or character it cannot accept.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+final class SqlPredictiveParser {
+
+    private final CharSequence selector;
+    private final SqlLexer lexer;
+
+    private SqlToken token;     // next token, null at end of selector
+    private int tokenStart;     // position of next token
+
+    SqlPredictiveParser(CharSequence selector) {
+        this.selector = selector;
+        this.lexer = new SqlLexer(selector);
+    }
+
+    /**
+     * @return the parse tree of the selector
+     * @throws SyntaxError if the selector is not in the grammar
+     */
+    SqlParseTree parse() throws SyntaxError {
+        advance();
+        SqlParseTree tree = expression();
+        if (this.token != null) {
+            throw unexpected("end of selector");
+        }
+        return tree;
+    }
+
+    /** expression: or_expr */
+    private SqlParseTree expression() throws SyntaxError {
+        return orExpr();
+    }
+
+    /** or_expr: and_expr OR or_expr | and_expr */
+    private SqlParseTree orExpr() throws SyntaxError {
+        SqlParseTree left = andExpr();
+        if (!at(SqlTokenType.OR)) return left;
+        advance();
+        return new SqlParseTree(new SqlTreeNode(SqlTreeType.DISJUNCTION), left, orExpr());
+    }
+
+    /** and_expr: not_expr AND and_expr | not_expr */
+    private SqlParseTree andExpr() throws SyntaxError {
+        SqlParseTree left = notExpr();
+        if (!at(SqlTokenType.AND)) return left;
+        advance();
+        return new SqlParseTree(new SqlTreeNode(SqlTreeType.CONJUNCTION), left, andExpr());
+    }
+
+    /** not_expr: NOT cmp_expr | cmp_expr */
+    private SqlParseTree notExpr() throws SyntaxError {
+        if (!at(SqlTokenType.NOT)) return cmpExpr();
+        SqlToken op = advance();
+        return new SqlParseTree(new SqlTreeNode(SqlTreeType.PREFIXUNARYOP, op), cmpExpr());
+    }
+
+    /** cmp_expr: arith op_cmp arith | arith [NOT] BETWEEN arith AND arith | arith */
+    private SqlParseTree cmpExpr() throws SyntaxError {
+        SqlParseTree left = plusExpr();
+        if (this.token == null) return left;
+        switch (this.token.type()) {
+        case CMP_EQ:
+        case CMP_NEQ:
+        case CMP_LT:
+        case CMP_GT:
+        case CMP_LTEQ:
+        case CMP_GTEQ: {
+            SqlToken op = advance();
+            return new SqlParseTree(new SqlTreeNode(SqlTreeType.BINARYOP, op), left, plusExpr());
+        }
+        case BETWEEN:
+        case NOT_BETWEEN: {
+            SqlToken op = advance();
+            SqlParseTree lower = plusExpr();
+            expect(SqlTokenType.AND, "AND");
+            return new SqlParseTree(new SqlTreeNode(SqlTreeType.TERNARYOP, op), left, lower, plusExpr());
+        }
+        default:
+            return left;
+        }
+    }
+
+    /** plus_expr: mult_expr (+|-) plus_expr | mult_expr */
+    private SqlParseTree plusExpr() throws SyntaxError {
+        SqlParseTree left = multExpr();
+        if (!at(SqlTokenType.OP_PLUS) && !at(SqlTokenType.OP_MINUS)) return left;
+        SqlToken op = advance();
+        return new SqlParseTree(new SqlTreeNode(SqlTreeType.BINARYOP, op), left, plusExpr());
+    }
+
+    /** mult_expr: sign_expr (*|/) mult_expr | sign_expr */
+    private SqlParseTree multExpr() throws SyntaxError {
+        SqlParseTree left = signExpr();
+        if (!at(SqlTokenType.OP_MULT) && !at(SqlTokenType.OP_DIV)) return left;
+        SqlToken op = advance();
+        return new SqlParseTree(new SqlTreeNode(SqlTreeType.BINARYOP, op), left, multExpr());
+    }
+
+    /** sign_expr: (+|-) sign_expr | simple */
+    private SqlParseTree signExpr() throws SyntaxError {
+        if (!at(SqlTokenType.OP_PLUS) && !at(SqlTokenType.OP_MINUS)) return simple();
+        SqlToken op = advance();
+        return new SqlParseTree(new SqlTreeNode(SqlTreeType.PREFIXUNARYOP, op), signExpr());
+    }
+
+    /**
+     * simple: ( expression ) | TRUE | FALSE | STRING | number
+     *       | IDENT IS [NOT] NULL | IDENT [NOT] IN stringlist | IDENT [NOT] LIKE pattern | IDENT
+     */
+    private SqlParseTree simple() throws SyntaxError {
+        if (this.token == null) throw unexpected("an expression");
+        switch (this.token.type()) {
+        case LP: {
+            advance();
+            SqlParseTree tree = expression();
+            expect(SqlTokenType.RP, "')'");
+            return tree;
+        }
+        case TRUE:
+        case FALSE:
+        case STRING:
+        case HEX:
+        case FLOAT:
+        case INT:
+            return leaf(advance());
+        case IDENT:
+            return identifierExpr(leaf(advance()));
+        default:
+            throw unexpected("an expression");
+        }
+    }
+
+    private SqlParseTree identifierExpr(SqlParseTree ident) throws SyntaxError {
+        if (this.token == null) return ident;
+        switch (this.token.type()) {
+        case NULL:
+        case NOT_NULL:
+            return new SqlParseTree(new SqlTreeNode(SqlTreeType.POSTFIXUNARYOP, advance()), ident);
+        case IN:
+        case NOT_IN: {
+            SqlToken op = advance();
+            return new SqlParseTree(new SqlTreeNode(SqlTreeType.BINARYOP, op), ident, stringList());
+        }
+        case LIKE:
+        case NOT_LIKE: {
+            SqlToken op = advance();
+            return new SqlParseTree(new SqlTreeNode(SqlTreeType.BINARYOP, op), ident, pattern());
+        }
+        default:
+            return ident;
+        }
+    }
+
+    /** stringlist: ( STRING {, STRING} ) */
+    private SqlParseTree stringList() throws SyntaxError {
+        expect(SqlTokenType.LP, "'('");
+        List<String> strings = new ArrayList<>();
+        strings.add(expect(SqlTokenType.STRING, "a string").getString());
+        while (at(SqlTokenType.COMMA)) {
+            advance();
+            strings.add(expect(SqlTokenType.STRING, "a string").getString());
+        }
+        expect(SqlTokenType.RP, "')'");
+        return new SqlParseTree(new SqlTreeNode(SqlTreeType.LIST, new SqlToken(SqlTokenType.LIST, strings)));
+    }
+
+    /** pattern: STRING [ESCAPE STRING] */
+    private SqlParseTree pattern() throws SyntaxError {
+        SqlParseTree pattern = leaf(expect(SqlTokenType.STRING, "a string"));
+        if (!at(SqlTokenType.ESCAPE)) {
+            return new SqlParseTree(new SqlTreeNode(SqlTreeType.PATTERN1), pattern);
+        }
+        advance();
+        SqlParseTree escape = leaf(expect(SqlTokenType.STRING, "a string"));
+        return new SqlParseTree(new SqlTreeNode(SqlTreeType.PATTERN2), pattern, escape);
+    }
+
+    private static SqlParseTree leaf(SqlToken token) {
+        return new SqlParseTree(new SqlTreeNode(SqlTreeType.LEAF, token));
+    }
+
+    private boolean at(SqlTokenType type) {
+        return this.token != null && this.token.type() == type;
+    }
+
+    private SqlToken expect(SqlTokenType type, String expected) throws SyntaxError {
+        if (!at(type)) throw unexpected(expected);
+        return advance();
+    }
+
+    /**
+     * Moves on to the next token.
+     * @return the token moved past
+     */
+    private SqlToken advance() throws SyntaxError {
+        SqlToken current = this.token;
+        this.token = this.lexer.next();
+        this.tokenStart = this.lexer.tokenStart();
+        if (this.token == null && !this.lexer.atEnd()) {
+            if (this.selector.charAt(this.tokenStart) == '\'') {
+                throw new SyntaxError(String.format("Unterminated string at position %s", this.tokenStart));
+            }
+            throw new SyntaxError(String.format("Unrecognised character '%s' at position %s",
+                                                this.selector.charAt(this.tokenStart), this.tokenStart));
+        }
+        return current;
+    }
+
+    private SyntaxError unexpected(String expected) {
+        if (this.token == null) {
+            return new SyntaxError(String.format("Expected %s at position %s but reached the end of the selector",
+                                                 expected, this.tokenStart));
+        }
+        return new SyntaxError(String.format("Expected %s at position %s but found '%s'", expected, this.tokenStart,
+                                             this.selector.subSequence(this.tokenStart, this.lexer.index())));
+    }
+
+    /**
+     * A selector which is not in the grammar; the message gives the position of the error.
+     */
+    static final class SyntaxError extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        SyntaxError(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/* Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries. */
+package com.rabbitmq.jms.util;
+
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_BYTE;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_BYTES;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_CHAR;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_DOUBLE;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_FALSE;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_FLOAT;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_INT;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_LONG;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_NULL;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_SHORT;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_STRING;
+import static com.rabbitmq.jms.util.CompactEncoder.TYPE_TRUE;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.jms.MessageFormatException;
+
+/**
+ * Reads the compact (version 2) message format written by {@link CompactEncoder}, straight from the encoded bytes.
+ * <p>
+ * Truncated or malformed data is reported with a {@link MessageFormatException}. Not thread-safe.
+ * </p>
+ *
+ * @since 3.3.0
+ */
+public final class CompactDecoder {
+
+    private final byte[] buf;
+    private final int limit;
+    private int pos;
+
+    public CompactDecoder(byte[] buf, int offset) {
+        this.buf = buf;
+        this.limit = buf.length;
+        this.pos = offset;
+    }
+
+    /**
+     * @return whether all bytes have been read
+     */
+    public boolean isAtEnd() {
+        return this.pos >= this.limit;
+    }
+
+    public int position() {
+        return this.pos;
+    }
+
+    public int remaining() {
+        return this.limit - this.pos;
+    }
+
+    public byte readByte() throws MessageFormatException {
+        require(1);
+        return this.buf[this.pos++];
+    }
+
+    public byte[] readBytes(int length) throws MessageFormatException {
+        require(length);
+        byte[] value = new byte[length];
+        System.arraycopy(this.buf, this.pos, value, 0, length);
+        this.pos += length;
+        return value;
+    }
+
+    /**
+     * @param length number of bytes
+     * @return a stream of the next bytes, which are skipped, without copying them
+     */
+    public InputStream readInputStream(int length) throws MessageFormatException {
+        require(length);
+        InputStream value = new ByteArrayInputStream(this.buf, this.pos, length);
+        this.pos += length;
+        return value;
+    }
+
+    public short readShort() throws MessageFormatException {
+        require(2);
+        short value = (short) (((this.buf[this.pos] & 0xFF) << 8) | (this.buf[this.pos + 1] & 0xFF));
+        this.pos += 2;
+        return value;
+    }
+
+    public int readFixedInt() throws MessageFormatException {
+        require(4);
+        byte[] b = this.buf;
+        int p = this.pos;
+        int value = ((b[p] & 0xFF) << 24) | ((b[p + 1] & 0xFF) << 16) | ((b[p + 2] & 0xFF) << 8) | (b[p + 3] & 0xFF);
+        this.pos += 4;
+        return value;
+    }
+
+    public long readFixedLong() throws MessageFormatException {
+        return ((long) readFixedInt() << 32) | (readFixedInt() & 0xFFFFFFFFL);
+    }
+
+    public int readVarInt() throws MessageFormatException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new MessageFormatException("Malformed variable-length integer");
+    }
+
+    public long readVarLong() throws MessageFormatException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new MessageFormatException("Malformed variable-length integer");
+    }
+
+    public int readSignedVarInt() throws MessageFormatException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readSignedVarLong() throws MessageFormatException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * @return a length, checked against the bytes left
+     */
+    public int readLength() throws MessageFormatException {
+        int length = readVarInt();
+        require(length);
+        return length;
+    }
+
+    public String readString() throws MessageFormatException {
+        int length = readLength();
+        String value = new String(this.buf, this.pos, length, StandardCharsets.UTF_8);
+        this.pos += length;
+        return value;
+    }
+
+    /**
+     * Compares a string with the given one, without decoding it into a new string. The string is consumed whatever
+     * the outcome.
+     *
+     * @param expected the string to compare with, ASCII for the comparison to be allocation-free
+     * @return whether the strings are equal
+     */
+    public boolean stringEquals(String expected) throws MessageFormatException {
+        int length = readLength();
+        int start = this.pos;
+        this.pos += length;
+        if (length == expected.length()) {
+            boolean ascii = true;
+            for (int i = 0; i < length; i++) {
+                byte b = this.buf[start + i];
+                if (b < 0) {
+                    ascii = false;
+                    break;
+                }
+                if (b != expected.charAt(i)) {
+                    return false;
+                }
+            }
+            if (ascii) {
+                return true;
+            }
+        }
+        return length >= expected.length() && expected.equals(new String(this.buf, start, length, StandardCharsets.UTF_8));
+    }
+
+    public void skip(int length) throws MessageFormatException {
+        require(length);
+        this.pos += length;
+    }
+
+    /**
+     * @return a value written with {@link CompactEncoder#writeValue(Object)}
+     * @throws MessageFormatException if the type is not one of these values
+     */
+    public Object readValue() throws MessageFormatException {
+        return readValue(readByte());
+    }
+
+    /**
+     * @param type the type, already read
+     * @return a value written with {@link CompactEncoder#writeValue(Object)}
+     * @throws MessageFormatException if the type is not one of these values
+     */
+    public Object readValue(byte type) throws MessageFormatException {
+        switch (type) {
+        case TYPE_NULL:
+            return null;
+        case TYPE_TRUE:
+            return Boolean.TRUE;
+        case TYPE_FALSE:
+            return Boolean.FALSE;
+        case TYPE_BYTE:
+            return readByte();
+        case TYPE_SHORT:
+            return readShort();
+        case TYPE_INT:
+            return readSignedVarInt();
+        case TYPE_LONG:
+            return readSignedVarLong();
+        case TYPE_FLOAT:
+            return Float.intBitsToFloat(readFixedInt());
+        case TYPE_DOUBLE:
+            return Double.longBitsToDouble(readFixedLong());
+        case TYPE_STRING:
+            return readString();
+        case TYPE_CHAR:
+            return (char) readShort();
+        case TYPE_BYTES:
+            return readBytes(readLength());
+        default:
+            throw new MessageFormatException("Unknown value type " + type);
+        }
+    }
+
+    /**
+     * Skips a value of any type, including the types written by <code>RMQMessage</code> only.
+     * @throws MessageFormatException if the type is unknown
+     */
+    public void skipValue() throws MessageFormatException {
+        byte type = readByte();
+        switch (type) {
+        case TYPE_NULL:
+        case TYPE_TRUE:
+        case TYPE_FALSE:
+            break;
+        case TYPE_BYTE:
+            skip(1);
+            break;
+        case TYPE_SHORT:
+        case TYPE_CHAR:
+            skip(2);
+            break;
+        case TYPE_INT:
+            readVarInt();
+            break;
+        case TYPE_LONG:
+            readVarLong();
+            break;
+        case TYPE_FLOAT:
+            skip(4);
+            break;
+        case TYPE_DOUBLE:
+            skip(8);
+            break;
+        case TYPE_STRING:
+        case TYPE_BYTES:
+        case CompactEncoder.TYPE_DESTINATION:
+        case CompactEncoder.TYPE_SERIALIZABLE:
+            // these start with their length
+            skip(readLength());
+            break;
+        default:
+            throw new MessageFormatException("Unknown value type " + type);
+        }
+    }
+
+    private void require(int length) throws MessageFormatException {
+        if (length < 0 || length > this.limit - this.pos) {
+            throw new MessageFormatException("Truncated message: " + length + " byte(s) expected, " + (this.limit - this.pos) + " left");
+        }
+    }
+}
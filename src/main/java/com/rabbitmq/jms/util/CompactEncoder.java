@@ -0,0 +1,306 @@
+/* Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries. */
+package com.rabbitmq.jms.util;
+
+import java.util.Arrays;
+
+import jakarta.jms.MessageFormatException;
+
+/**
+ * Writes the compact (version 2) message format.
+ * <p>
+ * Integers are written as variable-length quantities (7 bits per byte, least significant group first), signed ones
+ * zigzag-encoded first. Strings are a length followed by plain UTF-8. Typed values start with one of the
+ * <code>TYPE_</code> bytes. Other fixed-size values are big-endian.
+ * </p>
+ * <p>
+ * The type values are part of the format and must never change.
+ * </p>
+ *
+ * @see CompactDecoder
+ * @since 3.3.0
+ */
+public final class CompactEncoder {
+
+    public static final byte TYPE_NULL = 0;
+    public static final byte TYPE_TRUE = 1;
+    public static final byte TYPE_FALSE = 2;
+    public static final byte TYPE_BYTE = 3;
+    public static final byte TYPE_SHORT = 4;
+    public static final byte TYPE_INT = 5;
+    public static final byte TYPE_LONG = 6;
+    public static final byte TYPE_FLOAT = 7;
+    public static final byte TYPE_DOUBLE = 8;
+    public static final byte TYPE_STRING = 9;
+    public static final byte TYPE_CHAR = 10;
+    public static final byte TYPE_BYTES = 11;
+    /** A destination of this library, as a length and the destination, see <code>RMQDestination</code> */
+    public static final byte TYPE_DESTINATION = 12;
+    /** Any other {@link java.io.Serializable}, as a length and the bytes of its Java serialization */
+    public static final byte TYPE_SERIALIZABLE = 13;
+
+    private byte[] buf;
+    private int count;
+
+    public CompactEncoder(int size) {
+        this.buf = new byte[Math.max(16, size)];
+    }
+
+    /**
+     * @param buf the array to write into, replaced by a larger one when full, see {@link #buffer()}
+     */
+    public CompactEncoder(byte[] buf) {
+        this.buf = buf.length < 16 ? new byte[16] : buf;
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        this.buf[this.count++] = (byte) value;
+    }
+
+    public void writeBytes(byte[] value, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(value, offset, this.buf, this.count, length);
+        this.count += length;
+    }
+
+    public void writeShort(int value) {
+        ensureCapacity(2);
+        this.buf[this.count++] = (byte) (value >>> 8);
+        this.buf[this.count++] = (byte) value;
+    }
+
+    public void writeFixedInt(int value) {
+        ensureCapacity(4);
+        this.buf[this.count++] = (byte) (value >>> 24);
+        this.buf[this.count++] = (byte) (value >>> 16);
+        this.buf[this.count++] = (byte) (value >>> 8);
+        this.buf[this.count++] = (byte) value;
+    }
+
+    public void writeFixedLong(long value) {
+        writeFixedInt((int) (value >>> 32));
+        writeFixedInt((int) value);
+    }
+
+    /**
+     * Writes an unsigned variable-length integer.
+     * @param value the value, treated as unsigned
+     */
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            this.buf[this.count++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.buf[this.count++] = (byte) value;
+    }
+
+    /**
+     * Writes an unsigned variable-length long.
+     * @param value the value, treated as unsigned
+     */
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            this.buf[this.count++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.buf[this.count++] = (byte) value;
+    }
+
+    public void writeSignedVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a string as its UTF-8 length and bytes.
+     * @param value the string, not <code>null</code>
+     */
+    public void writeString(String value) {
+        int utf8Length = utf8Length(value);
+        writeVarInt(utf8Length);
+        ensureCapacity(utf8Length);
+        this.count = encodeUtf8(value, utf8Length, this.buf, this.count);
+    }
+
+    /**
+     * Writes a primitive value, a {@link String}, a <code>byte[]</code> or <code>null</code>, with its type.
+     * @param value the value
+     * @throws MessageFormatException if the value is of another type
+     */
+    public void writeValue(Object value) throws MessageFormatException {
+        if (value == null) {
+            writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            writeByte(TYPE_STRING);
+            writeString((String) value);
+        } else if (value instanceof Integer) {
+            writeByte(TYPE_INT);
+            writeSignedVarInt((Integer) value);
+        } else if (value instanceof Long) {
+            writeByte(TYPE_LONG);
+            writeSignedVarLong((Long) value);
+        } else if (value instanceof Boolean) {
+            writeByte((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+        } else if (value instanceof Byte) {
+            writeByte(TYPE_BYTE);
+            writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            writeByte(TYPE_SHORT);
+            writeShort((Short) value);
+        } else if (value instanceof Float) {
+            writeByte(TYPE_FLOAT);
+            writeFixedInt(Float.floatToIntBits((Float) value));
+        } else if (value instanceof Double) {
+            writeByte(TYPE_DOUBLE);
+            writeFixedLong(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Character) {
+            writeByte(TYPE_CHAR);
+            writeShort((Character) value);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            writeByte(TYPE_BYTES);
+            writeVarInt(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        } else {
+            throw new MessageFormatException(value + " is not a recognized primitive type.");
+        }
+    }
+
+    /**
+     * @param value the value
+     * @return whether the value can be written with {@link #writeValue(Object)}
+     */
+    public static boolean isValue(Object value) {
+        return value == null || value instanceof String || value instanceof Integer || value instanceof Long
+            || value instanceof Boolean || value instanceof Byte || value instanceof Short || value instanceof Float
+            || value instanceof Double || value instanceof Character || value instanceof byte[];
+    }
+
+    /**
+     * Starts a section preceded by its length, which is written by {@link #endLength(int)}.
+     * @return the start of the section
+     */
+    public int beginLength() {
+        // one byte is enough for most sections, the section is moved otherwise
+        writeByte(0);
+        return this.count;
+    }
+
+    /**
+     * Writes the length of a section started with {@link #beginLength()}.
+     * @param start the start of the section
+     */
+    public void endLength(int start) {
+        int length = this.count - start;
+        if (length < 0x80) {
+            this.buf[start - 1] = (byte) length;
+            return;
+        }
+        int extra = -1;
+        for (int value = length; value != 0; value >>>= 7) {
+            extra++;
+        }
+        ensureCapacity(extra);
+        System.arraycopy(this.buf, start, this.buf, start + extra, length);
+        int end = this.count + extra;
+        this.count = start - 1;
+        writeVarInt(length);
+        this.count = end;
+    }
+
+    /**
+     * @return number of bytes written
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * @return the array written into, for reuse
+     */
+    public byte[] buffer() {
+        return this.buf;
+    }
+
+    /**
+     * @return a copy of the bytes written
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buf, this.count);
+    }
+
+    /**
+     * @param value a string
+     * @return the length of the string in UTF-8
+     */
+    public static int utf8Length(String value) {
+        int length = value.length();
+        int utf8Length = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    utf8Length += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    utf8Length += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    utf8Length += 2;
+                }
+            }
+        }
+        return utf8Length;
+    }
+
+    /**
+     * Encodes a string in UTF-8, like {@link String#getBytes(java.nio.charset.Charset)} but into an existing array.
+     * @param value the string
+     * @param utf8Length the length of the string in UTF-8, see {@link #utf8Length(String)}
+     * @param b the array to write to, with room for the string
+     * @param pos the position to write at
+     * @return the position after the string
+     */
+    public static int encodeUtf8(String value, int utf8Length, byte[] b, int pos) {
+        int length = value.length();
+        if (utf8Length == length) {
+            for (int i = 0; i < length; i++) {
+                b[pos++] = (byte) value.charAt(i);
+            }
+            return pos;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                b[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                b[pos++] = (byte) (0xC0 | (c >> 6));
+                b[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                b[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                b[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                b[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                b[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate, as String#getBytes does
+                b[pos++] = (byte) '?';
+            } else {
+                b[pos++] = (byte) (0xE0 | (c >> 12));
+                b[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (this.count + extra > this.buf.length) {
+            this.buf = Arrays.copyOf(this.buf, Math.max(this.buf.length << 1, this.count + extra));
+        }
+    }
+}
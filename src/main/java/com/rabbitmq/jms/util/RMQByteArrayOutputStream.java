@@ -3,6 +3,7 @@ package com.rabbitmq.jms.util;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
 import jakarta.jms.JMSException;
 import jakarta.jms.MessageFormatException;
@@ -13,6 +14,45 @@ public class RMQByteArrayOutputStream extends ByteArrayOutputStream {
         super(size);
     }
 
+    /**
+     * @param buf the array to write into, replaced by a larger one when full, see {@link #buffer()}
+     * @since 3.3.0
+     */
+    public RMQByteArrayOutputStream(byte[] buf) {
+        super(0);
+        this.buf = buf;
+    }
+
+    /**
+     * @return the array written into, for reuse
+     * @since 3.3.0
+     */
+    public synchronized byte[] buffer() {
+        return this.buf;
+    }
+
+    /**
+     * Writes the bytes written so far to an encoder, without copying them first.
+     * @param out the encoder
+     * @since 3.3.0
+     */
+    public synchronized void writeTo(CompactEncoder out) {
+        out.writeBytes(this.buf, 0, this.count);
+    }
+
+    /**
+     * Writes a string in UTF-8, without encoding it into a new array first.
+     * @param value the string
+     * @since 3.3.0
+     */
+    public synchronized void writeUTF8(String value) {
+        int utf8Length = CompactEncoder.utf8Length(value);
+        if (this.count + utf8Length > this.buf.length) {
+            this.buf = Arrays.copyOf(this.buf, Math.max(this.buf.length << 1, this.count + utf8Length));
+        }
+        this.count = CompactEncoder.encodeUtf8(value, utf8Length, this.buf, this.count);
+    }
+
     public void writeBoolean(boolean value) {
         this.write((byte) (value ? 1 : 0));
     }
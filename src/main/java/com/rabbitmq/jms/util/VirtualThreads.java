@@ -0,0 +1,74 @@
+/* Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries. */
+package com.rabbitmq.jms.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Access to virtual threads (Java 21 and later) without compiling against them.
+ * <p>
+ * The virtual thread API is looked up by reflection once. On earlier Java versions the methods of this class return
+ * <code>null</code> and callers keep using platform threads.
+ * </p>
+ */
+public final class VirtualThreads {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final ThreadFactory FACTORY = lookupFactory();
+
+    /** Creates a new virtual thread per task: has no idle thread, so it is shared and never shut down. */
+    private static final ExecutorService EXECUTOR = FACTORY == null ? null : lookupExecutor(FACTORY);
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return <code>true</code> if the JVM supports virtual threads
+     */
+    public static boolean available() {
+        return FACTORY != null;
+    }
+
+    /**
+     * @return a factory of virtual threads, or <code>null</code> if the JVM does not support them
+     */
+    public static ThreadFactory threadFactory() {
+        return FACTORY;
+    }
+
+    /**
+     * @return an executor starting a new virtual thread for each task, or <code>null</code> if the JVM does not
+     * support virtual threads
+     */
+    public static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    private static ThreadFactory lookupFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "rabbitmq-jms-virtual-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (Exception e) { // includes UnsupportedOperationException when virtual threads are a preview feature
+            LOGGER.debug("Virtual threads not available", e);
+            return null;
+        }
+    }
+
+    private static ExecutorService lookupExecutor(ThreadFactory factory) {
+        try {
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+        } catch (Exception e) {
+            LOGGER.debug("Thread-per-task executor not available", e);
+            return null;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import jakarta.jms.JMSException;
 import jakarta.jms.MessageConsumer;
 import jakarta.jms.Queue;
 import jakarta.jms.QueueConnection;
+import jakarta.jms.QueueSender;
 import jakarta.jms.QueueSession;
 import jakarta.jms.Session;
 import jakarta.jms.TextMessage;
@@ -24,11 +25,12 @@ import jakarta.jms.TopicConnection;
 import jakarta.jms.TopicPublisher;
 import jakarta.jms.TopicSession;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
- * To make sure Session#createConsumer works for at least topic when a
+ * To make sure Session#createConsumer works for topics and queues when a
  * selector is provided.
  *
  * See https://github.com/rabbitmq/rabbitmq-jms-client/issues/52
@@ -90,18 +92,35 @@ public class SelectorAppliedToTopicNotQueueIT {
     }
 
     @Test
-    public void sendAndReceiveNotSupportedOnQueue() throws Exception {
+    public void sendAndReceiveSupportedOnQueue() throws Exception {
         queueConn.start();
         QueueSession queueSession = queueConn.createQueueSession(false, Session.DUPS_OK_ACKNOWLEDGE);
         Queue queue = queueSession.createQueue(QUEUE_NAME);
-        assertThrows(UnsupportedOperationException.class, () -> queueSession.createConsumer(queue, "boolProp"));
+        sendAndReceive(queueSession, queue, queueSession.createConsumer(queue, "boolProp"));
     }
 
     @Test
-    public void sendAndReceiveNotSupportedOnQueueNoLocal() throws Exception {
+    public void sendAndReceiveSupportedOnQueueNoLocal() throws Exception {
         queueConn.start();
         QueueSession queueSession = queueConn.createQueueSession(false, Session.DUPS_OK_ACKNOWLEDGE);
         Queue queue = queueSession.createQueue(QUEUE_NAME);
-        assertThrows(UnsupportedOperationException.class, () -> queueSession.createConsumer(queue, "boolProp", false));
+        sendAndReceive(queueSession, queue, queueSession.createConsumer(queue, "boolProp", false));
+    }
+
+    private void sendAndReceive(QueueSession queueSession, Queue queue, MessageConsumer receiver) throws JMSException {
+        QueueSender sender = queueSession.createSender(queue);
+        sender.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        TextMessage notSelected = queueSession.createTextMessage("not selected");
+        notSelected.setBooleanProperty("boolProp", false);
+        sender.send(notSelected);
+        TextMessage message = queueSession.createTextMessage(MESSAGE1);
+        message.setBooleanProperty("boolProp", true);
+        sender.send(message);
+        RMQTextMessage tmsg = (RMQTextMessage) receiver.receive(TimeUnit.SECONDS.toMillis(5));
+        assertEquals(MESSAGE1, tmsg.getText());
+        receiver.close();
+        // the message not selected is still in the queue
+        MessageConsumer other = queueSession.createConsumer(queue);
+        assertEquals("not selected", ((TextMessage) other.receive(TimeUnit.SECONDS.toMillis(5))).getText());
     }
 }
@@ -23,6 +23,17 @@ public class RMQDestinationTest {
         assertThat(newQueue.isQueue()).isTrue();
         assertThat(newQueue.getDestinationName()).isEqualTo("queue");
         assertThat(newQueue.isAmqp()).isFalse();
+        assertThat(newQueue.getConsumerPrefetch()).isZero();
+    }
+
+    @Test
+    void consumerPrefetchRegeneration() throws Exception {
+        RMQDestination queue = new RMQDestination("queue", true, false);
+        queue.setConsumerPrefetch(5);
+        Reference reference = queue.getReference();
+        RMQDestination newQueue = (RMQDestination) rmqObjectFactory.getObjectInstance(reference, null, null, null);
+        assertThat(newQueue.getDestinationName()).isEqualTo("queue");
+        assertThat(newQueue.getConsumerPrefetch()).isEqualTo(5);
     }
 
     @Test
@@ -323,6 +323,22 @@ public class RMQObjectFactoryTest {
             .containsEntry("x-expires", "bad-value");
     }
 
+    @Test
+    void getObjectInstanceShouldCreateDestinationWithConsumerPrefetch() throws Exception {
+        Hashtable<?, ?> environment = new Hashtable<Object, Object>() {{
+            put("className", "jakarta.jms.Queue");
+            put("destinationName", "TEST_QUEUE");
+            put("consumerPrefetch", "5");
+        }};
+
+        RMQDestination createdDestination = (RMQDestination) rmqObjectFactory.getObjectInstance(
+            "anything but a javax.naming.Reference",
+            new CompositeName("java:global/jms/TestQueue"), null, environment
+        );
+
+        assertEquals(5, createdDestination.getConsumerPrefetch());
+    }
+
     @Test
     void getObjectInstanceQueueDeclareArgumentsAreIgnoredForAmqpDestination() throws Exception {
         String queueDeclareArguments = "x-expires=1000";
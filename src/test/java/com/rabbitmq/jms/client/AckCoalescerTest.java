@@ -0,0 +1,120 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AckCoalescerTest {
+
+    private final List<String> acks = new CopyOnWriteArrayList<>();
+
+    private AckCoalescer coalescer(int batchSize, long intervalMs) {
+        return new AckCoalescer(batchSize, intervalMs, (tag, multiple) -> acks.add(tag + (multiple ? "+" : "")));
+    }
+
+    @Test
+    void contiguousTagsAreAcknowledgedWithOneMultipleAck() {
+        AckCoalescer coalescer = coalescer(3, 60_000);
+        coalescer.ack(1);
+        coalescer.ack(2);
+        assertThat(acks).isEmpty();
+        coalescer.ack(3);
+        assertThat(acks).containsExactly("3+");
+    }
+
+    @Test
+    void tagsAboveAGapAreAcknowledgedIndividually() {
+        AckCoalescer coalescer = coalescer(3, 60_000);
+        coalescer.ack(1);
+        coalescer.ack(3);
+        coalescer.ack(4);
+        assertThat(acks).containsExactly("1+", "3", "4");
+        acks.clear();
+        coalescer.ack(2);
+        coalescer.ack(5);
+        coalescer.ack(6);
+        assertThat(acks).containsExactly("6+");
+    }
+
+    @Test
+    void settledTagsFillGaps() {
+        AckCoalescer coalescer = coalescer(2, 60_000);
+        coalescer.settled(2);
+        coalescer.ack(1);
+        coalescer.ack(3);
+        assertThat(acks).containsExactly("3+");
+    }
+
+    @Test
+    void withoutCoalescingAcknowledgmentsAreImmediateAndBatchesGetMultipleAck() {
+        AckCoalescer coalescer = coalescer(1, 60_000);
+        coalescer.ack(1);
+        coalescer.settled(2);
+        assertThat(acks).containsExactly("1");
+        coalescer.ackAll(new long[] {3, 4, 5});
+        assertThat(acks).containsExactly("1", "5+");
+        acks.clear();
+        // 6 is still being processed
+        coalescer.ackAll(new long[] {7, 8});
+        assertThat(acks).containsExactly("7", "8");
+    }
+
+    @Test
+    void trackingMovesPastGapNeverFilled() {
+        AckCoalescer coalescer = coalescer(2, 60_000);
+        // 1 is never settled, e.g. requeued without notice
+        long last = AckCoalescer.MAX_TRACKED_ABOVE_GAP + 2;
+        for (long tag = 2; tag <= last; tag++) {
+            coalescer.settled(tag);
+        }
+        coalescer.ack(last + 1);
+        coalescer.ack(last + 2);
+        assertThat(acks).containsExactly((last + 2) + "+");
+        // covered by the multiple acknowledgment already
+        coalescer.ackAll(new long[] {1});
+        assertThat(acks).containsExactly((last + 2) + "+");
+    }
+
+    @Test
+    void deliveryBelowGapMovedPastIsAcknowledgedIfNotCovered() {
+        AckCoalescer coalescer = coalescer(1, 60_000);
+        long last = AckCoalescer.MAX_TRACKED_ABOVE_GAP + 2;
+        for (long tag = 2; tag <= last; tag++) {
+            coalescer.settled(tag);
+        }
+        coalescer.ack(1);
+        assertThat(acks).containsExactly("1");
+        coalescer.ackAll(new long[] {last + 1, last + 2});
+        assertThat(acks).containsExactly("1", (last + 2) + "+");
+    }
+
+    @Test
+    void pendingAcknowledgmentsAreFlushedAfterInterval() throws InterruptedException {
+        AckCoalescer coalescer = coalescer(100, 20);
+        coalescer.ack(1);
+        coalescer.ack(2);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (acks.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(acks).containsExactly("2+");
+    }
+
+    @Test
+    void closeFlushesAndLaterAcknowledgmentsAreSentImmediately() {
+        AckCoalescer coalescer = coalescer(100, 60_000);
+        coalescer.ack(1);
+        coalescer.close();
+        assertThat(acks).containsExactly("1+");
+        coalescer.ack(2);
+        assertThat(acks).containsExactly("1+", "2");
+    }
+}
@@ -0,0 +1,150 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.jms.admin.RMQDestination;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchMessageListenerTest {
+
+    RMQMessageConsumer messageConsumer;
+    RMQSession session;
+    List<List<Message>> batches;
+
+    @BeforeEach
+    void init() throws Exception {
+        messageConsumer = mock(RMQMessageConsumer.class);
+        session = mock(RMQSession.class);
+        RMQConnection connection = mock(RMQConnection.class);
+        when(messageConsumer.getSession()).thenReturn(session);
+        when(messageConsumer.isAutoAck()).thenReturn(true);
+        when(messageConsumer.isSelected(any(), any())).thenReturn(true);
+        when(messageConsumer.getDestination()).thenReturn(new RMQDestination("dest", "exchange", "key", "queue"));
+        when(session.getConnection()).thenReturn(connection);
+        when(session.getReplyToStrategy()).thenReturn(DefaultReplyToStrategy.INSTANCE);
+        doAnswer(invocation -> {
+            try {
+                invocation.<MessageListener>getArgument(1).onMessage(invocation.getArgument(0));
+            } catch (RuntimeException e) {
+                throw new RMQMessageListenerExecutionJMSException("onMessage threw exception", e);
+            }
+            return null;
+        }).when(session).deliverMessage(any(), any());
+        batches = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    void fullBatchIsDeliveredAndAcknowledgedAtOnce() throws Exception {
+        MessageListenerConsumer consumer = consumer(listener(3, 60_000, null), false);
+        for (long dtag = 1; dtag <= 3; dtag++) {
+            consumer.handleDelivery("ctag", envelope(dtag), props(), new byte[0]);
+        }
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).extracting(message -> ((RMQMessage) message).getRabbitDeliveryTag())
+            .containsExactly(1L, 2L, 3L);
+        verify(session).explicitAckAll(new long[] {1, 2, 3});
+        verify(session, never()).explicitAck(any(Long.class));
+    }
+
+    @Test
+    void incompleteBatchIsDeliveredAfterDelay() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+        MessageListenerConsumer consumer = consumer(listener(10, 20, delivered), false);
+        consumer.handleDelivery("ctag", envelope(1), props(), new byte[0]);
+        consumer.handleDelivery("ctag", envelope(2), props(), new byte[0]);
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).hasSize(2);
+        verify(session, timeout(5000)).explicitAckAll(new long[] {1, 2});
+        consumer.abort();
+    }
+
+    @Test
+    void listenerExceptionRequeuesWholeBatch() throws Exception {
+        BatchMessageListener failing = new BatchMessageListener() {
+            @Override
+            public void onMessages(List<Message> messages) {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            public int getMaxBatchSize() {
+                return 2;
+            }
+        };
+        MessageListenerConsumer consumer = consumer(failing, true);
+        consumer.handleDelivery("ctag", envelope(1), props(), new byte[0]);
+        consumer.handleDelivery("ctag", envelope(2), props(), new byte[0]);
+        verify(session).explicitNack(1);
+        verify(session).explicitNack(2);
+        verify(session, never()).explicitAckAll(any());
+    }
+
+    @Test
+    void pendingMessagesAreRequeuedOnStop() throws Exception {
+        MessageListenerConsumer consumer = consumer(listener(10, 60_000, null), false);
+        consumer.handleDelivery("ctag", envelope(1), props(), new byte[0]);
+        consumer.handleCancelOk("ctag");
+        consumer.stop();
+        verify(session).explicitNack(1);
+        assertThat(batches).isEmpty();
+    }
+
+    private MessageListenerConsumer consumer(BatchMessageListener listener, boolean requeueOnMessageListenerException) {
+        return new MessageListenerConsumer(messageConsumer, mock(Channel.class), listener, TimeUnit.SECONDS.toNanos(1),
+            requeueOnMessageListenerException, ReceivingContextConsumer.NO_OP, false);
+    }
+
+    private BatchMessageListener listener(int maxBatchSize, long maxBatchDelayMs, CountDownLatch delivered) {
+        return new BatchMessageListener() {
+            @Override
+            public void onMessages(List<Message> messages) {
+                batches.add(messages);
+                if (delivered != null) {
+                    delivered.countDown();
+                }
+            }
+
+            @Override
+            public int getMaxBatchSize() {
+                return maxBatchSize;
+            }
+
+            @Override
+            public long getMaxBatchDelayMs() {
+                return maxBatchDelayMs;
+            }
+        };
+    }
+
+    private static Envelope envelope(long deliveryTag) {
+        return new Envelope(deliveryTag, false, "", "queue");
+    }
+
+    private static AMQP.BasicProperties props() {
+        return new AMQP.BasicProperties.Builder().build();
+    }
+}
@@ -0,0 +1,48 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class ClientSchedulerTest {
+
+    @Test
+    void blockedTaskDoesNotDelayOtherTasks() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        ClientScheduler.schedule(() -> {
+            try {
+                unblock.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0, TimeUnit.MILLISECONDS);
+        try {
+            CompletableFuture<Thread> scheduled = new CompletableFuture<>();
+            ClientScheduler.schedule(() -> scheduled.complete(Thread.currentThread()), 10, TimeUnit.MILLISECONDS);
+            Thread thread = scheduled.get(5, TimeUnit.SECONDS);
+            assertThat(thread.isDaemon()).isTrue();
+            assertThat(thread.getName()).startsWith("rabbitmq-jms-scheduler-");
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    @Test
+    void handedOffTasksRunOnWorkerThreads() throws Exception {
+        CompletableFuture<Thread> executed = new CompletableFuture<>();
+        ClientScheduler.schedule(() -> ClientScheduler.execute(() -> executed.complete(Thread.currentThread())),
+            0, TimeUnit.MILLISECONDS);
+        Thread thread = executed.get(5, TimeUnit.SECONDS);
+        assertThat(thread.isDaemon()).isTrue();
+        assertThat(thread.getName()).startsWith("rabbitmq-jms-worker-");
+    }
+}
@@ -0,0 +1,128 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.jupiter.api.Test;
+
+public class CompressionCodecsTest {
+
+    private static byte[] body(int size) {
+        byte[] data = new byte[size];
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            // compressible, but not trivially
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    @Test
+    void roundTrip() throws Exception {
+        for (CompressionCodec codec : Arrays.asList(CompressionCodecs.DEFLATE, CompressionCodecs.GZIP)) {
+            for (int size : new int[] {0, 1, 100, 10_000, 2 * EncodeBufferPool.MAX_POOLED_SIZE}) {
+                byte[] data = body(size);
+                byte[] compressed = codec.compress(data);
+                if (size >= 100) {
+                    assertThat(compressed.length).isLessThan(size);
+                }
+                assertThat(codec.decompress(compressed)).isEqualTo(data);
+            }
+        }
+    }
+
+    @Test
+    void gzipInteroperatesWithJavaUtilZip() throws Exception {
+        byte[] data = body(5_000);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(CompressionCodecs.GZIP.compress(data)))) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bout)) {
+            out.write(data);
+        }
+        assertThat(CompressionCodecs.GZIP.decompress(bout.toByteArray())).isEqualTo(data);
+    }
+
+    @Test
+    void invalidCompressedBodiesAreRejected() throws Exception {
+        byte[] compressed = CompressionCodecs.GZIP.compress(body(1_000));
+        assertThatThrownBy(() -> CompressionCodecs.GZIP.decompress("not compressed".getBytes(StandardCharsets.UTF_8)))
+            .isInstanceOf(ZipException.class);
+        assertThatThrownBy(() -> CompressionCodecs.GZIP.decompress(Arrays.copyOf(compressed, compressed.length - 4)))
+            .isInstanceOf(ZipException.class);
+        compressed[compressed.length - 8] ^= 1;
+        assertThatThrownBy(() -> CompressionCodecs.GZIP.decompress(compressed)).isInstanceOf(ZipException.class);
+        assertThatThrownBy(() -> CompressionCodecs.DEFLATE.decompress(new byte[] {1, 2, 3}))
+            .isInstanceOf(ZipException.class);
+    }
+
+    @Test
+    void decompressionStopsAtMaximumSize() throws Exception {
+        for (CompressionCodec codec : Arrays.asList(CompressionCodecs.DEFLATE, CompressionCodecs.GZIP)) {
+            // a few kilobytes that decompress to 16 MiB
+            byte[] bomb = codec.compress(new byte[16 * 1024 * 1024]);
+            assertThat(bomb.length).isLessThan(64 * 1024);
+            assertThatThrownBy(() -> codec.decompress(bomb, 1024 * 1024))
+                .isInstanceOf(ZipException.class)
+                .hasMessageContaining("larger than 1048576 bytes");
+
+            byte[] data = body(10_000);
+            assertThat(codec.decompress(codec.compress(data), data.length)).isEqualTo(data);
+            assertThatThrownBy(() -> codec.decompress(codec.compress(data), data.length - 1))
+                .isInstanceOf(ZipException.class);
+        }
+    }
+
+    @Test
+    void codecsCanBeUsedByMoreThreadsThanPooled() throws Exception {
+        int threads = 2 * CompressionCodecs.POOL_SIZE;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                CompressionCodec codec = t % 2 == 0 ? CompressionCodecs.GZIP : CompressionCodecs.DEFLATE;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        byte[] data = body(1_000 + i);
+                        if (!Arrays.equals(codec.decompress(codec.compress(data)), data)) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void forContentEncoding() {
+        assertThat(CompressionCodecs.forContentEncoding("GZIP")).isSameAs(CompressionCodecs.GZIP);
+        assertThat(CompressionCodecs.forContentEncoding("deflate")).isSameAs(CompressionCodecs.DEFLATE);
+        assertThat(CompressionCodecs.forContentEncoding("br")).isNull();
+        assertThat(CompressionCodecs.forContentEncoding(null)).isNull();
+    }
+}
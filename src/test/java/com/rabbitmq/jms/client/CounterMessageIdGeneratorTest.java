@@ -0,0 +1,73 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class CounterMessageIdGeneratorTest {
+
+    @Test
+    void idsArePrefixAndHexadecimalCounter() {
+        CounterMessageIdGenerator generator = new CounterMessageIdGenerator();
+        String first = generator.generateId();
+        String prefix = first.substring(0, first.indexOf(':') + 1);
+        assertThat(first).isEqualTo(prefix + "1");
+        for (int i = 2; i < 300; i++) {
+            assertThat(generator.generateId()).isEqualTo(prefix + Integer.toHexString(i));
+        }
+        assertThat(new CounterMessageIdGenerator().generateId()).doesNotStartWith(prefix);
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        CounterMessageIdGenerator generator = new CounterMessageIdGenerator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8, idsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < idsPerThread; j++) {
+                        ids.add(generator.generateId());
+                    }
+                    latch.countDown();
+                });
+            }
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(ids).hasSize(threads * idsPerThread);
+    }
+
+    @Test
+    void deserializedGeneratorHasItsOwnPrefix() throws Exception {
+        CounterMessageIdGenerator generator = new CounterMessageIdGenerator();
+        String id = generator.generateId();
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bout)) {
+            out.writeObject(generator);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            MessageIdGenerator copy = (MessageIdGenerator) in.readObject();
+            assertThat(copy.generateId()).doesNotStartWith(id.substring(0, id.indexOf(':')));
+        }
+    }
+}
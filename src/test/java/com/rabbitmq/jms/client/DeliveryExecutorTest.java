@@ -0,0 +1,103 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import com.rabbitmq.jms.client.message.RMQTextMessage;
+import com.rabbitmq.jms.util.RMQJMSException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DeliveryExecutorTest {
+
+    @Test
+    void directDeliveryRunsOnCallingThread() throws Exception {
+        DeliveryExecutor executor = new DeliveryExecutor(1000, true, true, null);
+        AtomicReference<Thread> listenerThread = new AtomicReference<>();
+        try {
+            executor.deliverMessageWithProtection(new RMQTextMessage(), message -> listenerThread.set(Thread.currentThread()));
+        } finally {
+            executor.close();
+        }
+        assertThat(listenerThread.get()).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void directDeliveryTimeoutInterruptsListenerAndThrowsForRequeue() {
+        DeliveryExecutor executor = new DeliveryExecutor(50, false, true, null);
+        try {
+            assertThatThrownBy(() -> executor.deliverMessageWithProtection(new RMQTextMessage(), message -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    // interrupted by the watchdog
+                }
+            })).isInstanceOf(DeliveryExecutor.DeliveryProcessingTimeoutException.class);
+        } finally {
+            executor.close();
+        }
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void directDeliveryTimeoutThrowsWhenClosingOnTimeout() {
+        DeliveryExecutor executor = new DeliveryExecutor(50, true, true, null);
+        try {
+            assertThatThrownBy(() -> executor.deliverMessageWithProtection(new RMQTextMessage(), message -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    // interrupted by the watchdog
+                }
+            })).isInstanceOf(RMQJMSException.class);
+        } finally {
+            executor.close();
+        }
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void directDeliveryWrapsListenerException() {
+        DeliveryExecutor executor = new DeliveryExecutor(1000, false, true, null);
+        IllegalStateException failure = new IllegalStateException();
+        try {
+            assertThatThrownBy(() -> executor.deliverMessageWithProtection(new RMQTextMessage(), message -> {
+                throw failure;
+            })).isInstanceOf(RMQMessageListenerExecutionJMSException.class).hasCause(failure);
+        } finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    void executorDeliveryRunsOnAnotherThread() throws Exception {
+        DeliveryExecutor executor = new DeliveryExecutor(1000, true);
+        AtomicReference<Thread> listenerThread = new AtomicReference<>();
+        try {
+            executor.deliverMessageWithProtection(new RMQTextMessage(), message -> listenerThread.set(Thread.currentThread()));
+        } finally {
+            executor.close();
+        }
+        assertThat(listenerThread.get()).isNotNull().isNotSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void executorDeliveryUsesThreadFactory() throws Exception {
+        ThreadFactory threadFactory = runnable -> new Thread(runnable, "custom-delivery-thread");
+        DeliveryExecutor executor = new DeliveryExecutor(1000, true, false, threadFactory);
+        AtomicReference<Thread> listenerThread = new AtomicReference<>();
+        try {
+            executor.deliverMessageWithProtection(new RMQTextMessage(), message -> listenerThread.set(Thread.currentThread()));
+        } finally {
+            executor.close();
+        }
+        assertThat(listenerThread.get().getName()).isEqualTo("custom-delivery-thread");
+    }
+}
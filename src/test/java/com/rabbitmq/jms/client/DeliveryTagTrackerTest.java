@@ -0,0 +1,93 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeliveryTagTrackerTest {
+
+    @Test
+    void addRemoveAndLookUp() {
+        DeliveryTagTracker tracker = new DeliveryTagTracker();
+        assertThat(tracker.isEmpty()).isTrue();
+        assertThat(tracker.first()).isEqualTo(DeliveryTagTracker.NONE);
+        assertThat(tracker.last()).isEqualTo(DeliveryTagTracker.NONE);
+
+        assertThat(tracker.add(1)).isTrue();
+        assertThat(tracker.add(64)).isTrue();
+        assertThat(tracker.add(1000)).isTrue();
+        assertThat(tracker.add(64)).isFalse();
+        assertThat(tracker.size()).isEqualTo(3);
+        assertThat(tracker.first()).isEqualTo(1);
+        assertThat(tracker.last()).isEqualTo(1000);
+        assertThat(tracker.lastUpTo(999)).isEqualTo(64);
+        assertThat(tracker.firstFrom(65)).isEqualTo(1000);
+        assertThat(tracker.firstFrom(1001)).isEqualTo(DeliveryTagTracker.NONE);
+
+        assertThat(tracker.remove(1)).isTrue();
+        assertThat(tracker.remove(1)).isFalse();
+        assertThat(tracker.contains(1)).isFalse();
+        assertThat(tracker.first()).isEqualTo(64);
+        assertThat(tracker.removeUpTo(999)).isEqualTo(1);
+        assertThat(tracker.first()).isEqualTo(1000);
+        tracker.clear();
+        assertThat(tracker.isEmpty()).isTrue();
+        assertThat(tracker.contains(1000)).isFalse();
+    }
+
+    @Test
+    void tagsAddedBelowTheWindowAreTracked() {
+        DeliveryTagTracker tracker = new DeliveryTagTracker();
+        tracker.add(10_000);
+        tracker.add(3);
+        assertThat(tracker.first()).isEqualTo(3);
+        assertThat(tracker.last()).isEqualTo(10_000);
+        assertThat(tracker.contains(3)).isTrue();
+        assertThat(tracker.contains(10_000)).isTrue();
+    }
+
+    @Test
+    void behavesLikeASortedSet() {
+        Random random = new Random(42);
+        DeliveryTagTracker tracker = new DeliveryTagTracker();
+        TreeSet<Long> expected = new TreeSet<>();
+        long nextTag = 1;
+        for (int i = 0; i < 200_000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 6) {
+                long tag = nextTag + random.nextInt(3);
+                nextTag = tag + 1;
+                assertThat(tracker.add(tag)).isEqualTo(expected.add(tag));
+            } else if (operation < 8 && !expected.isEmpty()) {
+                long tag = expected.first() + random.nextInt(200);
+                assertThat(tracker.remove(tag)).isEqualTo(expected.remove(tag));
+            } else if (operation < 9 && !expected.isEmpty()) {
+                long tag = expected.first() + random.nextInt(100);
+                int removed = expected.headSet(tag, true).size();
+                expected.headSet(tag, true).clear();
+                assertThat(tracker.removeUpTo(tag)).isEqualTo(removed);
+            } else if (random.nextInt(100) == 0) {
+                tracker.clear();
+                expected.clear();
+            }
+            assertThat(tracker.size()).isEqualTo(expected.size());
+            assertThat(tracker.first()).isEqualTo(expected.isEmpty() ? DeliveryTagTracker.NONE : expected.first());
+            assertThat(tracker.last()).isEqualTo(expected.isEmpty() ? DeliveryTagTracker.NONE : expected.last());
+        }
+        List<Long> tags = new ArrayList<>();
+        for (long tag = tracker.first(); tag != DeliveryTagTracker.NONE; tag = tracker.firstFrom(tag + 1)) {
+            tags.add(tag);
+        }
+        assertThat(tags).containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,105 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.Test;
+
+import com.rabbitmq.jms.client.message.RMQTextMessage;
+import com.rabbitmq.jms.util.RMQByteArrayOutputStream;
+
+public class EncodeBufferPoolTest {
+
+    @Test
+    public void sizeClassesArePowersOfTwo() {
+        assertThat(EncodeBufferPool.sizeClass(1)).isEqualTo(EncodeBufferPool.MIN_SIZE);
+        assertThat(EncodeBufferPool.sizeClass(EncodeBufferPool.MIN_SIZE + 1)).isEqualTo(EncodeBufferPool.MIN_SIZE * 2);
+        assertThat(EncodeBufferPool.sizeClass(4096)).isEqualTo(4096);
+        assertThat(EncodeBufferPool.sizeClass(EncodeBufferPool.MAX_POOLED_SIZE + 1)).isEqualTo(EncodeBufferPool.MAX_POOLED_SIZE + 1);
+    }
+
+    @Test
+    public void arrayIsReused() {
+        EncodeBufferPool pool = new EncodeBufferPool();
+        byte[] buf = pool.acquire();
+        pool.release(buf, 100);
+        assertThat(pool.acquire()).isSameAs(buf);
+        // not given back yet
+        assertThat(pool.acquire()).isNotSameAs(buf);
+    }
+
+    @Test
+    public void sizeFollowsRecentMessages() {
+        EncodeBufferPool pool = new EncodeBufferPool();
+        for (int i = 0; i < 50; i++) {
+            byte[] buf = pool.acquire();
+            pool.release(buf.length < 20_000 ? new byte[32 * 1024] : buf, 20_000);
+        }
+        byte[] large = pool.acquire();
+        assertThat(large.length).isEqualTo(32 * 1024);
+
+        pool.release(large, 100);
+        for (int i = 0; i < 50; i++) {
+            pool.release(pool.acquire(), 100);
+        }
+        assertThat(pool.acquire().length).isEqualTo(EncodeBufferPool.MIN_SIZE);
+    }
+
+    @Test
+    public void arrayIsSharedByThreadsUnderLock() throws Exception {
+        ReentrantLock publishingLock = new ReentrantLock();
+        EncodeBufferPool pool = new EncodeBufferPool(publishingLock);
+        byte[] buf = pool.acquire();
+        Thread thread = new Thread(() -> pool.release(buf, 100));
+        thread.start();
+        thread.join();
+        assertThat(pool.acquire()).isSameAs(buf);
+
+        // the pool waits for the publishing lock
+        publishingLock.lock();
+        try {
+            CompletableFuture<byte[]> acquired = CompletableFuture.supplyAsync(pool::acquire);
+            assertThatThrownBy(() -> acquired.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            publishingLock.unlock();
+            assertThat(acquired.get(10, TimeUnit.SECONDS)).isNotNull();
+        } finally {
+            if (publishingLock.isHeldByCurrentThread()) {
+                publishingLock.unlock();
+            }
+        }
+    }
+
+    @Test
+    public void arraysLargerThanMaximumAreNotKept() {
+        EncodeBufferPool pool = new EncodeBufferPool();
+        byte[] huge = new byte[EncodeBufferPool.MAX_POOLED_SIZE + 1];
+        pool.release(huge, huge.length);
+        assertThat(pool.acquire()).isNotSameAs(huge);
+    }
+
+    @Test
+    public void encodingDoesNotDependOnPooledArrayContent() throws Exception {
+        RMQTextMessage message = new RMQTextMessage();
+        message.setText("héllo 世界 🐇 \ud800 end");
+        EncodeBufferPool pool = new EncodeBufferPool();
+        byte[] first = ((RMQMessage) message).toAmqpByteArray(pool);
+        byte[] second = ((RMQMessage) message).toAmqpByteArray(pool);
+        assertThat(first).isEqualTo(message.getText().getBytes(StandardCharsets.UTF_8)).isEqualTo(second);
+
+        RMQByteArrayOutputStream out = new RMQByteArrayOutputStream(new byte[2]);
+        out.write(1);
+        out.writeUTF8("àb");
+        assertThat(out.toByteArray()).containsExactly(1, 0xC3 - 256, 0xA0 - 256, 'b');
+    }
+}
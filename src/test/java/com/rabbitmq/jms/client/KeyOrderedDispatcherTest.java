@@ -0,0 +1,121 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import com.rabbitmq.jms.client.message.RMQTextMessage;
+import com.rabbitmq.jms.util.TimeTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeyOrderedDispatcherTest {
+
+    KeyOrderedDispatcher dispatcher;
+
+    @BeforeEach
+    void init() {
+        dispatcher = new KeyOrderedDispatcher(4, KeyOrderedDispatcher.DEFAULT_DISPATCH_KEY, 10_000, true, false, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+    }
+
+    @Test
+    void messagesWithSameKeyAreDeliveredInOrder() throws Exception {
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        for (long dtag = 1; dtag <= 100; dtag++) {
+            long tag = dtag;
+            dispatcher.dispatch(message("group-1"), tag, deliveryExecutor -> delivered.add(tag));
+        }
+        assertThat(dispatcher.awaitIdle(new TimeTracker(10, TimeUnit.SECONDS))).isTrue();
+        assertThat(delivered).hasSize(100).isSorted();
+    }
+
+    @Test
+    void messagesWithDifferentKeysAreDeliveredConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        AtomicInteger completed = new AtomicInteger();
+        // find two keys on different lanes: with 4 lanes, "a" to "z" cannot all hash to the same lane
+        String first = "a";
+        dispatcher.dispatch(message(first), 1, deliveryExecutor -> {
+            bothStarted.countDown();
+            if (bothStarted.await(5, TimeUnit.SECONDS)) completed.incrementAndGet();
+        });
+        long dtag = 2;
+        for (char c = 'b'; c <= 'z' && bothStarted.getCount() > 0; c++) {
+            dispatcher.dispatch(message(String.valueOf(c)), dtag++, deliveryExecutor -> {
+                bothStarted.countDown();
+                if (bothStarted.await(5, TimeUnit.SECONDS)) completed.incrementAndGet();
+            });
+            Thread.sleep(10);
+        }
+        assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(dispatcher.awaitIdle(new TimeTracker(10, TimeUnit.SECONDS))).isTrue();
+        assertThat(completed.get()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void lowestPendingTagTracksMessagesNotSettledYet() throws Exception {
+        assertThat(dispatcher.lowestPendingTag()).isEqualTo(Long.MAX_VALUE);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.dispatch(message("group-1"), 3, deliveryExecutor -> release.await(5, TimeUnit.SECONDS));
+        dispatcher.dispatch(message("group-1"), 4, deliveryExecutor -> { });
+        assertThat(dispatcher.lowestPendingTag()).isEqualTo(3);
+        release.countDown();
+        assertThat(dispatcher.awaitIdle(new TimeTracker(10, TimeUnit.SECONDS))).isTrue();
+        assertThat(dispatcher.lowestPendingTag()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void discardedMessagesAreNotDelivered() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        dispatcher.dispatch(message("group-1"), 1, deliveryExecutor -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            delivered.add(1L);
+        });
+        dispatcher.dispatch(message("group-1"), 2, deliveryExecutor -> delivered.add(2L));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.discardPending();
+        dispatcher.dispatch(message("group-1"), 3, deliveryExecutor -> delivered.add(3L));
+        release.countDown();
+        assertThat(dispatcher.awaitIdle(new TimeTracker(10, TimeUnit.SECONDS))).isTrue();
+        assertThat(delivered).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void correlationIdCanBeTheDispatchKey() throws Exception {
+        dispatcher.close();
+        dispatcher = new KeyOrderedDispatcher(4, "JMSCorrelationID", 10_000, true, false, null);
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        for (long dtag = 1; dtag <= 50; dtag++) {
+            long tag = dtag;
+            RMQTextMessage message = new RMQTextMessage();
+            message.setJMSCorrelationID("correlation-1");
+            dispatcher.dispatch(message, tag, deliveryExecutor -> delivered.add(tag));
+        }
+        assertThat(dispatcher.awaitIdle(new TimeTracker(10, TimeUnit.SECONDS))).isTrue();
+        assertThat(delivered).hasSize(50).isSorted();
+    }
+
+    private static RMQMessage message(String groupId) throws Exception {
+        RMQTextMessage message = new RMQTextMessage();
+        message.setStringProperty("JMSXGroupID", groupId);
+        return message;
+    }
+}
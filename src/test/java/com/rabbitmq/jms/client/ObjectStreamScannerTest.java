@@ -0,0 +1,84 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ObjectStreamScannerTest {
+
+    @Test
+    void readsPrimitivesAcrossBlockDataRecords() throws Exception {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            longString.append("é").append(i);
+        }
+        List<Object> values = Arrays.asList(null, true, (byte) 7, (short) -2, 42, Long.MIN_VALUE, 1.5f, 2.5d,
+            "ascii", longString.toString(), 'x', new byte[] {1, 2, 3});
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bout);
+        for (int i = 0; i < 200; i++) {
+            out.writeUTF("name" + i);
+            RMQMessage.writePrimitive(values.get(i % values.size()), out);
+        }
+        out.flush();
+
+        ObjectStreamScanner scanner = new ObjectStreamScanner(bout.toByteArray());
+        List<Object> read = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            if (i % 2 == 0) {
+                assertThat(scanner.readUTF()).isEqualTo("name" + i);
+                read.add(scanner.readPrimitive());
+            } else {
+                assertThat(scanner.utfEquals("name" + i)).isTrue();
+                scanner.skipPrimitive();
+            }
+        }
+        for (int i = 0; i < read.size(); i++) {
+            assertThat(read.get(i)).isEqualTo(values.get((2 * i) % values.size()));
+        }
+    }
+
+    @Test
+    void utfEqualsComparesWholeString() throws Exception {
+        ObjectStreamScanner scanner = scanner("name", "other", "námé");
+        assertThat(scanner.utfEquals("nam")).isFalse();
+        assertThat(scanner.utfEquals("otherer")).isFalse();
+        assertThat(scanner.utfEquals("námé")).isTrue();
+    }
+
+    @Test
+    void serializedObjectsCannotBeScanned() throws Exception {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bout);
+        RMQMessage.writePrimitive(new ArrayList<>(), out, true);
+        out.writeInt(1);
+        out.flush();
+        ObjectStreamScanner scanner = new ObjectStreamScanner(bout.toByteArray());
+        assertThatThrownBy(scanner::skipPrimitive).isInstanceOf(ObjectStreamScanner.NotScannableException.class);
+        assertThatThrownBy(() -> new ObjectStreamScanner(new byte[] {1, 2, 3, 4}))
+            .isInstanceOf(ObjectStreamScanner.NotScannableException.class);
+    }
+
+    private static ObjectStreamScanner scanner(String... strings) throws IOException, ObjectStreamScanner.NotScannableException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bout);
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+        out.flush();
+        return new ObjectStreamScanner(bout.toByteArray());
+    }
+}
@@ -0,0 +1,145 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import com.rabbitmq.jms.util.TimeTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PrefetchingReceiverTest {
+
+    RMQMessageConsumer messageConsumer;
+    RMQSession session;
+    Channel channel;
+    AtomicReference<String> consumerTag;
+
+    @BeforeEach
+    void init() throws Exception {
+        messageConsumer = mock(RMQMessageConsumer.class);
+        session = mock(RMQSession.class);
+        channel = mock(Channel.class);
+        when(messageConsumer.getSession()).thenReturn(session);
+        when(session.getChannel()).thenReturn(channel);
+        consumerTag = new AtomicReference<>();
+        doAnswer(invocation -> {
+            consumerTag.set(invocation.getArgument(1));
+            return null;
+        }).when(messageConsumer).basicConsume(any(), anyString(), eq(10));
+    }
+
+    @Test
+    void subscribesOnFirstGetAndDrainsBuffer() throws Exception {
+        PrefetchingReceiver receiver = new PrefetchingReceiver(10, messageConsumer, false);
+        assertThat(receiver.get(TimeTracker.ZERO)).isNull();
+        verify(messageConsumer, times(1)).basicConsume(receiver, consumerTag.get(), 10);
+
+        receiver.handleDelivery(consumerTag.get(), envelope(1), props(), new byte[0]);
+        receiver.handleDelivery(consumerTag.get(), envelope(2), props(), new byte[0]);
+
+        assertThat(receiver.get(TimeTracker.ZERO).getEnvelope().getDeliveryTag()).isEqualTo(1);
+        assertThat(receiver.get(TimeTracker.ZERO).getEnvelope().getDeliveryTag()).isEqualTo(2);
+        assertThat(receiver.get(TimeTracker.ZERO)).isNull();
+        verify(messageConsumer, times(1)).basicConsume(any(), anyString(), eq(10));
+    }
+
+    @Test
+    void waitingGetReturnsPushedMessage() throws Exception {
+        PrefetchingReceiver receiver = new PrefetchingReceiver(10, messageConsumer, false);
+        receiver.get(TimeTracker.ZERO);
+        AtomicReference<GetResponse> received = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        new Thread(() -> {
+            received.set(receiver.get(new TimeTracker(10, TimeUnit.SECONDS)));
+            latch.countDown();
+        }).start();
+        receiver.handleDelivery(consumerTag.get(), envelope(1), props(), new byte[0]);
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received.get().getEnvelope().getDeliveryTag()).isEqualTo(1);
+    }
+
+    @Test
+    void stopCancelsAndRequeuesBufferedMessagesThenStartSubscribesAgain() throws Exception {
+        PrefetchingReceiver receiver = new PrefetchingReceiver(10, messageConsumer, false);
+        receiver.get(TimeTracker.ZERO);
+        String firstTag = consumerTag.get();
+        receiver.handleDelivery(firstTag, envelope(1), props(), new byte[0]);
+        receiver.handleDelivery(firstTag, envelope(2), props(), new byte[0]);
+
+        receiver.stop();
+        verify(channel).basicCancel(firstTag);
+        verify(session).explicitNack(1);
+        verify(session).explicitNack(2);
+
+        // in flight when the subscription was cancelled
+        receiver.handleDelivery(firstTag, envelope(3), props(), new byte[0]);
+        verify(session).explicitNack(3);
+        assertThat(receiver.get(TimeTracker.ZERO)).isNull();
+
+        receiver.start();
+        verify(messageConsumer, times(2)).basicConsume(any(), anyString(), eq(10));
+        assertThat(consumerTag.get()).isNotEqualTo(firstTag);
+    }
+
+    @Test
+    void doesNotSubscribeWhileStopped() throws Exception {
+        PrefetchingReceiver receiver = new PrefetchingReceiver(10, messageConsumer, true);
+        assertThat(receiver.get(TimeTracker.ZERO)).isNull();
+        verify(messageConsumer, never()).basicConsume(any(), anyString(), eq(10));
+        receiver.start();
+        verify(messageConsumer, times(1)).basicConsume(any(), anyString(), eq(10));
+    }
+
+    @Test
+    void discardedMessagesAreNotRequeued() throws Exception {
+        PrefetchingReceiver receiver = new PrefetchingReceiver(10, messageConsumer, false);
+        receiver.get(TimeTracker.ZERO);
+        receiver.handleDelivery(consumerTag.get(), envelope(1), props(), new byte[0]);
+        receiver.discardBuffered();
+        receiver.release();
+        verify(session, never()).explicitNack(1);
+        assertThat(receiver.get(TimeTracker.ZERO)).isNull();
+    }
+
+    @Test
+    void abortReleasesWaitingGet() throws Exception {
+        PrefetchingReceiver receiver = new PrefetchingReceiver(10, messageConsumer, false);
+        CountDownLatch latch = new CountDownLatch(1);
+        new Thread(() -> {
+            receiver.get(new TimeTracker());
+            latch.countDown();
+        }).start();
+        Thread.sleep(100);
+        receiver.abort();
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static Envelope envelope(long deliveryTag) {
+        return new Envelope(deliveryTag, false, "", "queue");
+    }
+
+    private static AMQP.BasicProperties props() {
+        return new AMQP.BasicProperties.Builder().build();
+    }
+}
@@ -0,0 +1,181 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.jms.CompletionListener;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.ResourceAllocationException;
+
+import org.junit.jupiter.api.Test;
+
+public class PublisherConfirmTrackerTest {
+
+    final Map<Message, Long> messages = new ConcurrentHashMap<>();
+    final List<Long> acked = Collections.synchronizedList(new ArrayList<>());
+    final List<Long> nacked = Collections.synchronizedList(new ArrayList<>());
+    final CompletionListener listener = new CompletionListener() {
+        @Override
+        public void onCompletion(Message message) {
+            acked.add(messages.get(message));
+        }
+
+        @Override
+        public void onException(Message message, Exception exception) {
+            nacked.add(messages.get(message));
+        }
+    };
+
+    void register(PublisherConfirmTracker tracker, long sequenceNumber) throws JMSException {
+        Message message = mock(Message.class);
+        this.messages.put(message, sequenceNumber);
+        tracker.register(message, this.listener, sequenceNumber);
+    }
+
+    @Test
+    void settleSingleAndMultipleConfirmsOverGrowingRing() throws Exception {
+        PublisherConfirmTracker tracker = new PublisherConfirmTracker(0, 0);
+        for (long i = 1; i <= 1000; i++) {
+            register(tracker, i);
+        }
+        tracker.settle(2, false, true);
+        tracker.settle(500, false, false);
+        tracker.settle(400, true, true);
+        assertThat(acked).hasSize(400).doesNotHaveDuplicates().contains(1L, 2L, 400L);
+        assertThat(nacked).containsExactly(500L);
+        assertThat(tracker.outstanding()).isEqualTo(599);
+
+        // already settled, ignored
+        tracker.settle(2, false, true);
+        tracker.settle(400, true, true);
+        assertThat(acked).hasSize(400);
+
+        tracker.settle(1000, true, false);
+        assertThat(nacked).hasSize(600).doesNotHaveDuplicates().contains(401L, 1000L);
+        assertThat(tracker.outstanding()).isZero();
+    }
+
+    @Test
+    void messagesWithoutListenerAreCountedOnly() throws Exception {
+        PublisherConfirmTracker tracker = new PublisherConfirmTracker(0, 0);
+        tracker.register(mock(Message.class), null, 1);
+        register(tracker, 2);
+        tracker.settle(1, false, true);
+        assertThat(tracker.outstanding()).isEqualTo(1);
+        tracker.settle(2, true, true);
+        assertThat(acked).containsExactly(2L);
+        assertThat(tracker.outstanding()).isZero();
+    }
+
+    @Test
+    void publishingFailsWhenMaximumIsReached() throws Exception {
+        PublisherConfirmTracker tracker = new PublisherConfirmTracker(2, 0);
+        register(tracker, 1);
+        register(tracker, 2);
+        assertThatThrownBy(() -> register(tracker, 3)).isInstanceOf(ResourceAllocationException.class);
+        tracker.settle(1, false, true);
+        register(tracker, 3);
+        assertThat(tracker.outstanding()).isEqualTo(2);
+    }
+
+    @Test
+    void publishingWaitsForConfirmsWhenMaximumIsReached() throws Exception {
+        PublisherConfirmTracker tracker = new PublisherConfirmTracker(1, 10_000);
+        register(tracker, 1);
+        CompletableFuture<Void> publishing = CompletableFuture.runAsync(() -> {
+            try {
+                register(tracker, 2);
+            } catch (JMSException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(publishing).isNotDone();
+        tracker.settle(1, false, true);
+        publishing.get(5, TimeUnit.SECONDS);
+        assertThat(tracker.outstanding()).isEqualTo(1);
+    }
+
+    @Test
+    void publishingFromCompletionListenerFailsInsteadOfWaiting() throws Exception {
+        PublisherConfirmTracker tracker = new PublisherConfirmTracker(2, TimeUnit.MINUTES.toMillis(1));
+        List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+        CompletionListener publishing = new CompletionListener() {
+            @Override
+            public void onCompletion(Message message) {
+                try {
+                    // takes the room freed by the confirm
+                    tracker.register(mock(Message.class), null, 3);
+                    // the window is full, the confirms to wait for would come on this thread
+                    tracker.register(mock(Message.class), null, 4);
+                } catch (JMSException e) {
+                    failures.add(e);
+                }
+            }
+
+            @Override
+            public void onException(Message message, Exception exception) {
+            }
+        };
+        tracker.register(mock(Message.class), publishing, 1);
+        tracker.register(mock(Message.class), null, 2);
+
+        long start = System.nanoTime();
+        tracker.settle(1, false, true);
+
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(10));
+        assertThat(failures).hasSize(1).first().isInstanceOf(ResourceAllocationException.class);
+        assertThat(tracker.outstanding()).isEqualTo(2);
+        // other threads still wait for room
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                register(tracker, 4);
+            } catch (JMSException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        tracker.settle(2, false, true);
+        waiting.get(10, TimeUnit.SECONDS);
+        assertThat(tracker.outstanding()).isEqualTo(2);
+    }
+
+    @Test
+    void failAllNotifiesOutstandingMessages() throws Exception {
+        PublisherConfirmTracker tracker = new PublisherConfirmTracker(0, 0);
+        for (long i = 1; i <= 3; i++) {
+            register(tracker, i);
+        }
+        tracker.settle(2, false, true);
+        tracker.failAll(new JMSException("channel closed"));
+        assertThat(nacked).containsExactly(1L, 3L);
+        assertThat(tracker.outstanding()).isZero();
+        // a new channel numbers messages from 1 again
+        register(tracker, 1);
+        tracker.settle(1, false, true);
+        assertThat(acked).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void messagesPublishedWithoutConfirmModeAreIgnored() throws Exception {
+        PublisherConfirmTracker tracker = new PublisherConfirmTracker(1, 0);
+        for (int i = 0; i < 3; i++) {
+            register(tracker, 0);
+        }
+        assertThat(tracker.outstanding()).isZero();
+    }
+}
@@ -0,0 +1,77 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.LongString;
+import com.rabbitmq.client.impl.LongStringHelper;
+import jakarta.jms.InvalidSelectorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class QueueSelectorTest {
+
+    private static final Envelope ENVELOPE = new Envelope(1L, false, "", "queue");
+    private static final SelectorCache SELECTOR_CACHE = new SelectorCache(SelectorCache.DEFAULT_MAXIMUM_SIZE);
+
+    @Test
+    void matchesOnAmqpHeaders() throws Exception {
+        QueueSelector selector = QueueSelector.create(SELECTOR_CACHE, "region = 'emea' AND amount > 100 AND JMSPriority >= 5",
+            QueueSelectorPolicy.REQUEUE);
+        Map<String, Object> headers = new HashMap<>();
+        // strings are delivered as long strings
+        LongString region = LongStringHelper.asLongString("emea");
+        headers.put("region", region);
+        headers.put("amount", 150L);
+        headers.put("JMSPriority", 7);
+
+        assertThat(selector.matches(ENVELOPE, properties(headers, null), false)).isTrue();
+        headers.put("amount", 50L);
+        assertThat(selector.matches(ENVELOPE, properties(headers, null), false)).isFalse();
+        headers.remove("amount");
+        assertThat(selector.matches(ENVELOPE, properties(headers, null), false)).isFalse();
+    }
+
+    @Test
+    void jmsHeadersComeFromAmqpPropertiesWithoutHeaders() throws Exception {
+        QueueSelector selector = QueueSelector.create(SELECTOR_CACHE,
+            "JMSPriority = 9 AND JMSDeliveryMode = 'PERSISTENT' AND JMSCorrelationID = 'abc'", QueueSelectorPolicy.REQUEUE);
+
+        assertThat(selector.matches(ENVELOPE, new AMQP.BasicProperties.Builder()
+            .priority(9).deliveryMode(2).correlationId("abc").build(), false)).isTrue();
+        assertThat(selector.matches(ENVELOPE, new AMQP.BasicProperties.Builder()
+            .priority(9).deliveryMode(1).correlationId("abc").build(), false)).isFalse();
+        // the headers of messages sent by the JMS client take precedence
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("JMSPriority", 4);
+        assertThat(selector.matches(ENVELOPE, properties(headers, "abc"), false)).isFalse();
+    }
+
+    @Test
+    void emptySelectorIsNoSelector() throws Exception {
+        assertThat(QueueSelector.create(SELECTOR_CACHE, null, QueueSelectorPolicy.REQUEUE)).isNull();
+        assertThat(QueueSelector.create(SELECTOR_CACHE, " ", QueueSelectorPolicy.REQUEUE)).isNull();
+    }
+
+    @Test
+    void invalidSelectorIsRejected() {
+        assertThatThrownBy(() -> QueueSelector.create(SELECTOR_CACHE, "region = ", QueueSelectorPolicy.REQUEUE))
+            .isInstanceOf(InvalidSelectorException.class);
+        assertThatThrownBy(() -> QueueSelector.create(SELECTOR_CACHE, "amount + 1", QueueSelectorPolicy.REQUEUE))
+            .isInstanceOf(InvalidSelectorException.class);
+    }
+
+    private static AMQP.BasicProperties properties(Map<String, Object> headers, String correlationId) {
+        return new AMQP.BasicProperties.Builder().priority(9).deliveryMode(2).correlationId(correlationId)
+            .headers(headers).build();
+    }
+}
@@ -0,0 +1,194 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import com.rabbitmq.client.Channel;
+import jakarta.jms.IllegalStateException;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageListener;
+import jakarta.jms.ServerSession;
+import jakarta.jms.ServerSessionPool;
+import jakarta.jms.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RMQConnectionConsumerTest {
+
+    RMQConnection connection;
+    RMQSession internalSession;
+    Channel internalChannel;
+    MessageConsumer consumer;
+    RMQSession serverRmqSession;
+    ServerSessionPool sessionPool;
+    MessageListener internalListener;
+    List<Message> received;
+    RMQConnectionConsumer connectionConsumer;
+
+    @BeforeEach
+    void init() throws Exception {
+        connection = mock(RMQConnection.class);
+        internalSession = mock(RMQSession.class);
+        when(connection.createSession(false, RMQSession.CLIENT_INDIVIDUAL_ACKNOWLEDGE)).thenReturn(internalSession);
+        when(connection.getChannelsQos()).thenReturn(RMQConnection.NO_CHANNEL_QOS);
+        internalChannel = mock(Channel.class);
+        when(internalSession.getChannel()).thenReturn(internalChannel);
+        when(connection.getTerminationTimeout()).thenReturn(TimeUnit.SECONDS.toMillis(5));
+        doReturn(mock(Channel.class)).when(connection).createRabbitChannel(false);
+        serverRmqSession = new RMQSession(connection, false, 0, Session.AUTO_ACKNOWLEDGE, new Subscriptions(),
+            new DelayedMessageService());
+        ServerSession serverSession = mock(ServerSession.class);
+        when(serverSession.getSession()).thenReturn(serverRmqSession);
+        // the application server runs the session in its own thread
+        doAnswer(invocation -> {
+            serverRmqSession.run();
+            return null;
+        }).when(serverSession).start();
+        sessionPool = mock(ServerSessionPool.class);
+        when(sessionPool.getServerSession()).thenReturn(serverSession);
+        received = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (connectionConsumer != null) {
+            connectionConsumer.close();
+        }
+    }
+
+    @Test
+    void messagesAreDeliveredToServerSessionListenerAndAcknowledged() throws Exception {
+        serverRmqSession.setMessageListener(received::add);
+        start(false);
+        RMQMessage message = message(1);
+        internalListener.onMessage(message);
+        verify(message, timeout(5000)).acknowledge();
+        assertThat(received).containsExactly(message);
+    }
+
+    @Test
+    void listenerExceptionRequeuesMessage() throws Exception {
+        serverRmqSession.setMessageListener(message -> {
+            throw new java.lang.IllegalStateException();
+        });
+        start(true);
+        RMQMessage message = message(1);
+        internalListener.onMessage(message);
+        verify(internalSession, timeout(5000)).requeueMessage(1);
+        verify(message, never()).acknowledge();
+    }
+
+    @Test
+    void prefetchIsBoundedWithoutChannelQos() throws Exception {
+        start(false);
+        verify(internalChannel).basicQos(10 * RMQConnectionConsumer.PREFETCH_BATCHES);
+    }
+
+    @Test
+    void channelQosBoundsPrefetch() throws Exception {
+        when(connection.getChannelsQos()).thenReturn(50);
+        start(false);
+        verify(internalChannel, never()).basicQos(anyInt());
+    }
+
+    @Test
+    void dispatchingFailureStopsConsumerAndRequeuesMessages() throws Exception {
+        CountDownLatch poolCalled = new CountDownLatch(1);
+        CountDownLatch failDispatch = new CountDownLatch(1);
+        when(sessionPool.getServerSession()).thenAnswer(invocation -> {
+            poolCalled.countDown();
+            failDispatch.await(5, TimeUnit.SECONDS);
+            throw new JMSException("no server session");
+        });
+        start(false);
+        internalListener.onMessage(message(1));
+        assertThat(poolCalled.await(5, TimeUnit.SECONDS)).isTrue();
+        // waiting for a server session
+        internalListener.onMessage(message(2));
+        failDispatch.countDown();
+
+        verify(consumer, timeout(5000)).close();
+        verify(internalSession).requeueMessage(1);
+        verify(internalSession).requeueMessage(2);
+        // delivered before the consumer is cancelled
+        internalListener.onMessage(message(3));
+        verify(internalSession).requeueMessage(3);
+    }
+
+    @Test
+    void closeClosesInternalSession() throws Exception {
+        start(false);
+        connectionConsumer.close();
+        verify(internalSession).close();
+        verify(connection).connectionConsumerClosed(connectionConsumer);
+        assertThatThrownBy(() -> connectionConsumer.getServerSessionPool()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void closeDoesNotWaitLongerThanTerminationTimeoutForBlockedDispatcher() throws Exception {
+        when(connection.getTerminationTimeout()).thenReturn(200L);
+        CountDownLatch poolCalled = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        when(sessionPool.getServerSession()).thenAnswer(invocation -> {
+            poolCalled.countDown();
+            // ignores the interrupt
+            while (true) {
+                try {
+                    if (unblock.await(10, TimeUnit.SECONDS)) {
+                        throw new JMSException("no server session");
+                    }
+                } catch (InterruptedException e) {
+                    // keep waiting
+                }
+            }
+        });
+        start(false);
+        internalListener.onMessage(message(1));
+        assertThat(poolCalled.await(5, TimeUnit.SECONDS)).isTrue();
+        try {
+            long start = System.nanoTime();
+            connectionConsumer.close();
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+            verify(internalSession).close();
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    private void start(boolean requeueOnMessageListenerException) throws Exception {
+        consumer = mock(MessageConsumer.class);
+        connectionConsumer = new RMQConnectionConsumer(connection, sessionPool, 10, requeueOnMessageListenerException,
+            null, session -> consumer);
+        ArgumentCaptor<MessageListener> listenerCaptor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(consumer).setMessageListener(listenerCaptor.capture());
+        internalListener = listenerCaptor.getValue();
+    }
+
+    private static RMQMessage message(long deliveryTag) {
+        RMQMessage message = mock(RMQMessage.class);
+        when(message.getRabbitDeliveryTag()).thenReturn(deliveryTag);
+        return message;
+    }
+}
@@ -0,0 +1,132 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import com.rabbitmq.jms.admin.RMQDestination;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RMQMessageConsumerTest {
+
+    RMQSession session;
+    Channel channel;
+
+    @BeforeEach
+    void init() {
+        session = mock(RMQSession.class);
+        channel = mock(Channel.class);
+        RMQConnection connection = mock(RMQConnection.class);
+        when(session.getChannel()).thenReturn(channel);
+        when(session.getConnection()).thenReturn(connection);
+        when(connection.getChannelsQos()).thenReturn(RMQConnection.NO_CHANNEL_QOS);
+    }
+
+    @Test
+    void destinationPrefetchIsSetForTheConsumerOnly() throws Exception {
+        RMQDestination destination = new RMQDestination("queue", true, false);
+        destination.setConsumerPrefetch(5);
+        RMQMessageConsumer consumer = consumer(destination);
+        Consumer callback = mock(Consumer.class);
+
+        consumer.basicConsume(callback, "ctag");
+
+        InOrder inOrder = inOrder(channel);
+        inOrder.verify(channel).basicQos(5);
+        inOrder.verify(channel).basicConsume(eq("queue"), eq(false), eq("ctag"), anyBoolean(), eq(false), any(), eq(callback));
+        inOrder.verify(channel).basicQos(0);
+    }
+
+    @Test
+    void connectionPrefetchAppliesWithoutDestinationPrefetch() throws Exception {
+        RMQMessageConsumer consumer = consumer(new RMQDestination("queue", true, false));
+
+        consumer.basicConsume(mock(Consumer.class), "ctag");
+
+        verify(channel, never()).basicQos(anyInt());
+        verify(channel).basicConsume(eq("queue"), eq(false), anyString(), anyBoolean(), eq(false), any(), any(Consumer.class));
+    }
+
+    @Test
+    void messagesNotSelectedAreDisposedOf() throws Exception {
+        RMQDestination destination = new RMQDestination("queue", true, false);
+        RMQMessageConsumer consumer = new RMQMessageConsumer(session, destination, "uuid", false, "region = 'emea'", false,
+            ReceivingContextConsumer.NO_OP, false, 0, QueueSelector.create(new SelectorCache(0), "region = 'emea'", QueueSelectorPolicy.DEAD_LETTER));
+        AMQP.BasicProperties selected = new AMQP.BasicProperties.Builder()
+            .headers(Collections.singletonMap("region", "emea")).build();
+        AMQP.BasicProperties notSelected = new AMQP.BasicProperties.Builder()
+            .headers(Collections.singletonMap("region", "apac")).build();
+
+        assertThat(consumer.isSelected(new Envelope(1, false, "", "queue"), selected)).isTrue();
+        assertThat(consumer.isSelected(new Envelope(2, false, "", "queue"), notSelected)).isFalse();
+
+        verify(session).deadLetter(2);
+        verify(session, never()).deadLetter(1);
+        verify(session, never()).unselectedMessageHeld(anyLong());
+    }
+
+    @Test
+    void receiveReturnsWhenOnlyMessagesNotSelectedAreQueued() throws Exception {
+        when(session.syncAllowed()).thenReturn(true);
+        AMQP.BasicProperties notSelected = new AMQP.BasicProperties.Builder()
+            .headers(Collections.singletonMap("region", "apac")).build();
+        AtomicLong deliveryTag = new AtomicLong();
+        when(channel.basicGet("queue", false)).thenAnswer(invocation ->
+            new GetResponse(new Envelope(deliveryTag.incrementAndGet(), false, "", "queue"), notSelected, new byte[0], 1));
+        List<Long> requeued = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            for (long tag : invocation.<long[]> getArgument(0)) {
+                requeued.add(tag);
+            }
+            return null;
+        }).when(session).requeueUnselected(any());
+        RMQMessageConsumer consumer = new RMQMessageConsumer(session, new RMQDestination("queue", true, false), "uuid",
+            false, "region = 'emea'", false, ReceivingContextConsumer.NO_OP, false, 0,
+            QueueSelector.create(new SelectorCache(0), "region = 'emea'", QueueSelectorPolicy.REQUEUE));
+
+        assertThat(consumer.receiveNoWait()).isNull();
+        assertThat(deliveryTag.get()).isEqualTo(SelectorSkipWindow.MAX_HELD);
+        assertThat(consumer.receiveNoWait()).isNull(); // the window is full
+        assertThat(deliveryTag.get()).isEqualTo(SelectorSkipWindow.MAX_HELD);
+
+        assertThat(consumer.receive(300)).isNull();
+        // the held messages are requeued in place, with back-off, they are not published again
+        assertThat(requeued).startsWith(1L, 2L, 3L);
+        assertThat(deliveryTag.get()).isLessThanOrEqualTo(3 * SelectorSkipWindow.MAX_HELD);
+        verify(session, times((int) deliveryTag.get())).unselectedMessageHeld(anyLong());
+        verify(channel, never()).basicPublish(anyString(), anyString(), any(), any());
+    }
+
+    private RMQMessageConsumer consumer(RMQDestination destination) {
+        return new RMQMessageConsumer(session, destination, "uuid", false, null, false,
+            ReceivingContextConsumer.NO_OP, false, 0, null);
+    }
+}
@@ -7,9 +7,11 @@ package com.rabbitmq.jms.client;
 
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
 import com.rabbitmq.jms.admin.RMQDestination;
 import com.rabbitmq.jms.client.message.RMQBytesMessage;
 import com.rabbitmq.jms.client.message.RMQTextMessage;
+import com.rabbitmq.jms.util.WhiteListObjectInputStream;
 import jakarta.jms.CompletionListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,11 +20,17 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import jakarta.jms.DeliveryMode;
+import jakarta.jms.InvalidDestinationException;
 import jakarta.jms.JMSException;
 import jakarta.jms.Message;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -40,6 +48,8 @@ public class RMQMessageProducerTest {
         session = mock(RMQSession.class);
         destination = mock(RMQDestination.class);
         channel = mock(Channel.class);
+        when(session.getPublishingLock()).thenReturn(new ReentrantLock());
+        when(session.getEncodeBufferPool()).thenReturn(new EncodeBufferPool());
     }
 
     @Test public void preferProducerPropertyNoMessagePropertySpecified() throws Exception {
@@ -190,7 +200,7 @@ public class RMQMessageProducerTest {
         try (RMQMessageProducer producer = new RMQMessageProducer(session, destination)) {
             RMQMessage message = mock(RMQMessage.class);
 
-            when(message.toByteArray()).thenReturn("Test message".getBytes());
+            when(message.toByteArray(any())).thenReturn("Test message".getBytes());
             when(message.getJMSCorrelationID()).thenReturn("TESTID");
 
             when(session.getChannel()).thenReturn(channel);
@@ -302,7 +312,7 @@ public class RMQMessageProducerTest {
         try (RMQMessageProducer producer = new RMQMessageProducer(session, destination)) {
             RMQMessage message = mock(RMQMessage.class);
 
-            when(message.toByteArray()).thenReturn("Test message".getBytes());
+            when(message.toByteArray(any())).thenReturn("Test message".getBytes());
             when(message.getJMSCorrelationID()).thenReturn("TESTID");
             when(message.getJMSReplyTo()).thenReturn(new RMQDestination("amq.rabbitmq.reply-to", "", "amq.rabbitmq.reply-to", "amq.rabbitmq.reply-to"));
 
@@ -332,7 +342,7 @@ public class RMQMessageProducerTest {
         try (RMQMessageProducer producer = new RMQMessageProducer(session, destination)) {
             RMQMessage message = mock(RMQMessage.class);
 
-            when(message.toByteArray()).thenReturn("Test message".getBytes());
+            when(message.toByteArray(any())).thenReturn("Test message".getBytes());
             when(message.getJMSCorrelationID()).thenReturn("TESTID");
             when(message.getJMSReplyTo()).thenReturn(new RMQDestination("amq.rabbitmq.reply-to", "", "amq.rabbitmq.reply-to-forwarded-id", "amq.rabbitmq.reply-to"));
 
@@ -362,7 +372,7 @@ public class RMQMessageProducerTest {
         try (RMQMessageProducer producer = new RMQMessageProducer(session, destination)) {
             RMQMessage message = mock(RMQMessage.class);
 
-            when(message.toByteArray()).thenReturn("Test message".getBytes());
+            when(message.toByteArray(any())).thenReturn("Test message".getBytes());
             when(message.getJMSCorrelationID()).thenReturn("TESTID");
             when(message.getJMSReplyTo()).thenReturn(new RMQDestination("other-reply-to", "", "other-reply-to", "other-reply-to"));
 
@@ -385,6 +395,216 @@ public class RMQMessageProducerTest {
     }
 
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void sendToSeveralDestinationsEncodesMessageOnce() throws Exception {
+        RMQDestination queue = new RMQDestination("some-queue", true, false);
+        RMQDestination topic = new RMQDestination("some-topic", false, false);
+        RMQDestination amqpDestination = new RMQDestination("some-exchange", "some-exchange", "some-routing-key", "some-queue");
+        when(session.getChannel()).thenReturn(channel);
+        when(session.delayMessage(any(RMQDestination.class), any(Map.class), anyLong()))
+            .thenAnswer(invocation -> ((RMQDestination) invocation.getArgument(0)).getAmqpExchangeName());
+        RMQTextMessage message = new RMQTextMessage();
+        message.setText("Test message");
+        message.setStringProperty("region", "emea");
+
+        for (int format : new int[] {RMQMessage.FORMAT_VERSION_1, RMQMessage.FORMAT_VERSION_2}) {
+            reset(channel);
+            RMQMessageProducer producer = new RMQMessageProducer(session, null, true, null, null, null, false, format, null, 0, UuidMessageIdGenerator.INSTANCE, false, 10_000);
+            producer.send(Arrays.asList(queue, topic, amqpDestination), message);
+
+            ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+            ArgumentCaptor<byte[]> data = ArgumentCaptor.forClass(byte[].class);
+            verify(channel, times(3)).basicPublish(anyString(), any(), properties.capture(), data.capture());
+            // headers and AMQP properties are shared by the copies sent to JMS destinations
+            assertSame(properties.getAllValues().get(0), properties.getAllValues().get(1));
+            assertArrayEquals("Test message".getBytes(), data.getAllValues().get(2));
+
+            RMQMessage toQueue = RMQMessage.fromMessage(data.getAllValues().get(0), WhiteListObjectInputStream.DEFAULT_TRUSTED_PACKAGES);
+            RMQMessage toTopic = RMQMessage.fromMessage(data.getAllValues().get(1), WhiteListObjectInputStream.DEFAULT_TRUSTED_PACKAGES);
+            assertEquals(queue, toQueue.getJMSDestination());
+            assertEquals(topic, toTopic.getJMSDestination());
+            assertEquals(message.getJMSMessageID(), toTopic.getJMSMessageID());
+            assertEquals("emea", toTopic.getStringProperty("region"));
+            assertEquals("Test message", ((RMQTextMessage) toTopic).getText());
+            assertEquals(amqpDestination, message.getJMSDestination());
+        }
+        verify(session, times(2)).declareDestinationIfNecessary(queue);
+    }
+
+    @Test
+    public void compressBodiesOverThreshold() throws Exception {
+        RMQDestination queue = new RMQDestination("some-queue", true, false);
+        when(session.getChannel()).thenReturn(channel);
+        RMQMessageProducer producer = new RMQMessageProducer(session, queue, true, null, null, null, false,
+            RMQMessage.FORMAT_VERSION_2, CompressionCodecs.GZIP, 256, UuidMessageIdGenerator.INSTANCE, false, 10_000);
+        RMQTextMessage small = new RMQTextMessage();
+        small.setText("Test message");
+        producer.send(small);
+        String text = String.join("", Collections.nCopies(100, "Test message "));
+        RMQTextMessage large = new RMQTextMessage();
+        large.setText(text);
+        producer.send(large);
+
+        ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        ArgumentCaptor<byte[]> data = ArgumentCaptor.forClass(byte[].class);
+        verify(channel, times(2)).basicPublish(any(), any(), properties.capture(), data.capture());
+        assertNull(properties.getAllValues().get(0).getContentEncoding());
+        assertEquals("gzip", properties.getAllValues().get(1).getContentEncoding());
+        assertTrue(data.getAllValues().get(1).length < text.length());
+        RMQMessage received = RMQMessage.fromMessage(CompressionCodecs.GZIP.decompress(data.getAllValues().get(1)),
+            WhiteListObjectInputStream.DEFAULT_TRUSTED_PACKAGES);
+        assertEquals(text, ((RMQTextMessage) received).getText());
+    }
+
+    @Test
+    public void disabledMessageIdAndTimestampAreNotSent() throws Exception {
+        RMQDestination queue = new RMQDestination("some-queue", true, false);
+        when(session.getChannel()).thenReturn(channel);
+        RMQTextMessage message = new RMQTextMessage();
+        message.setText("Test message");
+
+        for (int format : new int[] {RMQMessage.FORMAT_VERSION_1, RMQMessage.FORMAT_VERSION_2}) {
+            reset(channel);
+            RMQMessageProducer producer = new RMQMessageProducer(session, queue, true, null, null, null, false,
+                format, null, 0, new CounterMessageIdGenerator(), false, 10_000);
+            producer.send(message);
+            assertNotNull(message.getJMSMessageID());
+            assertTrue(message.getJMSTimestamp() > 0);
+            producer.setDisableMessageID(true);
+            producer.setDisableMessageTimestamp(true);
+            producer.send(message);
+            assertNull(message.getJMSMessageID());
+            assertEquals(0L, message.getJMSTimestamp());
+
+            ArgumentCaptor<byte[]> data = ArgumentCaptor.forClass(byte[].class);
+            verify(channel, times(2)).basicPublish(any(), any(), any(AMQP.BasicProperties.class), data.capture());
+            RMQMessage received = RMQMessage.fromMessage(data.getAllValues().get(1), WhiteListObjectInputStream.DEFAULT_TRUSTED_PACKAGES);
+            assertNull(received.getJMSMessageID());
+            assertNull(received.getInternalID());
+            assertEquals(0L, received.getJMSTimestamp());
+            assertEquals("Test message", ((RMQTextMessage) received).getText());
+        }
+    }
+
+    @Test
+    public void confirmedSendWaitsForConfirm() throws Exception {
+        RMQDestination queue = new RMQDestination("some-queue", true, false);
+        when(session.getChannel()).thenReturn(channel);
+        ArgumentCaptor<ConfirmListener> confirmListener = ArgumentCaptor.forClass(ConfirmListener.class);
+        PublishingListener publishingListener = PublisherConfirmsUtils.configurePublisherConfirmsSupport(channel);
+        verify(channel).addConfirmListener(confirmListener.capture());
+        AtomicLong sequenceNumber = new AtomicLong(1);
+        when(channel.getNextPublishSeqNo()).thenAnswer(invocation -> sequenceNumber.get());
+        // the broker acks the first message and nacks the second one
+        doAnswer(invocation -> {
+            long tag = sequenceNumber.getAndIncrement();
+            if (tag == 1) {
+                confirmListener.getValue().handleAck(tag, false);
+            } else if (tag == 2) {
+                confirmListener.getValue().handleNack(tag, false);
+            }
+            return null;
+        }).when(channel).basicPublish(any(), any(), any(AMQP.BasicProperties.class), any(byte[].class));
+        RMQMessageProducer producer = new RMQMessageProducer(session, queue, true, null, null, publishingListener,
+            false, RMQMessage.FORMAT_VERSION_2, null, 0, UuidMessageIdGenerator.INSTANCE, true, 100);
+
+        producer.send(new RMQTextMessage());
+        verify(session).enablePublishConfirmOnChannel();
+        JMSException nacked = assertThrows(JMSException.class, () -> producer.send(new RMQTextMessage()));
+        assertTrue(nacked.getMessage().contains("negatively acknowledged"));
+        // no confirm for the third message
+        assertThrows(JMSException.class, () -> producer.send(new RMQTextMessage()));
+    }
+
+    @Test
+    public void batchWaitsOnceForAllConfirms() throws Exception {
+        RMQDestination queue = new RMQDestination("some-queue", true, false);
+        when(session.getChannel()).thenReturn(channel);
+        ArgumentCaptor<ConfirmListener> confirmListener = ArgumentCaptor.forClass(ConfirmListener.class);
+        PublishingListener publishingListener = PublisherConfirmsUtils.configurePublisherConfirmsSupport(channel);
+        verify(channel).addConfirmListener(confirmListener.capture());
+        AtomicLong sequenceNumber = new AtomicLong(1);
+        when(channel.getNextPublishSeqNo()).thenAnswer(invocation -> sequenceNumber.get());
+        // the broker confirms the batch with one multiple ack after the last message
+        doAnswer(invocation -> {
+            long tag = sequenceNumber.getAndIncrement();
+            if (tag == 3) {
+                confirmListener.getValue().handleAck(tag, true);
+            }
+            return null;
+        }).when(channel).basicPublish(any(), any(), any(AMQP.BasicProperties.class), any(byte[].class));
+        RMQMessageProducer producer = new RMQMessageProducer(session, queue, true, null, null, publishingListener,
+            false, RMQMessage.FORMAT_VERSION_2, null, 0, UuidMessageIdGenerator.INSTANCE, false, 100);
+
+        List<Message> messages = Arrays.asList(new RMQTextMessage(), new RMQTextMessage(), new RMQTextMessage());
+        producer.sendBatch(messages);
+        verify(channel, times(3)).basicPublish(any(), any(), any(AMQP.BasicProperties.class), any(byte[].class));
+
+        // the next batch is not confirmed
+        assertThrows(JMSException.class, () -> producer.sendBatch(Collections.singletonList(new RMQTextMessage())));
+    }
+
+    @Test
+    public void transactedSendDoesNotWaitForConfirm() throws Exception {
+        RMQDestination queue = new RMQDestination("some-queue", true, false);
+        when(session.getChannel()).thenReturn(channel);
+        when(session.getTransacted()).thenReturn(true);
+        RMQMessageProducer producer = new RMQMessageProducer(session, queue, true, null, null, null,
+            false, RMQMessage.FORMAT_VERSION_2, null, 0, UuidMessageIdGenerator.INSTANCE, true, 100);
+
+        // not confirmed, would time out
+        producer.send(new RMQTextMessage());
+        verify(channel).basicPublish(any(), any(), any(AMQP.BasicProperties.class), any(byte[].class));
+        verify(session, never()).enablePublishConfirmOnChannel();
+    }
+
+    @Test
+    public void batchIsRejectedInTransactedSession() throws Exception {
+        RMQDestination queue = new RMQDestination("some-queue", true, false);
+        when(session.getChannel()).thenReturn(channel);
+        when(session.getTransacted()).thenReturn(true);
+        RMQMessageProducer producer = new RMQMessageProducer(session, queue, true, null, null, null,
+            false, RMQMessage.FORMAT_VERSION_2, null, 0, UuidMessageIdGenerator.INSTANCE, false, 100);
+
+        assertThrows(jakarta.jms.IllegalStateException.class,
+            () -> producer.sendBatch(Collections.singletonList(new RMQTextMessage())));
+        verify(channel, never()).basicPublish(any(), any(), any(AMQP.BasicProperties.class), any(byte[].class));
+        verify(session, never()).enablePublishConfirmOnChannel();
+    }
+
+    @Test
+    public void sendToSeveralDestinationsRequiresUnidentifiedProducer() {
+        RMQMessageProducer producer = new RMQMessageProducer(session, destination);
+        assertThrows(UnsupportedOperationException.class,
+            () -> producer.send(Collections.singletonList(destination), new RMQTextMessage()));
+        RMQMessageProducer unidentified = new RMQMessageProducer(session, null);
+        assertThrows(InvalidDestinationException.class,
+            () -> unidentified.send(Collections.emptyList(), new RMQTextMessage()));
+    }
+
+    @Test
+    public void fanOutCompletionListenerIsCalledOnce() {
+        CompletionListener listener = mock(CompletionListener.class);
+        Message message = new RMQTextMessage();
+        RMQMessageProducer.FanOutCompletionListener fanOut = new RMQMessageProducer.FanOutCompletionListener(listener, 3);
+        fanOut.onCompletion(message);
+        fanOut.onCompletion(message);
+        verify(listener, never()).onCompletion(message);
+        fanOut.onCompletion(message);
+        verify(listener).onCompletion(message);
+
+        listener = mock(CompletionListener.class);
+        fanOut = new RMQMessageProducer.FanOutCompletionListener(listener, 3);
+        Exception exception = new JMSException("nack");
+        fanOut.onCompletion(message);
+        fanOut.onException(message, exception);
+        fanOut.onException(message, exception);
+        fanOut.onCompletion(message);
+        verify(listener).onException(message, exception);
+        verify(listener, never()).onCompletion(message);
+    }
+
     static class StubRMQMessageProducer extends RMQMessageProducer {
 
         RMQMessage message;
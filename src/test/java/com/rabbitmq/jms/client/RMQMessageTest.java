@@ -9,7 +9,12 @@ import com.rabbitmq.client.AMQP.BasicProperties;
 import com.rabbitmq.client.Envelope;
 import com.rabbitmq.client.GetResponse;
 import com.rabbitmq.jms.admin.RMQDestination;
+import com.rabbitmq.jms.client.message.RMQBytesMessage;
+import com.rabbitmq.jms.client.message.RMQMapMessage;
+import com.rabbitmq.jms.client.message.RMQObjectMessage;
+import com.rabbitmq.jms.client.message.RMQStreamMessage;
 import com.rabbitmq.jms.client.message.RMQTextMessage;
+import com.rabbitmq.jms.util.WhiteListObjectInputStream;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -20,9 +25,13 @@ import org.junit.jupiter.api.Test;
 
 import jakarta.jms.JMSException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -30,6 +39,8 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 
 class RMQMessageTest {
 
+    private static final EncodeBufferPool POOL = new EncodeBufferPool();
+
     RMQSession session;
     GetResponse getResponse;
     ReceivingContextConsumer consumer;
@@ -206,4 +217,295 @@ class RMQMessageTest {
 
         assertNull(result.getJMSReplyTo());
     }
+
+    @Test
+    @DisplayName("RMQMessage::convertMessage - jms message - properties and body are decoded on access")
+    @SuppressWarnings("unchecked")
+    void convertJmsMessagesDecodesPropertiesAndBodyLazily() throws Exception {
+        RMQTextMessage sent = new RMQTextMessage();
+        sent.setText("hello");
+        sent.setStringProperty("region", "emea");
+        sent.setIntProperty("count", 3);
+        sent.setJMSCorrelationID("correlation");
+        sent.setJMSDestination(new RMQDestination("dest", "exch", "key", "queue"));
+
+        RMQMessage received = receive(encode(sent));
+
+        assertThat(received).isInstanceOf(RMQTextMessage.class);
+        assertEquals(sent.getInternalID(), received.getInternalID());
+        assertEquals("emea", received.getStringProperty("region"));
+        assertEquals(3, received.getIntProperty("count"));
+        assertNull(received.getStringProperty("missing"));
+        assertThat(received.propertyExists("count")).isTrue();
+        assertThat(received.propertyExists("missing")).isFalse();
+        assertEquals(1, received.getIntProperty("JMSXDeliveryCount"));
+        assertEquals("correlation", received.getJMSCorrelationID());
+        assertEquals("dest", ((RMQDestination) received.getJMSDestination()).getDestinationName());
+        assertEquals("hello", ((RMQTextMessage) received).getText());
+        assertThat(Collections.list((Enumeration<String>) received.getPropertyNames()))
+            .containsExactlyInAnyOrder("region", "count", "JMSXDeliveryCount");
+    }
+
+    @Test
+    @DisplayName("RMQMessage::convertMessage - jms message - header fields set after receipt take precedence")
+    void convertJmsMessageKeepsHeaderFieldsSetAfterReceipt() throws Exception {
+        RMQMapMessage sent = new RMQMapMessage();
+        sent.setString("key", "value");
+        sent.setJMSType("original");
+        sent.setJMSCorrelationID("correlation");
+
+        RMQMessage received = receive(encode(sent));
+        received.setJMSType("updated");
+        received.setJMSCorrelationID(null);
+
+        assertEquals("value", ((RMQMapMessage) received).getString("key"));
+        assertEquals("updated", received.getJMSType());
+        assertNull(received.getJMSCorrelationID());
+        RMQMessage forwarded = receive(encode(received));
+        assertEquals("updated", forwarded.getJMSType());
+        assertNull(forwarded.getJMSCorrelationID());
+        assertEquals("value", ((RMQMapMessage) forwarded).getString("key"));
+    }
+
+    @Test
+    @DisplayName("RMQMessage::convertMessage - jms message - all message types are decoded")
+    void convertJmsMessageDecodesAllMessageTypes() throws Exception {
+        RMQBytesMessage bytes = new RMQBytesMessage();
+        bytes.writeInt(42);
+        RMQBytesMessage receivedBytes = (RMQBytesMessage) receive(encode(bytes));
+        assertEquals(4, receivedBytes.getBodyLength());
+        assertEquals(42, receivedBytes.readInt());
+
+        RMQStreamMessage stream = new RMQStreamMessage();
+        stream.writeString("first");
+        stream.writeLong(2L);
+        RMQStreamMessage receivedStream = (RMQStreamMessage) receive(encode(stream));
+        assertEquals("first", receivedStream.readString());
+        assertEquals(2L, receivedStream.readLong());
+
+        RMQObjectMessage object = new RMQObjectMessage();
+        object.setObject(new java.util.ArrayList<>(Arrays.asList("a", "b")));
+        RMQObjectMessage receivedObject = (RMQObjectMessage) receive(encode(object));
+        assertEquals(Arrays.asList("a", "b"), receivedObject.getObject());
+
+        RMQTextMessage text = new RMQTextMessage();
+        text.setText("text");
+        RMQTextMessage receivedText = (RMQTextMessage) receive(encode(text));
+        receivedText.clearBody();
+        assertNull(receivedText.getText());
+    }
+
+    @Test
+    @DisplayName("RMQMessage::convertMessage - jms message - body assignability is checked on the decoded body")
+    void convertJmsMessageDecodesBodyToCheckAssignability() throws Exception {
+        RMQBytesMessage bytes = new RMQBytesMessage();
+        bytes.writeInt(42);
+        RMQMessage receivedBytes = receive(encode(bytes));
+        assertThat(receivedBytes.isBodyAssignableTo(String.class)).isFalse();
+        assertThat(receivedBytes.isBodyAssignableTo(byte[].class)).isTrue();
+
+        RMQMapMessage map = new RMQMapMessage();
+        map.setString("key", "value");
+        RMQMessage receivedMap = receive(encode(map));
+        assertThat(receivedMap.isBodyAssignableTo(String.class)).isFalse();
+        assertThat(receivedMap.isBodyAssignableTo(Map.class)).isTrue();
+    }
+
+    @Test
+    @DisplayName("RMQMessage::convertMessage - jms message - properties are looked up without decoding the body")
+    void convertJmsMessageScansPropertiesWithoutDecodingBody() throws Exception {
+        RMQTextMessage sent = new RMQTextMessage();
+        sent.setText("a body long enough to be truncated");
+        sent.setStringProperty("region", "emea");
+        byte[] encoded = encode(sent);
+
+        RMQMessage received = receive(Arrays.copyOf(encoded, encoded.length - 10));
+
+        assertEquals("emea", received.getStringProperty("region"));
+        assertEquals(sent.getJMSMessageID(), received.getJMSMessageID());
+        assertThatThrownBy(() -> ((RMQTextMessage) received).getText()).isInstanceOf(JMSException.class);
+    }
+
+    @Test
+    @DisplayName("RMQMessage::convertMessage - compact format - all message types and property types are decoded")
+    void convertCompactMessageDecodesAllMessageTypes() throws Exception {
+        RMQTextMessage text = new RMQTextMessage();
+        text.setText("h\u00e9llo \ud83d\udc07");
+        text.setStringProperty("region", "emea");
+        text.setIntProperty("count", -3);
+        text.setLongProperty("big", Long.MAX_VALUE);
+        text.setBooleanProperty("flag", true);
+        text.setByteProperty("byte", (byte) -1);
+        text.setShortProperty("short", (short) 300);
+        text.setFloatProperty("float", 1.5f);
+        text.setDoubleProperty("double", -2.25d);
+        text.setStringProperty("JMSXGroupID", "group");
+        text.setJMSCorrelationID("correlation");
+        RMQDestination destination = new RMQDestination("dest", "exch", "key", "queue");
+        destination.setConsumerPrefetch(5);
+        text.setJMSDestination(destination);
+        text.setJMSReplyTo(new RMQDestination("reply", true, true));
+        RMQTextMessage receivedText = (RMQTextMessage) receive(encodeCompact(text));
+        assertEquals(text.getInternalID(), receivedText.getInternalID());
+        assertEquals("h\u00e9llo \ud83d\udc07", receivedText.getText());
+        assertEquals("emea", receivedText.getStringProperty("region"));
+        assertEquals(-3, receivedText.getIntProperty("count"));
+        assertEquals(Long.MAX_VALUE, receivedText.getLongProperty("big"));
+        assertThat(receivedText.getBooleanProperty("flag")).isTrue();
+        assertEquals((byte) -1, receivedText.getByteProperty("byte"));
+        assertEquals((short) 300, receivedText.getShortProperty("short"));
+        assertEquals(1.5f, receivedText.getFloatProperty("float"));
+        assertEquals(-2.25d, receivedText.getDoubleProperty("double"));
+        assertEquals("group", receivedText.getStringProperty("JMSXGroupID"));
+        assertEquals("correlation", receivedText.getJMSCorrelationID());
+        assertEquals(text.getJMSDestination(), receivedText.getJMSDestination());
+        assertEquals(0, ((RMQDestination) receivedText.getJMSDestination()).getConsumerPrefetch());
+        RMQDestination replyTo = (RMQDestination) receivedText.getJMSReplyTo();
+        assertEquals(text.getJMSReplyTo(), replyTo);
+        assertThat(replyTo.isTemporary()).isTrue();
+        assertThat(replyTo.isAmqp()).isFalse();
+
+        RMQBytesMessage bytes = new RMQBytesMessage();
+        bytes.writeInt(42);
+        RMQBytesMessage receivedBytes = (RMQBytesMessage) receive(encodeCompact(bytes));
+        assertEquals(4, receivedBytes.getBodyLength());
+        assertEquals(42, receivedBytes.readInt());
+
+        RMQMapMessage map = new RMQMapMessage();
+        map.setString("key", "value");
+        map.setBytes("bytes", new byte[] {1, 2});
+        map.setChar("char", 'c');
+        RMQMapMessage receivedMap = (RMQMapMessage) receive(encodeCompact(map));
+        assertEquals("value", receivedMap.getString("key"));
+        assertThat(receivedMap.getBytes("bytes")).containsExactly(1, 2);
+        assertEquals('c', receivedMap.getChar("char"));
+
+        RMQStreamMessage stream = new RMQStreamMessage();
+        stream.writeString("first");
+        stream.writeLong(2L);
+        stream.writeObject(null);
+        stream.writeBytes(new byte[] {3});
+        RMQStreamMessage receivedStream = (RMQStreamMessage) receive(encodeCompact(stream));
+        assertEquals("first", receivedStream.readString());
+        assertEquals(2L, receivedStream.readLong());
+        assertNull(receivedStream.readObject());
+        assertThat((byte[]) receivedStream.readObject()).containsExactly(3);
+
+        RMQObjectMessage object = new RMQObjectMessage();
+        object.setObject(new java.util.ArrayList<>(Arrays.asList("a", "b")));
+        RMQObjectMessage receivedObject = (RMQObjectMessage) receive(encodeCompact(object));
+        assertEquals(Arrays.asList("a", "b"), receivedObject.getObject());
+
+        RMQNullMessage nullMessage = new RMQNullMessage();
+        nullMessage.setJMSType("type");
+        RMQMessage receivedNull = receive(encodeCompact(nullMessage));
+        assertThat(receivedNull).isInstanceOf(RMQNullMessage.class);
+        assertEquals("type", receivedNull.getJMSType());
+    }
+
+    @Test
+    @DisplayName("RMQMessage::convertMessage - compact and Java serialization formats are decoded side by side")
+    void convertMessageDecodesBothFormats() throws Exception {
+        RMQMapMessage sent = new RMQMapMessage();
+        sent.setString("key", "value");
+        sent.setStringProperty("region", "emea");
+        sent.setJMSDestination(new RMQDestination("dest", true, false, Collections.singletonMap("x-queue-type", "quorum")));
+        byte[] v1 = encode(sent);
+        byte[] v2 = ((RMQMessage) sent).toCompactByteArray(POOL);
+        assertThat(v1).startsWith(0xAC, 0xED);
+        assertThat(v2).startsWith('R', 'J', 2);
+        assertThat(v2.length).isLessThan(v1.length);
+
+        for (byte[] body : Arrays.asList(v1, v2)) {
+            RMQMapMessage received = (RMQMapMessage) receive(body);
+            assertEquals("value", received.getString("key"));
+            assertEquals("emea", received.getStringProperty("region"));
+            // queue declaration arguments are not part of the compact format, such destinations are serialized
+            assertEquals(sent.getJMSDestination(), received.getJMSDestination());
+            assertThat(((RMQDestination) received.getJMSDestination()).getQueueDeclareArguments())
+                .containsEntry("x-queue-type", "quorum");
+            // forwarding in the other format
+            RMQMessage forwarded = receive(body == v1 ? ((RMQMessage) received).toCompactByteArray(POOL) : encode(received));
+            assertEquals("value", ((RMQMapMessage) forwarded).getString("key"));
+            assertEquals("emea", forwarded.getStringProperty("region"));
+        }
+
+        byte[] unknownVersion = v2.clone();
+        unknownVersion[2] = 3;
+        assertThatThrownBy(() -> receive(unknownVersion)).isInstanceOf(JMSException.class);
+    }
+
+    @Test
+    @DisplayName("RMQMessage::convertMessage - compact format - properties are looked up without decoding the body")
+    void convertCompactMessageScansPropertiesWithoutDecodingBody() throws Exception {
+        RMQTextMessage sent = new RMQTextMessage();
+        sent.setText("a body long enough to be truncated");
+        sent.setStringProperty("region", "emea");
+        sent.setJMSDestination(new RMQDestination("dest", true, false));
+        byte[] encoded = encodeCompact(sent);
+
+        RMQMessage received = receive(Arrays.copyOf(encoded, encoded.length - 10));
+
+        assertEquals("emea", received.getStringProperty("region"));
+        assertThat(received.propertyExists("missing")).isFalse();
+        assertEquals(sent.getJMSMessageID(), received.getJMSMessageID());
+        assertEquals(sent.getJMSDestination(), received.getJMSDestination());
+        assertThatThrownBy(() -> ((RMQTextMessage) received).getText()).isInstanceOf(JMSException.class);
+    }
+
+    @Test
+    void forwardedCompactMessageReusesEncodedBody() throws Exception {
+        RMQTextMessage sent = new RMQTextMessage();
+        String text = "a body which is copied as it is when forwarded";
+        sent.setText(text);
+        sent.setStringProperty("region", "emea");
+        byte[] encoded = encodeCompact(sent);
+        byte[] encodedBody = Arrays.copyOfRange(encoded, encoded.length - text.length() - 2, encoded.length);
+
+        RMQMessage received = receive(encoded);
+        received.setJMSDestination(new RMQDestination("forward", true, false));
+        byte[] forwarded = encodeCompact(received);
+        assertThat(Arrays.copyOfRange(forwarded, forwarded.length - encodedBody.length, forwarded.length)).isEqualTo(encodedBody);
+
+        RMQMessage forwardedReceived = receive(forwarded);
+        assertEquals(text, ((RMQTextMessage) forwardedReceived).getText());
+        assertEquals("emea", forwardedReceived.getStringProperty("region"));
+        assertEquals(1, forwardedReceived.getIntProperty("JMSXDeliveryCount"));
+        assertEquals(new RMQDestination("forward", true, false), forwardedReceived.getJMSDestination());
+
+        received.clearBody();
+        ((RMQTextMessage) received).setText("modified");
+        assertEquals("modified", ((RMQTextMessage) receive(encodeCompact(received))).getText());
+    }
+
+    @Test
+    void receivedBytesAreSentToAmqpDestinationWithoutCopy() throws Exception {
+        byte[] body = {1, 2, 3};
+        GetResponse response = new GetResponse(new Envelope(1, false, "exch", "key"),
+            new BasicProperties.Builder().build(), body, 0);
+        RMQMessage received = RMQMessage.convertMessage(session, new RMQDestination("exch", "exch", "key", "queue"),
+            response, consumer);
+        assertThat(received.toAmqpByteArray(POOL)).isSameAs(body);
+
+        received.clearBody();
+        ((RMQBytesMessage) received).writeBytes(body);
+        assertThat(received.toAmqpByteArray(POOL)).isNotSameAs(body).isEqualTo(body);
+    }
+
+    private static byte[] encodeCompact(RMQMessage message) throws Exception {
+        message.generateInternalID();
+        return message.toCompactByteArray(POOL);
+    }
+
+    private static byte[] encode(RMQMessage message) throws Exception {
+        message.generateInternalID();
+        return message.toByteArray(POOL);
+    }
+
+    private RMQMessage receive(byte[] body) throws JMSException {
+        when(session.getTrustedPackages()).thenReturn(WhiteListObjectInputStream.DEFAULT_TRUSTED_PACKAGES);
+        GetResponse response = new GetResponse(new Envelope(1, false, "exch", "key"),
+            new BasicProperties.Builder().build(), body, 0);
+        return RMQMessage.convertMessage(session, new RMQDestination("dest", true, false), response, consumer);
+    }
 }
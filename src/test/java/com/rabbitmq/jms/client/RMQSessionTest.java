@@ -9,6 +9,7 @@ import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.impl.AMQImpl;
 import com.rabbitmq.jms.admin.RMQDestination;
 import jakarta.jms.JMSException;
+import jakarta.jms.Session;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,7 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.mockito.MockitoAnnotations;
@@ -27,7 +29,11 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class RMQSessionTest {
 
@@ -121,4 +127,109 @@ public class RMQSessionTest {
 
         assertThat(session.getReplyToStrategy()).isEqualTo(DefaultReplyToStrategy.INSTANCE);
     }
+
+    @Test
+    void destinationsAreDeclaredOncePerConnection() throws Exception {
+        DeclarationCache declarationCache = new DeclarationCache(true);
+        RMQSession session1 = new RMQSession(new SessionParams().setConnection(connection).setDeclarationCache(declarationCache));
+        RMQSession session2 = new RMQSession(new SessionParams().setConnection(connection).setDeclarationCache(declarationCache));
+
+        session1.createQueue("some-queue");
+        session2.createQueue("some-queue");
+        session2.declareDestinationIfNecessary(new RMQDestination("some-queue", true, false));
+        session1.createTopic("some-topic");
+        session2.createTopic("some-topic");
+        verify(channel, times(1)).queueDeclare(eq("some-queue"), eq(true), eq(false), eq(false), any());
+        verify(channel, times(1)).queueBind("some-queue", "jms.durable.queues", "some-queue", null);
+        verify(channel, times(1)).exchangeDeclare("jms.durable.queues", "direct", true, false, false, null);
+        verify(channel, times(1)).exchangeDeclare("jms.durable.topic", "topic", true, false, false, null);
+
+        // other arguments, other declaration
+        session2.createConsumer(new RMQDestination("some-queue", true, false, Collections.singletonMap("x-max-length", 10)))
+            .close();
+        verify(channel, times(2)).queueDeclare(eq("some-queue"), eq(true), eq(false), eq(false), any());
+
+        declarationCache.clear();
+        session2.createQueue("some-queue");
+        verify(channel, times(3)).queueDeclare(eq("some-queue"), eq(true), eq(false), eq(false), any());
+    }
+
+    @Test
+    void queuesOfTemporaryDestinationsAreNotCached() throws Exception {
+        DeclarationCache declarationCache = new DeclarationCache(true);
+        RMQSession session = new RMQSession(new SessionParams().setConnection(connection).setDeclarationCache(declarationCache));
+
+        RMQDestination temporaryQueue = (RMQDestination) session.createTemporaryQueue();
+        session.declareRMQQueue(temporaryQueue, null, false, true);
+        session.declareRMQQueue(temporaryQueue, null, false, true);
+        verify(channel, times(2)).queueDeclare(eq(temporaryQueue.getAmqpQueueName()), eq(false), eq(true), eq(false), any());
+        verify(channel, times(2)).queueBind(any(), eq("jms.temp.queues"), any(), any());
+        verify(channel, times(1)).exchangeDeclare("jms.temp.queues", "direct", false, false, false, null);
+        assertThat(declarationCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void declarationCacheIsClearedWhenFull() {
+        DeclarationCache declarationCache = new DeclarationCache(true, 2);
+        declarationCache.declared(DeclarationCache.binding("q1", "x", "q1"));
+        declarationCache.declared(DeclarationCache.binding("q2", "x", "q2"));
+        declarationCache.declared(DeclarationCache.binding("q3", "x", "q3"));
+
+        assertThat(declarationCache.size()).isEqualTo(1);
+        assertThat(declarationCache.isDeclared(DeclarationCache.binding("q1", "x", "q1"))).isFalse();
+        assertThat(declarationCache.isDeclared(DeclarationCache.binding("q3", "x", "q3"))).isTrue();
+    }
+
+    @Test
+    void messagesNotSelectedAreRequeuedInPlaceOrDeadLettered() throws Exception {
+        session.unselectedMessageHeld(1);
+        session.requeueUnselected(new long[] {1});
+        session.requeueUnselected(new long[] {1});
+        verify(channel, times(1)).basicNack(1, false, true);
+
+        session.deadLetter(2);
+        verify(channel).basicNack(2, false, false);
+        verify(channel, never()).basicPublish(any(), any(), any(), any());
+    }
+
+    @Test
+    void heldMessagesNotSelectedAreNotAcknowledgedWithOthers() throws Exception {
+        RMQSession clientAckSession = new RMQSession(connection, false, 0, Session.CLIENT_ACKNOWLEDGE,
+            new Subscriptions(), new DelayedMessageService());
+        clientAckSession.unackedMessageReceived(1);
+        clientAckSession.unackedMessageReceived(2);
+        clientAckSession.unselectedMessageHeld(3);
+        clientAckSession.unackedMessageReceived(4);
+
+        clientAckSession.acknowledgeMessages();
+
+        verify(channel).basicAck(2, true);
+        verify(channel).basicAck(4, false);
+        verify(channel, never()).basicAck(eq(4L), eq(true));
+        verify(channel, never()).basicAck(eq(3L), any(Boolean.class));
+    }
+
+    @Test
+    void autoAcknowledgmentsAreSentDirectlyWithoutCoalescingOrBatchListener() throws Exception {
+        RMQSession autoAckSession = new RMQSession(connection, false, 0, Session.AUTO_ACKNOWLEDGE,
+            new Subscriptions(), new DelayedMessageService());
+        autoAckSession.explicitAck(1);
+        autoAckSession.explicitAckAll(new long[] {2, 3});
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        verify(channel).basicAck(3, false);
+        verify(channel, never()).basicAck(any(Long.class), eq(true));
+    }
+
+    @Test
+    void batchesOfBatchListenerGetMultipleAcknowledgment() throws Exception {
+        RMQSession autoAckSession = new RMQSession(connection, false, 0, Session.AUTO_ACKNOWLEDGE,
+            new Subscriptions(), new DelayedMessageService());
+        autoAckSession.batchListenerSet();
+        autoAckSession.explicitAck(1);
+        autoAckSession.explicitAckAll(new long[] {2, 3});
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(3, true);
+        verify(channel, never()).basicAck(eq(2L), any(Boolean.class));
+    }
 }
@@ -0,0 +1,120 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import com.rabbitmq.jms.parse.sql.SqlExpressionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.rabbitmq.jms.client.Subscription.JMS_TYPE_IDENTS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SelectorCacheTest {
+
+    @Test
+    void sameSelectorIsCompiledOnce() {
+        SelectorCache cache = new SelectorCache(10);
+        SelectorCache.CompiledSelector compiled = cache.get("region = 'emea'", JMS_TYPE_IDENTS);
+
+        assertThat(compiled.evaluator().evaluatorOk()).isTrue();
+        assertThat(cache.get("region = 'emea'", JMS_TYPE_IDENTS)).isSameAs(compiled);
+        assertThat(compiled.compiler().compileOk()).isTrue();
+        assertThat(compiled.compiler()).isSameAs(compiled.compiler());
+        // the identifier types are part of the key
+        assertThat(cache.get("region = 'emea'", Collections.<String, SqlExpressionType> emptyMap()))
+            .isNotSameAs(compiled);
+
+        SelectorCacheStatistics statistics = cache.statistics();
+        assertThat(statistics.getHits()).isEqualTo(1);
+        assertThat(statistics.getMisses()).isEqualTo(2);
+        assertThat(statistics.getEvictions()).isZero();
+        assertThat(statistics.getSize()).isEqualTo(2);
+    }
+
+    @Test
+    void leastRecentlyUsedSelectorIsEvicted() {
+        SelectorCache cache = new SelectorCache(2);
+        SelectorCache.CompiledSelector a = cache.get("a = 1", JMS_TYPE_IDENTS);
+        SelectorCache.CompiledSelector b = cache.get("b = 1", JMS_TYPE_IDENTS);
+        assertThat(cache.get("a = 1", JMS_TYPE_IDENTS)).isSameAs(a);
+        cache.get("c = 1", JMS_TYPE_IDENTS);
+
+        assertThat(cache.get("a = 1", JMS_TYPE_IDENTS)).isSameAs(a);
+        assertThat(cache.get("b = 1", JMS_TYPE_IDENTS)).isNotSameAs(b);
+        SelectorCacheStatistics statistics = cache.statistics();
+        assertThat(statistics.getHits()).isEqualTo(2);
+        assertThat(statistics.getMisses()).isEqualTo(4);
+        assertThat(statistics.getEvictions()).isEqualTo(2);
+        assertThat(statistics.getSize()).isEqualTo(2);
+    }
+
+    @Test
+    void cacheLargerThanEvictionSampleStaysBounded() {
+        SelectorCache cache = new SelectorCache(SelectorCache.EVICTION_SAMPLE_SIZE * 2);
+        SelectorCache.CompiledSelector hot = cache.get("hot = 1", JMS_TYPE_IDENTS);
+        for (int i = 0; i < 1_000; ++i) {
+            cache.get("a = " + i, JMS_TYPE_IDENTS);
+            assertThat(cache.get("hot = 1", JMS_TYPE_IDENTS)).isSameAs(hot);
+        }
+
+        SelectorCacheStatistics statistics = cache.statistics();
+        assertThat(statistics.getSize()).isEqualTo(SelectorCache.EVICTION_SAMPLE_SIZE * 2);
+        assertThat(statistics.getEvictions()).isEqualTo(1_001 - SelectorCache.EVICTION_SAMPLE_SIZE * 2);
+    }
+
+    @Test
+    void invalidSelectorsAreCached() {
+        SelectorCache cache = new SelectorCache(10);
+        SelectorCache.CompiledSelector compiled = cache.get("region = ", JMS_TYPE_IDENTS);
+
+        assertThat(compiled.evaluator().evaluatorOk()).isFalse();
+        assertThat(compiled.compiler().compileOk()).isFalse();
+        assertThat(cache.get("region = ", JMS_TYPE_IDENTS)).isSameAs(compiled);
+    }
+
+    @Test
+    void sizeZeroDisablesCache() {
+        SelectorCache cache = new SelectorCache(0);
+        SelectorCache.CompiledSelector compiled = cache.get("a = 1", JMS_TYPE_IDENTS);
+
+        assertThat(cache.get("a = 1", JMS_TYPE_IDENTS)).isNotSameAs(compiled);
+        assertThat(cache.statistics().getMisses()).isEqualTo(2);
+        assertThat(cache.statistics().getSize()).isZero();
+    }
+
+    @Test
+    void cacheCanBeSharedBetweenThreads() throws Exception {
+        SelectorCache cache = new SelectorCache(5);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; ++i) {
+                        SelectorCache.CompiledSelector compiled = cache.get("a = " + (i % 8), JMS_TYPE_IDENTS);
+                        if (!compiled.compiler().compileOk()) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        SelectorCacheStatistics statistics = cache.statistics();
+        assertThat(statistics.getHits() + statistics.getMisses()).isEqualTo(4_000);
+        assertThat(statistics.getSize()).isLessThanOrEqualTo(5);
+    }
+}
@@ -0,0 +1,73 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.impl.LongStringHelper;
+import com.rabbitmq.jms.client.message.RMQTextMessage;
+import jakarta.jms.DeliveryMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SelectorEnvironmentTest {
+
+    @Test
+    void valuesOfJmsMessagesAreThoseOfTheirJmsHeaders() throws Exception {
+        RMQTextMessage message = new RMQTextMessage();
+        message.setJMSDeliveryMode(DeliveryMode.PERSISTENT);
+        message.setJMSMessageID("ID:abc");
+        message.setJMSTimestamp(1_700_000_000_000L);
+        message.setJMSPriority(7);
+        message.setJMSType("order");
+        message.setStringProperty("region", "emea");
+        message.setLongProperty("amount", 150L);
+        message.setShortProperty("code", (short) 3);
+        message.setBooleanProperty("urgent", true);
+        Map<String, Object> jmsHeaders = ((RMQMessage) message).toHeaders();
+        // strings are received as long strings
+        Map<String, Object> headers = new HashMap<>();
+        jmsHeaders.forEach((k, v) -> headers.put(k, v instanceof String ? LongStringHelper.asLongString((String) v) : v));
+
+        SelectorEnvironment env = new SelectorEnvironment(new Envelope(1L, false, "", "queue"),
+            new AMQP.BasicProperties.Builder().deliveryMode(1).priority(1).headers(headers).build(), false);
+
+        jmsHeaders.forEach((k, v) -> assertThat(env.apply(k)).as(k).isEqualTo(v));
+        assertThat(env.apply("JMSCorrelationID")).isNull();
+        assertThat(env.apply("missing")).isNull();
+        assertThat(env.apply("JMSXDeliveryCount")).isEqualTo(1);
+    }
+
+    @Test
+    void jmsHeadersOfAmqpMessagesComeFromAmqpProperties() {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("region", LongStringHelper.asLongString("emea"));
+        headers.put("amount", 150L);
+        headers.put("JMSPriority", 6);
+        headers.put("JMSDeliveryMode", LongStringHelper.asLongString("PERSISTENT"));
+        headers.put("x-delivery-count", 2L);
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder().deliveryMode(1).priority(3)
+            .timestamp(new Date(1_700_000_000_000L)).correlationId("abc").headers(headers).build();
+
+        SelectorEnvironment env = new SelectorEnvironment(new Envelope(1L, true, "", "queue"), properties, true);
+
+        assertThat(env.apply("JMSDeliveryMode")).isEqualTo("NON_PERSISTENT");
+        assertThat(env.apply("JMSPriority")).isEqualTo(6);
+        assertThat(env.apply("JMSTimestamp")).isEqualTo(1_700_000_000L);
+        assertThat(env.apply("JMSCorrelationID")).isEqualTo("abc");
+        assertThat(env.apply("JMSMessageID")).isNull();
+        assertThat(env.apply("JMSType")).isEqualTo("BytesMessage");
+        // properties of AMQP messages are strings
+        assertThat(env.apply("region")).isEqualTo("emea");
+        assertThat(env.apply("amount")).isEqualTo("150");
+        assertThat(env.apply("JMSXDeliveryCount")).isEqualTo(3);
+    }
+}
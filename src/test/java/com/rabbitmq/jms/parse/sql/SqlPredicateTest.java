@@ -0,0 +1,135 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.parse.sql;
+
+import static com.rabbitmq.jms.parse.ParseTreeTraverser.traverse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class SqlPredicateTest {
+
+    private static final String[] SELECTORS = {
+        "TRUE", "FALSE", "a", "NOT a", "a AND b", "a OR b", "NOT (a AND b) OR c",
+        "x = 3", "x <> 3", "x = 3.0", "x > 2", "x >= 2.5", "x < y", "x <= y", "-x > -3", "+x = x",
+        "x + y = 5", "x - y * 2 > 0", "x / y = 2", "x / 2.0 = 1.5", "(x + 1) * 2 BETWEEN 3 AND 10",
+        "x BETWEEN y AND 10", "x NOT BETWEEN 1 AND 2.5", "1 + 2 * 3 = 7", "2 > 1 AND x IS NULL",
+        "s = 'abc'", "s <> 'abc'", "s = t", "a = b", "a = TRUE", "s = x", "x = s",
+        "s IN ('abc', 'def')", "s NOT IN ('abc', 'def')", "x IN ('3')",
+        "s LIKE 'a%'", "s LIKE 'a_c'", "s NOT LIKE '%c'", "s LIKE '%b%'", "s LIKE 'a!%c' ESCAPE '!'",
+        "s LIKE 'a.c'", "x LIKE 'a%'",
+        "x IS NULL", "x IS NOT NULL", "z IS NULL", "z IS NOT NULL", "z = 1 OR TRUE", "z = 1 AND FALSE",
+        "z = 1 OR x = 3", "z > 1 OR x > 1", "NOT (z > 1)",
+        "x * 1.5 > 4", "FALSE AND z = 1", "TRUE OR z = 1",
+    };
+
+    @Test
+    public void compiledSelectorsAgreeWithInterpreter() {
+        List<Map<String, Object>> envs = new ArrayList<>();
+        envs.add(Collections.<String, Object> emptyMap());
+        envs.add(env("x", 3L, "y", 1L, "s", "abc", "t", "abc", "a", true, "b", false, "c", true));
+        envs.add(env("x", 3, "y", 1.5D, "s", "a%c", "t", "abd", "a", false, "b", false, "c", false));
+        envs.add(env("x", 2.5F, "y", 2, "s", "axxc", "a", true, "b", true));
+        envs.add(env("x", "3", "y", "2", "s", 3L, "a", "true", "b", 1));
+        envs.add(env("x", (short) 3, "y", (byte) 1, "s", "ABC", "t", 'c'));
+        envs.add(env("x", Double.NaN, "y", -0.0D, "s", ""));
+        Map<String, SqlExpressionType> identTypes = new HashMap<>();
+        identTypes.put("x", SqlExpressionType.ARITH);
+        identTypes.put("s", SqlExpressionType.STRING);
+        for (String selector : SELECTORS) {
+            SqlEvaluator evaluator = new SqlEvaluator(new SqlParser(new SqlTokenStream(selector)),
+                                                      Collections.<String, SqlExpressionType> emptyMap());
+            assertTrue(evaluator.evaluatorOk(), selector + ": " + evaluator.getErrorMessage());
+            SqlEvaluator typedEvaluator = new SqlEvaluator(new SqlParser(new SqlTokenStream(selector)), identTypes);
+            for (Map<String, Object> env : envs) {
+                assertEquals(interpret(evaluator.typedParseTree(), env), evaluator.evaluate(env), selector + " in " + env);
+                if (typedEvaluator.evaluatorOk()) {
+                    assertEquals(interpret(typedEvaluator.typedParseTree(), env), typedEvaluator.evaluate(env),
+                                 selector + " with typed identifiers in " + env);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void likePatterns() {
+        assertTrue(matches("s LIKE 'a%'", "abc"));
+        assertTrue(matches("s LIKE 'a%'", "a"));
+        assertTrue(matches("s LIKE 'a_c'", "a_c"));
+        assertTrue(matches("s LIKE 'a_c'", "abc"));
+        assertFalse(matches("s LIKE 'a_c'", "abbc"));
+        assertTrue(matches("s LIKE '%b%b'", "abcbb"));
+        assertFalse(matches("s LIKE '%b%b'", "abcba"));
+        assertTrue(matches("s LIKE '%%'", ""));
+        assertTrue(matches("s LIKE 'a\\_%' ESCAPE '\\'", "a_c"));
+        assertFalse(matches("s LIKE 'a\\_%' ESCAPE '\\'", "abc"));
+        assertTrue(matches("s LIKE '100!%' ESCAPE '!'", "100%"));
+        assertFalse(matches("s LIKE '100!%' ESCAPE '!'", "1000"));
+        // regular expression characters stand for themselves
+        assertTrue(matches("s LIKE 'a.c'", "a.c"));
+        assertFalse(matches("s LIKE 'a.c'", "abc"));
+        assertTrue(matches("s LIKE '(a)%'", "(a)\nb"));
+    }
+
+    @Test
+    public void evaluatorCanBeSharedBetweenThreads() throws Exception {
+        final SqlEvaluator evaluator = new SqlEvaluator(new SqlParser(new SqlTokenStream("x > 100 AND s LIKE 'a%'")),
+                                                        Collections.<String, SqlExpressionType> emptyMap());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                final long offset = t;
+                results.add(executor.submit(() -> {
+                    for (long i = 0; i < 10_000; ++i) {
+                        long x = 95 + (i + offset) % 10;
+                        if (evaluator.evaluate(env("x", x, "s", "abc")) != (x > 100)) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean matches(String selector, String s) {
+        SqlEvaluator evaluator = new SqlEvaluator(new SqlParser(new SqlTokenStream(selector)),
+                                                  Collections.<String, SqlExpressionType> emptyMap());
+        boolean result = evaluator.evaluate(env("s", s));
+        assertEquals(interpret(evaluator.typedParseTree(), env("s", s)), result, selector);
+        return result;
+    }
+
+    /** the evaluation by the interpreter, the reference */
+    private static boolean interpret(SqlParseTree tree, Map<String, Object> env) {
+        traverse(tree, new SqlEvaluatorVisitor(env));
+        return Boolean.TRUE.equals(tree.getNode().getExpValue().getValue());
+    }
+
+    private static Map<String, Object> env(Object... keyValues) {
+        Map<String, Object> env = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            env.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return env;
+    }
+}
@@ -0,0 +1,171 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.parse.sql;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The single-pass lexer and parser must agree with {@link SqlTokenStream} and {@link SqlProduction}, the reference.
+ */
+public class SqlPredictiveParserTest {
+
+    private static final String[] SELECTORS = {
+        "1 2.0 2.1e-1 name is null  'hello world''s'  2e2 2.e2 2D 2.0f", "IS\u000BNOT NULL", "IS  NOT NULL",
+        "nothing not", "nothing IS NULL", "\n\t\f\r\u000BIS NULLify \n", " ~ABC='abc'", "abc'", "'abc' = abc'",
+        "nothing IS NULL And JMSPriority > 12-4", "nothing IS NulL oR (JMSPriority >= 12/-4.3)", "not 2 < 3 (-1)",
+        "true and", "", "   ", "0x1F = 31", "12dx 1e5x 2.5and 12.x 2in 1.e 1.5e+ 3.f 7E-2", "a.b and.x notx like",
+        "x NOT  BETWEEN 1 AND 2", "x not between 1 and 2 and y", "s NOT LIKE 'a%' ESCAPE '!'", "s not in ('a','b', 'c')",
+        "'it''s' 'a'''", "'a''b", "'a'''b", "a = b OR c <> d AND NOT e <= f", "a-b-c*d/e", "- -x", "NOT NOT x",
+        "x IN ()", "x IN ('a',)", "x LIKE 'a' ESCAPE", "(x + z) IS NULL", "x BETWEEN 1", "x = 1 = 2", "(a", "a)",
+        "$x_1 >= _y.z", "x < > 3", "x <= 3 AND y >=4 OR z<>5", "JMSType = 'car' AND color = 'blue' AND weight > 2500",
+        "x IS NOT nulls", "x is not", "is null", "not", "x not",
+    };
+
+    private static final String[] TOKENS = {
+        "a", "b", "x.y", "1", "2.5", "1e3", "'s'", "'it''s'", "TRUE", "false", "NOT", "AND", "OR", "IS NULL",
+        "is not null", "IN", "NOT IN", "LIKE", "not like", "ESCAPE", "BETWEEN", "NOT BETWEEN", "=", "<>", "<", "<=",
+        ">", ">=", "+", "-", "*", "/", "(", ")", ",",
+    };
+
+    private static final String CHARACTERS = "aZ_$.09eEfFdDnNoOtT'+-<>=*/ \t(),~x";
+
+    @Test
+    public void lexerAgreesWithTokenStream() {
+        for (String selector : SELECTORS) {
+            assertSameTokens(selector);
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; ++i) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; ++j) {
+                sb.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+            }
+            assertSameTokens(sb.toString());
+        }
+    }
+
+    @Test
+    public void parserAgreesWithProductions() {
+        for (String selector : SELECTORS) {
+            assertSameParse(selector);
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; ++i) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(8);
+            for (int j = 0; j < length; ++j) {
+                sb.append(TOKENS[random.nextInt(TOKENS.length)]).append(' ');
+            }
+            assertSameParse(sb.toString());
+        }
+        for (int i = 0; i < 500; ++i) {
+            String selector = randomExpression(random, 4);
+            assertTrue(new SqlParser(selector).parseOk(), selector);
+            assertSameParse(selector);
+        }
+    }
+
+    @Test
+    public void errorsGivePositions() {
+        assertParseError("true and", "Expected an expression at position 8 but reached the end of the selector");
+        assertParseError("not 2 < 3 (-1)", "Expected end of selector at position 10 but found '('");
+        assertParseError(" ~ABC='abc'", "Unrecognised character '~' at position 1");
+        assertParseError("'abc' = abc'", "Unterminated string at position 11");
+        assertParseError("x BETWEEN 1 OR 2", "Expected AND at position 12 but found 'OR'");
+        assertParseError("x not  in ('a', 3)", "Expected a string at position 16 but found '3'");
+        assertParseError("x LIKE 'a%' ESCAPE", "Expected a string at position 18 but reached the end of the selector");
+        assertParseError("(a = 1 OR b", "Expected ')' at position 11 but reached the end of the selector");
+        assertParseError("", "Expected an expression at position 0 but reached the end of the selector");
+    }
+
+    private static void assertParseError(String selector, String message) {
+        SqlParser parser = new SqlParser(selector);
+        assertFalse(parser.parseOk(), selector);
+        assertEquals(null, parser.parse(), selector);
+        assertEquals(message, parser.getErrorMessage(), selector);
+    }
+
+    private static void assertSameTokens(String selector) {
+        SqlTokenStream stream = new SqlTokenStream(selector);
+        List<String> expected = new ArrayList<>();
+        while (stream.moreTokens()) {
+            expected.add(stream.getNext().toString());
+        }
+        SqlLexer lexer = new SqlLexer(selector);
+        List<String> actual = new ArrayList<>();
+        for (SqlToken token = lexer.next(); token != null; token = lexer.next()) {
+            actual.add(token.toString());
+        }
+        assertEquals(expected, actual, selector);
+        String residue = lexer.atEnd() ? "" : selector.substring(lexer.tokenStart());
+        assertEquals(stream.getResidue().toString(), residue, selector);
+    }
+
+    private static void assertSameParse(String selector) {
+        SqlParser expected = new SqlParser(new SqlTokenStream(selector));
+        SqlParser actual = new SqlParser(selector);
+        assertEquals(expected.parseOk(), actual.parseOk(), selector + ": " + actual.getErrorMessage());
+        if (expected.parseOk()) {
+            assertArrayEquals(expected.parse().formattedTree(), actual.parse().formattedTree(), selector);
+        } else {
+            assertTrue(actual.getErrorMessage().contains(" at position "), actual.getErrorMessage());
+        }
+    }
+
+    private static String randomExpression(Random random, int depth) {
+        int choice = depth == 0 ? 6 + random.nextInt(3) : random.nextInt(9);
+        switch (choice) {
+        case 0:
+            return randomExpression(random, depth - 1) + (random.nextBoolean() ? " AND " : " or ")
+                 + randomExpression(random, depth - 1);
+        case 1:
+            return "NOT (" + randomExpression(random, depth - 1) + ")";
+        case 2:
+            return randomArith(random, depth - 1) + " " + TOKENS[22 + random.nextInt(6)] + " "
+                 + randomArith(random, depth - 1);
+        case 3:
+            return randomArith(random, depth - 1) + (random.nextBoolean() ? " BETWEEN " : " not between ")
+                 + randomArith(random, depth - 1) + " AND " + randomArith(random, depth - 1);
+        case 4:
+            return "(" + randomExpression(random, depth - 1) + ")";
+        case 5:
+            return "s" + (random.nextBoolean() ? " LIKE 'a%'" : " NOT LIKE 'a!_%' ESCAPE '!'");
+        case 6:
+            return "s" + (random.nextBoolean() ? " IN ('a')" : " NOT IN ('a', 'b''c')");
+        case 7:
+            return "x" + (random.nextBoolean() ? " IS NULL" : " is not null");
+        default:
+            return random.nextBoolean() ? "TRUE" : "b";
+        }
+    }
+
+    private static String randomArith(Random random, int depth) {
+        int choice = depth <= 0 ? 3 + random.nextInt(2) : random.nextInt(5);
+        switch (choice) {
+        case 0:
+            return randomArith(random, depth - 1) + " " + TOKENS[28 + random.nextInt(4)] + " "
+                 + randomArith(random, depth - 1);
+        case 1:
+            return "-" + randomArith(random, depth - 1);
+        case 2:
+            return "(" + randomArith(random, depth - 1) + ")";
+        case 3:
+            return random.nextBoolean() ? "x" : "y.z";
+        default:
+            return random.nextBoolean() ? "12" : "2.5e-1";
+        }
+    }
+}
@@ -0,0 +1,97 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.jms.MessageFormatException;
+
+import org.junit.jupiter.api.Test;
+
+public class TestCompactCodec {
+
+    @Test
+    public void valuesRoundTrip() throws Exception {
+        List<Object> values = Arrays.asList(null, true, false, (byte) -7, (short) -300, 0, -1, Integer.MIN_VALUE,
+            Integer.MAX_VALUE, 0L, Long.MIN_VALUE, Long.MAX_VALUE, 1.5f, Double.NaN, 'x', "", "ascii",
+            "héllo 世界 🐇");
+        CompactEncoder out = new CompactEncoder(0);
+        for (Object value : values) {
+            out.writeValue(value);
+        }
+        out.writeValue(new byte[] {1, 2, 3});
+
+        CompactDecoder in = new CompactDecoder(out.toByteArray(), 0);
+        for (Object value : values) {
+            assertThat(in.readValue()).isEqualTo(value);
+        }
+        assertThat((byte[]) in.readValue()).containsExactly(1, 2, 3);
+        assertThat(in.isAtEnd()).isTrue();
+
+        in = new CompactDecoder(out.toByteArray(), 0);
+        for (int i = 0; i <= values.size(); i++) {
+            in.skipValue();
+        }
+        assertThat(in.isAtEnd()).isTrue();
+    }
+
+    @Test
+    public void smallIntegersAndAsciiStringsAreCompact() throws Exception {
+        CompactEncoder out = new CompactEncoder(0);
+        out.writeValue(-1);
+        out.writeValue(4L);
+        out.writeString("abc");
+        assertThat(out.toByteArray()).containsExactly(
+            CompactEncoder.TYPE_INT, 1, CompactEncoder.TYPE_LONG, 8, 3, 'a', 'b', 'c');
+    }
+
+    @Test
+    public void stringsAreComparedWithoutDecoding() throws Exception {
+        CompactEncoder out = new CompactEncoder(0);
+        out.writeString("region");
+        out.writeString("région");
+        out.writeString("regions");
+        CompactDecoder in = new CompactDecoder(out.toByteArray(), 0);
+        assertThat(in.stringEquals("region")).isTrue();
+        assertThat(in.stringEquals("région")).isTrue();
+        assertThat(in.stringEquals("region")).isFalse();
+        assertThat(in.isAtEnd()).isTrue();
+    }
+
+    @Test
+    public void lengthOfSectionIsWrittenBeforeIt() throws Exception {
+        byte[] large = new byte[200];
+        Arrays.fill(large, (byte) 9);
+        CompactEncoder out = new CompactEncoder(0);
+        int start = out.beginLength();
+        out.writeBytes(new byte[] {1, 2}, 0, 2);
+        out.endLength(start);
+        start = out.beginLength();
+        out.writeBytes(large, 0, large.length);
+        out.endLength(start);
+        out.writeByte(7);
+
+        CompactDecoder in = new CompactDecoder(out.toByteArray(), 0);
+        assertThat(in.readBytes(in.readLength())).containsExactly(1, 2);
+        assertThat(in.readBytes(in.readLength())).isEqualTo(large);
+        assertThat(in.readByte()).isEqualTo((byte) 7);
+        assertThat(in.isAtEnd()).isTrue();
+    }
+
+    @Test
+    public void truncatedDataIsRejected() throws Exception {
+        CompactEncoder out = new CompactEncoder(0);
+        out.writeValue("truncated");
+        byte[] encoded = out.toByteArray();
+        CompactDecoder in = new CompactDecoder(Arrays.copyOf(encoded, encoded.length - 1), 0);
+        assertThatThrownBy(in::readValue).isInstanceOf(MessageFormatException.class);
+        assertThatThrownBy(() -> new CompactEncoder(0).writeValue(new Object())).isInstanceOf(MessageFormatException.class);
+    }
+}
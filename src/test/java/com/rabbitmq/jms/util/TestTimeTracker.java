@@ -10,6 +10,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.junit.jupiter.api.Test;
 
@@ -40,6 +42,28 @@ public class TestTimeTracker {
         assertTimedOut(tt, "SHORT_WAIT");
     }
 
+    /**
+     * Test TimeTracker timed await on a condition.
+     */
+    @Test
+    public void testTimeTrackerTimedAwait() throws Exception {
+        ReentrantLock lock = new ReentrantLock();
+        Condition condition = lock.newCondition();
+        TimeTracker tt = new TimeTracker(SHORT_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        long startNanos = System.nanoTime();
+        lock.lock();
+        try {
+            while (!tt.timedOut()) {
+                tt.timedAwait(condition);
+            }
+            tt.timedAwait(condition); // returns at once once timed out
+        } finally {
+            lock.unlock();
+        }
+        long intervalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        assertTrue(intervalMillis >= SHORT_WAIT_MILLIS, "TimeTracker did not wait long enough ("+intervalMillis+" ms)!");
+    }
+
     private void assertNotTimedOut(TimeTracker tt, String description) {
         assertFalse(tt.timedOut(), "TimeTracker "+description+" timed out!");
         assertFalse(0L >= tt.remainingMillis(), "TimeTracker "+description+" run out!");
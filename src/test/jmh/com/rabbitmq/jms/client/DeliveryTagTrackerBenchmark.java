@@ -0,0 +1,131 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link DeliveryTagTracker} with the <code>TreeSet&lt;Long&gt;</code> sessions used to track unacknowledged
+ * delivery tags, with a given number of messages unacknowledged:
+ * <ul>
+ * <li><code>singleAcks</code>: a message is delivered and the oldest one is acknowledged, as in auto-acknowledge
+ * mode,</li>
+ * <li><code>cumulativeAck</code>: the window of messages is delivered, then acknowledged at once, as in
+ * client-acknowledge mode or on commit; the score is per window.</li>
+ * </ul>
+ * <p>
+ * Run with:
+ * <pre>
+ * ./mvnw -Pjmh test-compile dependency:build-classpath -Dmdep.outputFile=target/jmh-classpath.txt -Dmdep.includeScope=test
+ * java -cp target/classes:target/test-classes:$(cat target/jmh-classpath.txt) org.openjdk.jmh.Main DeliveryTagTrackerBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeliveryTagTrackerBenchmark {
+
+    @Param({"tracker", "treeset"})
+    String implementation;
+
+    @Param({"16", "1024"})
+    int unacknowledged;
+
+    Tags tags;
+    long nextTag;
+
+    @Setup
+    public void setUp() {
+        this.tags = "tracker".equals(this.implementation) ? new TrackerTags() : new TreeSetTags();
+        this.nextTag = 1;
+        for (int i = 0; i < this.unacknowledged; i++) {
+            this.tags.add(this.nextTag++);
+        }
+    }
+
+    @Benchmark
+    public boolean singleAcks() {
+        this.tags.add(this.nextTag);
+        return this.tags.remove(this.nextTag++ - this.unacknowledged);
+    }
+
+    @Benchmark
+    public int cumulativeAck() {
+        for (int i = 0; i < this.unacknowledged; i++) {
+            this.tags.add(this.nextTag++);
+        }
+        return this.tags.removeUpTo(this.nextTag - 1);
+    }
+
+    interface Tags {
+
+        void add(long tag);
+
+        boolean remove(long tag);
+
+        int removeUpTo(long tag);
+    }
+
+    static final class TrackerTags implements Tags {
+
+        private final DeliveryTagTracker tracker = new DeliveryTagTracker();
+
+        @Override
+        public void add(long tag) {
+            this.tracker.add(tag);
+        }
+
+        @Override
+        public boolean remove(long tag) {
+            return this.tracker.remove(tag);
+        }
+
+        @Override
+        public int removeUpTo(long tag) {
+            return this.tracker.removeUpTo(tag);
+        }
+    }
+
+    static final class TreeSetTags implements Tags {
+
+        private final TreeSet<Long> set = new TreeSet<>();
+
+        @Override
+        public void add(long tag) {
+            this.set.add(tag);
+        }
+
+        @Override
+        public boolean remove(long tag) {
+            return this.set.remove(tag);
+        }
+
+        @Override
+        public int removeUpTo(long tag) {
+            NavigableSet<Long> acknowledged = this.set.headSet(tag, true);
+            int removed = acknowledged.size();
+            acknowledged.clear();
+            return removed;
+        }
+    }
+}
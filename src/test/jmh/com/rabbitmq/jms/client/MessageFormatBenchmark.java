@@ -0,0 +1,99 @@
+// This Source Code Form is subject to the terms of the Mozilla Public
+// License, v. 2.0. If a copy of the MPL was not distributed with this
+// file, You can obtain one at https://mozilla.org/MPL/2.0/.
+//
+// Copyright (c) 2026 Broadcom. All Rights Reserved. The term "Broadcom" refers to Broadcom Inc. and/or its subsidiaries.
+package com.rabbitmq.jms.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.rabbitmq.jms.admin.RMQDestination;
+import com.rabbitmq.jms.client.message.RMQMapMessage;
+import com.rabbitmq.jms.client.message.RMQTextMessage;
+import com.rabbitmq.jms.util.WhiteListObjectInputStream;
+
+/**
+ * Compares the Java serialization (version 1) and compact (version 2) message formats: encoding, full decoding and
+ * encoded size, which is printed at setup.
+ * <p>
+ * Run with:
+ * <pre>
+ * ./mvnw -Pjmh test-compile dependency:build-classpath -Dmdep.outputFile=target/jmh-classpath.txt -Dmdep.includeScope=test
+ * java -cp target/classes:target/test-classes:$(cat target/jmh-classpath.txt) org.openjdk.jmh.Main MessageFormatBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageFormatBenchmark {
+
+    @Param({"1", "2"})
+    int format;
+
+    @Param({"text", "map"})
+    String type;
+
+    RMQMessage message;
+    byte[] encoded;
+    final EncodeBufferPool pool = new EncodeBufferPool();
+
+    @Setup
+    public void setUp() throws Exception {
+        if ("text".equals(this.type)) {
+            RMQTextMessage text = new RMQTextMessage();
+            text.setText("{\"orderId\":12345,\"customer\":\"ACME\",\"amount\":99.95,\"currency\":\"EUR\"}");
+            this.message = text;
+        } else {
+            RMQMapMessage map = new RMQMapMessage();
+            map.setLong("orderId", 12345L);
+            map.setString("customer", "ACME");
+            map.setDouble("amount", 99.95d);
+            map.setString("currency", "EUR");
+            this.message = map;
+        }
+        this.message.setJMSDestination(new RMQDestination("orders", true, false));
+        this.message.setJMSCorrelationID("c0ffee-0001");
+        this.message.setJMSDeliveryMode(jakarta.jms.DeliveryMode.PERSISTENT);
+        this.message.setJMSPriority(4);
+        this.message.setJMSTimestamp(System.currentTimeMillis());
+        this.message.setStringProperty("region", "emea");
+        this.message.setIntProperty("attempt", 1);
+        this.message.setBooleanProperty("priorityCustomer", true);
+        this.message.generateInternalID();
+        this.encoded = encode();
+        System.out.printf("%nformat %d, %s message: %d bytes%n", this.format, this.type, this.encoded.length);
+    }
+
+    private byte[] encode() throws Exception {
+        return this.format == 2 ? this.message.toCompactByteArray(this.pool) : this.message.toByteArray(this.pool);
+    }
+
+    @Benchmark
+    public byte[] encoding() throws Exception {
+        return encode();
+    }
+
+    @Benchmark
+    public void decoding(Blackhole blackhole) throws Exception {
+        RMQMessage received = RMQMessage.fromMessage(this.encoded, WhiteListObjectInputStream.DEFAULT_TRUSTED_PACKAGES);
+        blackhole.consume(received.getJMSDestination());
+        blackhole.consume(received.getPropertyNames());
+        blackhole.consume(received.getBody(Object.class));
+    }
+}